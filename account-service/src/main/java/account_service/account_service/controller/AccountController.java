@@ -14,6 +14,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/accounts")
@@ -48,6 +49,11 @@ public class AccountController {
         return ResponseEntity.ok(account);
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<AccountResponseDto>> getAccountsByIds(@RequestParam("ids") List<Long> ids) {
+        return ResponseEntity.ok(accountService.getAccountsByIds(ids));
+    }
+
     @PostMapping("/{id}/debit")
     public ResponseEntity<Void> debit(@PathVariable Long id,
                                       @RequestParam("amount") BigDecimal amount,
@@ -14,6 +14,9 @@ import java.time.Instant;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
+@Table(name = "applied_transactions",
+        uniqueConstraints = @UniqueConstraint(name = "uk_applied_tx_transaction_account",
+                columnNames = {"transaction_id", "account_id"}))
 public class AppliedTransactions {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
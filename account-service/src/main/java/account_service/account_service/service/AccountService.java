@@ -19,11 +19,15 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AccountService {
+    public static final int MAX_BATCH_SIZE = 500;
     private final AccountRepository accountRepository;
     private final AppliedTransactionRepository appliedTransactionRepository;
 
@@ -68,6 +72,19 @@ public class AccountService {
                 .orElseThrow(() -> new NotFoundException("Account not found"));
         return accountMapper.toDto(account);
     }
+    @Transactional(readOnly = true)
+    public List<AccountResponseDto> getAccountsByIds(Collection<Long> ids) {
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinct.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("At most " + MAX_BATCH_SIZE + " accounts can be requested at once.");
+        }
+        if (distinct.isEmpty()) {
+            return List.of();
+        }
+        return accountRepository.findAllById(distinct).stream()
+                .map(accountMapper::toDto)
+                .toList();
+    }
     @Transactional
     public void debit( Long accountId, BigDecimal amount,Long transactionId) {
         if (appliedTransactionRepository.existsByTransactionIdAndAccountId(transactionId, accountId)) {
@@ -81,6 +98,10 @@ public class AccountService {
             log.warn("Locking failed for account {} during debit", accountId);
             throw new ConflictException("Account is busy, retry later", e);
         }
+        // re-checked under the account lock: a concurrent call with the same id may have applied it
+        if (appliedTransactionRepository.existsByTransactionIdAndAccountId(transactionId, accountId)) {
+            return;
+        }
 
         account.debit(amount);
         accountRepository.save(account);
@@ -107,6 +128,10 @@ public class AccountService {
             log.warn("Locking failed for account {} during credit", accountId);
             throw new ConflictException("Account is busy, retry later", e);
         }
+        // re-checked under the account lock: a concurrent call with the same id may have applied it
+        if (appliedTransactionRepository.existsByTransactionIdAndAccountId(transactionId, accountId)) {
+            return;
+        }
 
         account.credit(amount);
         accountRepository.save(account);
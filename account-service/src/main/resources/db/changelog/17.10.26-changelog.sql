@@ -0,0 +1,11 @@
+--liquibase formatted sql
+
+--changeset hordiienko:20261017-applied-transactions-dedup dbms:mysql
+-- concurrent retries could each pass the exists check and apply an operation twice; keep the first row
+DELETE a FROM applied_transactions a
+    JOIN applied_transactions b
+        ON a.transaction_id = b.transaction_id AND a.account_id = b.account_id AND a.id > b.id;
+
+--changeset hordiienko:20261017-applied-transactions-unique
+ALTER TABLE applied_transactions
+    ADD CONSTRAINT uk_applied_tx_transaction_account UNIQUE (transaction_id, account_id);
@@ -30,6 +30,7 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -180,6 +181,42 @@ public class AccountServiceTest {
                 () -> accountService.getAccountById(ACCOUNT_ID),
                 "Expected NotFoundException for Account Not Found (as per service implementation)");
     }
+    //getAccountsByIds
+    @Test
+    @DisplayName("Succeed get accounts by IDs in one query")
+    void testGetAccountsByIds_Success() {
+        when(accountRepository.findAllById(List.of(ACCOUNT_ID, 11L)))
+                .thenReturn(List.of(activeAccount, closedAccount));
+
+        List<AccountResponseDto> result = accountService.getAccountsByIds(List.of(ACCOUNT_ID, 11L, ACCOUNT_ID));
+
+        assertEquals(2, result.size());
+        assertEquals(ACCOUNT_ID, result.get(0).getId());
+        verify(accountRepository, times(1)).findAllById(any());
+        verify(accountRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Missing accounts are omitted from the batch result")
+    void testGetAccountsByIds_MissingOmitted() {
+        when(accountRepository.findAllById(List.of(ACCOUNT_ID, 404L)))
+                .thenReturn(List.of(activeAccount));
+
+        List<AccountResponseDto> result = accountService.getAccountsByIds(List.of(ACCOUNT_ID, 404L));
+
+        assertEquals(1, result.size());
+    }
+
+    @Test
+    @DisplayName("Fail get accounts by IDs (batch too large)")
+    void testGetAccountsByIds_TooMany() {
+        List<Long> ids = LongStream.rangeClosed(1, AccountService.MAX_BATCH_SIZE + 1)
+                .boxed()
+                .toList();
+
+        assertThrows(BadRequestException.class, () -> accountService.getAccountsByIds(ids));
+        verifyNoInteractions(accountRepository);
+    }
     //debit
     @Test
     @DisplayName("Succeed debit transaction")
@@ -211,6 +248,20 @@ public class AccountServiceTest {
         verify(appliedTransactionRepository, never()).save(any());
     }
 
+    @Test
+    @DisplayName("Debit applied by a concurrent call while waiting for the lock is not applied again")
+    void testDebit_AppliedWhileWaitingForLock() {
+        when(appliedTransactionRepository.existsByTransactionIdAndAccountId(TX_ID, ACCOUNT_ID))
+                .thenReturn(false)
+                .thenReturn(true);
+        when(accountRepository.findByIdWithLock(ACCOUNT_ID)).thenReturn(Optional.of(activeAccount));
+
+        accountService.debit(ACCOUNT_ID, BigDecimal.valueOf(100), TX_ID);
+
+        verify(accountRepository, never()).save(any());
+        verify(appliedTransactionRepository, never()).save(any());
+    }
+
     @Test
     @DisplayName("Fail debit due to insufficient funds")
     void testDebit_InsufficientFunds() {
@@ -0,0 +1,261 @@
+package core.core.kafka;
+
+import core.core.dto.TransactionKafkaEvent;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary wire format of {@link TransactionKafkaEvent}.
+ *
+ * <p>Layout of version 1: the {@link #MAGIC} byte, the version byte, a varint bit set of the
+ * non-null fields, then those fields in declaration order. Ids are zigzag varlongs; amounts are
+ * a zigzag varint scale followed by the unscaled value as a zigzag varlong; {@code createdAt}
+ * is epoch microseconds; currency and transaction type are varint codes, {@code index + 1} into
+ * {@link #CURRENCIES} and {@link #TRANSACTION_TYPES}, or 0 followed by the name when it is not
+ * in the table; strings are a varint byte length and UTF-8.
+ *
+ * <p>The code tables may only grow at the end; anything else is a new version. A payload that
+ * does not start with {@link #MAGIC} is JSON: {@code '{'} and whitespace never collide with it.
+ */
+public final class TransactionKafkaEventCodec {
+    public static final byte MAGIC = (byte) 0xB7;
+    public static final byte VERSION = 1;
+
+    static final List<String> CURRENCIES = List.of("USD", "EUR", "UAH");
+    static final List<String> TRANSACTION_TYPES = List.of("TRANSFER", "DEPOSIT", "WITHDRAW");
+
+    private static final int TRANSACTION_ID = 0;
+    private static final int USER_ID = 1;
+    private static final int SOURCE_ACCOUNT_ID = 2;
+    private static final int TARGET_ACCOUNT_ID = 3;
+    private static final int AMOUNT = 4;
+    private static final int TARGET_AMOUNT = 5;
+    private static final int EXCHANGE_RATE = 6;
+    private static final int CURRENCY = 7;
+    private static final int TRANSACTION_TYPE = 8;
+    private static final int CATEGORY_NAME = 9;
+    private static final int CREATED_AT = 10;
+
+    private TransactionKafkaEventCodec() {
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    /**
+     * @throws IllegalArgumentException if an amount does not fit an unscaled long or
+     *                                  {@code createdAt} does not fit epoch microseconds
+     */
+    public static byte[] encode(TransactionKafkaEvent event) {
+        int present = 0;
+        present |= bit(TRANSACTION_ID, event.getTransactionId());
+        present |= bit(USER_ID, event.getUserId());
+        present |= bit(SOURCE_ACCOUNT_ID, event.getSourceAccountId());
+        present |= bit(TARGET_ACCOUNT_ID, event.getTargetAccountId());
+        present |= bit(AMOUNT, event.getAmount());
+        present |= bit(TARGET_AMOUNT, event.getTargetAmount());
+        present |= bit(EXCHANGE_RATE, event.getExchangeRate());
+        present |= bit(CURRENCY, event.getCurrency());
+        present |= bit(TRANSACTION_TYPE, event.getTransactionType());
+        present |= bit(CATEGORY_NAME, event.getCategoryName());
+        present |= bit(CREATED_AT, event.getCreatedAt());
+
+        Writer out = new Writer();
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        out.writeVarLong(present);
+        out.writeLong(event.getTransactionId());
+        out.writeLong(event.getUserId());
+        out.writeLong(event.getSourceAccountId());
+        out.writeLong(event.getTargetAccountId());
+        out.writeDecimal(event.getAmount());
+        out.writeDecimal(event.getTargetAmount());
+        out.writeDecimal(event.getExchangeRate());
+        out.writeSymbol(CURRENCIES, event.getCurrency());
+        out.writeSymbol(TRANSACTION_TYPES, event.getTransactionType());
+        out.writeString(event.getCategoryName());
+        out.writeInstant(event.getCreatedAt());
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code data} is not a version this codec reads
+     */
+    public static TransactionKafkaEvent decode(byte[] data) {
+        if (!isBinary(data)) {
+            throw new IllegalArgumentException("Not a binary transaction event");
+        }
+        if (data.length < 2 || data[1] != VERSION) {
+            throw new IllegalArgumentException("Unsupported transaction event version "
+                    + (data.length < 2 ? "none" : data[1]));
+        }
+        Reader in = new Reader(data, 2);
+        int present = (int) in.readVarLong();
+        TransactionKafkaEvent event = new TransactionKafkaEvent();
+        if (has(present, TRANSACTION_ID)) event.setTransactionId(in.readLong());
+        if (has(present, USER_ID)) event.setUserId(in.readLong());
+        if (has(present, SOURCE_ACCOUNT_ID)) event.setSourceAccountId(in.readLong());
+        if (has(present, TARGET_ACCOUNT_ID)) event.setTargetAccountId(in.readLong());
+        if (has(present, AMOUNT)) event.setAmount(in.readDecimal());
+        if (has(present, TARGET_AMOUNT)) event.setTargetAmount(in.readDecimal());
+        if (has(present, EXCHANGE_RATE)) event.setExchangeRate(in.readDecimal());
+        if (has(present, CURRENCY)) event.setCurrency(in.readSymbol(CURRENCIES));
+        if (has(present, TRANSACTION_TYPE)) event.setTransactionType(in.readSymbol(TRANSACTION_TYPES));
+        if (has(present, CATEGORY_NAME)) event.setCategoryName(in.readString());
+        if (has(present, CREATED_AT)) event.setCreatedAt(in.readInstant());
+        return event;
+    }
+
+    private static int bit(int field, Object value) {
+        return value == null ? 0 : 1 << field;
+    }
+
+    private static boolean has(int present, int field) {
+        return (present & (1 << field)) != 0;
+    }
+
+    private static final class Writer {
+        private byte[] buf = new byte[64];
+        private int pos;
+
+        void writeByte(int b) {
+            if (pos == buf.length) {
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            }
+            buf[pos++] = (byte) b;
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+
+        void writeLong(Long value) {
+            if (value != null) {
+                writeVarLong((value << 1) ^ (value >> 63));
+            }
+        }
+
+        void writeDecimal(BigDecimal value) {
+            if (value == null) {
+                return;
+            }
+            BigInteger unscaled = value.unscaledValue();
+            if (unscaled.bitLength() > 63) {
+                throw new IllegalArgumentException("Amount " + value + " does not fit an unscaled long");
+            }
+            writeLong((long) value.scale());
+            writeLong(unscaled.longValue());
+        }
+
+        void writeSymbol(List<String> table, String value) {
+            if (value == null) {
+                return;
+            }
+            int index = table.indexOf(value);
+            writeVarLong(index + 1L);
+            if (index < 0) {
+                writeString(value);
+            }
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            if (buf.length - pos < bytes.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + bytes.length));
+            }
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+        }
+
+        void writeInstant(Instant value) {
+            if (value == null) {
+                return;
+            }
+            try {
+                writeLong(Math.addExact(Math.multiplyExact(value.getEpochSecond(), 1_000_000L),
+                        value.getNano() / 1_000));
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Instant " + value + " does not fit epoch microseconds", e);
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buf;
+        private int pos;
+
+        Reader(byte[] buf, int pos) {
+            this.buf = buf;
+            this.pos = pos;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (pos == buf.length) {
+                    throw new IllegalArgumentException("Truncated transaction event");
+                }
+                byte b = buf[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in transaction event");
+        }
+
+        long readLong() {
+            long zigzag = readVarLong();
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        BigDecimal readDecimal() {
+            int scale = (int) readLong();
+            return BigDecimal.valueOf(readLong(), scale);
+        }
+
+        String readSymbol(List<String> table) {
+            long code = readVarLong();
+            if (code == 0) {
+                return readString();
+            }
+            if (code > table.size()) {
+                throw new IllegalArgumentException("Unknown symbol code " + code + " in transaction event");
+            }
+            return table.get((int) code - 1);
+        }
+
+        String readString() {
+            long length = readVarLong();
+            if (length < 0 || length > buf.length - pos) {
+                throw new IllegalArgumentException("Truncated transaction event");
+            }
+            String value = new String(buf, pos, (int) length, StandardCharsets.UTF_8);
+            pos += (int) length;
+            return value;
+        }
+
+        Instant readInstant() {
+            long micros = readLong();
+            return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package core.core.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import core.core.dto.TransactionKafkaEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.JacksonUtils;
+
+import java.io.IOException;
+
+/**
+ * Reads {@link TransactionKafkaEvent} written by {@link TransactionKafkaEventSerializer} in either
+ * format, and JSON from Spring's {@code JsonSerializer}, told apart by the first byte.
+ */
+public class TransactionKafkaEventDeserializer implements Deserializer<TransactionKafkaEvent> {
+    private final ObjectMapper objectMapper = JacksonUtils.enhancedObjectMapper();
+
+    @Override
+    public TransactionKafkaEvent deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            if (TransactionKafkaEventCodec.isBinary(data)) {
+                return TransactionKafkaEventCodec.decode(data);
+            }
+            return objectMapper.readValue(data, TransactionKafkaEvent.class);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new SerializationException("Cannot deserialize transaction event from " + topic, e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package core.core.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import core.core.dto.TransactionKafkaEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.JacksonUtils;
+
+import java.util.Map;
+
+/**
+ * Writes {@link TransactionKafkaEvent} in the {@link TransactionKafkaEventCodec} binary format.
+ * Events the format cannot hold (an amount beyond an unscaled long) are written as JSON, as is
+ * everything when {@value #FORMAT_CONFIG} is {@code json}, e.g. while consumers still run the
+ * plain {@code JsonDeserializer}.
+ */
+public class TransactionKafkaEventSerializer implements Serializer<TransactionKafkaEvent> {
+    public static final String FORMAT_CONFIG = "transaction.event.format";
+
+    private final ObjectMapper objectMapper = JacksonUtils.enhancedObjectMapper();
+    private boolean binary = true;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object format = configs.get(FORMAT_CONFIG);
+        binary = format == null || !"json".equalsIgnoreCase(format.toString());
+    }
+
+    @Override
+    public byte[] serialize(String topic, TransactionKafkaEvent event) {
+        if (event == null) {
+            return null;
+        }
+        if (binary) {
+            try {
+                return TransactionKafkaEventCodec.encode(event);
+            } catch (IllegalArgumentException e) {
+                // falls through to JSON, which every deserializer version reads
+            }
+        }
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            throw new SerializationException("Cannot serialize event of TX " + event.getTransactionId(), e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package core.core.kafka;
+
+import core.core.dto.TransactionKafkaEvent;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bytes per event (value plus headers), encode and decode ns/op and bytes allocated per op:
+ * Spring's JSON serializers against the binary codec. Run with
+ * {@code ./gradlew :core:benchmark}.
+ */
+@Tag("benchmark")
+class TransactionKafkaEventCodecBenchmarkTest {
+
+    private static final String TOPIC = "transaction.completed";
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+
+    private static volatile Object sink;
+
+    @Test
+    void jsonVersusBinary() {
+        TransactionKafkaEvent event = TransactionKafkaEvent.builder()
+                .transactionId(98_765_432L)
+                .userId(1_234_567L)
+                .sourceAccountId(2_345_678L)
+                .targetAccountId(3_456_789L)
+                .amount(new BigDecimal("1250.0000"))
+                .targetAmount(new BigDecimal("1156.2500"))
+                .exchangeRate(new BigDecimal("0.925"))
+                .currency("USD")
+                .transactionType("TRANSFER")
+                .categoryName("FOOD")
+                .createdAt(Instant.parse("2026-10-17T10:15:30.123456Z"))
+                .build();
+
+        JsonSerializer<TransactionKafkaEvent> jsonSerializer = new JsonSerializer<>();
+        JsonDeserializer<TransactionKafkaEvent> jsonDeserializer = new JsonDeserializer<>(TransactionKafkaEvent.class);
+        jsonDeserializer.addTrustedPackages("*");
+        TransactionKafkaEventSerializer binarySerializer = new TransactionKafkaEventSerializer();
+        TransactionKafkaEventDeserializer binaryDeserializer = new TransactionKafkaEventDeserializer();
+
+        RecordHeaders headers = new RecordHeaders();
+        byte[] json = jsonSerializer.serialize(TOPIC, headers, event);
+        byte[] binary = binarySerializer.serialize(TOPIC, event);
+        int headerBytes = 0;
+        for (Header header : headers) {
+            headerBytes += header.key().length() + header.value().length;
+        }
+        assertThat(binaryDeserializer.deserialize(TOPIC, binary)).isEqualTo(event);
+
+        Result jsonEncode = measure(() -> jsonSerializer.serialize(TOPIC, new RecordHeaders(), event));
+        Result binaryEncode = measure(() -> binarySerializer.serialize(TOPIC, event));
+        Result jsonDecode = measure(() -> jsonDeserializer.deserialize(TOPIC, headers, json));
+        Result binaryDecode = measure(() -> binaryDeserializer.deserialize(TOPIC, binary));
+
+        System.out.printf("json  : %d bytes value + %d bytes headers | encode %.0f ns/op %,d B/op | decode %.0f ns/op %,d B/op%n",
+                json.length, headerBytes, jsonEncode.nanosPerOp, jsonEncode.bytesPerOp,
+                jsonDecode.nanosPerOp, jsonDecode.bytesPerOp);
+        System.out.printf("binary: %d bytes value + 0 bytes headers | encode %.0f ns/op %,d B/op | decode %.0f ns/op %,d B/op%n",
+                binary.length, binaryEncode.nanosPerOp, binaryEncode.bytesPerOp,
+                binaryDecode.nanosPerOp, binaryDecode.bytesPerOp);
+    }
+
+    private Result measure(Supplier<Object> op) {
+        for (int i = 0; i < WARMUP; i++) {
+            sink = op.get();
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink = op.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Result((double) elapsed / ITERATIONS, allocated / ITERATIONS);
+    }
+
+    private record Result(double nanosPerOp, long bytesPerOp) {
+    }
+}
@@ -0,0 +1,144 @@
+package core.core.kafka;
+
+import core.core.dto.TransactionKafkaEvent;
+import core.core.enums.Currency;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionKafkaEventCodecTest {
+
+    private TransactionKafkaEvent event() {
+        return TransactionKafkaEvent.builder()
+                .transactionId(123_456L)
+                .userId(42L)
+                .sourceAccountId(7L)
+                .targetAccountId(8L)
+                .amount(new BigDecimal("100.0000"))
+                .targetAmount(new BigDecimal("92.5000"))
+                .exchangeRate(new BigDecimal("0.925"))
+                .currency("USD")
+                .transactionType("TRANSFER")
+                .categoryName("FOOD & Drinks ☕")
+                .createdAt(Instant.parse("2026-10-17T10:15:30.123456Z"))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Round trip keeps every field, amounts keep their scale")
+    void roundTrip_allFields() {
+        TransactionKafkaEvent event = event();
+
+        byte[] bytes = TransactionKafkaEventCodec.encode(event);
+
+        assertTrue(TransactionKafkaEventCodec.isBinary(bytes));
+        assertEquals(event, TransactionKafkaEventCodec.decode(bytes));
+    }
+
+    @Test
+    @DisplayName("Null fields are left out and stay null")
+    void roundTrip_nullFields() {
+        TransactionKafkaEvent event = TransactionKafkaEvent.builder()
+                .transactionId(1L)
+                .targetAccountId(2L)
+                .amount(BigDecimal.TEN)
+                .transactionType("DEPOSIT")
+                .build();
+
+        assertEquals(event, TransactionKafkaEventCodec.decode(TransactionKafkaEventCodec.encode(event)));
+    }
+
+    @Test
+    @DisplayName("Names outside the code tables are written inline")
+    void roundTrip_unknownSymbols() {
+        TransactionKafkaEvent event = event();
+        event.setCurrency("GBP");
+        event.setTransactionType("REFUND");
+
+        assertEquals(event, TransactionKafkaEventCodec.decode(TransactionKafkaEventCodec.encode(event)));
+    }
+
+    @Test
+    @DisplayName("Timestamps are kept to the microsecond, before the epoch too")
+    void roundTrip_micros() {
+        TransactionKafkaEvent event = event();
+        event.setCreatedAt(Instant.parse("1969-12-31T23:59:59.999999999Z"));
+
+        TransactionKafkaEvent decoded = TransactionKafkaEventCodec.decode(TransactionKafkaEventCodec.encode(event));
+
+        assertEquals(Instant.parse("1969-12-31T23:59:59.999999Z"), decoded.getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("Binary event is several times smaller than its JSON")
+    void encode_smallerThanJson() {
+        TransactionKafkaEventSerializer jsonSerializer = new TransactionKafkaEventSerializer();
+        jsonSerializer.configure(Map.of(TransactionKafkaEventSerializer.FORMAT_CONFIG, "json"), false);
+
+        byte[] json = jsonSerializer.serialize("t", event());
+
+        assertTrue(TransactionKafkaEventCodec.encode(event()).length * 3 < json.length);
+    }
+
+    @Test
+    @DisplayName("Amount beyond an unscaled long is rejected by the codec, serialized as JSON")
+    void serialize_hugeAmount_fallsBackToJson() {
+        TransactionKafkaEvent event = event();
+        event.setAmount(new BigDecimal("123456789012345678901234567890.12"));
+        TransactionKafkaEventSerializer serializer = new TransactionKafkaEventSerializer();
+
+        assertThrows(IllegalArgumentException.class, () -> TransactionKafkaEventCodec.encode(event));
+        byte[] bytes = serializer.serialize("t", event);
+
+        assertEquals('{', bytes[0]);
+        assertEquals(event, new TransactionKafkaEventDeserializer().deserialize("t", bytes));
+    }
+
+    @Test
+    @DisplayName("Deserializer reads binary and the JSON written by Spring's JsonSerializer")
+    void deserialize_bothFormats() {
+        TransactionKafkaEventDeserializer deserializer = new TransactionKafkaEventDeserializer();
+        String legacyJson = """
+                {"transactionId":5,"userId":6,"amount":12.50,"currency":"EUR",
+                "transactionType":"WITHDRAW","createdAt":1760696130.123456000}
+                """;
+
+        TransactionKafkaEvent fromJson = deserializer.deserialize("t", legacyJson.getBytes(StandardCharsets.UTF_8));
+        TransactionKafkaEvent fromBinary = deserializer.deserialize("t",
+                new TransactionKafkaEventSerializer().serialize("t", event()));
+
+        assertEquals(5L, fromJson.getTransactionId());
+        assertEquals(new BigDecimal("12.50"), fromJson.getAmount());
+        assertEquals(Instant.parse("2025-10-17T10:15:30.123456Z"), fromJson.getCreatedAt());
+        assertEquals(event(), fromBinary);
+    }
+
+    @Test
+    @DisplayName("Unknown version and truncated payloads fail as SerializationException")
+    void deserialize_corrupt() {
+        TransactionKafkaEventDeserializer deserializer = new TransactionKafkaEventDeserializer();
+        byte[] bytes = TransactionKafkaEventCodec.encode(event());
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 3);
+        byte[] future = bytes.clone();
+        future[1] = 2;
+
+        assertThrows(SerializationException.class, () -> deserializer.deserialize("t", truncated));
+        assertThrows(SerializationException.class, () -> deserializer.deserialize("t", future));
+    }
+
+    @Test
+    @DisplayName("Every currency has a code, so none is sent by name")
+    void currencies_coverEnum() {
+        for (Currency currency : Currency.values()) {
+            assertTrue(TransactionKafkaEventCodec.CURRENCIES.contains(currency.name()), currency::name);
+        }
+    }
+}
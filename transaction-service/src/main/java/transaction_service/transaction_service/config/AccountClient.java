@@ -8,6 +8,8 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 
 @FeignClient(name = "account-service")
 public interface AccountClient {
@@ -15,6 +17,9 @@ public interface AccountClient {
     @GetMapping("/api/v1/accounts/{id}")
     AccountResponseDto getAccountById(@PathVariable("id") Long id);
 
+    @GetMapping("/api/v1/accounts")
+    List<AccountResponseDto> getAccountsByIds(@RequestParam("ids") Collection<Long> ids);
+
     @PostMapping("/api/v1/accounts/{id}/debit")
     void debit(@PathVariable("id") Long id,
                @RequestParam("amount") BigDecimal amount,
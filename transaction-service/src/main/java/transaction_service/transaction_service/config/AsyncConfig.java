@@ -1,24 +1,140 @@
 package transaction_service.transaction_service.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
 
+/**
+ * Executors for blocking Feign/JDBC fan-out. With {@code spring.threads.virtual.enabled=true}
+ * (Java 21) every task gets its own virtual thread instead of a slot in a bounded pool; thread
+ * names keep their prefixes. Periodic tasks are {@code @Scheduled} on the one
+ * {@code taskScheduler}.
+ */
 @Configuration
+@EnableScheduling
 public class AsyncConfig {
+    public static final String VALIDATION_THREAD_PREFIX = "tx-validation-";
+    public static final String SCHEDULER_THREAD_PREFIX = "tx-scheduler-";
+    public static final String RETRY_WORKER_THREAD_PREFIX = "tx-retry-worker-";
+    public static final String WORKER_THREAD_PREFIX = "tx-worker-";
+    public static final String RECOVERY_WORKER_THREAD_PREFIX = "tx-recovery-worker-";
+    public static final String BULK_JOB_WORKER_THREAD_PREFIX = "bulk-job-worker-";
 
     @Bean("transactionValidationExecutor")
-    public Executor transactionValidationExecutor() {
+    public Executor transactionValidationExecutor(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(VALIDATION_THREAD_PREFIX);
+            executor.setVirtualThreads(true);
+            return executor;
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(5);
         executor.setMaxPoolSize(10);
         executor.setQueueCapacity(50);
-        executor.setThreadNamePrefix("tx-validation-");
+        executor.setThreadNamePrefix(VALIDATION_THREAD_PREFIX);
         executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    /**
+     * The one scheduler behind every {@code @Scheduled} task and the saga retry delays. A task
+     * holds a thread only while it runs and fixed-delay tasks never overlap themselves, so a few
+     * threads serve them all; replays and bulk chunks run on their own executors.
+     */
+    @Bean("taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${transaction.scheduling.pool-size:4}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix(SCHEDULER_THREAD_PREFIX);
+        scheduler.setRemoveOnCancelPolicy(true);
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(5);
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    /**
+     * Runs saga retries once their delay is over; their steps block on account-service calls.
+     */
+    @Bean("transactionRetryExecutor")
+    public Executor transactionRetryExecutor(
+            Environment environment,
+            @Value("${transaction.retry.workers:8}") int workers) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(RETRY_WORKER_THREAD_PREFIX);
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setThreadNamePrefix(RETRY_WORKER_THREAD_PREFIX);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(5);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs sagas of transfers submitted through the async API. Sized independently of the
+     * request threads; a full queue rejects the submission instead of running it on the caller.
+     */
+    @Bean("transferWorkExecutor")
+    public ThreadPoolTaskExecutor transferWorkExecutor(
+            @Value("${transaction.async.workers:8}") int workers,
+            @Value("${transaction.async.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(WORKER_THREAD_PREFIX);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Replays one claimed recovery batch; {@code concurrency} caps the sagas a recovery run has
+     * in flight against account-service. The queue only ever holds the rest of one batch.
+     */
+    @Bean("recoveryWorkExecutor")
+    public ThreadPoolTaskExecutor recoveryWorkExecutor(
+            @Value("${transaction.recovery.concurrency:8}") int concurrency) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setThreadNamePrefix(RECOVERY_WORKER_THREAD_PREFIX);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Settles claimed bulk job chunks, {@code concurrency} at a time. Each chunk fans its items
+     * out on {@code transactionValidationExecutor}, under the bulk in-flight cap.
+     */
+    @Bean("bulkJobWorkExecutor")
+    public ThreadPoolTaskExecutor bulkJobWorkExecutor(
+            @Value("${transaction.bulk-job.concurrency:2}") int concurrency) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setThreadNamePrefix(BULK_JOB_WORKER_THREAD_PREFIX);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -4,6 +4,10 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,6 +15,8 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -18,12 +24,33 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Consumer;
 
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(LocalCacheProperties.class)
 public class CacheConfig {
+    static final String INVALIDATION_CHANNEL = "transaction:cache-invalidation";
+
+    /**
+     * Redis caches behind a per-instance L1. L1 invalidations are broadcast on
+     * {@link #INVALIDATION_CHANNEL} unless {@code transaction.cache.broadcast.enabled} is off.
+     */
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory redisConnectionFactory,
+                                             LocalCacheProperties localCacheProperties,
+                                             MeterRegistry meterRegistry,
+                                             StringRedisTemplate stringRedisTemplate,
+                                             @Value("${transaction.cache.broadcast.enabled:true}") boolean broadcast) {
+        RedisCacheManager redisCacheManager = redisCacheManager(redisConnectionFactory);
+        redisCacheManager.afterPropertiesSet();
+        Consumer<String> publisher = broadcast
+                ? message -> stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, message)
+                : message -> { };
+        return new TwoLevelCacheManager(redisCacheManager, localCacheProperties, meterRegistry, publisher);
+    }
+
+    private RedisCacheManager redisCacheManager(RedisConnectionFactory redisConnectionFactory) {
 
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
@@ -44,7 +71,6 @@ public class CacheConfig {
 
         Map<String, RedisCacheConfiguration> cacheConfigs = new HashMap<>();
 
-        cacheConfigs.put("exchangeRates", baseConfig.entryTtl(Duration.ofMinutes(30)));
         cacheConfigs.put("totalSpent", baseConfig.entryTtl(Duration.ofMinutes(10)));
         cacheConfigs.put("topCategories", baseConfig.entryTtl(Duration.ofMinutes(10)));
         cacheConfigs.put("timeline", baseConfig.entryTtl(Duration.ofMinutes(10)));
@@ -65,4 +91,16 @@ public class CacheConfig {
         template.afterPropertiesSet();
         return template;
     }
+
+    /**
+     * Pub/sub listener container for cache invalidations between instances. Off in the test
+     * profile, which runs without Redis.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "transaction.cache.broadcast.enabled", matchIfMissing = true)
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
 }
\ No newline at end of file
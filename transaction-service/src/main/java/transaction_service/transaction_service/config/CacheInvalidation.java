@@ -0,0 +1,38 @@
+package transaction_service.transaction_service.config;
+
+/**
+ * An L1 invalidation sent between instances. {@code key} is empty for CLEAR.
+ */
+public record CacheInvalidation(Type type, String cacheName, String key) {
+    private static final char SEPARATOR = '\t';
+
+    public enum Type { EVICT, CLEAR }
+
+    static CacheInvalidation evict(String cacheName, String key) {
+        return new CacheInvalidation(Type.EVICT, cacheName, key);
+    }
+
+    static CacheInvalidation clear(String cacheName) {
+        return new CacheInvalidation(Type.CLEAR, cacheName, "");
+    }
+
+    /**
+     * {@code origin TAB type TAB cache TAB key}; the key goes last so it may contain tabs.
+     */
+    String encode(String origin) {
+        return origin + SEPARATOR + type + SEPARATOR + cacheName + SEPARATOR + key;
+    }
+
+    static String originOf(String message) {
+        int end = message.indexOf(SEPARATOR);
+        return end < 0 ? message : message.substring(0, end);
+    }
+
+    static CacheInvalidation decode(String message) {
+        String[] parts = message.split(String.valueOf(SEPARATOR), 4);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Malformed cache invalidation: " + message);
+        }
+        return new CacheInvalidation(Type.valueOf(parts[1]), parts[2], parts[3]);
+    }
+}
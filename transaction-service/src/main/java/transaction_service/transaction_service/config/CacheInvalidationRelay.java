@@ -0,0 +1,30 @@
+package transaction_service.transaction_service.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Feeds L1 invalidations published by other instances into {@link TwoLevelCacheManager}.
+ */
+@Component
+@ConditionalOnProperty(name = "transaction.cache.broadcast.enabled", matchIfMissing = true)
+public class CacheInvalidationRelay implements MessageListener {
+    private final TwoLevelCacheManager cacheManager;
+
+    public CacheInvalidationRelay(TwoLevelCacheManager cacheManager,
+                                  RedisMessageListenerContainer cacheInvalidationListenerContainer) {
+        this.cacheManager = cacheManager;
+        cacheInvalidationListenerContainer.addMessageListener(this, new ChannelTopic(CacheConfig.INVALIDATION_CHANNEL));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        cacheManager.onMessage(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+}
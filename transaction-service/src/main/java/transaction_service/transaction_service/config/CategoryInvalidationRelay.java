@@ -0,0 +1,58 @@
+package transaction_service.transaction_service.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import transaction_service.transaction_service.event.CategoryChangedEvent;
+import transaction_service.transaction_service.service.CategoryCache;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Broadcasts category changes over Redis pub/sub so every instance drops its cached copy.
+ * Delivery is best effort; the cache TTL bounds staleness when a message is lost.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "transaction.cache.broadcast.enabled", matchIfMissing = true)
+public class CategoryInvalidationRelay implements MessageListener {
+    static final String CHANNEL = "transaction:category-invalidation";
+    static final String GLOBAL = "global";
+
+    private final StringRedisTemplate redisTemplate;
+    private final CategoryCache categoryCache;
+
+    public CategoryInvalidationRelay(StringRedisTemplate redisTemplate,
+                                     CategoryCache categoryCache,
+                                     RedisMessageListenerContainer cacheInvalidationListenerContainer) {
+        this.redisTemplate = redisTemplate;
+        this.categoryCache = categoryCache;
+        cacheInvalidationListenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    @EventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        String payload = event.getUserId() == null ? GLOBAL : event.getUserId().toString();
+        try {
+            redisTemplate.convertAndSend(CHANNEL, payload);
+        } catch (RuntimeException e) {
+            log.warn("Failed to broadcast category invalidation for {}: {}", payload, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            categoryCache.invalidate(GLOBAL.equals(payload) ? null : Long.valueOf(payload));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed category invalidation '{}'", payload);
+        }
+    }
+}
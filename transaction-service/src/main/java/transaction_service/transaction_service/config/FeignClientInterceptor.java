@@ -6,6 +6,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+/**
+ * Adds the caller's Authorization header to Feign requests. Request threads read it from the
+ * current request; worker tasks (pooled or virtual) have no request bound, so whoever submits
+ * them captures {@link #currentToken()} and the task calls {@link #setToken} / {@link #clearToken}
+ * around its body. Thread locals are never inherited by the worker thread.
+ */
 @Slf4j
 @Component
 public class FeignClientInterceptor implements RequestInterceptor {
@@ -18,8 +24,7 @@ public class FeignClientInterceptor implements RequestInterceptor {
     public static void clearToken() {
         TOKEN_HOLDER.remove();
     }
-    @Override
-    public void apply(RequestTemplate template) {
+    public static String currentToken() {
         String token = TOKEN_HOLDER.get();
 
         if (token == null) {
@@ -29,6 +34,11 @@ public class FeignClientInterceptor implements RequestInterceptor {
                 token = attributes.getRequest().getHeader("Authorization");
             }
         }
+        return token;
+    }
+    @Override
+    public void apply(RequestTemplate template) {
+        String token = currentToken();
         if (token != null) {
             template.header("Authorization", token);
         } else {
@@ -0,0 +1,35 @@
+package transaction_service.transaction_service.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import transaction_service.transaction_service.repository.TransactionRepository;
+import transaction_service.transaction_service.service.IdempotencyService;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class IdempotencyKeyInitializer implements CommandLineRunner {
+    private final TransactionRepository transactionRepository;
+    private final IdempotencyService idempotencyService;
+
+    @Value("${transaction.idempotency.warm-up-window:PT24H}")
+    private Duration warmUpWindow;
+
+    @Override
+    public void run(String... args) {
+        Instant since = Instant.now().minus(warmUpWindow);
+        List<String> keys = transactionRepository.findIdempotencyKeysSince(since);
+
+        keys.forEach(idempotencyService::register);
+        log.info("Idempotency key filter loaded with {} keys since {}", keys.size(), since);
+    }
+}
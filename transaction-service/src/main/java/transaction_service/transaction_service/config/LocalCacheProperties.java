@@ -0,0 +1,30 @@
+package transaction_service.transaction_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sizes and TTLs of the in-process L1 caches, per cache name. Caches without an entry use
+ * {@link #defaults}. L1 TTLs are kept shorter than the Redis ones: invalidations between
+ * instances are best effort, the TTL bounds how long a missed one is visible.
+ */
+@Data
+@ConfigurationProperties(prefix = "transaction.cache.local")
+public class LocalCacheProperties {
+    private Spec defaults = new Spec();
+    private Map<String, Spec> caches = new HashMap<>();
+
+    public Spec specFor(String cacheName) {
+        return caches.getOrDefault(cacheName, defaults);
+    }
+
+    @Data
+    public static class Spec {
+        private Duration ttl = Duration.ofMinutes(1);
+        private long maxSize = 1_000;
+    }
+}
@@ -1,5 +1,6 @@
 package transaction_service.transaction_service.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,6 +19,8 @@ public class SecurityConfig {
         http.csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // async results are dispatched after the request was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/api/v1/auth/**",
                                 "/swagger-ui/**",
@@ -26,11 +29,13 @@ public class SecurityConfig {
                         .requestMatchers("/api/v1/test/test-principal").authenticated()
                         .requestMatchers("/api/v1/test/admin-stats").hasRole("ADMIN")
                         .requestMatchers("/api/v1/transactions/**").authenticated()
+                        .requestMatchers("/api/v1/bulk-jobs/**").authenticated()
                         .requestMatchers("/api/v1/analytics/**").authenticated()
                         .requestMatchers("/api/v1/categories/**").authenticated()
                         .requestMatchers("/api/v1/accounts/**").authenticated()
                         .requestMatchers("/api/v1/limits/**").authenticated()
                         .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/metrics/**").hasRole("ADMIN")
                         .anyRequest().denyAll());
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
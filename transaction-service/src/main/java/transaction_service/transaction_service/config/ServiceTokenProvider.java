@@ -0,0 +1,31 @@
+package transaction_service.transaction_service.config;
+
+import core.core.security.JwtService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Authorization headers for background work that runs without a caller, e.g. bulk job chunks
+ * settled after a restart. Each token is minted on demand with the service's own signing key,
+ * names this service as its subject and carries the user the work belongs to; it lives as
+ * long as a user token and is never stored.
+ */
+@Component
+@RequiredArgsConstructor
+public class ServiceTokenProvider {
+    static final String SERVICE_NAME = "transaction-service";
+    static final String SERVICE_ROLE = "ROLE_SERVICE";
+
+    private static final UserDetails SERVICE = User.withUsername(SERVICE_NAME)
+            .password("")
+            .authorities(SERVICE_ROLE)
+            .build();
+
+    private final JwtService jwtService;
+
+    public String tokenFor(Long userId) {
+        return "Bearer " + jwtService.generateToken(SERVICE, userId);
+    }
+}
@@ -0,0 +1,98 @@
+package transaction_service.transaction_service.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * Wraps the Redis cache manager so every cache it hands out gets a Caffeine L1 sized by
+ * {@link LocalCacheProperties}. Invalidations are published through {@code publisher} tagged
+ * with this instance's id; {@link #onMessage(String)} applies the ones from other instances.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager {
+    private final CacheManager remote;
+    private final LocalCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Consumer<String> publisher;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remote, LocalCacheProperties properties,
+                                MeterRegistry meterRegistry, Consumer<String> publisher) {
+        this.remote = remote;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.publisher = publisher;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remoteCache = remote.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, cacheName -> create(cacheName, remoteCache));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    /**
+     * Applies an invalidation published by another instance; our own are skipped.
+     */
+    public void onMessage(String message) {
+        if (instanceId.equals(CacheInvalidation.originOf(message))) {
+            return;
+        }
+        CacheInvalidation invalidation;
+        try {
+            invalidation = CacheInvalidation.decode(message);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring cache invalidation: {}", e.getMessage());
+            return;
+        }
+        TwoLevelCache cache = caches.get(invalidation.cacheName());
+        if (cache != null) {
+            cache.dropLocal(invalidation);
+        }
+    }
+
+    private TwoLevelCache create(String name, Cache remoteCache) {
+        LocalCacheProperties.Spec spec = properties.specFor(name);
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+                .maximumSize(spec.getMaxSize())
+                .expireAfterWrite(spec.getTtl())
+                .build();
+        TwoLevelCache cache = new TwoLevelCache(name, local, remoteCache, this::publish, meterRegistry);
+        Gauge.builder("transaction.cache.l1.size", cache, TwoLevelCache::localSize)
+                .description("Entries held in the in-process cache")
+                .tag("cache", name)
+                .register(meterRegistry);
+        log.info("Cache '{}' gets an L1 of {} entries, TTL {}", name, spec.getMaxSize(), spec.getTtl());
+        return cache;
+    }
+
+    private void publish(CacheInvalidation invalidation) {
+        try {
+            publisher.accept(invalidation.encode(instanceId));
+        } catch (RuntimeException e) {
+            log.warn("Failed to broadcast invalidation of cache '{}': {}", invalidation.cacheName(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package transaction_service.transaction_service.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import transaction_service.transaction_service.repository.TransactionRepository;
+import transaction_service.transaction_service.service.validate.VelocityTracker;
+
+import java.time.Instant;
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class VelocityTrackerInitializer implements CommandLineRunner {
+    private final TransactionRepository transactionRepository;
+    private final VelocityTracker velocityTracker;
+
+    @Override
+    public void run(String... args) {
+        Instant since = Instant.now().minus(VelocityTracker.RETENTION);
+        List<Object[]> recent = transactionRepository.findRecentActivity(since);
+
+        for (Object[] row : recent) {
+            velocityTracker.restore((Long) row[0], (Instant) row[1]);
+        }
+        log.info("Velocity tracker rebuilt from {} transactions since {}", recent.size(), since);
+    }
+}
@@ -11,8 +11,10 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import transaction_service.transaction_service.dto.AiSummaryResponse;
 import transaction_service.transaction_service.dto.CategoryStatDto;
+import transaction_service.transaction_service.dto.TimelineResponse;
 import transaction_service.transaction_service.dto.TopCategoryResponse;
 import transaction_service.transaction_service.dto.TotalSpentResponse;
+import transaction_service.transaction_service.model.TimelineGranularity;
 import transaction_service.transaction_service.service.AiAnalyticsService;
 import transaction_service.transaction_service.service.AnalyticsService;
 
@@ -20,6 +22,11 @@ import java.time.Instant;
 
 import java.util.List;
 
+/**
+ * Spend analytics over a date range. Spend is kept per UTC day, so {@code from}/{@code to}
+ * (and {@code fromDate}/{@code toDate}) only select days: each bound includes the whole UTC day
+ * it falls on, whatever its time of day. Without bounds the range is the last 30 days.
+ */
 @RestController
 @RequestMapping("/api/v1/analytics")
 @RequiredArgsConstructor
@@ -43,6 +50,14 @@ public class AnalyticsController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
         return ResponseEntity.ok(analyticsService.getTopCategories(user.userId(), from, to, limit));
     }
+    @GetMapping("/timeline")
+    public ResponseEntity<List<TimelineResponse>> getTimeline(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(required = false, defaultValue = "DAY") TimelineGranularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        return ResponseEntity.ok(analyticsService.getTimeline(user.userId(), granularity, from, to));
+    }
     @GetMapping
     public ResponseEntity<List<CategoryStatDto>> getStats(
             @AuthenticationPrincipal AuthenticatedUser user,
@@ -0,0 +1,43 @@
+package transaction_service.transaction_service.controller;
+
+import core.core.dto.AuthenticatedUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import transaction_service.transaction_service.dto.bulk.BulkJobStatusDto;
+import transaction_service.transaction_service.service.bulk.BulkJobFormat;
+import transaction_service.transaction_service.service.bulk.BulkJobService;
+
+import java.io.InputStream;
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/v1/bulk-jobs")
+@RequiredArgsConstructor
+public class BulkJobController {
+    private final BulkJobService bulkJobService;
+
+    /**
+     * Accepts a CSV or NDJSON file of transfers as the raw request body, read as it streams in.
+     */
+    @PostMapping(consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<BulkJobStatusDto> submit(InputStream body,
+                                                   @RequestParam("sourceAccountId") Long sourceAccountId,
+                                                   @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                   @AuthenticationPrincipal AuthenticatedUser user,
+                                                   @RequestHeader("Idempotency-Key") String idempotencyKey) {
+        BulkJobStatusDto accepted = bulkJobService.submit(
+                body, BulkJobFormat.of(contentType), sourceAccountId, user.userId(), idempotencyKey);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/bulk-jobs/" + accepted.getId()))
+                .body(accepted);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<BulkJobStatusDto> getStatus(@PathVariable("id") Long id,
+                                                      @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(bulkJobService.getStatus(id, user.userId()));
+    }
+}
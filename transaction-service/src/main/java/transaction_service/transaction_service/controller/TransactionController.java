@@ -13,18 +13,24 @@ import org.springframework.web.bind.annotation.RestController;
 import transaction_service.transaction_service.dto.DepositRequestDto;
 import transaction_service.transaction_service.dto.TransactionRequestDto;
 import transaction_service.transaction_service.dto.TransactionResponseDto;
+import transaction_service.transaction_service.dto.TransactionStatusDto;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import transaction_service.transaction_service.dto.WithdrawRequestDto;
 import transaction_service.transaction_service.dto.bulk.BulkTransferRequestDto;
 import transaction_service.transaction_service.dto.bulk.BulkTransferResponseDto;
 import transaction_service.transaction_service.service.BulkTransferService;
 import transaction_service.transaction_service.service.ExchangeRateService;
 import transaction_service.transaction_service.service.TransactionService;
+import transaction_service.transaction_service.service.TransactionStatusService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/transactions")
@@ -33,13 +39,33 @@ public class TransactionController {
     private final TransactionService transactionService;
     private final ExchangeRateService exchangeRateService;
     private final BulkTransferService bulkTransferService;
+    private final TransactionStatusService transactionStatusService;
 
     @PostMapping("/transfers")
-    public ResponseEntity<TransactionResponseDto> transfer(@Valid @RequestBody TransactionRequestDto dto,
-                                                           @AuthenticationPrincipal AuthenticatedUser user,
-                                                           @RequestHeader("Idempotency-Key") String idempotencyKey) {
-        TransactionResponseDto response = transactionService.transfer(dto, user.userId(),idempotencyKey);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<TransactionResponseDto>> transfer(@Valid @RequestBody TransactionRequestDto dto,
+                                                                              @AuthenticationPrincipal AuthenticatedUser user,
+                                                                              @RequestHeader("Idempotency-Key") String idempotencyKey) {
+        return transactionService.transferAsync(dto, user.userId(), idempotencyKey)
+                .thenApply(ResponseEntity::ok);
+    }
+    @PostMapping("/transfers/async")
+    public ResponseEntity<TransactionStatusDto> submitTransfer(@Valid @RequestBody TransactionRequestDto dto,
+                                                               @AuthenticationPrincipal AuthenticatedUser user,
+                                                               @RequestHeader("Idempotency-Key") String idempotencyKey) {
+        TransactionStatusDto accepted = transactionService.submitTransfer(dto, user.userId(), idempotencyKey);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/transactions/" + accepted.getTransactionId() + "/status"))
+                .body(accepted);
+    }
+    @GetMapping("/{id}/status")
+    public ResponseEntity<TransactionStatusDto> getStatus(@PathVariable("id") Long id,
+                                                          @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(transactionStatusService.getStatus(id, user.userId()));
+    }
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStatus(@PathVariable("id") Long id,
+                                   @AuthenticationPrincipal AuthenticatedUser user) {
+        return transactionStatusService.subscribe(id, user.userId());
     }
     @PostMapping("/bulk-transfers")
     public ResponseEntity<BulkTransferResponseDto> transferBulk(@Valid @RequestBody BulkTransferRequestDto request,
@@ -50,20 +76,20 @@ public class TransactionController {
 
     }
     @PostMapping("/deposits")
-    public ResponseEntity<TransactionResponseDto> deposit (@Valid @RequestBody DepositRequestDto dto
+    public CompletableFuture<ResponseEntity<TransactionResponseDto>> deposit (@Valid @RequestBody DepositRequestDto dto
     ,@RequestHeader("Idempotency-Key") String idempotencyKey,@AuthenticationPrincipal AuthenticatedUser user) {
 
-        TransactionResponseDto responseDto = transactionService.deposit(dto,idempotencyKey,user.userId());
-        return ResponseEntity.ok(responseDto);
+        return transactionService.depositAsync(dto, idempotencyKey, user.userId())
+                .thenApply(ResponseEntity::ok);
     }
     @PostMapping("/withdrawals")
-    public ResponseEntity<TransactionResponseDto> withdraw(
+    public CompletableFuture<ResponseEntity<TransactionResponseDto>> withdraw(
             @Valid @RequestBody WithdrawRequestDto dto,
             @RequestHeader("Idempotency-Key") String idempotencyKey,
             @AuthenticationPrincipal AuthenticatedUser user) {
 
-        TransactionResponseDto response = transactionService.withdraw(dto, user.userId(), idempotencyKey);
-        return ResponseEntity.ok(response);
+        return transactionService.withdrawAsync(dto, user.userId(), idempotencyKey)
+                .thenApply(ResponseEntity::ok);
     }
 
 
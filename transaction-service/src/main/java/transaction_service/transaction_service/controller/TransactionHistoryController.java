@@ -1,30 +1,43 @@
 package transaction_service.transaction_service.controller;
 
 import core.core.dto.AuthenticatedUser;
-import lombok.RequiredArgsConstructor;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import transaction_service.transaction_service.dto.HistorySliceResponse;
 import transaction_service.transaction_service.dto.TransactionResponseDto;
 import transaction_service.transaction_service.service.CsvExportService;
 import transaction_service.transaction_service.service.TransactionService;
 
+import java.time.Duration;
+
 @RestController
 @RequestMapping("/api/v1/transactions/history")
-@RequiredArgsConstructor
 public class TransactionHistoryController {
     private final TransactionService transactionService;
     private final CsvExportService csvExportService;
+    private final Duration exportTimeout;
 
+    public TransactionHistoryController(TransactionService transactionService,
+                                        CsvExportService csvExportService,
+                                        @Value("${transaction.export.timeout:PT10M}") Duration exportTimeout) {
+        this.transactionService = transactionService;
+        this.csvExportService = csvExportService;
+        this.exportTimeout = exportTimeout;
+    }
 
     @GetMapping
     public ResponseEntity<Page<TransactionResponseDto>> getHistory(
@@ -40,18 +53,46 @@ public class TransactionHistoryController {
         Page<TransactionResponseDto> history = transactionService.getHistory(accountId, pageable,user.userId());
         return ResponseEntity.ok(history);
     }
-    @GetMapping("/export")
-    public ResponseEntity<byte[]> exportHistory(
+    /**
+     * Cursor-based history, newest first. Pass the returned {@code nextCursor} to get the next
+     * slice; unlike the paged endpoint it costs the same at any depth.
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<HistorySliceResponse> getHistorySlice(
             @RequestParam("accountId") Long accountId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "10") int size,
             @AuthenticationPrincipal AuthenticatedUser user) {
 
-        byte[] csv = csvExportService.exportTransactionHistory(accountId, user.userId());
+        size = Math.max(1, Math.min(size, 50));
+        return ResponseEntity.ok(transactionService.getHistorySlice(accountId, cursor, size, user.userId()));
+    }
+    /**
+     * Streams the account's history as CSV off the request thread. Large accounts take long, so
+     * the export runs as its own async task under {@code transaction.export.timeout} instead of
+     * the default async request timeout.
+     */
+    @GetMapping("/export")
+    public WebAsyncTask<Void> exportHistory(
+            @RequestParam("accountId") Long accountId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @AuthenticationPrincipal AuthenticatedUser user,
+            HttpServletResponse response) {
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        StreamingResponseBody csv = csvExportService.exportTransactionHistory(accountId, user.userId(), gzip);
 
         String filename = "transactions-account-" + accountId + ".csv";
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .body(csv);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename);
+        response.setContentType("text/csv");
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            csv.writeTo(response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
     }
 }
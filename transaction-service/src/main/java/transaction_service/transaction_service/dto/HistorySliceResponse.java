@@ -0,0 +1,21 @@
+package transaction_service.transaction_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One slice of an account's history. {@code nextCursor} is null on the last slice.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HistorySliceResponse {
+    private List<TransactionResponseDto> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
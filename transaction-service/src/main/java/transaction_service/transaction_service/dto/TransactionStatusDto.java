@@ -0,0 +1,22 @@
+package transaction_service.transaction_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import transaction_service.transaction_service.model.Status;
+import transaction_service.transaction_service.model.TransactionStep;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionStatusDto {
+    private Long transactionId;
+    private Status status;
+    private TransactionStep step;
+    private String error;
+    private Instant updatedAt;
+}
@@ -0,0 +1,28 @@
+package transaction_service.transaction_service.dto.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import transaction_service.transaction_service.model.BulkJobStatus;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkJobStatusDto {
+    private Long id;
+    private BulkJobStatus status;
+    private Long sourceAccountId;
+    private int totalItems;
+    private int processedItems;
+    private int succeededItems;
+    private int failedItems;
+    private Instant createdAt;
+    private Instant updatedAt;
+    private Instant completedAt;
+    private List<BulkTransferFailedItemDto> failed;
+}
@@ -13,9 +13,11 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 public class BulkTransferRequestDto {
+    public static final int MAX_TRANSFERS = 1000;
+
     @NotNull
     private Long sourceAccountId;
     @NotEmpty
-    @Size(min=1, max=10)
+    @Size(min=1, max=MAX_TRANSFERS)
     private List<BulkTransferItemDto> transfers;
 }
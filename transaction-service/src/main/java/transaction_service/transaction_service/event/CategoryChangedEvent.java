@@ -0,0 +1,16 @@
+package transaction_service.transaction_service.event;
+
+/**
+ * Categories of {@code userId} changed; a null user means the global categories.
+ */
+public class CategoryChangedEvent {
+    private final Long userId;
+
+    public CategoryChangedEvent(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+}
@@ -1,14 +1,28 @@
 package transaction_service.transaction_service.event;
 
 
+import transaction_service.transaction_service.model.Status;
+
 public class TransactionCompletedEvent {
     private final Long userId;
+    private final Long transactionId;
+    private final Status status;
 
-    public TransactionCompletedEvent(Long userId) {
+    public TransactionCompletedEvent(Long userId, Long transactionId, Status status) {
         this.userId = userId;
+        this.transactionId = transactionId;
+        this.status = status;
     }
 
     public Long getUserId() {
         return userId;
     }
-}
\ No newline at end of file
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+}
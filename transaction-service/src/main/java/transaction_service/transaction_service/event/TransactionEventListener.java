@@ -1,18 +1,23 @@
 package transaction_service.transaction_service.event;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
-import transaction_service.transaction_service.service.AnalyticsCacheEvictService;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import transaction_service.transaction_service.service.AnalyticsInvalidationQueue;
 
 @Component
 @RequiredArgsConstructor
 public class TransactionEventListener {
 
-    private final AnalyticsCacheEvictService cacheEvictService;
+    private final AnalyticsInvalidationQueue invalidationQueue;
 
-    @EventListener
+    /**
+     * Queues the invalidation once the status change is committed; a rolled back transition
+     * invalidates nothing.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
     public void handleTransactionCompleted(TransactionCompletedEvent event) {
-        cacheEvictService.evictUserAnalytics(event.getUserId());
+        invalidationQueue.enqueue(event.getUserId());
     }
-}
\ No newline at end of file
+}
@@ -1,21 +1,100 @@
 package transaction_service.transaction_service.event.kafka;
 
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.model.TransactionOutbox;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Kafka side of the transaction outbox: turns a completed transaction into an outbox row and
+ * sends claimed rows to the broker.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class TransactionEventPublisher {
+    public static final String TOPIC = "transaction.completed";
 
     private final KafkaTemplate<String, core.core.dto.TransactionKafkaEvent> kafkaTemplate;
-    private static final String TOPIC = "transaction.completed";
+    private final ObjectMapper objectMapper;
+    private final Duration sendTimeout;
+
+    public TransactionEventPublisher(KafkaTemplate<String, core.core.dto.TransactionKafkaEvent> kafkaTemplate,
+                                     ObjectMapper objectMapper,
+                                     @Value("${transaction.outbox.relay.send-timeout:PT15S}") Duration sendTimeout) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.sendTimeout = sendTimeout;
+    }
+
+    public TransactionOutbox outboxOf(Transaction tx) {
+        try {
+            return TransactionOutbox.builder()
+                    .transactionId(tx.getId())
+                    .topic(TOPIC)
+                    .eventKey(String.valueOf(tx.getId()))
+                    .payload(objectMapper.writeValueAsString(toEvent(tx)))
+                    .createdAt(Instant.now())
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize event of TX " + tx.getId(), e);
+        }
+    }
 
-    public void publish(Transaction tx) {
-        core.core.dto.TransactionKafkaEvent event = core.core.dto.TransactionKafkaEvent.builder()
+    /**
+     * Sends the whole batch before waiting, so the producer can pack it into a few requests,
+     * then returns the ids of the rows the broker acknowledged within the send timeout.
+     */
+    public List<Long> publish(List<TransactionOutbox> batch) {
+        List<CompletableFuture<SendResult<String, core.core.dto.TransactionKafkaEvent>>> sends =
+                new ArrayList<>(batch.size());
+        for (TransactionOutbox row : batch) {
+            sends.add(send(row));
+        }
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        List<Long> acknowledged = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            TransactionOutbox row = batch.get(i);
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                acknowledged.add(row.getId());
+            } catch (ExecutionException | TimeoutException e) {
+                log.error("Failed to publish Kafka event for TX {} (attempt {}): {}",
+                        row.getTransactionId(), row.getAttempts() + 1, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        log.debug("Published {}/{} outbox events to Kafka", acknowledged.size(), batch.size());
+        return acknowledged;
+    }
+
+    private CompletableFuture<SendResult<String, core.core.dto.TransactionKafkaEvent>> send(TransactionOutbox row) {
+        try {
+            core.core.dto.TransactionKafkaEvent event =
+                    objectMapper.readValue(row.getPayload(), core.core.dto.TransactionKafkaEvent.class);
+            return kafkaTemplate.send(row.getTopic(), row.getEventKey(), event);
+        } catch (JsonProcessingException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    static core.core.dto.TransactionKafkaEvent toEvent(Transaction tx) {
+        return core.core.dto.TransactionKafkaEvent.builder()
                 .transactionId(tx.getId())
                 .userId(tx.getUserId())
                 .sourceAccountId(tx.getSourceAccountId())
@@ -28,16 +107,5 @@ public class TransactionEventPublisher {
                 .categoryName(tx.getCategory() != null ? tx.getCategory().getName() : null)
                 .createdAt(tx.getCreatedAt())
                 .build();
-
-        kafkaTemplate.send(TOPIC, String.valueOf(tx.getId()), event)
-                .whenComplete((result, ex) -> {
-                    if (ex != null) {
-                        log.error("Failed to publish Kafka event for TX {}: {}",
-                                tx.getId(), ex.getMessage());
-                    } else {
-                        log.info("Published Kafka event for TX {} to topic {}",
-                                tx.getId(), TOPIC);
-                    }
-                });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,50 @@
+package transaction_service.transaction_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One account leg of a transaction: a DEBIT of the source account, a CREDIT of the target one.
+ * Append-only and written with the transaction itself, so an account's history is a range of
+ * the {@code (account_id, created_at, transaction_id)} index instead of an OR over two columns.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "account_ledger_entry",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"transaction_id", "direction"})
+        },
+        indexes = {
+                @Index(name = "idx_ledger_account_created", columnList = "account_id, created_at, transaction_id")
+        }
+)
+public class AccountLedgerEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "transaction_id", nullable = false)
+    private Transaction transaction;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private LedgerDirection direction;
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal amount;
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,52 @@
+package transaction_service.transaction_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A bulk transfer uploaded as a file. Its items are stored in {@link BulkJobChunk}s and the
+ * counters here advance in the DB transaction that checkpoints a chunk, so they always agree
+ * with the chunks settled so far. {@code uploadedAt} is set, with {@code totalItems}, once the
+ * whole file is stored; until then no chunk of the job is claimed.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "bulk_job")
+public class BulkJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    @Column(name = "source_account_id", nullable = false)
+    private Long sourceAccountId;
+    @Column(name = "idempotency_key", unique = true, nullable = false)
+    private String idempotencyKey;
+    @Column(name = "total_items", nullable = false)
+    private int totalItems;
+    @Builder.Default
+    @Column(name = "processed_items", nullable = false)
+    private int processedItems = 0;
+    @Builder.Default
+    @Column(name = "succeeded_items", nullable = false)
+    private int succeededItems = 0;
+    @Builder.Default
+    @Column(name = "failed_items", nullable = false)
+    private int failedItems = 0;
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+    @Column(name = "uploaded_at")
+    private Instant uploadedAt;
+    @Column(name = "completed_at")
+    private Instant completedAt;
+}
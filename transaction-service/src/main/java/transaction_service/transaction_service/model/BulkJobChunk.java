@@ -0,0 +1,53 @@
+package transaction_service.transaction_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Up to {@code transaction.bulk-job.chunk-size} items of a {@link BulkJob}, settled as one
+ * bulk transfer. {@code items} holds one {@code targetAccountId,amount,categoryId} line per
+ * item. A chunk is done once {@code completedAt} is set; until then a worker holds it for
+ * {@code leaseUntil}, and a chunk whose lease ran out is settled again under the same
+ * idempotency keys. {@code failures} lists the failed items as
+ * {@code targetAccountId,amount,reason} lines.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "bulk_job_chunk",
+        indexes = {
+                @Index(name = "idx_bulk_chunk_pending", columnList = "completed_at, id")
+        }
+)
+public class BulkJobChunk {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+    @Column(nullable = false)
+    private int seq;
+    @Column(name = "item_count", nullable = false)
+    private int itemCount;
+    @Column(nullable = false)
+    private String items;
+    @Column(name = "lease_until")
+    private Instant leaseUntil;
+    @Builder.Default
+    @Column(nullable = false)
+    private int attempts = 0;
+    @Column(name = "succeeded_items")
+    private Integer succeededItems;
+    @Column(name = "failed_items")
+    private Integer failedItems;
+    private String failures;
+    @Column(name = "completed_at")
+    private Instant completedAt;
+}
@@ -0,0 +1,8 @@
+package transaction_service.transaction_service.model;
+
+public enum BulkJobStatus {
+    UPLOADING,
+    QUEUED,
+    RUNNING,
+    COMPLETED
+}
@@ -0,0 +1,48 @@
+package transaction_service.transaction_service.model;
+
+import core.core.enums.Currency;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Spend of a user on one UTC day in one category and currency, summed over COMPLETED transfers
+ * and withdrawals. {@code categoryId} is {@link #NO_CATEGORY} for uncategorized transactions so
+ * the unique key also covers them. Rows are only changed through the upsert in
+ * {@link transaction_service.transaction_service.repository.DailySpendRollupRepository}.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "daily_spend_rollup",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"user_id", "spend_date", "category_id", "currency"})
+        }
+)
+public class DailySpendRollup {
+    public static final long NO_CATEGORY = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    @Column(name = "spend_date", nullable = false)
+    private LocalDate spendDate;
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 3)
+    private Currency currency;
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal amount;
+    @Column(name = "tx_count", nullable = false)
+    private Long txCount;
+}
@@ -0,0 +1,6 @@
+package transaction_service.transaction_service.model;
+
+public enum LedgerDirection {
+    DEBIT,
+    CREDIT
+}
@@ -0,0 +1,39 @@
+package transaction_service.transaction_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Hourly spend counter of a user. {@code reserved} holds amounts of transactions that are still
+ * in flight, {@code committed} holds amounts of COMPLETED ones. Rows are only changed through
+ * atomic UPDATE statements in {@link transaction_service.transaction_service.repository.LimitLedgerBucketRepository}.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "limit_ledger_bucket",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"user_id", "bucket_start"})
+        }
+)
+public class LimitLedgerBucket {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal reserved;
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal committed;
+}
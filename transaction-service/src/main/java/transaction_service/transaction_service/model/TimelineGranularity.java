@@ -0,0 +1,51 @@
+package transaction_service.transaction_service.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Bucket size of a spend timeline. Weeks start on Monday, all buckets are UTC days.
+ */
+public enum TimelineGranularity {
+    DAY {
+        @Override
+        public LocalDate bucketOf(LocalDate day) {
+            return day;
+        }
+
+        @Override
+        public LocalDate next(LocalDate bucket) {
+            return bucket.plusDays(1);
+        }
+    },
+    WEEK {
+        @Override
+        public LocalDate bucketOf(LocalDate day) {
+            return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+
+        @Override
+        public LocalDate next(LocalDate bucket) {
+            return bucket.plusWeeks(1);
+        }
+    },
+    MONTH {
+        @Override
+        public LocalDate bucketOf(LocalDate day) {
+            return day.withDayOfMonth(1);
+        }
+
+        @Override
+        public LocalDate next(LocalDate bucket) {
+            return bucket.plusMonths(1);
+        }
+    };
+
+    /**
+     * First day of the bucket {@code day} falls into.
+     */
+    public abstract LocalDate bucketOf(LocalDate day);
+
+    public abstract LocalDate next(LocalDate bucket);
+}
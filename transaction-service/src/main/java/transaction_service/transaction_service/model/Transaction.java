@@ -53,6 +53,10 @@ public class Transaction {
     private BigDecimal exchangeRate;
     @Column(name = "target_amount", nullable = false, precision = 19, scale = 4)
     private BigDecimal targetAmount;
+    @Column(name = "netting_debit_id")
+    private Long nettingDebitId;
+    @Column(name = "recovery_lease_until")
+    private Instant recoveryLeaseUntil;
 
     @ManyToOne
     @JoinColumn(name = "transaction_category_id")
@@ -0,0 +1,46 @@
+package transaction_service.transaction_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A Kafka event waiting to be relayed. Inserted in the DB transaction that completes the
+ * transaction, so the event exists exactly when the status change does; {@code sentAt} is set
+ * once the broker acknowledged it. Delivery is at least once: a relay that dies between the
+ * ack and the update sends the row again.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "transaction_outbox",
+        indexes = {
+                @Index(name = "idx_outbox_pending", columnList = "sent_at, id")
+        }
+)
+public class TransactionOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+    @Column(nullable = false, length = 100)
+    private String topic;
+    @Column(name = "event_key", nullable = false, length = 64)
+    private String eventKey;
+    @Column(nullable = false, length = 2000)
+    private String payload;
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+    @Column(name = "sent_at")
+    private Instant sentAt;
+    @Builder.Default
+    @Column(nullable = false)
+    private int attempts = 0;
+}
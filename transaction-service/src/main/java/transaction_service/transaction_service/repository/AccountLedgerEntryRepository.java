@@ -0,0 +1,76 @@
+package transaction_service.transaction_service.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import transaction_service.transaction_service.model.AccountLedgerEntry;
+import transaction_service.transaction_service.model.Transaction;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Account history read through the ledger: every query is a range of
+ * {@code (account_id, created_at, transaction_id)} joined to the transaction by primary key.
+ */
+@Repository
+public interface AccountLedgerEntryRepository extends JpaRepository<AccountLedgerEntry, Long> {
+
+    /**
+     * Paged history; sort properties refer to the entry, e.g. {@code createdAt}.
+     */
+    @Query(value = """
+        SELECT t FROM AccountLedgerEntry e
+        JOIN e.transaction t
+        WHERE e.accountId = :accountId
+    """, countQuery = """
+        SELECT COUNT(e) FROM AccountLedgerEntry e
+        WHERE e.accountId = :accountId
+    """)
+    Page<Transaction> findHistory(@Param("accountId") Long accountId, Pageable pageable);
+
+    /**
+     * Transactions of the account strictly before the cursor, newest first.
+     */
+    @Query("""
+        SELECT t FROM AccountLedgerEntry e
+        JOIN e.transaction t
+        LEFT JOIN FETCH t.category
+        WHERE e.accountId = :accountId
+        AND e.createdAt <= :createdAt
+        AND (e.createdAt < :createdAt OR e.transaction.id < :id)
+        ORDER BY e.createdAt DESC, e.transaction.id DESC
+    """)
+    List<Transaction> findHistoryBefore(@Param("accountId") Long accountId,
+                                        @Param("createdAt") Instant createdAt,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
+
+    /**
+     * Forward-only scroll over an account's history for the CSV export. Must be consumed and
+     * closed inside a read-only transaction; rows arrive in batches of the fetch size.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("""
+        SELECT new transaction_service.transaction_service.repository.TransactionExportRow(
+            t.id, t.sourceAccountId, t.targetAccountId, t.amount, t.targetAmount, t.exchangeRate,
+            t.currency, t.status, t.transactionType, c.name, t.createdAt, t.updatedAt, t.errorMessage)
+        FROM AccountLedgerEntry e
+        JOIN e.transaction t
+        LEFT JOIN t.category c
+        WHERE e.accountId = :accountId
+        ORDER BY e.createdAt, e.transaction.id
+    """)
+    Stream<TransactionExportRow> streamExportRows(@Param("accountId") Long accountId);
+}
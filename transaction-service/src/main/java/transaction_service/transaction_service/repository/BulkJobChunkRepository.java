@@ -0,0 +1,57 @@
+package transaction_service.transaction_service.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import transaction_service.transaction_service.model.BulkJobChunk;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BulkJobChunkRepository extends JpaRepository<BulkJobChunk, Long> {
+
+    /**
+     * Oldest unsettled chunks of uploaded jobs that no worker holds a lease on, locked until the
+     * calling transaction ends. Rows locked by another worker are skipped
+     * ({@code FOR UPDATE SKIP LOCKED}).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT c FROM BulkJobChunk c WHERE c.completedAt IS NULL " +
+            "AND (c.leaseUntil IS NULL OR c.leaseUntil < :now) " +
+            "AND EXISTS (SELECT j.id FROM BulkJob j WHERE j.id = c.jobId AND j.uploadedAt IS NOT NULL) " +
+            "ORDER BY c.id")
+    List<BulkJobChunk> claimPending(@Param("now") Instant now, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE BulkJobChunk c SET c.leaseUntil = :until, c.attempts = c.attempts + 1 WHERE c.id IN :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("until") Instant until);
+
+    /**
+     * Settles the chunk unless it already was; returns 0 for a chunk settled by another
+     * worker whose lease had run out.
+     */
+    @Modifying
+    @Query("UPDATE BulkJobChunk c SET c.completedAt = :now, c.leaseUntil = NULL, " +
+            "c.succeededItems = :succeeded, c.failedItems = :failed, c.failures = :failures " +
+            "WHERE c.id = :id AND c.completedAt IS NULL")
+    int complete(@Param("id") Long id, @Param("succeeded") int succeeded, @Param("failed") int failed,
+                 @Param("failures") String failures, @Param("now") Instant now);
+
+    @Modifying
+    @Query("DELETE FROM BulkJobChunk c WHERE c.jobId IN :jobIds")
+    int deleteByJobIds(@Param("jobIds") Collection<Long> jobIds);
+
+    @Query("SELECT c.failures FROM BulkJobChunk c WHERE c.jobId = :jobId AND c.failedItems > 0 ORDER BY c.seq")
+    List<String> findFailures(@Param("jobId") Long jobId, Pageable pageable);
+}
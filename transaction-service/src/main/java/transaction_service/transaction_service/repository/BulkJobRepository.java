@@ -0,0 +1,58 @@
+package transaction_service.transaction_service.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import transaction_service.transaction_service.model.BulkJob;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BulkJobRepository extends JpaRepository<BulkJob, Long> {
+
+    Optional<BulkJob> findByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * Marks the job uploaded with its item count. Returns 0 if the job is gone or already
+     * uploaded.
+     */
+    @Modifying
+    @Query("UPDATE BulkJob j SET j.totalItems = :total, j.uploadedAt = :now, j.updatedAt = :now " +
+            "WHERE j.id = :id AND j.uploadedAt IS NULL")
+    int markUploaded(@Param("id") Long id, @Param("total") int total, @Param("now") Instant now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM BulkJob j WHERE j.id = :id AND j.uploadedAt IS NULL")
+    Optional<BulkJob> lockUploading(@Param("id") Long id);
+
+    /**
+     * Jobs whose upload started before {@code before} and never finished, locked until the
+     * calling transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM BulkJob j WHERE j.uploadedAt IS NULL AND j.createdAt < :before ORDER BY j.id")
+    List<BulkJob> lockUploadingSince(@Param("before") Instant before, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE BulkJob j SET j.processedItems = j.processedItems + :succeeded + :failed, " +
+            "j.succeededItems = j.succeededItems + :succeeded, j.failedItems = j.failedItems + :failed, " +
+            "j.updatedAt = :now WHERE j.id = :id")
+    int recordChunk(@Param("id") Long id, @Param("succeeded") int succeeded,
+                    @Param("failed") int failed, @Param("now") Instant now);
+
+    /**
+     * Completes the job once every item was processed. Returns 0
+     * while items are left or when the job was already completed.
+     */
+    @Modifying
+    @Query("UPDATE BulkJob j SET j.completedAt = :now " +
+            "WHERE j.id = :id AND j.completedAt IS NULL AND j.processedItems >= j.totalItems")
+    int completeIfDone(@Param("id") Long id, @Param("now") Instant now);
+}
@@ -0,0 +1,94 @@
+package transaction_service.transaction_service.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import transaction_service.transaction_service.model.DailySpendRollup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailySpendRollupRepository extends JpaRepository<DailySpendRollup, Long> {
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO daily_spend_rollup (user_id, spend_date, category_id, currency, amount, tx_count)
+        VALUES (:userId, :spendDate, :categoryId, :currency, :amount, :count)
+        ON DUPLICATE KEY UPDATE amount = amount + :amount, tx_count = tx_count + :count
+    """, nativeQuery = true)
+    void add(@Param("userId") Long userId,
+             @Param("spendDate") LocalDate spendDate,
+             @Param("categoryId") Long categoryId,
+             @Param("currency") String currency,
+             @Param("amount") BigDecimal amount,
+             @Param("count") long count);
+
+    @Query("""
+        SELECT SUM(r.amount)
+        FROM DailySpendRollup r
+        WHERE r.userId = :userId
+        AND r.spendDate BETWEEN :from AND :to
+    """)
+    BigDecimal getTotalSpent(@Param("userId") Long userId,
+                             @Param("from") LocalDate from,
+                             @Param("to") LocalDate to);
+
+    /**
+     * Rows: day, amount - one per day of the range that has any spend.
+     */
+    @Query("""
+        SELECT r.spendDate, SUM(r.amount)
+        FROM DailySpendRollup r
+        WHERE r.userId = :userId
+        AND r.spendDate BETWEEN :from AND :to
+        GROUP BY r.spendDate
+    """)
+    List<Object[]> getDailyTotals(@Param("userId") Long userId,
+                                  @Param("from") LocalDate from,
+                                  @Param("to") LocalDate to);
+
+    @Query("""
+        SELECT c.id, c.name, SUM(r.amount) as total
+        FROM DailySpendRollup r JOIN TransactionCategory c ON c.id = r.categoryId
+        WHERE r.userId = :userId
+        AND r.spendDate BETWEEN :from AND :to
+        GROUP BY c.id, c.name
+        ORDER BY total DESC
+    """)
+    List<Object[]> getTopCategories(@Param("userId") Long userId,
+                                    @Param("from") LocalDate from,
+                                    @Param("to") LocalDate to,
+                                    Pageable pageable);
+
+    @Query("""
+        SELECT c.id, c.name, SUM(r.amount)
+        FROM DailySpendRollup r JOIN TransactionCategory c ON c.id = r.categoryId
+        WHERE r.userId = :userId
+        AND (:from IS NULL OR r.spendDate >= :from)
+        AND (:to IS NULL OR r.spendDate <= :to)
+        GROUP BY c.id, c.name
+    """)
+    List<Object[]> getStatsByCategory(@Param("userId") Long userId,
+                                      @Param("from") LocalDate from,
+                                      @Param("to") LocalDate to);
+
+    /**
+     * Rows: category id, currency, amount, count - summed over the days of the range, in the
+     * same shape as {@link TransactionRepository#getSpendTotals}.
+     */
+    @Query("""
+        SELECT r.categoryId, r.currency, SUM(r.amount), SUM(r.txCount)
+        FROM DailySpendRollup r
+        WHERE r.userId = :userId
+        AND r.spendDate BETWEEN :from AND :to
+        GROUP BY r.categoryId, r.currency
+    """)
+    List<Object[]> getSpendTotals(@Param("userId") Long userId,
+                                  @Param("from") LocalDate from,
+                                  @Param("to") LocalDate to);
+}
@@ -0,0 +1,54 @@
+package transaction_service.transaction_service.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import transaction_service.transaction_service.model.LimitLedgerBucket;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Repository
+public interface LimitLedgerBucketRepository extends JpaRepository<LimitLedgerBucket, Long> {
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO limit_ledger_bucket (user_id, bucket_start, reserved, committed)
+        VALUES (:userId, :bucketStart, :amount, 0)
+        ON DUPLICATE KEY UPDATE reserved = reserved + :amount
+    """, nativeQuery = true)
+    void reserve(@Param("userId") Long userId,
+                 @Param("bucketStart") Instant bucketStart,
+                 @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query("""
+        UPDATE LimitLedgerBucket b
+        SET b.reserved = b.reserved - :amount, b.committed = b.committed + :amount
+        WHERE b.userId = :userId AND b.bucketStart = :bucketStart
+    """)
+    int commit(@Param("userId") Long userId,
+               @Param("bucketStart") Instant bucketStart,
+               @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query("""
+        UPDATE LimitLedgerBucket b
+        SET b.reserved = b.reserved - :amount
+        WHERE b.userId = :userId AND b.bucketStart = :bucketStart
+    """)
+    int release(@Param("userId") Long userId,
+                @Param("bucketStart") Instant bucketStart,
+                @Param("amount") BigDecimal amount);
+
+    @Query("""
+        SELECT SUM(b.reserved + b.committed)
+        FROM LimitLedgerBucket b
+        WHERE b.userId = :userId
+        AND b.bucketStart >= :since
+    """)
+    BigDecimal sumSince(@Param("userId") Long userId,
+                        @Param("since") Instant since);
+}
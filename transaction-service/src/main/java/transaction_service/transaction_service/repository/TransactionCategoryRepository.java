@@ -11,6 +11,8 @@ import java.util.Optional;
 @Repository
 public interface TransactionCategoryRepository extends JpaRepository<TransactionCategory, Long> {
     List<TransactionCategory> findByUserIdOrUserIdIsNull(Long userId);
+    List<TransactionCategory> findByUserIdIsNull();
+    List<TransactionCategory> findByUserId(Long userId);
     Optional<TransactionCategory> findByNameAndUserId(String name, Long userId);
     Boolean existsByNameAndUserIdIsNull(String name);
 }
\ No newline at end of file
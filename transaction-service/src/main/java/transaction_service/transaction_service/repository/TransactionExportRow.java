@@ -0,0 +1,27 @@
+package transaction_service.transaction_service.repository;
+
+import core.core.enums.Currency;
+import transaction_service.transaction_service.model.Status;
+import transaction_service.transaction_service.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One CSV export line: the exported columns with the category name joined in, so streaming an
+ * account's history never materializes entities or loads categories one by one.
+ */
+public record TransactionExportRow(Long id,
+                                   Long sourceAccountId,
+                                   Long targetAccountId,
+                                   BigDecimal amount,
+                                   BigDecimal targetAmount,
+                                   BigDecimal exchangeRate,
+                                   Currency currency,
+                                   Status status,
+                                   TransactionType transactionType,
+                                   String categoryName,
+                                   Instant createdAt,
+                                   Instant updatedAt,
+                                   String errorMessage) {
+}
@@ -0,0 +1,44 @@
+package transaction_service.transaction_service.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import transaction_service.transaction_service.model.TransactionOutbox;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TransactionOutboxRepository extends JpaRepository<TransactionOutbox, Long> {
+
+    /**
+     * Oldest unsent rows, locked until the calling transaction ends. Rows locked by another
+     * relay are skipped ({@code FOR UPDATE SKIP LOCKED}), so relays on several instances split
+     * the backlog instead of queueing behind each other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT o FROM TransactionOutbox o WHERE o.sentAt IS NULL ORDER BY o.id")
+    List<TransactionOutbox> claimPending(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE TransactionOutbox o SET o.sentAt = :sentAt WHERE o.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") Instant sentAt);
+
+    @Modifying
+    @Query("UPDATE TransactionOutbox o SET o.attempts = o.attempts + 1 WHERE o.id IN :ids")
+    int recordFailure(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM TransactionOutbox o WHERE o.sentAt < :before")
+    int deleteSentBefore(@Param("before") Instant before);
+}
@@ -1,26 +1,83 @@
 package transaction_service.transaction_service.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import transaction_service.transaction_service.model.Status;
 import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.model.TransactionStep;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     Optional<Transaction> findByIdempotencyKey(String idempotencyKey);
+    List<Transaction> findByIdempotencyKeyIn(Collection<String> idempotencyKeys);
+    Optional<TransactionStatusView> findStatusById(Long id);
     Page<Transaction> findBySourceAccountIdOrTargetAccountId(
             Long sourceAccountId, Long targetAccountId, Pageable pageable);
 
-    List<Transaction> findByStatusAndUpdatedAtBefore(Status status, Instant dateTime);
+    /**
+     * Rows in {@code status} last updated before {@code threshold} whose recovery lease is free,
+     * oldest first. Locked until the calling transaction ends; rows locked by another instance
+     * are skipped ({@code FOR UPDATE SKIP LOCKED}).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("""
+        SELECT t FROM Transaction t
+        WHERE t.status = :status AND t.updatedAt < :threshold
+          AND (t.recoveryLeaseUntil IS NULL OR t.recoveryLeaseUntil < :now)
+        ORDER BY t.updatedAt, t.id
+    """)
+    List<Transaction> claimStuck(@Param("status") Status status,
+                                 @Param("threshold") Instant threshold,
+                                 @Param("now") Instant now,
+                                 Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Transaction t SET t.nettingDebitId = :debitId WHERE t.id IN :ids")
+    int assignNettingDebit(@Param("ids") Collection<Long> ids, @Param("debitId") Long debitId);
+
+    @Query("SELECT t FROM Transaction t WHERE t.nettingDebitId = :debitId ORDER BY t.id")
+    List<Transaction> findNettingGroup(@Param("debitId") Long debitId);
+
+    @Modifying
+    @Query("UPDATE Transaction t SET t.step = :step WHERE t.id IN :ids AND t.status = :status")
+    int updateStep(@Param("ids") Collection<Long> ids,
+                   @Param("step") TransactionStep step,
+                   @Param("status") Status status);
+
+    @Modifying
+    @Query("UPDATE Transaction t SET t.recoveryLeaseUntil = :until WHERE t.id IN :ids")
+    int leaseForRecovery(@Param("ids") Collection<Long> ids, @Param("until") Instant until);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        UPDATE Transaction t
+        SET t.status = :to, t.step = :step, t.errorMessage = :error, t.updatedAt = :now,
+            t.version = COALESCE(t.version, 0) + 1
+        WHERE t.id = :id AND t.status = :from
+    """)
+    int transitionStatus(@Param("id") Long id,
+                         @Param("from") Status from,
+                         @Param("to") Status to,
+                         @Param("step") TransactionStep step,
+                         @Param("error") String error,
+                         @Param("now") Instant now);
     @Query("SELECT SUM(t.amount) FROM Transaction t " +
             "WHERE t.userId = :userId " +
             "AND t.createdAt > :since " +
@@ -32,62 +89,49 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     );
 
 
+    /**
+     * Rows: category id (null when uncategorized), currency, amount, count of COMPLETED
+     * spending transactions created in {@code [from, to)}. Used to check the daily rollup.
+     */
     @Query("""
-        SELECT c.id, c.name, SUM(COALESCE(t.targetAmount, t.amount)) 
-        FROM Transaction t 
-        LEFT JOIN t.category c 
-        WHERE t.userId = :userId 
-        AND t.status = :status 
+        SELECT c.id, t.currency, SUM(t.amount), COUNT(t)
+        FROM Transaction t
+        LEFT JOIN t.category c
+        WHERE t.userId = :userId
+        AND t.status = 'COMPLETED'
         AND t.transactionType IN ('TRANSFER', 'WITHDRAW')
-        AND t.category IS NOT NULL
-        AND (:from IS NULL OR t.createdAt >= :from) 
-        AND (:to IS NULL OR t.createdAt <= :to) 
-        GROUP BY c.id, c.name
+        AND t.createdAt >= :from AND t.createdAt < :to
+        GROUP BY c.id, t.currency
     """)
-    List<Object[]> getStatsByCategory(@Param("userId") Long userId,
-                                      @Param("status") Status status,
-                                      @Param("from") Instant from,
-                                      @Param("to") Instant to);
+    List<Object[]> getSpendTotals(@Param("userId") Long userId,
+                                  @Param("from") Instant from,
+                                  @Param("to") Instant to);
 
     @Query("""
-        SELECT SUM(COALESCE(t.targetAmount, t.amount)) 
-        FROM Transaction t
-        WHERE t.userId = :userId 
-        AND t.status = :status
+        SELECT COUNT(DISTINCT t.userId) FROM Transaction t
+        WHERE t.status = 'COMPLETED'
         AND t.transactionType IN ('TRANSFER', 'WITHDRAW')
-        AND t.createdAt BETWEEN :from AND :to
+        AND t.createdAt >= :since
     """)
-    BigDecimal getTotalSpent(@Param("userId") Long userId,
-                             @Param("status") Status status,
-                             @Param("from") Instant from,
-                             @Param("to") Instant to);
+    long countSpendingUsersSince(@Param("since") Instant since);
 
     @Query("""
-        SELECT c.id, c.name, SUM(COALESCE(t.targetAmount, t.amount)) as total 
-        FROM Transaction t JOIN t.category c 
-        WHERE t.userId = :userId 
-        AND t.status = :status
+        SELECT DISTINCT t.userId FROM Transaction t
+        WHERE t.status = 'COMPLETED'
         AND t.transactionType IN ('TRANSFER', 'WITHDRAW')
-        AND t.createdAt BETWEEN :from AND :to 
-        GROUP BY c.id, c.name 
-        ORDER BY total DESC
+        AND t.createdAt >= :since
+        ORDER BY t.userId
     """)
-    List<Object[]> getTopCategories(@Param("userId") Long userId,
-                                    @Param("status") Status status,
-                                    @Param("from") Instant from,
-                                    @Param("to") Instant to,
-                                    Pageable pageable);
+    List<Long> findSpendingUsersSince(@Param("since") Instant since, Pageable pageable);
 
     @Query("""
-    SELECT COUNT(t) FROM Transaction t
-    WHERE t.userId = :userId
-    AND t.createdAt > :since
+    SELECT t.userId, t.createdAt FROM Transaction t
+    WHERE t.createdAt > :since
     AND t.status NOT IN ('FAILED')
     """)
-    long countByUserIdAndCreatedAtAfter(
-            @Param("userId") Long userId,
-            @Param("since") Instant since
-    );
-    List<Transaction> findBySourceAccountIdOrTargetAccountId(Long sourceAccountId, Long targetAccountId);
+    List<Object[]> findRecentActivity(@Param("since") Instant since);
+
+    @Query("SELECT t.idempotencyKey FROM Transaction t WHERE t.createdAt > :since")
+    List<String> findIdempotencyKeysSince(@Param("since") Instant since);
 
 }
@@ -0,0 +1,18 @@
+package transaction_service.transaction_service.repository;
+
+import transaction_service.transaction_service.model.Status;
+import transaction_service.transaction_service.model.TransactionStep;
+
+import java.time.Instant;
+
+/**
+ * Closed projection for status polling: selects only these columns, no category join.
+ */
+public interface TransactionStatusView {
+    Long getId();
+    Long getUserId();
+    Status getStatus();
+    TransactionStep getStep();
+    String getErrorMessage();
+    Instant getUpdatedAt();
+}
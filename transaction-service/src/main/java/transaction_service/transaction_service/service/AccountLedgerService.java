@@ -0,0 +1,51 @@
+package transaction_service.transaction_service.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import transaction_service.transaction_service.model.AccountLedgerEntry;
+import transaction_service.transaction_service.model.LedgerDirection;
+import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.repository.AccountLedgerEntryRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the account legs of a new transaction. Runs in the DB transaction that inserts it, so
+ * an account's history never misses or duplicates a transaction.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccountLedgerService {
+    private final AccountLedgerEntryRepository ledgerRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Transaction tx) {
+        ledgerRepository.saveAll(entriesOf(tx));
+    }
+
+    static List<AccountLedgerEntry> entriesOf(Transaction tx) {
+        List<AccountLedgerEntry> entries = new ArrayList<>(2);
+        if (tx.getSourceAccountId() != null) {
+            entries.add(entry(tx, tx.getSourceAccountId(), LedgerDirection.DEBIT));
+        }
+        if (tx.getTargetAccountId() != null) {
+            entries.add(entry(tx, tx.getTargetAccountId(), LedgerDirection.CREDIT));
+        }
+        return entries;
+    }
+
+    private static AccountLedgerEntry entry(Transaction tx, Long accountId, LedgerDirection direction) {
+        return AccountLedgerEntry.builder()
+                .accountId(accountId)
+                .transaction(tx)
+                .direction(direction)
+                // the target account is credited in its own currency
+                .amount(direction == LedgerDirection.CREDIT && tx.getTargetAmount() != null
+                        ? tx.getTargetAmount() : tx.getAmount())
+                .createdAt(tx.getCreatedAt())
+                .build();
+    }
+}
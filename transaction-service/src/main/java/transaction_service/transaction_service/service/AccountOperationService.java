@@ -8,11 +8,17 @@ import org.springframework.stereotype.Service;
 import transaction_service.transaction_service.config.AccountClient;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AccountOperationService {
+    public static final int MAX_BATCH_SIZE = 500;
 
     private final AccountClient accountClient;
 
@@ -41,5 +47,15 @@ public class AccountOperationService {
         return accountClient.getAccountById(id);
 
     }
+    public Map<Long, AccountResponseDto> getAccountsByIds(Collection<Long> ids) {
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Long, AccountResponseDto> accounts = new HashMap<>();
+        for (int from = 0; from < distinct.size(); from += MAX_BATCH_SIZE) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + MAX_BATCH_SIZE, distinct.size()));
+            log.info("Fetching {} accounts in one batch", chunk.size());
+            accountClient.getAccountsByIds(chunk).forEach(account -> accounts.put(account.getId(), account));
+        }
+        return accounts;
+    }
 
 }
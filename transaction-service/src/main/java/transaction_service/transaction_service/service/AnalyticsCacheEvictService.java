@@ -1,28 +1,58 @@
 package transaction_service.transaction_service.service;
 
-import lombok.RequiredArgsConstructor;
-
-import org.springframework.data.redis.core.RedisTemplate;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
-import java.util.Set;
+import java.time.Duration;
 
+/**
+ * Per-user cache generations for the analytics caches. Every analytics key embeds the user's
+ * generation, so evicting is a single INCR: later reads build keys of the new generation and the
+ * old entries age out through their TTL. Generations read from Redis are kept in process for
+ * {@code generation-ttl}, which bounds how long another instance keeps serving the previous
+ * generation after a bump.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class AnalyticsCacheEvictService {
+    static final String GENERATION_KEY_PREFIX = "analytics:gen:";
+    private static final long MAX_CACHED_GENERATIONS = 100_000;
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final Cache<Long, Long> generations;
 
-    public void evictUserAnalytics(Long userId) {
-        deleteKeysByPrefix("total:" + userId + ":");
-        deleteKeysByPrefix("top:" + userId + ":");
-        deleteKeysByPrefix("timeline:" + userId + ":");
+    public AnalyticsCacheEvictService(StringRedisTemplate redisTemplate,
+                                      @Value("${transaction.cache.generation-ttl:PT1S}") Duration generationTtl) {
+        this.redisTemplate = redisTemplate;
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(MAX_CACHED_GENERATIONS)
+                .expireAfterWrite(generationTtl)
+                .build();
+    }
+
+    /**
+     * Current analytics generation of the user, referenced from the {@code @Cacheable} keys.
+     */
+    public long generation(Long userId) {
+        return generations.get(userId, this::loadGeneration);
     }
 
-    private void deleteKeysByPrefix(String prefix) {
-        Set<String> keys = redisTemplate.keys(prefix + "*");
-        if (keys != null && !keys.isEmpty()) {
-            redisTemplate.delete(keys);
+    public void evictUserAnalytics(Long userId) {
+        Long generation = redisTemplate.opsForValue().increment(GENERATION_KEY_PREFIX + userId);
+        if (generation != null) {
+            generations.put(userId, generation);
+        } else {
+            generations.invalidate(userId);
         }
+        log.debug("Analytics cache generation of user {} is now {}", userId, generation);
+    }
+
+    private Long loadGeneration(Long userId) {
+        String value = redisTemplate.opsForValue().get(GENERATION_KEY_PREFIX + userId);
+        return value != null ? Long.parseLong(value) : 0L;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,84 @@
+package transaction_service.transaction_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects users whose analytics caches must be invalidated and flushes them once per
+ * {@code window}. Requests for the same user within a window collapse into one generation bump,
+ * so a bulk transfer of 500 items costs one INCR. A failed flush keeps the user queued for the
+ * next window.
+ */
+@Slf4j
+@Service
+public class AnalyticsInvalidationQueue {
+    private final AnalyticsCacheEvictService cacheEvictService;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final Counter requested;
+    private final Counter flushed;
+
+    public AnalyticsInvalidationQueue(AnalyticsCacheEvictService cacheEvictService,
+                                      MeterRegistry meterRegistry) {
+        this.cacheEvictService = cacheEvictService;
+        this.requested = Counter.builder("transaction.cache.invalidation.requested")
+                .description("Analytics invalidations requested by finished transactions")
+                .register(meterRegistry);
+        this.flushed = Counter.builder("transaction.cache.invalidation.flushed")
+                .description("Analytics invalidations applied after coalescing")
+                .register(meterRegistry);
+        Gauge.builder("transaction.cache.invalidation.queue.depth", pending, Set::size)
+                .description("Users waiting for an analytics invalidation")
+                .register(meterRegistry);
+        Gauge.builder("transaction.cache.invalidation.coalescing.ratio", this, AnalyticsInvalidationQueue::coalescingRatio)
+                .description("Requested invalidations per applied one")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        flush();
+    }
+
+    public void enqueue(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        requested.increment();
+        pending.add(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.cache.invalidation.window:PT0.2S}")
+    void flush() {
+        List<Long> failed = new ArrayList<>();
+        Iterator<Long> users = pending.iterator();
+        while (users.hasNext()) {
+            Long userId = users.next();
+            // removed before the bump: a request arriving meanwhile queues the next one
+            users.remove();
+            try {
+                cacheEvictService.evictUserAnalytics(userId);
+                flushed.increment();
+            } catch (RuntimeException e) {
+                log.warn("Analytics invalidation for user {} failed, retrying next window: {}", userId, e.getMessage());
+                failed.add(userId);
+            }
+        }
+        pending.addAll(failed);
+    }
+
+    double coalescingRatio() {
+        double applied = flushed.count();
+        return applied == 0 ? 0 : requested.count() / applied;
+    }
+}
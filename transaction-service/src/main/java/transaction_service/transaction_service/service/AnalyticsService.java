@@ -8,43 +8,53 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import transaction_service.transaction_service.dto.CategoryStatDto;
+import transaction_service.transaction_service.dto.TimelineResponse;
 import transaction_service.transaction_service.dto.TopCategoryResponse;
 import transaction_service.transaction_service.dto.TotalSpentResponse;
-import transaction_service.transaction_service.model.Status;
-import transaction_service.transaction_service.repository.TransactionRepository;
+import transaction_service.transaction_service.model.TimelineGranularity;
+import transaction_service.transaction_service.repository.DailySpendRollupRepository;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Spend analytics answered from {@link transaction_service.transaction_service.model.DailySpendRollup},
+ * so a range costs at most one row per day, category and currency instead of one per transaction.
+ * Ranges are resolved to whole UTC days: {@code from} and {@code to} select the days they fall on.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AnalyticsService {
-    private final TransactionRepository transactionRepository;
+    private final DailySpendRollupRepository rollupRepository;
 
-    @Cacheable(value = "totalSpent", key = "'total:' + #userId + ':' + #from + ':' + #to", cacheManager = "cacheManager")
+    @Cacheable(value = "totalSpent", key = "'total:' + #userId + ':g' + @analyticsCacheEvictService.generation(#userId) + ':' + #from + ':' + #to", cacheManager = "cacheManager")
     public TotalSpentResponse getTotalSpent(Long userId, Instant from, Instant to) {
         log.info("Calculating total spent for user {} (cache miss)", userId);
         Instant[] dates = validateAndNormalizeDates(from, to);
-        BigDecimal total = transactionRepository.getTotalSpent(userId, Status.COMPLETED, dates[0], dates[1]);
+        BigDecimal total = rollupRepository.getTotalSpent(userId, dayOf(dates[0]), dayOf(dates[1]));
 
         return new TotalSpentResponse(total != null ? total : BigDecimal.ZERO, "MIXED_CURRENCY");
     }
-    @Cacheable(value = "topCategories", key = "'top:' + #userId + ':' + #from + ':' + #to + ':' + #limit", cacheManager = "cacheManager")
+    @Cacheable(value = "topCategories", key = "'top:' + #userId + ':g' + @analyticsCacheEvictService.generation(#userId) + ':' + #from + ':' + #to + ':' + #limit", cacheManager = "cacheManager")
     public List<TopCategoryResponse> getTopCategories(Long userId, Instant from, Instant to, int limit) {
         log.info("Calculating top categories for user {} (cache miss)", userId);
         Instant[] dates = validateAndNormalizeDates(from, to);
         Pageable pageable = PageRequest.of(0, limit);
-        List<Object[]> results = transactionRepository.getTopCategories(userId, Status.COMPLETED, dates[0], dates[1], pageable);
+        List<Object[]> results = rollupRepository.getTopCategories(userId, dayOf(dates[0]), dayOf(dates[1]), pageable);
 
         return results.stream()
                 .map(r -> new TopCategoryResponse((Long) r[0], (String) r[1], (BigDecimal) r[2]))
                 .toList();
     }
     public List<CategoryStatDto> getCategoryStats(Long userId, Instant from, Instant to) {
-        List<Object[]> results = transactionRepository.getStatsByCategory(userId, Status.COMPLETED, from, to);
+        List<Object[]> results = rollupRepository.getStatsByCategory(userId, dayOf(from), dayOf(to));
 
         return results.stream()
                 .map(r -> new CategoryStatDto(
@@ -55,6 +65,32 @@ public class AnalyticsService {
                 .toList();
     }
 
+    /**
+     * Spend per bucket from the bucket holding {@code from} to the one holding {@code to}, buckets
+     * without spend included with a zero total. One grouped read of at most 366 daily sums; weeks
+     * and months are summed up here.
+     */
+    @Cacheable(value = "timeline", key = "'timeline:' + #userId + ':g' + @analyticsCacheEvictService.generation(#userId) + ':' + #granularity + ':' + #from + ':' + #to", cacheManager = "cacheManager")
+    public List<TimelineResponse> getTimeline(Long userId, TimelineGranularity granularity, Instant from, Instant to) {
+        log.info("Calculating {} timeline for user {} (cache miss)", granularity, userId);
+        Instant[] dates = validateAndNormalizeDates(from, to);
+        LocalDate firstDay = dayOf(dates[0]);
+        LocalDate lastDay = dayOf(dates[1]);
+
+        Map<LocalDate, BigDecimal> totals = new HashMap<>();
+        for (Object[] row : rollupRepository.getDailyTotals(userId, firstDay, lastDay)) {
+            totals.merge(granularity.bucketOf((LocalDate) row[0]), (BigDecimal) row[1], BigDecimal::add);
+        }
+
+        // a mutable list: the cached value is written with its concrete type
+        List<TimelineResponse> timeline = new ArrayList<>();
+        for (LocalDate bucket = granularity.bucketOf(firstDay); !bucket.isAfter(lastDay); bucket = granularity.next(bucket)) {
+            timeline.add(new TimelineResponse(SpendRollupService.startOf(bucket),
+                    totals.getOrDefault(bucket, BigDecimal.ZERO)));
+        }
+        return timeline;
+    }
+
     private Instant[] validateAndNormalizeDates(Instant from, Instant to) {
         if (from == null) from = Instant.now().minus(30,ChronoUnit.DAYS);
         if (to == null) to = Instant.now();
@@ -66,4 +102,8 @@ public class AnalyticsService {
         }
         return new Instant[]{from, to};
     }
+
+    private static LocalDate dayOf(Instant at) {
+        return at != null ? SpendRollupService.dayOf(at) : null;
+    }
 }
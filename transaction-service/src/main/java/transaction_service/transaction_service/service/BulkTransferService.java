@@ -1,12 +1,15 @@
 package transaction_service.transaction_service.service;
 
+import core.core.dto.AccountResponseDto;
+import core.core.exception.BadRequestException;
+import core.core.exception.ConflictException;
+import core.core.exception.ExternalServiceException;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 
 import org.springframework.stereotype.Service;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
 import transaction_service.transaction_service.config.FeignClientInterceptor;
 import transaction_service.transaction_service.dto.TransactionRequestDto;
 import transaction_service.transaction_service.dto.TransactionResponseDto;
@@ -14,59 +17,103 @@ import transaction_service.transaction_service.dto.bulk.BulkTransferFailedItemDt
 import transaction_service.transaction_service.dto.bulk.BulkTransferItemDto;
 import transaction_service.transaction_service.dto.bulk.BulkTransferRequestDto;
 import transaction_service.transaction_service.dto.bulk.BulkTransferResponseDto;
+import transaction_service.transaction_service.model.Transaction;
 import transaction_service.transaction_service.service.validate.AccountAccessService;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
+/**
+ * Bulk transfers from one source account, settled in three stages: every target's transfer is
+ * validated and persisted as PROCESSING, the source is debited once for all of them
+ * ({@link TransferNettingService}), and the credits fan out as sagas resumed from
+ * {@code DEBIT_DONE}. Every item keeps its own transaction row, category and idempotency key;
+ * only the source debit is netted, so the source account is locked once per request instead of
+ * once per item.
+ */
 @Slf4j
 @Service
 
 public class BulkTransferService {
     private final TransactionService transactionService;
-    private final AccountAccessService accountAccessService;
+    private final AccountOperationService accountOperationService;
+    private final TransactionStateService transactionStateService;
+    private final TransferNettingService nettingService;
 
 
     private final Executor transactionValidationExecutor;
+    // items in flight at once; on virtual threads this, not the executor, keeps JDBC demand within the pool
+    private final Semaphore inFlightItems;
     public BulkTransferService(
             TransactionService transactionService,
-            AccountAccessService accountAccessService,
-            @Qualifier("transactionValidationExecutor") Executor transactionValidationExecutor
+            AccountOperationService accountOperationService,
+            TransactionStateService transactionStateService,
+            TransferNettingService nettingService,
+            @Qualifier("transactionValidationExecutor") Executor transactionValidationExecutor,
+            @Value("${transaction.bulk.max-in-flight:0}") int maxInFlight,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int jdbcPoolSize
     ) {
         this.transactionService = transactionService;
-        this.accountAccessService = accountAccessService;
+        this.accountOperationService = accountOperationService;
+        this.transactionStateService = transactionStateService;
+        this.nettingService = nettingService;
         this.transactionValidationExecutor=transactionValidationExecutor;
+        // unset: half the JDBC pool, leaving the rest to single transfers and the saga workers
+        this.inFlightItems = new Semaphore(maxInFlight > 0 ? maxInFlight : Math.max(1, jdbcPoolSize / 2));
     }
     public BulkTransferResponseDto bulkTransfer(BulkTransferRequestDto request,
                                                 Long userId, String idempotencyKey){
         log.info("Starting bulk transfer for user {}, {} items", userId, request.getTransfers().size());
-        accountAccessService.validateAccountOwnership(request.getSourceAccountId(), userId);
-        final String authToken = extractToken();
-
-        List<CompletableFuture<TransactionResponseDto>> futures = request.getTransfers().stream()
-                .map(item -> CompletableFuture.supplyAsync(
-                        () -> {
-                            FeignClientInterceptor.setToken(authToken);
-                            try {
-                                return processItem(item, request.getSourceAccountId(), userId, idempotencyKey);
-                            } finally {
-                                FeignClientInterceptor.clearToken();
-                            }
-                        },
-                        transactionValidationExecutor
-                ))
+        Long sourceAccountId = request.getSourceAccountId();
+        List<Long> accountIds = new ArrayList<>(request.getTransfers().size() + 1);
+        accountIds.add(sourceAccountId);
+        request.getTransfers().forEach(item -> accountIds.add(item.getTargetAccountId()));
+        Map<Long, AccountResponseDto> accounts = accountOperationService.getAccountsByIds(accountIds);
+        AccountAccessService.requireOwnedBy(accounts.get(sourceAccountId), userId);
+        final String authToken = FeignClientInterceptor.currentToken();
+
+        List<BulkTransferItemDto> items = request.getTransfers();
+        List<String> keys = itemKeys(idempotencyKey, items);
+        List<CompletableFuture<TransactionService.Admission>> admissions = IntStream.range(0, items.size())
+                .mapToObj(i -> submit(authToken, () -> transactionService.admitTransfer(
+                        toRequest(items.get(i), sourceAccountId), userId, keys.get(i), accounts, true)))
                 .toList();
+
+        List<Transaction> created = new ArrayList<>();
+        for (CompletableFuture<TransactionService.Admission> admission : admissions) {
+            // rejected admissions are reported with the settlements below
+            TransactionService.Admission admitted = admission.exceptionally(error -> null).join();
+            if (admitted != null && admitted.created()) {
+                created.add(admitted.transaction());
+            }
+        }
+        RuntimeException debitFailure = created.isEmpty() ? null : debit(created, sourceAccountId);
+
+        List<CompletableFuture<TransactionResponseDto>> settlements = admissions.stream()
+                .map(admission -> admission.thenCompose(admitted -> {
+                    if (admitted.created() && debitFailure != null) {
+                        return CompletableFuture.<TransactionResponseDto>failedFuture(debitFailure);
+                    }
+                    return submit(authToken, () -> await(transactionService.settle(admitted)));
+                }))
+                .toList();
+
         List<TransactionResponseDto> successful = new ArrayList<>();
         List<BulkTransferFailedItemDto> failed = new ArrayList<>();
 
-        for (int i = 0; i < futures.size(); i++) {
-            BulkTransferItemDto item = request.getTransfers().get(i);
+        for (int i = 0; i < settlements.size(); i++) {
+            BulkTransferItemDto item = items.get(i);
             try {
-                TransactionResponseDto result = futures.get(i).join();
-                successful.add(result);
+                successful.add(settlements.get(i).join());
             } catch (CompletionException e) {
                 Throwable cause = e.getCause();
                 log.warn("Bulk transfer item failed for target {}: {}",
@@ -88,28 +135,80 @@ public class BulkTransferService {
                 .failedCount(failed.size())
                 .build();
     }
-    private TransactionResponseDto processItem(BulkTransferItemDto item,
-                                               Long sourceAccountId,
-                                               Long userId,
-                                               String baseIdempotencyKey) {
 
-        String itemKey = baseIdempotencyKey + "-" + item.getTargetAccountId();
+    /**
+     * The idempotency keys a bulk transfer under {@code idempotencyKey} admits its items under,
+     * in item order: {@code <key>-<targetAccountId>}, and {@code <key>-<targetAccountId>-<n>}
+     * for the n-th item to a target that appeared before.
+     */
+    public static List<String> itemKeys(String idempotencyKey, List<BulkTransferItemDto> items) {
+        Map<Long, Integer> seen = new HashMap<>();
+        return items.stream()
+                .map(item -> {
+                    int occurrence = seen.merge(item.getTargetAccountId(), 1, Integer::sum);
+                    String key = idempotencyKey + "-" + item.getTargetAccountId();
+                    return occurrence == 1 ? key : key + "-" + occurrence;
+                })
+                .toList();
+    }
 
-        TransactionRequestDto dto = TransactionRequestDto.builder()
+    /**
+     * Debits the source once for every transaction admitted by this request and returns null, or
+     * the failure to report for each of them. A rejected debit fails the transactions; a debit
+     * whose outcome is unknown leaves them PROCESSING, and recovery re-sends it under the same id.
+     */
+    private RuntimeException debit(List<Transaction> created, Long sourceAccountId) {
+        BigDecimal total = created.stream().map(Transaction::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        Long debitId = nettingService.net(created);
+        try {
+            await(nettingService.debit(debitId, sourceAccountId, total));
+        } catch (BadRequestException | ConflictException e) {
+            log.warn("Netting debit {} of {} rejected: {}", debitId, total, e.getMessage());
+            created.forEach(tx -> transactionStateService.fail(tx, "Bulk debit failed: " + e.getMessage()));
+            return e;
+        } catch (RuntimeException e) {
+            log.error("Netting debit {} of {} failed, {} transfers left for recovery",
+                    debitId, total, created.size(), e);
+            return new ExternalServiceException("Bulk debit did not complete, the transfer will be recovered");
+        }
+        log.info("Netting debit {}: {} debited once for {} transfers", debitId, total, created.size());
+        nettingService.debited(created);
+        return null;
+    }
+
+    private static TransactionRequestDto toRequest(BulkTransferItemDto item, Long sourceAccountId) {
+        return TransactionRequestDto.builder()
                 .sourceAccountId(sourceAccountId)
                 .targetAccountId(item.getTargetAccountId())
                 .amount(item.getAmount())
                 .categoryId(item.getCategoryId())
                 .build();
+    }
 
-        return transactionService.transfer(dto, userId, itemKey);
+    private <T> CompletableFuture<T> submit(String authToken, Supplier<T> work) {
+        return CompletableFuture.supplyAsync(
+                () -> {
+                    inFlightItems.acquireUninterruptibly();
+                    FeignClientInterceptor.setToken(authToken);
+                    try {
+                        return work.get();
+                    } finally {
+                        FeignClientInterceptor.clearToken();
+                        inFlightItems.release();
+                    }
+                },
+                transactionValidationExecutor
+        );
     }
-    private String extractToken() {
-        ServletRequestAttributes attributes =
-                (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-        if (attributes != null) {
-            return attributes.getRequest().getHeader("Authorization");
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
         }
-        return null;
     }
-}
\ No newline at end of file
+}
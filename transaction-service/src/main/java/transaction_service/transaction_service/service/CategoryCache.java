@@ -0,0 +1,123 @@
+package transaction_service.transaction_service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import transaction_service.transaction_service.model.TransactionCategory;
+import transaction_service.transaction_service.repository.TransactionCategoryRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through cache of the global categories and of each user's custom ones, loaded on first
+ * use. Entries expire after {@code ttl} as a safety net for a missed invalidation; user sets
+ * beyond {@code maxUsers} are evicted least recently used first.
+ */
+@Slf4j
+@Component
+public class CategoryCache {
+    private final TransactionCategoryRepository categoryRepository;
+    private final Duration ttl;
+    private final Map<Long, Entry> userCategories;
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Entry globalCategories;
+
+    public CategoryCache(TransactionCategoryRepository categoryRepository,
+                         @Value("${transaction.category-cache.ttl:PT10M}") Duration ttl,
+                         @Value("${transaction.category-cache.max-users:10000}") int maxUsers) {
+        this.categoryRepository = categoryRepository;
+        this.ttl = ttl;
+        this.userCategories = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    /**
+     * The category if it is global or belongs to {@code userId}. Empty does not mean it does not
+     * exist: categories of other users are never looked at.
+     */
+    public Optional<TransactionCategory> find(Long categoryId, Long userId) {
+        TransactionCategory global = globals().byId().get(categoryId);
+        if (global != null) {
+            return Optional.of(global);
+        }
+        return Optional.ofNullable(ofUser(userId).byId().get(categoryId));
+    }
+
+    public List<TransactionCategory> forUser(Long userId) {
+        List<TransactionCategory> categories = new ArrayList<>(globals().byId().values());
+        categories.addAll(ofUser(userId).byId().values());
+        return categories;
+    }
+
+    /**
+     * Drops the cached categories of {@code userId}, or the global ones when it is null.
+     */
+    public void invalidate(Long userId) {
+        generation.incrementAndGet();
+        if (userId == null) {
+            globalCategories = null;
+        } else {
+            synchronized (userCategories) {
+                userCategories.remove(userId);
+            }
+        }
+        log.debug("Category cache invalidated for {}", userId == null ? "global categories" : "user " + userId);
+    }
+
+    private Entry globals() {
+        Entry cached = globalCategories;
+        if (cached != null && !cached.expired(ttl)) {
+            return cached;
+        }
+        long loadGeneration = generation.get();
+        Entry loaded = Entry.of(categoryRepository.findByUserIdIsNull());
+        // an invalidation that raced with the load wins; the next read loads again
+        if (generation.get() == loadGeneration) {
+            globalCategories = loaded;
+        }
+        return loaded;
+    }
+
+    private Entry ofUser(Long userId) {
+        Entry cached;
+        synchronized (userCategories) {
+            cached = userCategories.get(userId);
+        }
+        if (cached != null && !cached.expired(ttl)) {
+            return cached;
+        }
+        long loadGeneration = generation.get();
+        Entry loaded = Entry.of(categoryRepository.findByUserId(userId));
+        synchronized (userCategories) {
+            if (generation.get() == loadGeneration) {
+                userCategories.put(userId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    private record Entry(Map<Long, TransactionCategory> byId, long loadedAt) {
+        static Entry of(List<TransactionCategory> categories) {
+            Map<Long, TransactionCategory> byId = categories.stream()
+                    .collect(Collectors.toMap(TransactionCategory::getId, Function.identity(),
+                            (first, second) -> first, LinkedHashMap::new));
+            return new Entry(byId, System.currentTimeMillis());
+        }
+
+        boolean expired(Duration ttl) {
+            return System.currentTimeMillis() - loadedAt >= ttl.toMillis();
+        }
+    }
+}
@@ -3,8 +3,10 @@ package transaction_service.transaction_service.service;
 import core.core.exception.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import transaction_service.transaction_service.event.CategoryChangedEvent;
 import transaction_service.transaction_service.model.TransactionCategory;
 import transaction_service.transaction_service.model.TransactionType;
 import transaction_service.transaction_service.repository.TransactionCategoryRepository;
@@ -19,19 +21,24 @@ import java.util.Objects;
 @Slf4j
 public class CategoryService {
     private final TransactionCategoryRepository categoryRepository;
+    private final CategoryCache categoryCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<TransactionCategory> getAllCategoriesForUser(Long userId) {
-        return categoryRepository.findByUserIdOrUserIdIsNull(userId);
+        return categoryCache.forUser(userId);
     }
 
     public TransactionCategory createCustomCategory(String name, Long userId) {
         categoryRepository.findByNameAndUserId(name, userId)
                 .ifPresent(c -> { throw new BadRequestException("Category already exists"); });
         log.info("Creating custom category '{}' for user {}", name, userId);
-        return categoryRepository.save(TransactionCategory.builder()
+        TransactionCategory category = categoryRepository.save(TransactionCategory.builder()
                 .name(name)
                 .userId(userId)
                 .build());
+        categoryCache.invalidate(userId);
+        eventPublisher.publishEvent(new CategoryChangedEvent(userId));
+        return category;
     }
 
 
@@ -42,8 +49,8 @@ public class CategoryService {
             throw new BadRequestException("Category is required for transaction type: " + type);
         }
 
-        TransactionCategory category = categoryRepository.findById(categoryId)
-                .orElseThrow(() -> new BadRequestException("Category not found with id: " + categoryId));
+        TransactionCategory category = categoryCache.find(categoryId, userId)
+                .orElseGet(() -> findUncached(categoryId, userId));
 
         if (category.getUserId() != null && !Objects.equals(category.getUserId(), userId)) {
             log.warn("User {} tried to use private category {} of user {}", userId, categoryId, category.getUserId());
@@ -52,4 +59,17 @@ public class CategoryService {
 
         return category;
     }
+
+    /**
+     * Categories missing from the cache are unknown, another user's, or created after the cache
+     * was loaded; the last case drops the stale entry.
+     */
+    private TransactionCategory findUncached(Long categoryId, Long userId) {
+        TransactionCategory category = categoryRepository.findById(categoryId)
+                .orElseThrow(() -> new BadRequestException("Category not found with id: " + categoryId));
+        if (category.getUserId() == null || Objects.equals(category.getUserId(), userId)) {
+            categoryCache.invalidate(category.getUserId());
+        }
+        return category;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+package transaction_service.transaction_service.service;
+
+import core.core.enums.Currency;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Immutable {@code Currency} x {@code Currency} rate table indexed by enum ordinal, derived from
+ * the rates of one base currency: inverse rates are {@code 1 / base rate}, cross rates
+ * {@code to / from}. A currency missing from a quote keeps its base rate from the previous
+ * matrix; one that was never quoted has no rates.
+ */
+final class ExchangeRateMatrix {
+    static final int SCALE = 10;
+    private static final Currency[] CURRENCIES = Currency.values();
+
+    private final Currency base;
+    private final BigDecimal[] baseRates;
+    private final BigDecimal[][] rates;
+    private final Instant fetchedAt;
+
+    private ExchangeRateMatrix(Currency base, BigDecimal[] baseRates, Instant fetchedAt) {
+        this.base = base;
+        this.baseRates = baseRates;
+        this.fetchedAt = fetchedAt;
+        this.rates = new BigDecimal[CURRENCIES.length][CURRENCIES.length];
+        for (int from = 0; from < CURRENCIES.length; from++) {
+            for (int to = 0; to < CURRENCIES.length; to++) {
+                rates[from][to] = derive(from, to);
+            }
+        }
+    }
+
+    /**
+     * Builds the matrix from {@code quoted} rates of {@code base}, keyed by currency code.
+     *
+     * @throws IllegalArgumentException if the quote holds no usable rate
+     */
+    static ExchangeRateMatrix of(Currency base, Map<String, BigDecimal> quoted, ExchangeRateMatrix previous,
+                                 Instant fetchedAt) {
+        BigDecimal[] baseRates = new BigDecimal[CURRENCIES.length];
+        baseRates[base.ordinal()] = BigDecimal.ONE;
+        int fresh = 0;
+        for (Currency currency : CURRENCIES) {
+            if (currency == base) {
+                continue;
+            }
+            BigDecimal rate = quoted == null ? null : quoted.get(currency.name());
+            if (rate != null && rate.signum() > 0) {
+                baseRates[currency.ordinal()] = rate;
+                fresh++;
+            } else if (previous != null && previous.base == base) {
+                baseRates[currency.ordinal()] = previous.baseRates[currency.ordinal()];
+            }
+        }
+        if (fresh == 0) {
+            throw new IllegalArgumentException("No rates quoted for " + base);
+        }
+        return new ExchangeRateMatrix(base, baseRates, fetchedAt);
+    }
+
+    /**
+     * The rate from {@code from} to {@code to}, or null when either was never quoted.
+     */
+    BigDecimal rate(Currency from, Currency to) {
+        return rates[from.ordinal()][to.ordinal()];
+    }
+
+    Instant fetchedAt() {
+        return fetchedAt;
+    }
+
+    boolean olderThan(Duration maxAge, Instant now) {
+        return fetchedAt.plus(maxAge).isBefore(now);
+    }
+
+    private BigDecimal derive(int from, int to) {
+        if (from == to) {
+            return BigDecimal.ONE;
+        }
+        BigDecimal fromRate = baseRates[from];
+        BigDecimal toRate = baseRates[to];
+        if (fromRate == null || toRate == null) {
+            return null;
+        }
+        // quoted rates are kept as they are; only inverse and cross rates are divided
+        if (from == base.ordinal()) {
+            return toRate;
+        }
+        return toRate.divide(fromRate, SCALE, RoundingMode.HALF_UP);
+    }
+}
@@ -2,40 +2,120 @@ package transaction_service.transaction_service.service;
 
 import core.core.enums.Currency;
 import core.core.exception.*;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import transaction_service.transaction_service.config.ExchangeRateClient;
 import transaction_service.transaction_service.dto.ExchangeRateResponseDto;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.stream.Collectors;
 
-
+/**
+ * Serves exchange rates from an in-process {@link ExchangeRateMatrix}, so a transfer or a
+ * preview never waits on the rate API. The first matrix is loaded on startup; a background task
+ * then checks every {@code refresh.retry-interval} and replaces the matrix with one
+ * multi-currency quote once it is older than {@code refresh.interval}, so a failed refresh is
+ * retried at the shorter cadence. Meanwhile the last good matrix keeps being served until it is
+ * older than {@code max-age}.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class ExchangeRateService {
     private final ExchangeRateClient exchangeRateClient;
+    private final Currency base;
+    private final String targets;
+    private final Duration refreshInterval;
+    private final Duration maxAge;
+    private final boolean refreshEnabled;
+    private final Counter refreshFailures;
+    private volatile ExchangeRateMatrix matrix;
 
+    public ExchangeRateService(ExchangeRateClient exchangeRateClient,
+                               MeterRegistry meterRegistry,
+                               @Value("${transaction.exchange-rate.base:USD}") Currency base,
+                               @Value("${transaction.exchange-rate.refresh.interval:PT10M}") Duration refreshInterval,
+                               @Value("${transaction.exchange-rate.max-age:PT24H}") Duration maxAge,
+                               @Value("${transaction.exchange-rate.refresh.enabled:true}") boolean refreshEnabled) {
+        this.exchangeRateClient = exchangeRateClient;
+        this.base = base;
+        this.targets = Arrays.stream(Currency.values())
+                .filter(currency -> currency != base)
+                .map(Currency::name)
+                .collect(Collectors.joining(","));
+        this.refreshInterval = refreshInterval;
+        this.maxAge = maxAge;
+        this.refreshEnabled = refreshEnabled;
+        this.refreshFailures = Counter.builder("transaction.exchange_rate.refresh.failures")
+                .description("Rate refreshes that failed and left the previous matrix in place")
+                .register(meterRegistry);
+        Gauge.builder("transaction.exchange_rate.age.seconds", this, ExchangeRateService::ageSeconds)
+                .description("Seconds since the served rates were fetched")
+                .register(meterRegistry);
+    }
 
-    @Cacheable(value = "exchangeRates", key = "#from.name() + '-' + #to.name()", cacheManager = "cacheManager")
+    @PostConstruct
+    void start() {
+        if (refreshEnabled) {
+            refresh();
+        }
+    }
 
     public BigDecimal getRate(Currency from, Currency to) {
         if (from == to) return BigDecimal.ONE;
 
-        try {
-            log.info("Fetching real rate from API for {} -> {}", from, to);
-            ExchangeRateResponseDto response = exchangeRateClient.getLatestRate(from.name(), to.name());
+        ExchangeRateMatrix current = matrix;
+        if (current == null || current.olderThan(maxAge, Instant.now())) {
+            log.error("No exchange rates younger than {} to convert {} -> {}", maxAge, from, to);
+            throw new ExternalServiceException("Exchange service unavailable");
+        }
+        BigDecimal rate = current.rate(from, to);
+        if (rate == null) {
+            log.error("Exchange rate {} -> {} was never quoted", from, to);
+            throw new ExternalServiceException("Exchange service unavailable");
+        }
+        return rate;
+    }
 
-            BigDecimal rate = response.getRates().get(to.name());
-            if (rate == null) throw new RuntimeException("Rate not found in response");
+    /**
+     * Refreshes the matrix when there is none yet or it is older than {@code refresh.interval}.
+     */
+    @Scheduled(fixedDelayString = "${transaction.exchange-rate.refresh.retry-interval:PT30S}")
+    void refreshIfStale() {
+        if (!refreshEnabled) {
+            return;
+        }
+        ExchangeRateMatrix current = matrix;
+        if (current == null || current.olderThan(refreshInterval, Instant.now())) {
+            refresh();
+        }
+    }
 
-            return rate;
+    /**
+     * Fetches all rates of the base currency in one call and swaps in the derived matrix.
+     * Returns false, keeping the current matrix, when the call fails or quotes nothing.
+     */
+    public boolean refresh() {
+        try {
+            ExchangeRateResponseDto response = exchangeRateClient.getLatestRate(base.name(), targets);
+            matrix = ExchangeRateMatrix.of(base, response.getRates(), matrix, Instant.now());
+            log.debug("Exchange rates of {} refreshed", base);
+            return true;
         } catch (Exception e) {
-            log.error("Failed to fetch rate: {}", e.getMessage());
-            throw new ExternalServiceException("Exchange service unavailable");
+            refreshFailures.increment();
+            ExchangeRateMatrix current = matrix;
+            log.warn("Exchange rate refresh failed, serving rates fetched at {}: {}",
+                    current == null ? "never" : current.fetchedAt(), e.getMessage());
+            return false;
         }
     }
 
@@ -43,4 +123,8 @@ public class ExchangeRateService {
         return amount.multiply(rate).setScale(2, RoundingMode.HALF_UP);
     }
 
+    private double ageSeconds() {
+        ExchangeRateMatrix current = matrix;
+        return current == null ? Double.NaN : Duration.between(current.fetchedAt(), Instant.now()).toSeconds();
+    }
 }
@@ -0,0 +1,47 @@
+package transaction_service.transaction_service.service;
+
+import core.core.exception.BadRequestException;
+import transaction_service.transaction_service.model.Transaction;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position in an account's history: the {@code (createdAt, id)} of the last row returned. Handed
+ * to clients as an opaque URL-safe string; the next slice starts strictly after it.
+ */
+public record HistoryCursor(Instant createdAt, Long id) {
+    /**
+     * Before every stored row, so the first slice uses the same query as the following ones.
+     */
+    public static final HistoryCursor FIRST = new HistoryCursor(Instant.parse("9000-01-01T00:00:00Z"), Long.MAX_VALUE);
+
+    public static HistoryCursor of(Transaction tx) {
+        return new HistoryCursor(tx.getCreatedAt(), tx.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * {@link #FIRST} for a missing cursor.
+     */
+    public static HistoryCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Expected 3 parts, got " + parts.length);
+            }
+            return new HistoryCursor(Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1])),
+                    Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid history cursor");
+        }
+    }
+}
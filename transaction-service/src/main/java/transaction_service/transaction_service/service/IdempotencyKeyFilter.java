@@ -0,0 +1,108 @@
+package transaction_service.transaction_service.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over idempotency keys. {@link #mightContain} never returns false for a key that
+ * was {@link #put}, so a negative answer means the key is new to this instance.
+ * Two generations keep memory bounded: once the current one holds {@code capacity} keys it
+ * becomes the previous one and a fresh generation starts; the generation before is dropped.
+ */
+final class IdempotencyKeyFilter {
+    private final int capacity;
+    private final int bits;
+    private final int hashes;
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    IdempotencyKeyFilter(int capacity, double falsePositiveRate) {
+        if (capacity <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid filter capacity or false positive rate");
+        }
+        long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.capacity = capacity;
+        this.bits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, optimalBits));
+        this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * Math.log(2)));
+        this.current = new Generation(bits);
+    }
+
+    boolean mightContain(String key) {
+        long hash = hash(key);
+        if (current.mightContain(hash, bits, hashes)) {
+            return true;
+        }
+        Generation older = previous;
+        return older != null && older.mightContain(hash, bits, hashes);
+    }
+
+    void put(String key) {
+        Generation generation = current;
+        generation.put(hash(key), bits, hashes);
+        if (generation.size.incrementAndGet() >= capacity) {
+            rotate(generation);
+        }
+    }
+
+    private synchronized void rotate(Generation full) {
+        if (current == full) {
+            previous = full;
+            current = new Generation(bits);
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a over the key's chars, finished with the MurmurHash3 mixer so both halves are
+     * usable as independent hashes.
+     */
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Generation {
+        private final AtomicLongArray words;
+        private final AtomicInteger size = new AtomicInteger();
+
+        private Generation(int bits) {
+            this.words = new AtomicLongArray((bits + 63) >>> 6);
+        }
+
+        private boolean mightContain(long hash, int bits, int hashes) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashes; i++) {
+                int index = index(h1 + i * h2, bits);
+                if ((words.get(index >>> 6) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void put(long hash, int bits, int hashes) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashes; i++) {
+                int index = index(h1 + i * h2, bits);
+                long mask = 1L << index;
+                if ((words.get(index >>> 6) & mask) == 0) {
+                    words.getAndAccumulate(index >>> 6, mask, (word, bit) -> word | bit);
+                }
+            }
+        }
+
+        private static int index(int combined, int bits) {
+            return (combined & Integer.MAX_VALUE) % bits;
+        }
+    }
+}
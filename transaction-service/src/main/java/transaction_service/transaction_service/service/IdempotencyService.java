@@ -0,0 +1,110 @@
+package transaction_service.transaction_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import transaction_service.transaction_service.dto.TransactionResponseDto;
+import transaction_service.transaction_service.model.Status;
+import transaction_service.transaction_service.model.Transaction;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Fast path in front of the idempotency key lookup. A key filter answers "definitely new"
+ * without a query, and a bounded LRU replays the final response of recently finished
+ * transactions. Both are local to this instance: keys created elsewhere or before the warm-up
+ * window are unknown here and fall through to the unique constraint, which stays the source
+ * of truth.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+    static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final IdempotencyKeyFilter keyFilter;
+    private final Map<String, CachedResponse> responses;
+    private final Counter skippedLookups;
+    private final Counter replayHits;
+
+    public IdempotencyService(MeterRegistry meterRegistry,
+                              @Value("${transaction.idempotency.expected-keys:1000000}") int expectedKeys,
+                              @Value("${transaction.idempotency.response-cache-size:10000}") int responseCacheSize) {
+        this.keyFilter = new IdempotencyKeyFilter(expectedKeys, FALSE_POSITIVE_RATE);
+        this.responses = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > responseCacheSize;
+            }
+        };
+        this.skippedLookups = Counter.builder("transaction.idempotency.lookup_skipped")
+                .description("Idempotency lookups skipped because the key filter reported a new key")
+                .register(meterRegistry);
+        this.replayHits = Counter.builder("transaction.idempotency.replay_hits")
+                .description("Repeated requests answered from the response cache")
+                .register(meterRegistry);
+        Gauge.builder("transaction.idempotency.cache.size", this, IdempotencyService::cachedResponses)
+                .description("Final responses held for replay")
+                .register(meterRegistry);
+    }
+
+    /**
+     * False only when the key was never registered on this instance, so the stored-transaction
+     * lookup can be skipped.
+     */
+    public boolean mightExist(String idempotencyKey) {
+        if (keyFilter.mightContain(idempotencyKey)) {
+            return true;
+        }
+        skippedLookups.increment();
+        return false;
+    }
+
+    public void register(String idempotencyKey) {
+        keyFilter.put(idempotencyKey);
+    }
+
+    /**
+     * The final response stored for {@code idempotencyKey}, if it belongs to {@code userId}.
+     */
+    public Optional<TransactionResponseDto> replay(String idempotencyKey, Long userId) {
+        CachedResponse cached;
+        synchronized (responses) {
+            cached = responses.get(idempotencyKey);
+        }
+        if (cached == null || !Objects.equals(cached.userId(), userId)) {
+            return Optional.empty();
+        }
+        replayHits.increment();
+        log.debug("Replaying cached response for idempotency key {}", idempotencyKey);
+        return Optional.of(cached.response());
+    }
+
+    /**
+     * Keeps the response for replay once the transaction is COMPLETED or FAILED; responses of
+     * transactions still in flight are not cached.
+     */
+    public void remember(Transaction tx, TransactionResponseDto response) {
+        if (tx.getIdempotencyKey() == null || response == null
+                || (tx.getStatus() != Status.COMPLETED && tx.getStatus() != Status.FAILED)) {
+            return;
+        }
+        synchronized (responses) {
+            responses.put(tx.getIdempotencyKey(), new CachedResponse(tx.getUserId(), response));
+        }
+    }
+
+    int cachedResponses() {
+        synchronized (responses) {
+            return responses.size();
+        }
+    }
+
+    private record CachedResponse(Long userId, TransactionResponseDto response) {
+    }
+}
@@ -0,0 +1,82 @@
+package transaction_service.transaction_service.service;
+
+import core.core.exception.LimitExceededException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.model.TransactionType;
+import transaction_service.transaction_service.repository.LimitLedgerBucketRepository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Rolling 24h spend per user kept as hourly buckets. A check sums at most {@link #WINDOW_BUCKETS}
+ * rows instead of scanning the transaction table.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LimitLedgerService {
+    static final int WINDOW_BUCKETS = 24;
+
+    private final LimitLedgerBucketRepository bucketRepository;
+
+    @Transactional(readOnly = true)
+    public BigDecimal getSpentInWindow(Long userId, Instant now) {
+        BigDecimal spent = bucketRepository.sumSince(userId, windowStart(now));
+        return spent != null ? spent : BigDecimal.ZERO;
+    }
+
+    /**
+     * Adds the amount to the bucket of {@code at} and re-checks the window inside the same DB
+     * transaction. The upsert locks the bucket row, so concurrent reservations of one user are
+     * serialized and the second one sees the first.
+     */
+    @Transactional
+    public void reserve(Long userId, BigDecimal amount, Instant at, BigDecimal dailyLimit) {
+        bucketRepository.reserve(userId, bucketOf(at), amount);
+        BigDecimal spent = getSpentInWindow(userId, at);
+
+        if (spent.compareTo(dailyLimit) > 0) {
+            BigDecimal alreadySpent = spent.subtract(amount);
+            log.warn("Daily limit reservation rejected for user {}: spent {}, amount {}, limit {}",
+                    userId, alreadySpent, amount, dailyLimit);
+            throw new LimitExceededException("Daily limit exceeded. You already spent " + alreadySpent +
+                    " in last 24h. Limit is " + dailyLimit);
+        }
+    }
+
+    @Transactional
+    public void commit(Transaction tx) {
+        if (!tracks(tx.getTransactionType())) return;
+        int updated = bucketRepository.commit(tx.getUserId(), bucketOf(tx.getCreatedAt()), tx.getAmount());
+        if (updated == 0) {
+            log.warn("TX {} has no limit reservation to commit", tx.getId());
+        }
+    }
+
+    @Transactional
+    public void release(Transaction tx) {
+        if (!tracks(tx.getTransactionType())) return;
+        int updated = bucketRepository.release(tx.getUserId(), bucketOf(tx.getCreatedAt()), tx.getAmount());
+        if (updated == 0) {
+            log.warn("TX {} has no limit reservation to release", tx.getId());
+        }
+    }
+
+    public boolean tracks(TransactionType type) {
+        return type == TransactionType.TRANSFER || type == TransactionType.WITHDRAW;
+    }
+
+    static Instant bucketOf(Instant at) {
+        return at.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    static Instant windowStart(Instant now) {
+        return bucketOf(now).minus(WINDOW_BUCKETS - 1, ChronoUnit.HOURS);
+    }
+}
@@ -7,43 +7,55 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import transaction_service.transaction_service.dto.LimitResponseDto;
 import transaction_service.transaction_service.mapper.LimitMapper;
+import transaction_service.transaction_service.model.Transaction;
 import transaction_service.transaction_service.model.TransactionLimit;
 import transaction_service.transaction_service.repository.TransactionLimitRepository;
-import transaction_service.transaction_service.repository.TransactionRepository;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class LimitService {
     private final TransactionLimitRepository transactionLimitRepository;
-    private final TransactionRepository transactionRepository;
+    private final LimitLedgerService limitLedgerService;
 
     private final LimitMapper limitMapper;
 
     private static final BigDecimal DEFAULT_DAILY_LIMIT = new BigDecimal("5000");
     private static final BigDecimal DEFAULT_SINGLE_LIMIT = new BigDecimal("1000");
+    // limits change rarely; other nodes pick up an update after at most this long
+    private static final Duration LIMIT_CACHE_TTL = Duration.ofSeconds(60);
+    private static final int LIMIT_CACHE_MAX_SIZE = 10_000;
+
+    private final Map<Long, CachedLimit> limitCache = new ConcurrentHashMap<>();
+
     @Transactional
     public void checkTransactionLimit(Long userId, BigDecimal amount) {
-        TransactionLimit limit = transactionLimitRepository.findByUserId(userId)
-                .orElseGet(() -> createDefaultLimit(userId));
-        if(amount.compareTo(limit.getSingleLimit())>0){
-            throw new LimitExceededException("Transaction amount exceeds single limit of " + limit.getSingleLimit());
+        CachedLimit limit = resolveLimit(userId);
+        if(amount.compareTo(limit.singleLimit())>0){
+            throw new LimitExceededException("Transaction amount exceeds single limit of " + limit.singleLimit());
         }
-        Instant twentyFourHoursAgo = Instant.now().minus(24, ChronoUnit.HOURS);
-
-        BigDecimal spentInLast24h = transactionRepository.calculateTotalSpentForUserInLast24Hours(userId, twentyFourHoursAgo);
 
-        if (spentInLast24h == null) spentInLast24h = BigDecimal.ZERO;
+        BigDecimal spentInLast24h = limitLedgerService.getSpentInWindow(userId, Instant.now());
 
-        if (spentInLast24h.add(amount).compareTo(limit.getDailyLimit()) > 0) {
+        if (spentInLast24h.add(amount).compareTo(limit.dailyLimit()) > 0) {
             throw new LimitExceededException("Daily limit exceeded. You already spent " + spentInLast24h +
-                    " in last 24h. Limit is " + limit.getDailyLimit());
+                    " in last 24h. Limit is " + limit.dailyLimit());
         }
     }
+
+    @Transactional
+    public void reserveDailySpend(Transaction tx) {
+        if (!limitLedgerService.tracks(tx.getTransactionType())) return;
+        CachedLimit limit = resolveLimit(tx.getUserId());
+        limitLedgerService.reserve(tx.getUserId(), tx.getAmount(), tx.getCreatedAt(), limit.dailyLimit());
+    }
+
     @Transactional(readOnly = true)
     public LimitResponseDto getLimits(Long userId) {
         TransactionLimit limit = transactionLimitRepository.findByUserId(userId)
@@ -59,9 +71,33 @@ public class LimitService {
         limit.setDailyLimit(daily);
         limit.setSingleLimit(single);
         TransactionLimit saved = transactionLimitRepository.save(limit);
+        cacheLimit(userId, limit);
         return limitMapper.toDto(limit);
     }
 
+    private CachedLimit resolveLimit(Long userId) {
+        CachedLimit cached = limitCache.get(userId);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return cached;
+        }
+        TransactionLimit limit = transactionLimitRepository.findByUserId(userId)
+                .orElseGet(() -> createDefaultLimit(userId));
+        return cacheLimit(userId, limit);
+    }
+
+    private CachedLimit cacheLimit(Long userId, TransactionLimit limit) {
+        Instant now = Instant.now();
+        if (limitCache.size() >= LIMIT_CACHE_MAX_SIZE) {
+            limitCache.values().removeIf(c -> !c.expiresAt().isAfter(now));
+            if (limitCache.size() >= LIMIT_CACHE_MAX_SIZE) {
+                limitCache.clear();
+            }
+        }
+        CachedLimit cached = new CachedLimit(limit.getDailyLimit(), limit.getSingleLimit(), now.plus(LIMIT_CACHE_TTL));
+        limitCache.put(userId, cached);
+        return cached;
+    }
+
     private TransactionLimit createDefaultLimit(Long userId) {
         TransactionLimit newLimit = new TransactionLimit();
         newLimit.setUserId(userId);
@@ -71,5 +107,6 @@ public class LimitService {
         return transactionLimitRepository.save(newLimit);
     }
 
-
+    private record CachedLimit(BigDecimal dailyLimit, BigDecimal singleLimit, Instant expiresAt) {
+    }
 }
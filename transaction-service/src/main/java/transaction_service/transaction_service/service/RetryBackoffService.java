@@ -1,12 +1,144 @@
 package transaction_service.transaction_service.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
+import transaction_service.transaction_service.config.FeignClientInterceptor;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Schedules retries of lock-conflicted saga steps instead of sleeping on the caller's thread:
+ * the shared {@code taskScheduler} only waits out the delay and hands the retry, whose saga
+ * steps block on Feign calls, to {@code transactionRetryExecutor}. Delays grow exponentially from {@link #BASE_DELAY} up to
+ * {@link #MAX_DELAY} with equal jitter, so competing transactions do not retry in lockstep.
+ * Each account gets {@link #ACCOUNT_BUDGET} retries per {@link #BUDGET_WINDOW}; once spent,
+ * further conflicts on that account fail fast.
+ */
+@Slf4j
 @Service
 public class RetryBackoffService {
+    static final Duration BASE_DELAY = Duration.ofMillis(100);
+    static final Duration MAX_DELAY = Duration.ofSeconds(2);
+    static final int ACCOUNT_BUDGET = 20;
+    static final Duration BUDGET_WINDOW = Duration.ofSeconds(10);
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final TaskScheduler retryScheduler;
+    private final Executor retryExecutor;
+    private final ConcurrentHashMap<Long, Budget> budgets = new ConcurrentHashMap<>();
+    private final Counter scheduledRetries;
+    private final Counter exhaustedBudgets;
 
-    public void backoff(int attempt) throws InterruptedException {
-        Thread.sleep(100L * attempt);
+    public RetryBackoffService(@Qualifier("taskScheduler") TaskScheduler retryScheduler,
+                               @Qualifier("transactionRetryExecutor") Executor retryExecutor,
+                               MeterRegistry meterRegistry) {
+        this.retryScheduler = retryScheduler;
+        this.retryExecutor = retryExecutor;
+        this.scheduledRetries = Counter.builder("transaction.retry.scheduled")
+                .description("Saga retries scheduled after a lock conflict")
+                .register(meterRegistry);
+        this.exhaustedBudgets = Counter.builder("transaction.retry.budget_exhausted")
+                .description("Lock conflicts failed fast because the account retry budget was spent")
+                .register(meterRegistry);
     }
-}
 
+    /**
+     * Delay before retry number {@code attempt} (1-based): uniformly drawn from the upper half of
+     * {@code min(MAX_DELAY, BASE_DELAY * 2^(attempt - 1))}.
+     */
+    public Duration delay(int attempt) {
+        int shift = Math.min(Math.max(attempt - 1, 0), 20);
+        long ceiling = Math.min(MAX_DELAY.toMillis(), BASE_DELAY.toMillis() << shift);
+        long half = ceiling / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    /**
+     * Takes one retry from the account's budget. Returns false when the budget for the current
+     * window is spent.
+     */
+    public boolean tryAcquire(Long accountId) {
+        if (accountId == null) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        if (budgets.size() > SWEEP_THRESHOLD) {
+            budgets.values().removeIf(budget -> budget.expired(now));
+        }
+        Budget budget = budgets.compute(accountId,
+                (id, current) -> current == null || current.expired(now) ? new Budget(now) : current);
+        if (budget.used.incrementAndGet() <= ACCOUNT_BUDGET) {
+            return true;
+        }
+        exhaustedBudgets.increment();
+        log.warn("Retry budget exhausted for account {}", accountId);
+        return false;
+    }
+
+    /**
+     * Runs {@code retry} on the retry executor after {@link #delay(int)} and returns a future
+     * completed with its outcome. The caller's auth token is carried over for Feign calls.
+     */
+    public <T> CompletableFuture<T> schedule(int attempt, Supplier<CompletableFuture<T>> retry) {
+        Duration delay = delay(attempt);
+        String token = FeignClientInterceptor.currentToken();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        scheduledRetries.increment();
+        log.debug("Retry {} scheduled in {} ms", attempt, delay.toMillis());
+
+        Runnable run = () -> {
+            FeignClientInterceptor.setToken(token);
+            try {
+                retry.get().whenComplete((value, error) -> {
+                    if (error != null) {
+                        result.completeExceptionally(unwrap(error));
+                    } else {
+                        result.complete(value);
+                    }
+                });
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                FeignClientInterceptor.clearToken();
+            }
+        };
+        retryScheduler.schedule(() -> {
+            try {
+                retryExecutor.execute(run);
+            } catch (RejectedExecutionException e) {
+                result.completeExceptionally(e);
+            }
+        }, Instant.now().plus(delay));
+        return result;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static final class Budget {
+        private final long windowStart;
+        private final AtomicInteger used = new AtomicInteger();
+
+        private Budget(long windowStart) {
+            this.windowStart = windowStart;
+        }
+
+        private boolean expired(long now) {
+            return now - windowStart >= BUDGET_WINDOW.toMillis();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package transaction_service.transaction_service.service;
+
+import core.core.enums.Currency;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import transaction_service.transaction_service.model.DailySpendRollup;
+import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.model.TransactionType;
+import transaction_service.transaction_service.repository.DailySpendRollupRepository;
+import transaction_service.transaction_service.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps {@link DailySpendRollup} in step with COMPLETED transactions. {@link #record} must run
+ * in the DB transaction that moves the transaction into COMPLETED: the conditional status UPDATE
+ * succeeds once per change, so the delta is applied exactly once and rolls back with it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SpendRollupService {
+    private final DailySpendRollupRepository rollupRepository;
+    private final TransactionRepository transactionRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Transaction tx) {
+        if (!tracks(tx.getTransactionType())) return;
+        apply(tx, tx.getAmount(), 1);
+        log.debug("TX {} added to spend rollup of user {}", tx.getId(), tx.getUserId());
+    }
+
+    /**
+     * Differences between the rollup of {@code userId} over the days {@code [from, to]} and the
+     * transactions it was built from, per category and currency. Both sides are read in one
+     * read-only DB transaction so a transaction completing meanwhile is seen by both or neither.
+     */
+    @Transactional(readOnly = true)
+    public List<Mismatch> compare(Long userId, LocalDate from, LocalDate to) {
+        Map<Key, Totals> raw = totals(transactionRepository.getSpendTotals(userId,
+                startOf(from), startOf(to.plusDays(1))));
+        Map<Key, Totals> rolledUp = totals(rollupRepository.getSpendTotals(userId, from, to));
+
+        Set<Key> keys = new HashSet<>(raw.keySet());
+        keys.addAll(rolledUp.keySet());
+        List<Mismatch> mismatches = new ArrayList<>();
+        for (Key key : keys) {
+            Totals expected = raw.getOrDefault(key, Totals.NONE);
+            Totals actual = rolledUp.getOrDefault(key, Totals.NONE);
+            if (expected.count() != actual.count() || expected.amount().compareTo(actual.amount()) != 0) {
+                mismatches.add(new Mismatch(key.categoryId(), key.currency(),
+                        expected.amount(), expected.count(), actual.amount(), actual.count()));
+            }
+        }
+        return mismatches;
+    }
+
+    public boolean tracks(TransactionType type) {
+        return type == TransactionType.TRANSFER || type == TransactionType.WITHDRAW;
+    }
+
+    // the debited amount, in the currency it was debited in; the credited amount of a
+    // conversion is in the target account's currency, which the row is not keyed by
+    private void apply(Transaction tx, BigDecimal amount, long count) {
+        Long categoryId = tx.getCategory() != null ? tx.getCategory().getId() : DailySpendRollup.NO_CATEGORY;
+        rollupRepository.add(tx.getUserId(), dayOf(tx.getCreatedAt()), categoryId,
+                tx.getCurrency().name(), amount, count);
+    }
+
+    public static LocalDate dayOf(Instant at) {
+        return LocalDate.ofInstant(at, ZoneOffset.UTC);
+    }
+
+    public static Instant startOf(LocalDate day) {
+        return day.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    private static Map<Key, Totals> totals(List<Object[]> rows) {
+        Map<Key, Totals> totals = new HashMap<>();
+        for (Object[] row : rows) {
+            Long categoryId = row[0] != null ? (Long) row[0] : DailySpendRollup.NO_CATEGORY;
+            BigDecimal amount = row[2] != null ? (BigDecimal) row[2] : BigDecimal.ZERO;
+            long count = row[3] != null ? ((Number) row[3]).longValue() : 0;
+            totals.put(new Key(categoryId, (Currency) row[1]), new Totals(amount, count));
+        }
+        return totals;
+    }
+
+    public record Mismatch(Long categoryId, Currency currency,
+                           BigDecimal expectedAmount, long expectedCount,
+                           BigDecimal actualAmount, long actualCount) {
+    }
+
+    private record Key(Long categoryId, Currency currency) {
+    }
+
+    private record Totals(BigDecimal amount, long count) {
+        static final Totals NONE = new Totals(BigDecimal.ZERO, 0);
+    }
+}
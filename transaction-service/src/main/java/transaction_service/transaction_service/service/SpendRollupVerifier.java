@@ -0,0 +1,94 @@
+package transaction_service.transaction_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import transaction_service.transaction_service.repository.TransactionRepository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Periodically compares the spend rollup of a random page of recently active users with their
+ * raw transactions over the last {@code days} days. Differences are logged and counted, not
+ * repaired: a mismatch means an increment was lost or applied twice and needs a look.
+ */
+@Slf4j
+@Service
+public class SpendRollupVerifier {
+    private final TransactionRepository transactionRepository;
+    private final SpendRollupService spendRollupService;
+    private final int sampleSize;
+    private final int days;
+    private final boolean enabled;
+    private final Counter checked;
+    private final Counter mismatched;
+
+    public SpendRollupVerifier(TransactionRepository transactionRepository,
+                               SpendRollupService spendRollupService,
+                               MeterRegistry meterRegistry,
+                               @Value("${transaction.rollup.verification.sample-size:50}") int sampleSize,
+                               @Value("${transaction.rollup.verification.days:7}") int days,
+                               @Value("${transaction.rollup.verification.enabled:true}") boolean enabled) {
+        this.transactionRepository = transactionRepository;
+        this.spendRollupService = spendRollupService;
+        this.sampleSize = sampleSize;
+        this.days = days;
+        this.enabled = enabled;
+        this.checked = Counter.builder("transaction.rollup.verification.checked")
+                .description("Users whose spend rollup was compared with their transactions")
+                .register(meterRegistry);
+        this.mismatched = Counter.builder("transaction.rollup.verification.mismatches")
+                .description("Checked users whose spend rollup differs from their transactions")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${transaction.rollup.verification.interval:PT1H}",
+            fixedDelayString = "${transaction.rollup.verification.interval:PT1H}")
+    void scheduledVerification() {
+        if (enabled) {
+            verifySample();
+        }
+    }
+
+    /**
+     * Checks one sample and returns how many of its users had a mismatch.
+     */
+    public int verifySample() {
+        LocalDate to = SpendRollupService.dayOf(Instant.now());
+        LocalDate from = to.minusDays(days - 1L);
+        Instant since = SpendRollupService.startOf(from);
+
+        long users = transactionRepository.countSpendingUsersSince(since);
+        if (users == 0) {
+            return 0;
+        }
+        int pages = (int) Math.min(Integer.MAX_VALUE, (users + sampleSize - 1) / sampleSize);
+        List<Long> sample = transactionRepository.findSpendingUsersSince(since,
+                PageRequest.of(ThreadLocalRandom.current().nextInt(pages), sampleSize));
+
+        int mismatchedUsers = 0;
+        for (Long userId : sample) {
+            try {
+                List<SpendRollupService.Mismatch> mismatches = spendRollupService.compare(userId, from, to);
+                checked.increment();
+                if (!mismatches.isEmpty()) {
+                    mismatchedUsers++;
+                    mismatched.increment();
+                    log.warn("Spend rollup of user {} differs from transactions for {}..{}: {}",
+                            userId, from, to, mismatches);
+                }
+            } catch (RuntimeException e) {
+                log.error("Spend rollup verification failed for user {}", userId, e);
+            }
+        }
+        log.info("Spend rollup verification checked {} users, {} mismatched", sample.size(), mismatchedUsers);
+        return mismatchedUsers;
+    }
+}
@@ -6,22 +6,31 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import transaction_service.transaction_service.model.*;
 import transaction_service.transaction_service.repository.TransactionRepository;
+import transaction_service.transaction_service.service.validate.VelocityTracker;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TransactionCreationService {
     private final TransactionRepository transactionRepository;
+    private final LimitService limitService;
+    private final VelocityTracker velocityTracker;
+    private final AccountLedgerService accountLedgerService;
 
     @Transactional
     public Transaction createTransaction(Long sourceId, Long targetId, BigDecimal amount,
                                          Currency currency, TransactionType type, String idempotencyKey, Long userId, TransactionCategory category,BigDecimal rate, BigDecimal targetAmount) {
 
+        // create_at keeps whole seconds; a reloaded row must land in the ledger bucket reserved here
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
         Transaction tx = Transaction.builder()
                 .userId(userId)
                 .sourceAccountId(sourceId)
@@ -29,9 +38,10 @@ public class TransactionCreationService {
                 .amount(amount)
                 .targetAmount(targetAmount)
                 .exchangeRate(rate)
-                .status(Status.CREATED)
+                .status(Status.PROCESSING)
                 .currency(currency)
-                .createdAt(Instant.now())
+                .createdAt(now)
+                .updatedAt(now)
                 .idempotencyKey(idempotencyKey)
                 .transactionType(type)
                 .step(TransactionStep.NONE)
@@ -39,7 +49,25 @@ public class TransactionCreationService {
                 .build();
 
         Transaction saved = transactionRepository.save(tx);
+        accountLedgerService.append(saved);
+        limitService.reserveDailySpend(saved);
+        recordVelocityAfterCommit(saved);
         log.info("TX {} created (Type: {}, Rate: {})", saved.getId(), type, rate);
         return saved;
     }
+
+    // Redis is not part of the DB transaction: recording before the commit would leave an entry
+    // for a transaction that was rolled back
+    private void recordVelocityAfterCommit(Transaction tx) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            velocityTracker.record(tx.getUserId(), tx.getId(), tx.getCreatedAt());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                velocityTracker.record(tx.getUserId(), tx.getId(), tx.getCreatedAt());
+            }
+        });
+    }
 }
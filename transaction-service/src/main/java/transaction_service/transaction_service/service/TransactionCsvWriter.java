@@ -0,0 +1,104 @@
+package transaction_service.transaction_service.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import transaction_service.transaction_service.repository.AccountLedgerEntryRepository;
+import transaction_service.transaction_service.repository.TransactionExportRow;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes an account's history as CSV while scrolling it. Memory is bounded by the JDBC fetch
+ * size and the write buffer, whatever the number of rows.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionCsvWriter {
+    static final String HEADER = "id,sourceAccountId,targetAccountId,amount,targetAmount,"
+            + "exchangeRate,currency,status,transactionType,category,createdAt,updatedAt,error\n";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final AccountLedgerEntryRepository ledgerRepository;
+
+    /**
+     * Streams the rows to {@code out}, gzip-compressed when asked, and returns how many were
+     * written. {@code out} is flushed but left open for the caller.
+     */
+    @Transactional(readOnly = true)
+    public long write(Long accountId, OutputStream out, boolean gzip) throws IOException {
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(
+                compressed != null ? compressed : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        long rows = 0;
+        writer.write(HEADER);
+        try (Stream<TransactionExportRow> stream = ledgerRepository.streamExportRows(accountId)) {
+            Iterator<TransactionExportRow> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                writeRow(writer, iterator.next());
+                rows++;
+            }
+        }
+        writer.flush();
+        if (compressed != null) {
+            compressed.finish();
+        }
+        out.flush();
+        return rows;
+    }
+
+    private void writeRow(Writer writer, TransactionExportRow row) throws IOException {
+        writer.write(String.valueOf(row.id()));
+        writer.write(',');
+        writer.write(nullSafe(row.sourceAccountId()));
+        writer.write(',');
+        writer.write(nullSafe(row.targetAccountId()));
+        writer.write(',');
+        writer.write(nullSafe(row.amount()));
+        writer.write(',');
+        writer.write(nullSafe(row.targetAmount()));
+        writer.write(',');
+        writer.write(nullSafe(row.exchangeRate()));
+        writer.write(',');
+        writer.write(nullSafe(row.currency()));
+        writer.write(',');
+        writer.write(nullSafe(row.status()));
+        writer.write(',');
+        writer.write(nullSafe(row.transactionType()));
+        writer.write(',');
+        writer.write(escape(row.categoryName()));
+        writer.write(',');
+        writer.write(nullSafe(row.createdAt()));
+        writer.write(',');
+        writer.write(nullSafe(row.updatedAt()));
+        writer.write(',');
+        writer.write(escape(row.errorMessage()));
+        writer.write('\n');
+    }
+
+    private static String nullSafe(Object value) {
+        return value != null ? value.toString() : "";
+    }
+
+    /**
+     * Quotes free text that would otherwise break the row: commas, quotes or line breaks.
+     */
+    static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,71 @@
+package transaction_service.transaction_service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Drains the transaction outbox to Kafka in batches of {@code batch-size}, every
+ * {@code interval} and back to back while full batches keep going through. Sent rows are
+ * deleted once older than {@code retention}, checked every {@code purge-interval}.
+ */
+@Slf4j
+@Service
+public class TransactionOutboxRelay {
+    private final TransactionOutboxService outboxService;
+    private final int batchSize;
+    private final Duration retention;
+    private final boolean enabled;
+
+    public TransactionOutboxRelay(TransactionOutboxService outboxService,
+                                  @Value("${transaction.outbox.relay.batch-size:500}") int batchSize,
+                                  @Value("${transaction.outbox.retention:PT24H}") Duration retention,
+                                  @Value("${transaction.outbox.relay.enabled:true}") boolean enabled) {
+        this.outboxService = outboxService;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.enabled = enabled;
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.outbox.relay.interval:PT0.2S}")
+    void scheduledDrain() {
+        if (enabled) {
+            drain();
+        }
+    }
+
+    /**
+     * Relays batches until one comes back short: the backlog is empty or the broker is failing,
+     * and either way the next run is soon enough. Returns how many events were sent.
+     */
+    public long drain() {
+        long sent = 0;
+        try {
+            int batch;
+            do {
+                batch = outboxService.relayBatch(batchSize);
+                sent += batch;
+            } while (batch == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Outbox relay run failed after {} events", sent, e);
+        }
+        return sent;
+    }
+
+    @Scheduled(initialDelayString = "${transaction.outbox.purge-interval:PT1H}",
+            fixedDelayString = "${transaction.outbox.purge-interval:PT1H}")
+    void purge() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            outboxService.purgeSent(Instant.now().minus(retention));
+        } catch (RuntimeException e) {
+            log.error("Outbox purge failed", e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package transaction_service.transaction_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import transaction_service.transaction_service.event.kafka.TransactionEventPublisher;
+import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.model.TransactionOutbox;
+import transaction_service.transaction_service.repository.TransactionOutboxRepository;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Service
+public class TransactionOutboxService {
+    private final TransactionOutboxRepository outboxRepository;
+    private final TransactionEventPublisher eventPublisher;
+    private final Counter published;
+    private final Counter failed;
+
+    public TransactionOutboxService(TransactionOutboxRepository outboxRepository,
+                                    TransactionEventPublisher eventPublisher,
+                                    MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.published = Counter.builder("transaction.outbox.published")
+                .description("Outbox events acknowledged by Kafka")
+                .register(meterRegistry);
+        this.failed = Counter.builder("transaction.outbox.failed")
+                .description("Outbox event sends that failed and will be retried")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues the transaction.completed event; must run in the DB transaction of the status change.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(Transaction tx) {
+        outboxRepository.save(eventPublisher.outboxOf(tx));
+    }
+
+    /**
+     * Claims up to {@code batchSize} unsent rows, publishes them and marks the acknowledged ones
+     * sent. The claim holds the row locks until the sends are settled. Returns how many were sent.
+     */
+    @Transactional
+    public int relayBatch(int batchSize) {
+        List<TransactionOutbox> batch = outboxRepository.claimPending(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<Long> sent = eventPublisher.publish(batch);
+        if (!sent.isEmpty()) {
+            outboxRepository.markSent(sent, Instant.now());
+            published.increment(sent.size());
+        }
+        if (sent.size() < batch.size()) {
+            Set<Long> acknowledged = new HashSet<>(sent);
+            List<Long> unsent = batch.stream()
+                    .map(TransactionOutbox::getId)
+                    .filter(id -> !acknowledged.contains(id))
+                    .toList();
+            outboxRepository.recordFailure(unsent);
+            failed.increment(unsent.size());
+        }
+        return sent.size();
+    }
+
+    @Transactional
+    public int purgeSent(Instant before) {
+        int deleted = outboxRepository.deleteSentBefore(before);
+        if (deleted > 0) {
+            log.info("Purged {} sent outbox events older than {}", deleted, before);
+        }
+        return deleted;
+    }
+}
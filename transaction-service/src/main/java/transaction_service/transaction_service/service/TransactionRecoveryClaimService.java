@@ -0,0 +1,36 @@
+package transaction_service.transaction_service.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import transaction_service.transaction_service.model.Status;
+import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.repository.TransactionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class TransactionRecoveryClaimService {
+    private final TransactionRepository transactionRepository;
+
+    /**
+     * Leases up to {@code limit} PROCESSING transactions that were last updated before
+     * {@code threshold}. The row locks last only for this short
+     * transaction; the lease then keeps the rows away from other instances for {@code lease}
+     * while the caller replays them.
+     */
+    @Transactional
+    public List<Transaction> claim(Instant threshold, Duration lease, int limit) {
+        Instant now = Instant.now();
+        List<Transaction> batch = transactionRepository.claimStuck(
+                Status.PROCESSING, threshold, now, PageRequest.of(0, limit));
+        if (!batch.isEmpty()) {
+            transactionRepository.leaseForRecovery(batch.stream().map(Transaction::getId).toList(), now.plus(lease));
+        }
+        return batch;
+    }
+}
@@ -1,66 +1,127 @@
 package transaction_service.transaction_service.service;
-import lombok.RequiredArgsConstructor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import transaction_service.transaction_service.model.Status;
 import transaction_service.transaction_service.model.Transaction;
 import transaction_service.transaction_service.model.TransactionType;
-import transaction_service.transaction_service.repository.TransactionRepository;
 import transaction_service.transaction_service.service.strategy.FinancialOperationStrategy;
 
+import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+/**
+ * Replays transactions stuck in PROCESSING for longer than {@code processing-timeout}, every
+ * {@code interval}. Instances lease them in batches of {@code batch-size}, skipping rows another
+ * instance is claiming, and replay a batch on the recovery executor.
+ *
+ * <p>Starts after {@code SagaJournalService}, so steps journaled before a crash are in the rows
+ * it replays. A leased transaction is not claimed again until its lease ends or it leaves
+ * PROCESSING; the final status change is a compare-and-set, so at most one replay completes or
+ * fails it.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
+@DependsOn("sagaJournalService")
 public class TransactionRecoveryService {
-    private final TransactionRepository transactionRepository;
+    private final TransactionRecoveryClaimService claimService;
     private final TransactionStateService transactionStateService;
-    private static final long PROCESSING_TIMEOUT_MINUTES = 5;
     private final Map<TransactionType, FinancialOperationStrategy> strategies;
-    @Scheduled(fixedDelay = 5, timeUnit = TimeUnit.MINUTES)
-    @Transactional
-    public void recoverStuckTransactions() {
-        log.info("Starting recovery process for stuck transactions...");
-
-        Instant timeoutThreshold = Instant.now().minus(PROCESSING_TIMEOUT_MINUTES, ChronoUnit.MINUTES);
+    private final Executor recoveryExecutor;
+    private final Duration processingTimeout;
+    private final Duration lease;
+    private final int batchSize;
+    private final boolean enabled;
+    private final Counter recovered;
+    private final Counter failed;
 
-        List<Transaction> stuckTransactions = transactionRepository
-                .findByStatusAndUpdatedAtBefore(Status.PROCESSING, timeoutThreshold);
+    public TransactionRecoveryService(TransactionRecoveryClaimService claimService,
+                                      TransactionStateService transactionStateService,
+                                      Map<TransactionType, FinancialOperationStrategy> strategies,
+                                      @Qualifier("recoveryWorkExecutor") Executor recoveryExecutor,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${transaction.recovery.processing-timeout:PT5M}") Duration processingTimeout,
+                                      @Value("${transaction.recovery.lease:PT10M}") Duration lease,
+                                      @Value("${transaction.recovery.batch-size:100}") int batchSize,
+                                      @Value("${transaction.recovery.enabled:true}") boolean enabled) {
+        this.claimService = claimService;
+        this.transactionStateService = transactionStateService;
+        this.strategies = strategies;
+        this.recoveryExecutor = recoveryExecutor;
+        this.processingTimeout = processingTimeout;
+        this.lease = lease;
+        this.batchSize = batchSize;
+        this.enabled = enabled;
+        this.recovered = Counter.builder("transaction.recovery.completed")
+                .description("Stuck transactions completed by recovery")
+                .register(meterRegistry);
+        this.failed = Counter.builder("transaction.recovery.failed")
+                .description("Stuck transactions marked FAILED by recovery")
+                .register(meterRegistry);
+    }
 
-        if (stuckTransactions.isEmpty()) {
-            log.info("No stuck transactions found.");
-            return;
+    @Scheduled(fixedDelayString = "${transaction.recovery.interval:PT1M}")
+    void scheduledRecovery() {
+        if (enabled) {
+            recoverStuckTransactions();
         }
+    }
 
-        log.warn("Found {} stuck transactions (PROCESSING > {} mins). Attempting recovery.",
-                stuckTransactions.size(), PROCESSING_TIMEOUT_MINUTES);
+    /**
+     * Leases and replays batches until one comes back short. Returns how many transactions were
+     * replayed.
+     */
+    public long recoverStuckTransactions() {
+        Instant threshold = Instant.now().minus(processingTimeout);
+        long replayed = 0;
+        try {
+            List<Transaction> batch;
+            do {
+                batch = claimService.claim(threshold, lease, batchSize);
+                CompletableFuture.allOf(batch.stream()
+                                .map(tx -> CompletableFuture.runAsync(() -> recover(tx), recoveryExecutor))
+                                .toArray(CompletableFuture[]::new))
+                        .join();
+                replayed += batch.size();
+            } while (batch.size() == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Recovery run failed after {} transactions", replayed, e);
+        }
+        if (replayed > 0) {
+            log.info("Recovery run replayed {} stuck transactions (PROCESSING > {})", replayed, processingTimeout);
+        }
+        return replayed;
+    }
 
-        for (Transaction tx : stuckTransactions) {
-            try {
-                log.info("TX {} attempting retry (Type: {}, Step: {})", tx.getId(), tx.getTransactionType(), tx.getStep());
-                strategies.get(tx.getTransactionType())
-                        .execute(
-                                tx,
-                                tx.getSourceAccountId(),
-                                tx.getTargetAccountId(),
-                                tx.getAmount()
-                        );
-                transactionStateService.updateStatus(tx.getId(), Status.COMPLETED, null);
+    private void recover(Transaction tx) {
+        try {
+            log.info("TX {} attempting retry (Type: {}, Step: {})", tx.getId(), tx.getTransactionType(), tx.getStep());
+            strategies.get(tx.getTransactionType())
+                    .execute(
+                            tx,
+                            tx.getSourceAccountId(),
+                            tx.getTargetAccountId(),
+                            tx.getAmount()
+                    );
+            if (transactionStateService.complete(tx)) {
+                recovered.increment();
                 log.info("TX {} successfully recovered and set to COMPLETED.", tx.getId());
-
-            } catch (Exception e) {
-                String errorMsg = "Recovery failed: " + e.getMessage();
-                log.error("TX {} final recovery FAILED. Marking FAILED. Error: {}", tx.getId(), errorMsg);
-                transactionStateService.updateStatus(tx.getId(), Status.FAILED, errorMsg);
+            }
+        } catch (Exception e) {
+            String errorMsg = "Recovery failed: " + e.getMessage();
+            log.error("TX {} final recovery FAILED. Marking FAILED. Error: {}", tx.getId(), errorMsg);
+            if (transactionStateService.fail(tx, errorMsg)) {
+                failed.increment();
             }
         }
-        log.info("Recovery process finished.");
     }
 }
@@ -9,11 +9,12 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import transaction_service.transaction_service.dto.*;
-import transaction_service.transaction_service.event.kafka.TransactionEventPublisher;
 import transaction_service.transaction_service.mapper.TransactionMapper;
 import transaction_service.transaction_service.model.*;
+import transaction_service.transaction_service.repository.AccountLedgerEntryRepository;
 import transaction_service.transaction_service.repository.TransactionRepository;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import transaction_service.transaction_service.service.strategy.FinancialOperationStrategy;
 import transaction_service.transaction_service.service.validate.AccountAccessService;
@@ -26,12 +27,16 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 
 @Slf4j
 @Service
 public class TransactionService {
+    private static final int MAX_ATTEMPTS = 3;
+
     private final TransactionRepository transactionRepository;
     private final CategoryService categoryService;
     private final TransactionStateService transactionStateService;
@@ -39,11 +44,13 @@ public class TransactionService {
     private Map<TransactionType, FinancialOperationStrategy> strategies;
     private final TransactionValidationService transactionValidationService;
     private final AccountAccessService accountAccessService;
-    private final AccountOperationService accountOperationService;
     private final TransactionCreationService transactionCreationService;
     private final RetryBackoffService retryBackoffService;
     private final ParallelValidationService parallelValidationService;
-    private final TransactionEventPublisher transactionEventPublisher;
+    private final TransferPrefetchService transferPrefetchService;
+    private final TransferWorkQueue transferWorkQueue;
+    private final IdempotencyService idempotencyService;
+    private final AccountLedgerEntryRepository accountLedgerEntryRepository;
 
     public TransactionService(
             TransactionRepository transactionRepository,
@@ -53,12 +60,13 @@ public class TransactionService {
             List<FinancialOperationStrategy> strategyList,
             TransactionValidationService transactionValidationService,
             AccountAccessService accountAccessService,
-            AccountOperationService accountOperationService,
             TransactionCreationService transactionCreationService,
             RetryBackoffService retryBackoffService,
             ParallelValidationService parallelValidationService,
-            TransactionEventPublisher transactionEventPublisher
-
+            TransferPrefetchService transferPrefetchService,
+            TransferWorkQueue transferWorkQueue,
+            IdempotencyService idempotencyService,
+            AccountLedgerEntryRepository accountLedgerEntryRepository
     ) {
         this.transactionRepository = transactionRepository;
         this.categoryService = categoryService;
@@ -71,34 +79,109 @@ public class TransactionService {
                 ));
         this.transactionValidationService = transactionValidationService;
         this.accountAccessService = accountAccessService;
-        this.accountOperationService = accountOperationService;
         this.transactionCreationService = transactionCreationService;
         this.retryBackoffService = retryBackoffService;
         this.parallelValidationService = parallelValidationService;
-        this.transactionEventPublisher= transactionEventPublisher;
+        this.transferPrefetchService = transferPrefetchService;
+        this.transferWorkQueue = transferWorkQueue;
+        this.idempotencyService = idempotencyService;
+        this.accountLedgerEntryRepository = accountLedgerEntryRepository;
     }
     public TransactionResponseDto transfer(TransactionRequestDto dto, Long userId, String idempotencyKey) {
+        return transfer(dto, userId, idempotencyKey, null);
+    }
+
+    public TransactionResponseDto transfer(TransactionRequestDto dto, Long userId, String idempotencyKey,
+                                           Map<Long, AccountResponseDto> resolvedAccounts) {
+        return await(transferAsync(dto, userId, idempotencyKey, resolvedAccounts));
+    }
+
+    public CompletableFuture<TransactionResponseDto> transferAsync(TransactionRequestDto dto, Long userId,
+                                                                   String idempotencyKey) {
+        return transferAsync(dto, userId, idempotencyKey, null);
+    }
 
+    /**
+     * Runs the transfer up to its first saga attempt on the calling thread. If that attempt hits
+     * a lock conflict, the returned future completes from the retry scheduler instead.
+     * A retry of a recently finished transfer is answered from the replay cache.
+     */
+    public CompletableFuture<TransactionResponseDto> transferAsync(TransactionRequestDto dto, Long userId,
+                                                                   String idempotencyKey,
+                                                                   Map<Long, AccountResponseDto> resolvedAccounts) {
         validateIdempotency(idempotencyKey);
-        AccountResponseDto from = accountAccessService.validateAccountOwnership(dto.getSourceAccountId(), userId);
-        AccountResponseDto to = accountOperationService.getAccountById(dto.getTargetAccountId());
-        transactionValidationService.validateAccounts(from, to, dto);
+        Optional<TransactionResponseDto> replay = idempotencyService.replay(idempotencyKey, userId);
+        if (replay.isPresent()) {
+            return CompletableFuture.completedFuture(replay.get());
+        }
+        return process(admitTransfer(dto, userId, idempotencyKey, resolvedAccounts, false));
+    }
+
+    /**
+     * Validates and persists the transfer, then hands the saga to the transfer work queue without
+     * waiting for it. A repeated idempotency key returns the stored transaction's status.
+     */
+    public TransactionStatusDto submitTransfer(TransactionRequestDto dto, Long userId, String idempotencyKey) {
+        Admission admission = admitTransfer(dto, userId, idempotencyKey, null, false);
+        Transaction tx = admission.transaction();
+        // snapshot before queueing: the worker mutates tx as soon as it starts
+        TransactionStatusDto accepted = TransactionStatusDto.builder()
+                .transactionId(tx.getId())
+                .status(tx.getStatus())
+                .step(tx.getStep())
+                .error(tx.getErrorMessage())
+                .updatedAt(tx.getUpdatedAt())
+                .build();
+        if (admission.created() && !transferWorkQueue.submit(tx.getId(), () -> runSaga(tx,
+                tx.getSourceAccountId(), tx.getTargetAccountId(), tx.getTransactionType(), 1))) {
+            transactionStateService.fail(tx, "Transfer queue is full");
+            throw new ExternalServiceException("Transfer queue is full, try again later");
+        }
+        return accepted;
+    }
 
+    /**
+     * Validates and persists the transfer as PROCESSING without running its saga; bulk transfers
+     * debit the source once for all admitted items and then {@link #settle} each of them.
+     * {@code inlineLookups} runs the prefetch lookups and the limit/fraud checks on the calling
+     * thread, for callers that are already on a validation worker.
+     */
+    public Admission admitTransfer(TransactionRequestDto dto, Long userId, String idempotencyKey,
+                                   Map<Long, AccountResponseDto> resolvedAccounts, boolean inlineLookups) {
+        validateIdempotency(idempotencyKey);
+        TransferSnapshot snapshot = transferPrefetchService.prefetch(dto, userId, idempotencyKey,
+                resolvedAccounts, inlineLookups);
+        AccountResponseDto from = snapshot.getSourceAccount();
+        AccountResponseDto to = snapshot.getTargetAccount();
+        transactionValidationService.validateAccounts(from, to, dto);
+        TransactionCategory category = snapshot.getCategory();
 
-        return processTransaction(
+        return admit(
             from.getId(),
             to.getId(),
+            to.getCurrency(),
             dto.getAmount(),
             from.getCurrency(),
             TransactionType.TRANSFER,
             idempotencyKey,
-                userId,dto.getCategoryId(),
-                from.getCreateAt()
+                userId,category,
+                snapshot.getExistingTransaction(),
+                from.getCreateAt(),
+                inlineLookups
         );
     }
 
     public TransactionResponseDto deposit(DepositRequestDto dto, String idempotencyKey, Long userId) {
+        return await(depositAsync(dto, idempotencyKey, userId));
+    }
+
+    public CompletableFuture<TransactionResponseDto> depositAsync(DepositRequestDto dto, String idempotencyKey,
+                                                                  Long userId) {
         validateIdempotency(idempotencyKey);
+        Optional<TransactionResponseDto> replay = idempotencyService.replay(idempotencyKey, userId);
+        if (replay.isPresent()) {
+            return CompletableFuture.completedFuture(replay.get());
+        }
 
         AccountResponseDto targetAccount = accountAccessService.validateAccountOwnership(dto.getTargetAccountId(), userId);
         if (!targetAccount.getUserId().equals(userId)) {
@@ -120,7 +203,16 @@ public class TransactionService {
     }
 
     public TransactionResponseDto withdraw(WithdrawRequestDto dto, Long userId, String idempotencyKey) {
+        return await(withdrawAsync(dto, userId, idempotencyKey));
+    }
+
+    public CompletableFuture<TransactionResponseDto> withdrawAsync(WithdrawRequestDto dto, Long userId,
+                                                                   String idempotencyKey) {
         validateIdempotency(idempotencyKey);
+        Optional<TransactionResponseDto> replay = idempotencyService.replay(idempotencyKey, userId);
+        if (replay.isPresent()) {
+            return CompletableFuture.completedFuture(replay.get());
+        }
 
         AccountResponseDto sourceAccount = accountAccessService.validateAccountOwnership(dto.getSourceAccountId(), userId);
 
@@ -139,26 +231,90 @@ public class TransactionService {
     }
     public Page<TransactionResponseDto> getHistory(Long accountId, Pageable pageable,Long userId) {
         accountAccessService.validateAccountOwnership(accountId, userId);
-        Page<Transaction> transactions = transactionRepository
-                .findBySourceAccountIdOrTargetAccountId(accountId, accountId, pageable);
+        Page<Transaction> transactions = accountLedgerEntryRepository.findHistory(accountId, pageable);
 
         return transactions.map(transactionMapper::toDto);
     }
-    private TransactionResponseDto processTransaction(
+
+    /**
+     * Keyset-paginated history: no count query and no offset, so any slice costs the same. Reads
+     * {@code size + 1} ledger entries of the account; the extra one only tells whether there is
+     * a next slice.
+     */
+    public HistorySliceResponse getHistorySlice(Long accountId, String cursor, int size, Long userId) {
+        accountAccessService.validateAccountOwnership(accountId, userId);
+        HistoryCursor after = HistoryCursor.decode(cursor);
+
+        List<Transaction> rows = accountLedgerEntryRepository.findHistoryBefore(
+                accountId, after.createdAt(), after.id(), PageRequest.of(0, size + 1));
+
+        boolean hasNext = rows.size() > size;
+        List<Transaction> slice = hasNext ? rows.subList(0, size) : rows;
+        return HistorySliceResponse.builder()
+                .content(slice.stream().map(transactionMapper::toDto).toList())
+                .nextCursor(hasNext ? HistoryCursor.of(slice.get(slice.size() - 1)).encode() : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    private CompletableFuture<TransactionResponseDto> processTransaction(
             Long sourceAccountId, Long targetAccountId, BigDecimal amount,
             Currency currency, TransactionType type, String idempotencyKey,
             Long userId, Long categoryId, Instant accountCreatedAt)
     {
         TransactionCategory category = categoryService.validateAndGetCategory(categoryId, userId, type);
-        Optional<Transaction> existingTx = transactionRepository.findByIdempotencyKey(idempotencyKey);
+        Optional<Transaction> existingTx = idempotencyService.mightExist(idempotencyKey)
+                ? transactionRepository.findByIdempotencyKey(idempotencyKey)
+                : Optional.empty();
+        return process(admit(sourceAccountId, targetAccountId, null, amount, currency, type,
+                idempotencyKey, userId, category, existingTx, accountCreatedAt, false));
+    }
+
+    /**
+     * Runs the saga of an admitted transfer from its current step; a transfer admitted earlier
+     * under the same key is answered with its stored state.
+     */
+    public CompletableFuture<TransactionResponseDto> settle(Admission admission) {
+        return process(admission);
+    }
+
+    private CompletableFuture<TransactionResponseDto> process(Admission admission) {
+        Transaction tx = admission.transaction();
+        if (!admission.created()) {
+            return CompletableFuture.completedFuture(respond(tx));
+        }
+        return runSaga(tx, tx.getSourceAccountId(), tx.getTargetAccountId(), tx.getTransactionType(), 1);
+    }
+
+    /**
+     * Runs the limit/fraud/rate checks and persists the transaction as PROCESSING. When the
+     * idempotency key is already taken, the stored transaction is returned instead. A key the
+     * filter reported as new was not looked up, so a rejected check is re-tried against the
+     * stored transactions before it is surfaced: a retry of a request admitted on another
+     * instance must replay, not fail on limits its first attempt already used.
+     */
+    private Admission admit(
+            Long sourceAccountId, Long targetAccountId, Currency targetCurrency, BigDecimal amount,
+            Currency currency, TransactionType type, String idempotencyKey,
+            Long userId, TransactionCategory category, Optional<Transaction> existingTx,
+            Instant accountCreatedAt, boolean inlineLookups)
+    {
         if (existingTx.isPresent()) {
-            Transaction tx = existingTx.get();
-            TransactionResponseDto txDto = transactionMapper.toDto(tx);
-            return txDto;
+            return new Admission(existingTx.get(), false);
+        }
+        ValidationResult validation;
+        try {
+            validation = parallelValidationService.validate(
+                    userId, amount, currency, targetCurrency, type, accountCreatedAt, inlineLookups
+            );
+        } catch (RuntimeException e) {
+            if (idempotencyService.mightExist(idempotencyKey)) {
+                throw e;
+            }
+            Transaction stored = transactionRepository.findByIdempotencyKey(idempotencyKey).orElseThrow(() -> e);
+            idempotencyService.register(idempotencyKey);
+            return new Admission(stored, false);
         }
-        ValidationResult validation = parallelValidationService.validate(
-                userId, amount, currency, targetAccountId, type, accountCreatedAt
-        );
         Transaction tx;
         try {
             tx = transactionCreationService.createTransaction(sourceAccountId, targetAccountId, amount, currency, type, idempotencyKey,userId,category,validation.getRate(), validation.getTargetAmount());
@@ -166,52 +322,82 @@ public class TransactionService {
             log.warn("Idempotency Key Conflict: Another process saved the transaction first. Key: {}", idempotencyKey);
             Transaction conflictTx = transactionRepository.findByIdempotencyKey(idempotencyKey)
                     .orElseThrow(() -> new InternalServerErrorException("Internal conflict handling error."));
-            return transactionMapper.toDto(conflictTx);
+            idempotencyService.register(idempotencyKey);
+            return new Admission(conflictTx, false);
         }
-        int maxAttempts = 3;
-        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
-            try {
-                log.info("Attempt {}/{} for TX {}: starting financial operations", attempt, maxAttempts, tx.getId());
-                transactionStateService.updateStatus(tx.getId(), Status.PROCESSING, "Attempt " + attempt);
-
-                Transaction currentTx = transactionRepository.findById(tx.getId())
-                        .orElseThrow(() -> new NotFoundException("Transaction not found"));
-
-                strategies.get(type)
-                        .execute(currentTx, sourceAccountId, targetAccountId, tx.getTargetAmount());
-                transactionStateService.updateStatus(currentTx.getId(), Status.COMPLETED, null);
-                transactionEventPublisher.publish(currentTx);
-                return transactionMapper.toDto(transactionRepository.findById(currentTx.getId()).orElseThrow());
-
-            } catch (ConflictException e) {
-                if (!(e.getCause() instanceof PessimisticLockingFailureException)) {
-                    throw e;
-                }
-                log.warn("Retry Attempt {} failed for TX {}: Account busy (Lock).", attempt, tx.getId());
-
-                if (attempt == maxAttempts) {
-                    log.error("Max retry attempts reached for TX {}. Marking as FAILED.", tx.getId());
-                    transactionStateService.updateStatus(tx.getId(), Status.FAILED, "Max retry attempts reached: " + e.getMessage());
-                    throw e;
-                }
-                try {
-                    retryBackoffService.backoff(attempt);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new InternalServerErrorException("Retry interrupted");
-                }
-            } catch (BadRequestException e) {
-                transactionStateService.updateStatus(tx.getId(), Status.FAILED, e.getMessage());
+        idempotencyService.register(idempotencyKey);
+        return new Admission(tx, true);
+    }
+
+    /**
+     * One attempt of the financial operations. A lock conflict does not block the calling thread:
+     * the next attempt is handed to the retry scheduler, as long as attempts remain and the
+     * locked account still has retry budget.
+     */
+    private CompletableFuture<TransactionResponseDto> runSaga(
+            Transaction tx, Long sourceAccountId, Long targetAccountId, TransactionType type, int attempt) {
+        try {
+            log.info("Attempt {}/{} for TX {}: starting financial operations", attempt, MAX_ATTEMPTS, tx.getId());
+
+            strategies.get(type)
+                    .execute(tx, sourceAccountId, targetAccountId, tx.getTargetAmount());
+            if (!transactionStateService.complete(tx)) {
+                log.warn("TX {} was finalized concurrently, returning stored state", tx.getId());
+                return CompletableFuture.completedFuture(respond(transactionRepository.findById(tx.getId())
+                        .orElseThrow(() -> new NotFoundException("Transaction not found"))));
+            }
+            return CompletableFuture.completedFuture(respond(tx));
+
+        } catch (ConflictException e) {
+            if (!(e.getCause() instanceof PessimisticLockingFailureException)) {
+                throw e;
+            }
+            log.warn("Retry Attempt {} failed for TX {}: Account busy (Lock).", attempt, tx.getId());
+
+            if (attempt == MAX_ATTEMPTS) {
+                log.error("Max retry attempts reached for TX {}. Marking as FAILED.", tx.getId());
+                transactionStateService.fail(tx, "Max retry attempts reached: " + e.getMessage());
+                throw e;
+            }
+            // charge the account whose leg hit the lock: the credit runs once the debit is done
+            boolean creditLeg = sourceAccountId == null
+                    || (tx.getStep() == TransactionStep.DEBIT_DONE && targetAccountId != null);
+            Long lockedAccountId = creditLeg ? targetAccountId : sourceAccountId;
+            if (!retryBackoffService.tryAcquire(lockedAccountId)) {
+                log.error("Retry budget exhausted for account {}. Marking TX {} as FAILED.", lockedAccountId, tx.getId());
+                transactionStateService.fail(tx, "Retry budget exhausted: " + e.getMessage());
                 throw e;
-            } catch (Exception e) {
-                log.error("TX {} unexpected error: {}", tx.getId(), e.getMessage(), e);
-                transactionStateService.updateStatus(tx.getId(), Status.FAILED, "Unexpected error: " + e.getMessage());
-                throw new InternalServerErrorException("Unexpected error during transaction processing");
             }
+            return retryBackoffService.schedule(attempt,
+                    () -> runSaga(tx, sourceAccountId, targetAccountId, type, attempt + 1));
+        } catch (BadRequestException e) {
+            transactionStateService.fail(tx, e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("TX {} unexpected error: {}", tx.getId(), e.getMessage(), e);
+            transactionStateService.fail(tx, "Unexpected error: " + e.getMessage());
+            throw new InternalServerErrorException("Unexpected error during transaction processing");
         }
+    }
+
+    private TransactionResponseDto respond(Transaction tx) {
+        TransactionResponseDto response = transactionMapper.toDto(tx);
+        idempotencyService.remember(tx, response);
+        return response;
+    }
 
-        throw new InternalServerErrorException("Transaction failed after all retries");
+    public record Admission(Transaction transaction, boolean created) {
+    }
 
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
 
     private void validateIdempotency(String key) {
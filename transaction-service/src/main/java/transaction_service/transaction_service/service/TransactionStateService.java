@@ -1,6 +1,5 @@
 package transaction_service.transaction_service.service;
 
-import core.core.exception.NotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
@@ -11,8 +10,13 @@ import transaction_service.transaction_service.model.Status;
 import transaction_service.transaction_service.model.Transaction;
 import transaction_service.transaction_service.model.TransactionStep;
 import transaction_service.transaction_service.repository.TransactionRepository;
+import transaction_service.transaction_service.service.validate.VelocityTracker;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 
 @Service
@@ -21,28 +25,74 @@ import java.time.Instant;
 public class TransactionStateService {
     private final TransactionRepository transactionRepository;
     private final ApplicationEventPublisher eventPublisher;
+    private final LimitLedgerService limitLedgerService;
+    private final VelocityTracker velocityTracker;
+    private final SpendRollupService spendRollupService;
+    private final TransactionOutboxService outboxService;
+    private static final int STEP_CHECKPOINT_CHUNK = 1000;
+
     @Transactional
-    public void updateStep(Long txId, TransactionStep step) {
-        Transaction tx = transactionRepository.findById(txId)
-                .orElseThrow(() -> new NotFoundException("Transaction not found"));
-        tx.setStep(step);
-        tx.setUpdatedAt(Instant.now());
-        transactionRepository.save(tx);
-        log.info("TX {} step updated to {}", txId, step);
+    public boolean complete(Transaction tx) {
+        return transition(tx, Status.PROCESSING, Status.COMPLETED, null);
     }
+
     @Transactional
-    public void updateStatus(Long id, Status status, String error) {
-        Transaction tx = transactionRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("Transaction not found"));
-        log.info("TX {} updated status: {}", tx.getId(), status);
-        tx.setStatus(status);
-        tx.setErrorMessage(error);
-        tx.setUpdatedAt(Instant.now());
+    public boolean fail(Transaction tx, String error) {
+        return transition(tx, Status.PROCESSING, Status.FAILED, error);
+    }
 
-        transactionRepository.save(tx);
-        if (status == Status.COMPLETED || status == Status.FAILED) {
-            eventPublisher.publishEvent(new TransactionCompletedEvent(tx.getUserId()));
+    /**
+     * Persists journaled saga steps of transactions that are still PROCESSING; finished ones
+     * already got their final step with the status change. Leaves {@code updatedAt} alone, so
+     * the recovery timeout still counts from the last status change.
+     */
+    @Transactional
+    public void checkpointSteps(Map<Long, TransactionStep> steps) {
+        Map<TransactionStep, List<Long>> byStep = new EnumMap<>(TransactionStep.class);
+        steps.forEach((id, step) -> byStep.computeIfAbsent(step, s -> new ArrayList<>()).add(id));
+        byStep.forEach((step, ids) -> {
+            for (int from = 0; from < ids.size(); from += STEP_CHECKPOINT_CHUNK) {
+                transactionRepository.updateStep(
+                        ids.subList(from, Math.min(from + STEP_CHECKPOINT_CHUNK, ids.size())), step, Status.PROCESSING);
+            }
+        });
+    }
+
+    /**
+     * Moves the transaction from {@code from} to {@code to} with a single conditional UPDATE,
+     * persisting the in-memory step along with it. Returns false, without side effects, when
+     * the row is no longer in {@code from} (another worker got there first). Ledger and rollup
+     * updates and the outbox event ride on the same DB transaction, so they apply exactly once
+     * with the status change.
+     */
+    @Transactional
+    public boolean transition(Transaction tx, Status from, Status to, String error) {
+        Instant now = Instant.now();
+        int updated = transactionRepository.transitionStatus(tx.getId(), from, to, tx.getStep(), error, now);
+        if (updated == 0) {
+            log.warn("TX {} transition {} -> {} skipped: status already changed", tx.getId(), from, to);
+            return false;
         }
+        tx.setStatus(to);
+        tx.setErrorMessage(error);
+        tx.setUpdatedAt(now);
+        // mirrors the UPDATE, so a later save of this instance passes the optimistic lock check
+        tx.setVersion(tx.getVersion() == null ? 1L : tx.getVersion() + 1);
+        log.info("TX {} updated status: {} -> {}", tx.getId(), from, to);
 
+        if (from != Status.COMPLETED && from != Status.FAILED) {
+            if (to == Status.COMPLETED) {
+                limitLedgerService.commit(tx);
+                spendRollupService.record(tx);
+                outboxService.enqueue(tx);
+            } else if (to == Status.FAILED) {
+                limitLedgerService.release(tx);
+                velocityTracker.remove(tx.getUserId(), tx.getId(), tx.getCreatedAt());
+            }
+        }
+        if (to == Status.COMPLETED || to == Status.FAILED) {
+            eventPublisher.publishEvent(new TransactionCompletedEvent(tx.getUserId(), tx.getId(), to));
+        }
+        return true;
     }
 }
@@ -0,0 +1,128 @@
+package transaction_service.transaction_service.service;
+
+import core.core.exception.NotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import transaction_service.transaction_service.dto.TransactionStatusDto;
+import transaction_service.transaction_service.event.TransactionCompletedEvent;
+import transaction_service.transaction_service.model.Status;
+import transaction_service.transaction_service.repository.TransactionRepository;
+import transaction_service.transaction_service.repository.TransactionStatusView;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Status reads for async transfers: a single-row projection for polling and SSE streams that
+ * push the final status once the saga ends. Streams are fed by terminal transitions made on
+ * this instance; a client connected elsewhere gets the current status on (re)connect.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionStatusService {
+    static final Duration STREAM_TIMEOUT = Duration.ofSeconds(60);
+    private static final String STATUS_EVENT = "status";
+
+    private final TransactionRepository transactionRepository;
+    private final Map<Long, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    public TransactionStatusDto getStatus(Long transactionId, Long userId) {
+        return toDto(findOwned(transactionId, userId));
+    }
+
+    /**
+     * Opens a stream that sends the current status right away and the final one when the saga
+     * ends, then completes. Already final transactions complete after the first event.
+     */
+    public SseEmitter subscribe(Long transactionId, Long userId) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT.toMillis());
+        // register before reading, so a transition in between is not missed
+        subscribers.computeIfAbsent(transactionId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+        TransactionStatusDto current;
+        try {
+            current = toDto(findOwned(transactionId, userId));
+        } catch (NotFoundException e) {
+            unsubscribe(transactionId, emitter);
+            throw e;
+        }
+        emitter.onCompletion(() -> unsubscribe(transactionId, emitter));
+        emitter.onTimeout(() -> unsubscribe(transactionId, emitter));
+        emitter.onError(e -> unsubscribe(transactionId, emitter));
+
+        send(emitter, current);
+        if (isFinal(current.getStatus())) {
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionCompleted(TransactionCompletedEvent event) {
+        List<SseEmitter> emitters = subscribers.remove(event.getTransactionId());
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+        TransactionStatusDto status = transactionRepository.findStatusById(event.getTransactionId())
+                .map(this::toDto)
+                .orElse(null);
+        if (status == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            send(emitter, status);
+            emitter.complete();
+        }
+    }
+
+    int subscriberCount(Long transactionId) {
+        List<SseEmitter> emitters = subscribers.get(transactionId);
+        return emitters == null ? 0 : emitters.size();
+    }
+
+    private TransactionStatusView findOwned(Long transactionId, Long userId) {
+        return transactionRepository.findStatusById(transactionId)
+                .filter(view -> view.getUserId().equals(userId))
+                .orElseThrow(() -> new NotFoundException("Transaction not found"));
+    }
+
+    private void unsubscribe(Long transactionId, SseEmitter emitter) {
+        subscribers.computeIfPresent(transactionId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private void send(SseEmitter emitter, TransactionStatusDto status) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(STATUS_EVENT)
+                    .id(status.getTransactionId() + ":" + status.getStatus())
+                    .data(status));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Status stream for TX {} closed: {}", status.getTransactionId(), e.getMessage());
+            emitter.completeWithError(e);
+        }
+    }
+
+    private TransactionStatusDto toDto(TransactionStatusView view) {
+        return TransactionStatusDto.builder()
+                .transactionId(view.getId())
+                .status(view.getStatus())
+                .step(view.getStep())
+                .error(view.getErrorMessage())
+                .updatedAt(view.getUpdatedAt())
+                .build();
+    }
+
+    private static boolean isFinal(Status status) {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+}
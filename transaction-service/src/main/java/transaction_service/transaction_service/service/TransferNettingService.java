@@ -0,0 +1,117 @@
+package transaction_service.transaction_service.service;
+
+import core.core.exception.ConflictException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import transaction_service.transaction_service.model.Status;
+import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.model.TransactionStep;
+import transaction_service.transaction_service.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Aggregate debits of bulk transfers: the source account is debited once for all items
+ * admitted together, instead of once per item.
+ *
+ * <p>The debit is sent to account-service under a netting debit id, the negated smallest id
+ * of the items it covers. Transaction ids are positive and every item belongs to one debit,
+ * so the id is unique and account-service applies the debit at most once. Each item stores
+ * the id before the debit is sent, so recovery can re-send it, and is moved to
+ * {@code DEBIT_DONE} in the database once the debit is applied.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransferNettingService {
+    static final int MAX_DEBIT_ATTEMPTS = 3;
+
+    private final TransactionRepository transactionRepository;
+    private final AccountOperationService accountOperationService;
+    private final RetryBackoffService retryBackoffService;
+    private final TransactionStateService transactionStateService;
+
+    /**
+     * Assigns a netting debit id to the transactions and returns it.
+     */
+    @Transactional
+    public Long net(List<Transaction> transactions) {
+        Long debitId = -transactions.stream()
+                .map(Transaction::getId)
+                .min(Comparator.naturalOrder())
+                .orElseThrow(() -> new IllegalArgumentException("Nothing to net"));
+        transactionRepository.assignNettingDebit(transactions.stream().map(Transaction::getId).toList(), debitId);
+        transactions.forEach(tx -> tx.setNettingDebitId(debitId));
+        return debitId;
+    }
+
+    /**
+     * Debits {@code total} from the source account under {@code debitId}. A lock conflict is
+     * retried on the retry scheduler like a saga step, within the account's retry budget.
+     */
+    public CompletableFuture<Void> debit(Long debitId, Long sourceAccountId, BigDecimal total) {
+        return debit(debitId, sourceAccountId, total, 1);
+    }
+
+    private CompletableFuture<Void> debit(Long debitId, Long sourceAccountId, BigDecimal total, int attempt) {
+        try {
+            log.info("Netting debit {}: debiting {} from account {}", debitId, total, sourceAccountId);
+            accountOperationService.debit(debitId, sourceAccountId, total);
+            return CompletableFuture.completedFuture(null);
+        } catch (ConflictException e) {
+            if (!(e.getCause() instanceof PessimisticLockingFailureException)
+                    || attempt == MAX_DEBIT_ATTEMPTS
+                    || !retryBackoffService.tryAcquire(sourceAccountId)) {
+                throw e;
+            }
+            log.warn("Netting debit {} attempt {} failed: account {} busy (Lock)", debitId, attempt, sourceAccountId);
+            return retryBackoffService.schedule(attempt,
+                    () -> debit(debitId, sourceAccountId, total, attempt + 1));
+        }
+    }
+
+    /**
+     * Records that the aggregate debit of these transactions was applied.
+     */
+    @Transactional
+    public void debited(List<Transaction> transactions) {
+        transactionRepository.updateStep(
+                transactions.stream().map(Transaction::getId).toList(), TransactionStep.DEBIT_DONE, Status.PROCESSING);
+        transactions.forEach(tx -> tx.setStep(TransactionStep.DEBIT_DONE));
+    }
+
+    /**
+     * Re-sends the aggregate debit a netted transaction was admitted under, for a saga replayed
+     * from {@code NONE}, and records it in a short transaction of its own. No row lock is held
+     * across the account-service call: account-service applies a debit id once, so concurrent
+     * replays of one debit at most repeat a no-op. The debit covers the rows not FAILED, whose
+     * sagas still need it.
+     */
+    public void redebit(Transaction tx, Long sourceAccountId) {
+        Long debitId = tx.getNettingDebitId();
+        List<Transaction> group = transactionRepository.findNettingGroup(debitId);
+        if (group.stream().anyMatch(row -> row.getStep() != TransactionStep.NONE)) {
+            log.info("TX {} netting debit {} already applied", tx.getId(), debitId);
+            return;
+        }
+        List<Transaction> pending = group.stream()
+                .filter(row -> row.getStatus() != Status.FAILED)
+                .toList();
+        BigDecimal total = pending.stream().map(Transaction::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (total.signum() > 0) {
+            log.info("TX {} re-sending netting debit {} of {}", tx.getId(), debitId, total);
+            accountOperationService.debit(debitId, sourceAccountId, total);
+        }
+        Map<Long, TransactionStep> debited = new HashMap<>();
+        pending.forEach(row -> debited.put(row.getId(), TransactionStep.DEBIT_DONE));
+        transactionStateService.checkpointSteps(debited);
+    }
+}
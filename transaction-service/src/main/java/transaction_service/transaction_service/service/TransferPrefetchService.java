@@ -0,0 +1,107 @@
+package transaction_service.transaction_service.service;
+
+import core.core.dto.AccountResponseDto;
+import core.core.exception.NotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import transaction_service.transaction_service.config.FeignClientInterceptor;
+import transaction_service.transaction_service.dto.TransactionRequestDto;
+import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.model.TransactionCategory;
+import transaction_service.transaction_service.model.TransactionType;
+import transaction_service.transaction_service.repository.TransactionRepository;
+import transaction_service.transaction_service.service.validate.AccountAccessService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class TransferPrefetchService {
+    private final AccountOperationService accountOperationService;
+    private final CategoryService categoryService;
+    private final TransactionRepository transactionRepository;
+    private final IdempotencyService idempotencyService;
+    private final Executor transactionValidationExecutor;
+
+    public TransferPrefetchService(
+            AccountOperationService accountOperationService,
+            CategoryService categoryService,
+            TransactionRepository transactionRepository,
+            IdempotencyService idempotencyService,
+            @Qualifier("transactionValidationExecutor") Executor transactionValidationExecutor
+    ) {
+        this.accountOperationService = accountOperationService;
+        this.categoryService = categoryService;
+        this.transactionRepository = transactionRepository;
+        this.idempotencyService = idempotencyService;
+        this.transactionValidationExecutor = transactionValidationExecutor;
+    }
+
+    public TransferSnapshot prefetch(TransactionRequestDto dto, Long userId, String idempotencyKey) {
+        return prefetch(dto, userId, idempotencyKey, null, false);
+    }
+
+    /**
+     * Starts the account lookup (source and target in one batch call), category check and
+     * idempotency lookup at once. Accounts already resolved by the caller are used as is, and
+     * the idempotency lookup is skipped for keys the key filter has never seen.
+     * Callers already running on a validation worker (bulk transfers) pass {@code inline}, so the
+     * lookups run on the calling thread and nested submissions cannot starve the pool.
+     */
+    public TransferSnapshot prefetch(TransactionRequestDto dto, Long userId, String idempotencyKey,
+                                     Map<Long, AccountResponseDto> resolvedAccounts, boolean inline) {
+        log.debug("Prefetching transfer lookups for user {} (inline: {})", userId, inline);
+
+        CompletableFuture<Map<Long, AccountResponseDto>> accounts = resolvedAccounts != null
+                ? CompletableFuture.completedFuture(resolvedAccounts)
+                : fork(inline, () -> accountOperationService.getAccountsByIds(
+                        List.of(dto.getSourceAccountId(), dto.getTargetAccountId())));
+        CompletableFuture<AccountResponseDto> source = accounts.thenApply(found ->
+                AccountAccessService.requireOwnedBy(found.get(dto.getSourceAccountId()), userId));
+        CompletableFuture<AccountResponseDto> target = accounts.thenApply(found -> {
+            AccountResponseDto account = found.get(dto.getTargetAccountId());
+            if (account == null) {
+                throw new NotFoundException("Target account not found");
+            }
+            return account;
+        });
+        CompletableFuture<TransactionCategory> category = fork(inline,
+                () -> categoryService.validateAndGetCategory(dto.getCategoryId(), userId, TransactionType.TRANSFER));
+        CompletableFuture<Optional<Transaction>> existing = idempotencyService.mightExist(idempotencyKey)
+                ? fork(inline, () -> transactionRepository.findByIdempotencyKey(idempotencyKey))
+                : CompletableFuture.completedFuture(Optional.empty());
+
+        return new TransferSnapshot(source, target, category, existing);
+    }
+
+    private <T> CompletableFuture<T> fork(boolean inline, Supplier<T> lookup) {
+        if (inline) {
+            try {
+                return CompletableFuture.completedFuture(lookup.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        String token = FeignClientInterceptor.currentToken();
+        SecurityContext context = SecurityContextHolder.getContext();
+        return CompletableFuture.supplyAsync(() -> {
+            SecurityContext previousContext = SecurityContextHolder.getContext();
+            SecurityContextHolder.setContext(context);
+            FeignClientInterceptor.setToken(token);
+            try {
+                return lookup.get();
+            } finally {
+                FeignClientInterceptor.clearToken();
+                SecurityContextHolder.setContext(previousContext);
+            }
+        }, transactionValidationExecutor);
+    }
+}
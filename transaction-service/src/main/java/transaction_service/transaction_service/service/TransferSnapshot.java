@@ -0,0 +1,57 @@
+package transaction_service.transaction_service.service;
+
+import core.core.dto.AccountResponseDto;
+import core.core.exception.InternalServerErrorException;
+import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.model.TransactionCategory;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Lookups a transfer needs before validation, started in parallel by {@link TransferPrefetchService}.
+ * Accessors block on the corresponding lookup and rethrow its original exception, so callers
+ * see the same errors in the same order as with sequential calls.
+ */
+public class TransferSnapshot {
+    private final CompletableFuture<AccountResponseDto> sourceAccount;
+    private final CompletableFuture<AccountResponseDto> targetAccount;
+    private final CompletableFuture<TransactionCategory> category;
+    private final CompletableFuture<Optional<Transaction>> existingTransaction;
+
+    TransferSnapshot(CompletableFuture<AccountResponseDto> sourceAccount,
+                     CompletableFuture<AccountResponseDto> targetAccount,
+                     CompletableFuture<TransactionCategory> category,
+                     CompletableFuture<Optional<Transaction>> existingTransaction) {
+        this.sourceAccount = sourceAccount;
+        this.targetAccount = targetAccount;
+        this.category = category;
+        this.existingTransaction = existingTransaction;
+    }
+
+    public AccountResponseDto getSourceAccount() {
+        return await(sourceAccount);
+    }
+
+    public AccountResponseDto getTargetAccount() {
+        return await(targetAccount);
+    }
+
+    public TransactionCategory getCategory() {
+        return await(category);
+    }
+
+    public Optional<Transaction> getExistingTransaction() {
+        return await(existingTransaction);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new InternalServerErrorException("Transfer prefetch failed: " + e.getCause().getMessage());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package transaction_service.transaction_service.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import transaction_service.transaction_service.config.FeignClientInterceptor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * In-process queue of sagas for transfers accepted by the async API. The queue lives on this
+ * instance only; a saga lost with the instance stays PROCESSING and is picked up by
+ * {@link TransactionRecoveryService}.
+ */
+@Slf4j
+@Service
+public class TransferWorkQueue {
+    private final ThreadPoolTaskExecutor transferWorkExecutor;
+
+    public TransferWorkQueue(@Qualifier("transferWorkExecutor") ThreadPoolTaskExecutor transferWorkExecutor,
+                             MeterRegistry meterRegistry) {
+        this.transferWorkExecutor = transferWorkExecutor;
+        Gauge.builder("transaction.async.queue.depth", transferWorkExecutor,
+                        executor -> executor.getThreadPoolExecutor().getQueue().size())
+                .description("Accepted transfers waiting for a saga worker")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues the saga with the caller's auth token. Returns false when the queue is full.
+     * Failures are already recorded on the transaction by the saga, so they are only logged here.
+     */
+    public boolean submit(Long transactionId, Supplier<CompletableFuture<?>> saga) {
+        String token = FeignClientInterceptor.currentToken();
+        try {
+            transferWorkExecutor.execute(() -> {
+                FeignClientInterceptor.setToken(token);
+                try {
+                    saga.get().whenComplete((result, error) -> {
+                        if (error != null) {
+                            log.warn("Async TX {} finished with error: {}", transactionId, error.getMessage());
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    log.warn("Async TX {} finished with error: {}", transactionId, e.getMessage());
+                } finally {
+                    FeignClientInterceptor.clearToken();
+                }
+            });
+            return true;
+        } catch (TaskRejectedException e) {
+            log.warn("Transfer queue is full, TX {} rejected", transactionId);
+            return false;
+        }
+    }
+}
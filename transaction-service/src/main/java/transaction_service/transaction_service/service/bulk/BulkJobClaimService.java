@@ -0,0 +1,83 @@
+package transaction_service.transaction_service.service.bulk;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import transaction_service.transaction_service.dto.bulk.BulkTransferFailedItemDto;
+import transaction_service.transaction_service.model.BulkJob;
+import transaction_service.transaction_service.model.BulkJobChunk;
+import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.repository.BulkJobChunkRepository;
+import transaction_service.transaction_service.repository.BulkJobRepository;
+import transaction_service.transaction_service.repository.TransactionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkJobClaimService {
+    private final BulkJobChunkRepository chunkRepository;
+    private final BulkJobRepository bulkJobRepository;
+    private final TransactionRepository transactionRepository;
+
+    /**
+     * Leases up to {@code limit} unsettled chunks with their jobs. The row locks last only for
+     * this short transaction; the lease then keeps the chunks away from other workers for
+     * {@code lease} while the caller settles them. Each claim counts as an attempt.
+     */
+    @Transactional
+    public List<ClaimedChunk> claim(Duration lease, int limit) {
+        Instant now = Instant.now();
+        List<BulkJobChunk> chunks = chunkRepository.claimPending(now, PageRequest.of(0, limit));
+        if (chunks.isEmpty()) {
+            return List.of();
+        }
+        chunkRepository.lease(chunks.stream().map(BulkJobChunk::getId).toList(), now.plus(lease));
+        Map<Long, BulkJob> jobs = bulkJobRepository.findAllById(chunks.stream().map(BulkJobChunk::getJobId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(BulkJob::getId, Function.identity()));
+        return chunks.stream()
+                .map(chunk -> new ClaimedChunk(chunk, jobs.get(chunk.getJobId())))
+                .toList();
+    }
+
+    /**
+     * Checkpoints a settled chunk: marks it done and adds its outcome to the job's counters in
+     * one transaction, completing the job with its last chunk. Returns false if the chunk was
+     * already checkpointed by a worker that held an earlier lease.
+     */
+    @Transactional
+    public boolean checkpoint(BulkJobChunk chunk, int succeeded, List<BulkTransferFailedItemDto> failed) {
+        Instant now = Instant.now();
+        if (chunkRepository.complete(chunk.getId(), succeeded, failed.size(), BulkJobItems.failures(failed), now) == 0) {
+            return false;
+        }
+        bulkJobRepository.recordChunk(chunk.getJobId(), succeeded, failed.size(), now);
+        if (bulkJobRepository.completeIfDone(chunk.getJobId(), now) > 0) {
+            log.info("Bulk job {} completed", chunk.getJobId());
+        }
+        return true;
+    }
+
+    /**
+     * The transactions admitted under {@code idempotencyKeys}, by key. A key with no entry was
+     * never admitted, so nothing was debited for it.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Transaction> admitted(Collection<String> idempotencyKeys) {
+        return transactionRepository.findByIdempotencyKeyIn(idempotencyKeys).stream()
+                .collect(Collectors.toMap(Transaction::getIdempotencyKey, Function.identity()));
+    }
+
+    public record ClaimedChunk(BulkJobChunk chunk, BulkJob job) {
+    }
+}
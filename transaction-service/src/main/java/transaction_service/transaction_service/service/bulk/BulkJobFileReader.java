@@ -0,0 +1,100 @@
+package transaction_service.transaction_service.service.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import core.core.exception.BadRequestException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import transaction_service.transaction_service.dto.bulk.BulkTransferItemDto;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Reads an uploaded bulk job file line by line and hands each validated item to the caller, so
+ * only the current line is held in memory. A malformed or invalid line rejects the upload with
+ * its line number.
+ */
+@Component
+@RequiredArgsConstructor
+public class BulkJobFileReader {
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    /**
+     * Reads at most {@code maxItems} items and returns how many were read.
+     */
+    public int read(InputStream body, BulkJobFormat format, int maxItems, Consumer<BulkTransferItemDto> sink) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        int lineNumber = 0;
+        int count = 0;
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+                if (line.isBlank() || (lineNumber == 1 && format == BulkJobFormat.CSV && isHeader(line))) {
+                    continue;
+                }
+                if (count == maxItems) {
+                    throw new BadRequestException("A bulk job takes at most " + maxItems + " transfers");
+                }
+                BulkTransferItemDto item = parse(line.strip(), format, lineNumber);
+                validate(item, lineNumber);
+                sink.accept(item);
+                count++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Bulk job upload could not be read", e);
+        }
+        if (count == 0) {
+            throw new BadRequestException("Bulk job upload contains no transfers");
+        }
+        return count;
+    }
+
+    private BulkTransferItemDto parse(String line, BulkJobFormat format, int lineNumber) {
+        try {
+            if (format == BulkJobFormat.NDJSON) {
+                return objectMapper.readValue(line, BulkTransferItemDto.class);
+            }
+            String[] fields = line.split(",", -1);
+            if (fields.length < 2 || fields.length > 3) {
+                throw new BadRequestException("Line " + lineNumber + ": expected targetAccountId,amount[,categoryId]");
+            }
+            return BulkTransferItemDto.builder()
+                    .targetAccountId(Long.valueOf(fields[0].strip()))
+                    .amount(new BigDecimal(fields[1].strip()))
+                    .categoryId(fields.length == 3 && !fields[2].isBlank() ? Long.valueOf(fields[2].strip()) : null)
+                    .build();
+        } catch (NumberFormatException | JsonProcessingException e) {
+            throw new BadRequestException("Line " + lineNumber + ": malformed transfer");
+        }
+    }
+
+    private void validate(BulkTransferItemDto item, int lineNumber) {
+        Set<ConstraintViolation<BulkTransferItemDto>> violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            throw new BadRequestException("Line " + lineNumber + ": " + violations.stream()
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+    }
+
+    private static boolean isHeader(String line) {
+        return Character.isLetter(line.strip().charAt(0));
+    }
+}
@@ -0,0 +1,31 @@
+package transaction_service.transaction_service.service.bulk;
+
+import core.core.exception.BadRequestException;
+import org.springframework.http.MediaType;
+
+/**
+ * Upload formats of bulk jobs. A CSV line is {@code targetAccountId,amount[,categoryId]}, with
+ * an optional header line; an NDJSON line is a {@code BulkTransferItemDto} object.
+ */
+public enum BulkJobFormat {
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private final MediaType mediaType;
+
+    BulkJobFormat(String mediaType) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    public static BulkJobFormat of(String contentType) {
+        if (contentType != null) {
+            MediaType type = MediaType.parseMediaType(contentType);
+            for (BulkJobFormat format : values()) {
+                if (format.mediaType.isCompatibleWith(type)) {
+                    return format;
+                }
+            }
+        }
+        throw new BadRequestException("Unsupported bulk job content type: " + contentType);
+    }
+}
@@ -0,0 +1,73 @@
+package transaction_service.transaction_service.service.bulk;
+
+import transaction_service.transaction_service.dto.bulk.BulkTransferFailedItemDto;
+import transaction_service.transaction_service.dto.bulk.BulkTransferItemDto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Line format of the items and failures stored in a bulk job chunk: one
+ * {@code targetAccountId,amount,categoryId} or {@code targetAccountId,amount,reason} line per
+ * item. A failure reason is the last field and may contain commas, never line breaks.
+ */
+final class BulkJobItems {
+    static final int MAX_REASON_LENGTH = 255;
+
+    private BulkJobItems() {
+    }
+
+    static void append(StringBuilder lines, BulkTransferItemDto item) {
+        lines.append(item.getTargetAccountId()).append(',')
+                .append(item.getAmount().toPlainString()).append(',');
+        if (item.getCategoryId() != null) {
+            lines.append(item.getCategoryId());
+        }
+        lines.append('\n');
+    }
+
+    static List<BulkTransferItemDto> items(String lines) {
+        List<BulkTransferItemDto> items = new ArrayList<>();
+        for (String line : lines.split("\n")) {
+            String[] fields = line.split(",", -1);
+            items.add(BulkTransferItemDto.builder()
+                    .targetAccountId(Long.parseLong(fields[0]))
+                    .amount(new BigDecimal(fields[1]))
+                    .categoryId(fields[2].isEmpty() ? null : Long.parseLong(fields[2]))
+                    .build());
+        }
+        return items;
+    }
+
+    static String failures(List<BulkTransferFailedItemDto> failed) {
+        if (failed.isEmpty()) {
+            return null;
+        }
+        StringBuilder lines = new StringBuilder();
+        for (BulkTransferFailedItemDto item : failed) {
+            String reason = String.valueOf(item.getReason()).replaceAll("[\\r\\n]+", " ");
+            lines.append(item.getTargetAccountId()).append(',')
+                    .append(item.getAmount().toPlainString()).append(',')
+                    .append(reason, 0, Math.min(reason.length(), MAX_REASON_LENGTH))
+                    .append('\n');
+        }
+        return lines.toString();
+    }
+
+    static List<BulkTransferFailedItemDto> failed(String lines, int limit) {
+        List<BulkTransferFailedItemDto> failed = new ArrayList<>();
+        for (String line : lines.split("\n")) {
+            if (failed.size() == limit) {
+                break;
+            }
+            String[] fields = line.split(",", 3);
+            failed.add(BulkTransferFailedItemDto.builder()
+                    .targetAccountId(Long.parseLong(fields[0]))
+                    .amount(new BigDecimal(fields[1]))
+                    .reason(fields[2])
+                    .build());
+        }
+        return failed;
+    }
+}
@@ -0,0 +1,189 @@
+package transaction_service.transaction_service.service.bulk;
+
+import core.core.exception.BadRequestException;
+import core.core.exception.ConflictException;
+import core.core.exception.NotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import transaction_service.transaction_service.dto.bulk.BulkJobStatusDto;
+import transaction_service.transaction_service.dto.bulk.BulkTransferFailedItemDto;
+import transaction_service.transaction_service.dto.bulk.BulkTransferItemDto;
+import transaction_service.transaction_service.dto.bulk.BulkTransferRequestDto;
+import transaction_service.transaction_service.model.BulkJob;
+import transaction_service.transaction_service.model.BulkJobChunk;
+import transaction_service.transaction_service.model.BulkJobStatus;
+import transaction_service.transaction_service.repository.BulkJobChunkRepository;
+import transaction_service.transaction_service.repository.BulkJobRepository;
+import transaction_service.transaction_service.service.validate.AccountAccessService;
+
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Accepts bulk transfer files as jobs and reports their progress. An upload is streamed into
+ * chunks of {@code chunk-size} items, each committed on its own as soon as it is full, and
+ * becomes visible to the {@link BulkJobWorker}s once the whole file is stored; a rejected line
+ * discards the job. Memory use is one chunk and no JDBC connection is held while the body is
+ * read, whatever the size of the file. Uploads a client abandons midway are discarded by
+ * {@link BulkJobWorker#scheduledCleanup}.
+ */
+@Slf4j
+@Service
+public class BulkJobService {
+    static final int FAILURES_SHOWN = 100;
+
+    private final BulkJobRepository bulkJobRepository;
+    private final BulkJobChunkRepository chunkRepository;
+    private final BulkJobUploadService uploadService;
+    private final BulkJobFileReader fileReader;
+    private final AccountAccessService accountAccessService;
+    private final int chunkSize;
+    private final int maxItems;
+
+    public BulkJobService(BulkJobRepository bulkJobRepository,
+                          BulkJobChunkRepository chunkRepository,
+                          BulkJobUploadService uploadService,
+                          BulkJobFileReader fileReader,
+                          AccountAccessService accountAccessService,
+                          @Value("${transaction.bulk-job.chunk-size:500}") int chunkSize,
+                          @Value("${transaction.bulk-job.max-items:100000}") int maxItems) {
+        // a chunk is settled as one bulk transfer
+        if (chunkSize < 1 || chunkSize > BulkTransferRequestDto.MAX_TRANSFERS) {
+            throw new IllegalArgumentException("Bulk job chunk size " + chunkSize + " is out of range");
+        }
+        this.bulkJobRepository = bulkJobRepository;
+        this.chunkRepository = chunkRepository;
+        this.uploadService = uploadService;
+        this.fileReader = fileReader;
+        this.accountAccessService = accountAccessService;
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * Stores the upload as a job of {@code userId} debiting {@code sourceAccountId}. A retry
+     * with the same idempotency key returns the stored job without reading the body.
+     */
+    public BulkJobStatusDto submit(InputStream body, BulkJobFormat format, Long sourceAccountId,
+                                   Long userId, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            throw new BadRequestException("Idempotency-Key header is required.");
+        }
+        BulkJob existing = bulkJobRepository.findByIdempotencyKey(idempotencyKey).orElse(null);
+        if (existing != null) {
+            if (!existing.getUserId().equals(userId)) {
+                throw new ConflictException("Idempotency-Key is already used by another request.");
+            }
+            if (existing.getUploadedAt() == null) {
+                throw new ConflictException("A bulk job with this Idempotency-Key is already being uploaded.");
+            }
+            log.info("Bulk job {} replayed for key {}", existing.getId(), idempotencyKey);
+            return toDto(existing);
+        }
+        accountAccessService.validateAccountOwnership(sourceAccountId, userId);
+
+        BulkJob job = uploadService.open(userId, sourceAccountId, idempotencyKey);
+        ChunkWriter chunks = new ChunkWriter(job.getId());
+        int total;
+        try {
+            total = fileReader.read(body, format, maxItems, chunks::add);
+            chunks.flush();
+        } catch (RuntimeException e) {
+            uploadService.discard(job.getId());
+            throw e;
+        }
+        Instant uploaded = Instant.now();
+        if (!uploadService.finish(job.getId(), total, uploaded)) {
+            throw new ConflictException("Bulk job upload took too long and was discarded.");
+        }
+        job.setTotalItems(total);
+        job.setUploadedAt(uploaded);
+        job.setUpdatedAt(uploaded);
+        log.info("Bulk job {} accepted for user {}: {} transfers in {} chunks",
+                job.getId(), userId, total, chunks.seq);
+        return toDto(job);
+    }
+
+    @Transactional(readOnly = true)
+    public BulkJobStatusDto getStatus(Long jobId, Long userId) {
+        return bulkJobRepository.findById(jobId)
+                .filter(job -> job.getUserId().equals(userId))
+                .map(this::toDto)
+                .orElseThrow(() -> new NotFoundException("Bulk job not found"));
+    }
+
+    private BulkJobStatusDto toDto(BulkJob job) {
+        List<BulkTransferFailedItemDto> failed = new ArrayList<>();
+        if (job.getFailedItems() > 0) {
+            for (String failures : chunkRepository.findFailures(job.getId(), PageRequest.of(0, FAILURES_SHOWN))) {
+                failed.addAll(BulkJobItems.failed(failures, FAILURES_SHOWN - failed.size()));
+                if (failed.size() == FAILURES_SHOWN) {
+                    break;
+                }
+            }
+        }
+        return BulkJobStatusDto.builder()
+                .id(job.getId())
+                .status(statusOf(job))
+                .sourceAccountId(job.getSourceAccountId())
+                .totalItems(job.getTotalItems())
+                .processedItems(job.getProcessedItems())
+                .succeededItems(job.getSucceededItems())
+                .failedItems(job.getFailedItems())
+                .createdAt(job.getCreatedAt())
+                .updatedAt(job.getUpdatedAt())
+                .completedAt(job.getCompletedAt())
+                .failed(failed)
+                .build();
+    }
+
+    private static BulkJobStatus statusOf(BulkJob job) {
+        if (job.getUploadedAt() == null) {
+            return BulkJobStatus.UPLOADING;
+        }
+        if (job.getCompletedAt() != null) {
+            return BulkJobStatus.COMPLETED;
+        }
+        return job.getProcessedItems() > 0 ? BulkJobStatus.RUNNING : BulkJobStatus.QUEUED;
+    }
+
+    /**
+     * Buffers items into the current chunk and stores it, in its own transaction, when full.
+     */
+    private final class ChunkWriter {
+        private final Long jobId;
+        private final StringBuilder items = new StringBuilder();
+        private int count;
+        private int seq;
+
+        ChunkWriter(Long jobId) {
+            this.jobId = jobId;
+        }
+
+        void add(BulkTransferItemDto item) {
+            BulkJobItems.append(items, item);
+            if (++count == chunkSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (count == 0) {
+                return;
+            }
+            uploadService.store(BulkJobChunk.builder()
+                    .jobId(jobId)
+                    .seq(seq++)
+                    .itemCount(count)
+                    .items(items.toString())
+                    .build());
+            items.setLength(0);
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package transaction_service.transaction_service.service.bulk;
+
+import core.core.exception.ConflictException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import transaction_service.transaction_service.model.BulkJob;
+import transaction_service.transaction_service.model.BulkJobChunk;
+import transaction_service.transaction_service.repository.BulkJobChunkRepository;
+import transaction_service.transaction_service.repository.BulkJobRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The short transactions of a bulk job upload: the job row, each chunk and the final count are
+ * committed one at a time, so no JDBC connection is held while the body is read. A job stays
+ * UPLOADING, and its chunks unclaimed, until {@link #finish} records its total.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkJobUploadService {
+    private final BulkJobRepository bulkJobRepository;
+    private final BulkJobChunkRepository chunkRepository;
+
+    @Transactional
+    public BulkJob open(Long userId, Long sourceAccountId, String idempotencyKey) {
+        Instant now = Instant.now();
+        try {
+            return bulkJobRepository.saveAndFlush(BulkJob.builder()
+                    .userId(userId)
+                    .sourceAccountId(sourceAccountId)
+                    .idempotencyKey(idempotencyKey)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("A bulk job with this Idempotency-Key is already being uploaded.");
+        }
+    }
+
+    @Transactional
+    public void store(BulkJobChunk chunk) {
+        chunkRepository.save(chunk);
+    }
+
+    /**
+     * Records the job's total and hands its chunks to the workers. Returns false if the job was
+     * discarded as abandoned meanwhile.
+     */
+    @Transactional
+    public boolean finish(Long jobId, int totalItems, Instant now) {
+        return bulkJobRepository.markUploaded(jobId, totalItems, now) > 0;
+    }
+
+    /**
+     * Deletes the job and its chunks unless its upload already finished.
+     */
+    @Transactional
+    public void discard(Long jobId) {
+        bulkJobRepository.lockUploading(jobId).ifPresent(job -> discard(List.of(job)));
+    }
+
+    /**
+     * Deletes up to {@code limit} jobs still uploading since before {@code before}, with their
+     * chunks. Returns how many were deleted.
+     */
+    @Transactional
+    public int discardAbandoned(Instant before, int limit) {
+        List<BulkJob> abandoned = bulkJobRepository.lockUploadingSince(before, PageRequest.of(0, limit));
+        if (abandoned.isEmpty()) {
+            return 0;
+        }
+        discard(abandoned);
+        log.warn("Discarded {} bulk job uploads abandoned before {}", abandoned.size(), before);
+        return abandoned.size();
+    }
+
+    // the jobs are locked, so a finish racing the delete waits and then finds no job
+    private void discard(List<BulkJob> jobs) {
+        chunkRepository.deleteByJobIds(jobs.stream().map(BulkJob::getId).toList());
+        bulkJobRepository.deleteAllInBatch(jobs);
+    }
+}
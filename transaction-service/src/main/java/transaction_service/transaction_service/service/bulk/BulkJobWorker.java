@@ -0,0 +1,220 @@
+package transaction_service.transaction_service.service.bulk;
+
+import core.core.exception.BadRequestException;
+import core.core.exception.NotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import transaction_service.transaction_service.config.FeignClientInterceptor;
+import transaction_service.transaction_service.config.ServiceTokenProvider;
+import transaction_service.transaction_service.dto.bulk.BulkTransferFailedItemDto;
+import transaction_service.transaction_service.dto.bulk.BulkTransferItemDto;
+import transaction_service.transaction_service.dto.bulk.BulkTransferRequestDto;
+import transaction_service.transaction_service.dto.bulk.BulkTransferResponseDto;
+import transaction_service.transaction_service.model.BulkJob;
+import transaction_service.transaction_service.model.BulkJobChunk;
+import transaction_service.transaction_service.model.Status;
+import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.service.BulkTransferService;
+import transaction_service.transaction_service.service.bulk.BulkJobClaimService.ClaimedChunk;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Settles bulk job chunks every {@code interval}, {@code concurrency} at a time, each as one
+ * {@link BulkTransferService#bulkTransfer} under the idempotency key {@code <job key>-<seq>}.
+ * A chunk is checkpointed once settled; a worker that dies before that leaves the lease to run
+ * out, and the chunk is settled again, replaying the transfers already admitted under its
+ * keys. A chunk still failing after {@code max-attempts} is not settled again: it reports
+ * the outcome each of its transfers reached, once none is still in flight.
+ *
+ * <p>No caller is around to authorize the account-service calls, so each chunk settles with
+ * a service token for the job's user from {@link ServiceTokenProvider}. Uploads still running
+ * after {@code upload-timeout} were abandoned by their client and are discarded.
+ */
+@Slf4j
+@Service
+public class BulkJobWorker {
+    private static final int CLEANUP_BATCH = 100;
+
+    private final BulkJobClaimService claimService;
+    private final BulkJobUploadService uploadService;
+    private final BulkTransferService bulkTransferService;
+    private final ServiceTokenProvider serviceTokens;
+    private final Executor workExecutor;
+    private final Duration lease;
+    private final Duration uploadTimeout;
+    private final int concurrency;
+    private final int maxAttempts;
+    private final boolean enabled;
+    private final Counter settled;
+    private final Counter retried;
+
+    public BulkJobWorker(BulkJobClaimService claimService,
+                         BulkJobUploadService uploadService,
+                         BulkTransferService bulkTransferService,
+                         ServiceTokenProvider serviceTokens,
+                         @Qualifier("bulkJobWorkExecutor") Executor workExecutor,
+                         MeterRegistry meterRegistry,
+                         @Value("${transaction.bulk-job.worker.lease:PT5M}") Duration lease,
+                         @Value("${transaction.bulk-job.upload-timeout:PT1H}") Duration uploadTimeout,
+                         @Value("${transaction.bulk-job.concurrency:2}") int concurrency,
+                         @Value("${transaction.bulk-job.worker.max-attempts:5}") int maxAttempts,
+                         @Value("${transaction.bulk-job.worker.enabled:true}") boolean enabled) {
+        this.claimService = claimService;
+        this.uploadService = uploadService;
+        this.bulkTransferService = bulkTransferService;
+        this.serviceTokens = serviceTokens;
+        this.workExecutor = workExecutor;
+        this.lease = lease;
+        this.uploadTimeout = uploadTimeout;
+        this.concurrency = concurrency;
+        this.maxAttempts = maxAttempts;
+        this.enabled = enabled;
+        this.settled = Counter.builder("transaction.bulk_job.chunks.settled")
+                .description("Bulk job chunks settled and checkpointed")
+                .register(meterRegistry);
+        this.retried = Counter.builder("transaction.bulk_job.chunks.retried")
+                .description("Bulk job chunks left to be settled again after their lease")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.bulk-job.worker.interval:PT1S}")
+    void scheduledDrain() {
+        if (enabled) {
+            drain();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.bulk-job.upload-cleanup-interval:PT10M}")
+    void scheduledCleanup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Instant before = Instant.now().minus(uploadTimeout);
+            int discarded;
+            do {
+                discarded = uploadService.discardAbandoned(before, CLEANUP_BATCH);
+            } while (discarded == CLEANUP_BATCH);
+        } catch (RuntimeException e) {
+            log.error("Bulk job upload cleanup failed", e);
+        }
+    }
+
+    /**
+     * Claims and settles chunks until a claim comes back short. Returns how many chunks were
+     * claimed.
+     */
+    public long drain() {
+        long claimed = 0;
+        try {
+            List<ClaimedChunk> batch;
+            do {
+                batch = claimService.claim(lease, concurrency);
+                CompletableFuture.allOf(batch.stream()
+                                .map(chunk -> CompletableFuture.runAsync(() -> settle(chunk), workExecutor))
+                                .toArray(CompletableFuture[]::new))
+                        .join();
+                claimed += batch.size();
+            } while (batch.size() == concurrency);
+        } catch (RuntimeException e) {
+            log.error("Bulk job run failed after {} chunks", claimed, e);
+        }
+        return claimed;
+    }
+
+    void settle(ClaimedChunk claimed) {
+        BulkJobChunk chunk = claimed.chunk();
+        BulkJob job = claimed.job();
+        List<BulkTransferItemDto> items = BulkJobItems.items(chunk.getItems());
+        if (chunk.getAttempts() >= maxAttempts) {
+            resolve(claimed, items);
+            return;
+        }
+        BulkTransferRequestDto request = BulkTransferRequestDto.builder()
+                .sourceAccountId(job.getSourceAccountId())
+                .transfers(items)
+                .build();
+        FeignClientInterceptor.setToken(serviceTokens.tokenFor(job.getUserId()));
+        try {
+            BulkTransferResponseDto response = bulkTransferService.bulkTransfer(
+                    request, job.getUserId(), chunkKey(claimed));
+            checkpoint(chunk, response.getSuccessCount(), response.getFailed());
+        } catch (BadRequestException | NotFoundException e) {
+            log.warn("Bulk job {} chunk {} rejected: {}", job.getId(), chunk.getSeq(), e.getMessage());
+            checkpoint(chunk, 0, failAll(items, e.getMessage()));
+        } catch (RuntimeException e) {
+            retried.increment();
+            log.error("Bulk job {} chunk {} attempt {} failed, retrying after the lease",
+                    job.getId(), chunk.getSeq(), chunk.getAttempts() + 1, e);
+        } finally {
+            FeignClientInterceptor.clearToken();
+        }
+    }
+
+    /**
+     * Checkpoints a chunk that ran out of attempts with the outcome its transfers actually
+     * reached instead of settling it again. An item never admitted under its key was not
+     * debited and fails; one admitted reports its transaction's status. While any is still in
+     * flight the chunk is left for recovery to finish it and is looked at again after the
+     * lease, so no item that may have been paid is reported as failed.
+     */
+    private void resolve(ClaimedChunk claimed, List<BulkTransferItemDto> items) {
+        BulkJobChunk chunk = claimed.chunk();
+        List<String> keys = BulkTransferService.itemKeys(chunkKey(claimed), items);
+        Map<String, Transaction> admitted = claimService.admitted(keys);
+
+        int succeeded = 0;
+        List<BulkTransferFailedItemDto> failed = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            Transaction transaction = admitted.get(keys.get(i));
+            List<BulkTransferItemDto> item = List.of(items.get(i));
+            if (transaction == null) {
+                failed.addAll(failAll(item, "Not admitted after " + chunk.getAttempts() + " attempts"));
+            } else if (transaction.getStatus() == Status.COMPLETED) {
+                succeeded++;
+            } else if (transaction.getStatus() == Status.FAILED) {
+                failed.addAll(failAll(item, transaction.getErrorMessage()));
+            } else {
+                retried.increment();
+                log.warn("Bulk job {} chunk {} out of attempts, transaction {} still {}, checking again after the lease",
+                        chunk.getJobId(), chunk.getSeq(), transaction.getId(), transaction.getStatus());
+                return;
+            }
+        }
+        checkpoint(chunk, succeeded, failed);
+    }
+
+    private static String chunkKey(ClaimedChunk claimed) {
+        return claimed.job().getIdempotencyKey() + "-" + claimed.chunk().getSeq();
+    }
+
+    private void checkpoint(BulkJobChunk chunk, int succeeded, List<BulkTransferFailedItemDto> failed) {
+        if (claimService.checkpoint(chunk, succeeded, failed)) {
+            settled.increment();
+            log.info("Bulk job {} chunk {} settled: success={}, failed={}",
+                    chunk.getJobId(), chunk.getSeq(), succeeded, failed.size());
+        }
+    }
+
+    private static List<BulkTransferFailedItemDto> failAll(List<BulkTransferItemDto> items, String reason) {
+        return items.stream()
+                .map(item -> BulkTransferFailedItemDto.builder()
+                        .targetAccountId(item.getTargetAccountId())
+                        .amount(item.getAmount())
+                        .reason(reason)
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,225 @@
+package transaction_service.transaction_service.service.journal;
+
+import transaction_service.transaction_service.model.TransactionStep;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped journal of saga step transitions.
+ *
+ * <p>The file is a 32-byte header (magic, version, generation, checkpoint position) followed by
+ * fixed 24-byte records: transaction id, generation, step ordinal and a CRC32 of the first
+ * 16 bytes. Records from the checkpoint position up to the first invalid one are the steps not
+ * yet written to the database. Once everything is checkpointed the journal starts over from
+ * the header with the next generation, which invalidates the records left behind.
+ *
+ * <p>{@link #append} returns once the record is forced to disk. Appenders that arrive while a
+ * force is running wait for it and are then covered by a single force of everything written
+ * so far (group fsync).
+ */
+public final class SagaJournal implements Closeable {
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_SIZE = 24;
+    private static final int MAGIC = 0x53414741;
+    private static final int VERSION = 1;
+    private static final int GENERATION_OFFSET = 8;
+    private static final int CHECKPOINT_OFFSET = 16;
+    private static final TransactionStep[] STEPS = TransactionStep.values();
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final boolean fsync;
+    private final Object appendLock = new Object();
+    private final Object flushLock = new Object();
+    private int generation;
+    private int checkpoint;
+    private int writePosition;
+    private long appended;
+    private volatile long durable;
+
+    private SagaJournal(FileChannel channel, MappedByteBuffer buffer, boolean fsync) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Maps the journal at {@code path}, creating it with {@code capacity} bytes if it does not
+     * exist, and finds the end of the records written before the last shutdown or crash.
+     */
+    public static SagaJournal open(Path path, int capacity, boolean fsync) throws IOException {
+        if (capacity < HEADER_SIZE + RECORD_SIZE) {
+            throw new IllegalArgumentException("Saga journal capacity " + capacity + " is too small");
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            int size = (int) Math.max(channel.size(), capacity);
+            SagaJournal journal = new SagaJournal(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size), fsync);
+            journal.load();
+            return journal;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void load() {
+        if (buffer.getInt(0) != MAGIC) {
+            generation = 1;
+            checkpoint = HEADER_SIZE;
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            writeHeader();
+        } else if (buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Unsupported saga journal version " + buffer.getInt(4));
+        } else {
+            generation = buffer.getInt(GENERATION_OFFSET);
+            checkpoint = (int) buffer.getLong(CHECKPOINT_OFFSET);
+        }
+        int position = checkpoint;
+        while (position + RECORD_SIZE <= buffer.capacity() && isValid(position)) {
+            position += RECORD_SIZE;
+        }
+        writePosition = position;
+    }
+
+    /**
+     * Records that {@code transactionId} reached {@code step}.
+     *
+     * @throws IllegalStateException if the journal is full until the next checkpoint
+     */
+    public void append(long transactionId, TransactionStep step) {
+        long sequence;
+        synchronized (appendLock) {
+            int position = writePosition;
+            if (position + RECORD_SIZE > buffer.capacity()) {
+                throw new IllegalStateException("Saga journal is full");
+            }
+            buffer.putLong(position, transactionId);
+            buffer.putInt(position + 8, generation);
+            buffer.putInt(position + 12, step.ordinal());
+            buffer.putInt(position + 16, crc(position));
+            writePosition = position + RECORD_SIZE;
+            appended += RECORD_SIZE;
+            sequence = appended;
+        }
+        if (fsync) {
+            awaitDurable(sequence);
+        }
+    }
+
+    /**
+     * Waits until {@code sequence} bytes appended in total are on disk. Counted in bytes ever
+     * appended rather than file positions, which go back to the header on every new generation.
+     */
+    private void awaitDurable(long sequence) {
+        if (durable >= sequence) {
+            return;
+        }
+        synchronized (flushLock) {
+            if (durable >= sequence) {
+                return;
+            }
+            long covered;
+            int to;
+            synchronized (appendLock) {
+                covered = appended;
+                to = writePosition;
+            }
+            // only dirty pages are written, so forcing from the header costs no more than the tail
+            buffer.force(HEADER_SIZE, to - HEADER_SIZE);
+            durable = covered;
+        }
+    }
+
+    /**
+     * Latest step of every transaction appended since the last checkpoint, and the position to
+     * hand to {@link #checkpoint} once those steps are in the database. {@code pending} and
+     * {@code checkpoint} are called by a single checkpointer.
+     */
+    public Pending pending() {
+        int from;
+        int to;
+        synchronized (appendLock) {
+            from = checkpoint;
+            to = writePosition;
+        }
+        Map<Long, TransactionStep> steps = new LinkedHashMap<>();
+        for (int position = from; position < to; position += RECORD_SIZE) {
+            steps.put(buffer.getLong(position), STEPS[buffer.getInt(position + 12)]);
+        }
+        return new Pending(steps, to);
+    }
+
+    /**
+     * Marks everything before {@code position} as written to the database. When nothing was
+     * appended after it, the journal starts over with the next generation.
+     */
+    public void checkpoint(int position) {
+        synchronized (appendLock) {
+            if (position == writePosition) {
+                generation++;
+                checkpoint = HEADER_SIZE;
+                writePosition = HEADER_SIZE;
+            } else {
+                checkpoint = position;
+            }
+            writeHeader();
+        }
+    }
+
+    /**
+     * Bytes appended and not yet checkpointed.
+     */
+    public int backlog() {
+        synchronized (appendLock) {
+            return writePosition - checkpoint;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private void writeHeader() {
+        buffer.putInt(GENERATION_OFFSET, generation);
+        buffer.putLong(CHECKPOINT_OFFSET, checkpoint);
+        buffer.force(0, HEADER_SIZE);
+    }
+
+    private boolean isValid(int position) {
+        long transactionId = buffer.getLong(position);
+        int step = buffer.getInt(position + 12);
+        return transactionId != 0
+                && buffer.getInt(position + 8) == generation
+                && step >= 0 && step < STEPS.length
+                && buffer.getInt(position + 16) == crc(position);
+    }
+
+    private int crc(int position) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(position, 16));
+        return (int) crc.getValue();
+    }
+
+    public record Pending(Map<Long, TransactionStep> steps, int position) {
+        public boolean isEmpty() {
+            return steps.isEmpty();
+        }
+    }
+}
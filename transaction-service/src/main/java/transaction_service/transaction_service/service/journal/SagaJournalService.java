@@ -0,0 +1,125 @@
+package transaction_service.transaction_service.service.journal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.service.TransactionStateService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Records saga steps in the local {@link SagaJournal} so a transfer that dies between its legs
+ * resumes from the right step, without a database write between the debit and the credit.
+ * Steps are checkpointed to the transaction rows every {@code checkpoint-interval}; on startup
+ * the steps the previous process journaled but did not checkpoint are written first, before
+ * {@code TransactionRecoveryService} starts replaying stuck transactions.
+ *
+ * <p>Without {@code transaction.saga-journal.enabled} steps stay in memory until the final
+ * status change, as before.
+ */
+@Slf4j
+@Service
+public class SagaJournalService {
+    private final TransactionStateService transactionStateService;
+    private final MeterRegistry meterRegistry;
+    private final Path path;
+    private final DataSize capacity;
+    private final boolean fsync;
+    private final boolean enabled;
+    private final Counter dropped;
+    private SagaJournal journal;
+
+    public SagaJournalService(TransactionStateService transactionStateService,
+                              MeterRegistry meterRegistry,
+                              @Value("${transaction.saga-journal.path:saga-journal/transaction-steps.journal}") Path path,
+                              @Value("${transaction.saga-journal.capacity:16MB}") DataSize capacity,
+                              @Value("${transaction.saga-journal.fsync:true}") boolean fsync,
+                              @Value("${transaction.saga-journal.enabled:false}") boolean enabled) {
+        this.transactionStateService = transactionStateService;
+        this.meterRegistry = meterRegistry;
+        this.path = path;
+        this.capacity = capacity;
+        this.fsync = fsync;
+        this.enabled = enabled;
+        this.dropped = Counter.builder("transaction.saga_journal.dropped")
+                .description("Saga steps not journaled because the journal was full or failing")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        journal = SagaJournal.open(path, Math.toIntExact(capacity.toBytes()), fsync);
+        int replayed = flush();
+        if (replayed > 0) {
+            log.warn("Saga journal {}: checkpointed {} steps left by the previous run", path, replayed);
+        }
+        Gauge.builder("transaction.saga_journal.backlog.bytes", journal, SagaJournal::backlog)
+                .description("Journaled saga steps not yet checkpointed to the database")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() throws IOException {
+        if (journal != null) {
+            checkpoint();
+            journal.close();
+        }
+    }
+
+    /**
+     * Journals the step {@code tx} has just reached. A step that cannot be journaled is only
+     * logged: the account operations are idempotent per transaction, so the worst case is a
+     * recovery that starts the saga over.
+     */
+    public void record(Transaction tx) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.append(tx.getId(), tx.getStep());
+        } catch (IllegalStateException | UncheckedIOException e) {
+            dropped.increment();
+            log.warn("TX {} step {} not journaled: {}", tx.getId(), tx.getStep(), e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the journaled steps to the database and advances the checkpoint. Returns the number
+     * of transactions checkpointed, 0 when the checkpoint failed and will be retried.
+     */
+    @Scheduled(fixedDelayString = "${transaction.saga-journal.checkpoint-interval:PT1S}")
+    public synchronized int checkpoint() {
+        if (journal == null) {
+            return 0;
+        }
+        try {
+            return flush();
+        } catch (RuntimeException e) {
+            log.error("Saga journal checkpoint failed", e);
+            return 0;
+        }
+    }
+
+    private int flush() {
+        SagaJournal.Pending pending = journal.pending();
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        transactionStateService.checkpointSteps(pending.steps());
+        journal.checkpoint(pending.position());
+        return pending.steps().size();
+    }
+}
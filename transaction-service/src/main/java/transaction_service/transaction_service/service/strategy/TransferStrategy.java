@@ -4,13 +4,14 @@ import core.core.exception.ConflictException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import transaction_service.transaction_service.model.Status;
 import transaction_service.transaction_service.model.Transaction;
 import transaction_service.transaction_service.model.TransactionStep;
 import transaction_service.transaction_service.model.TransactionType;
 import transaction_service.transaction_service.service.AccountOperationService;
 import core.core.exception.*;
 import transaction_service.transaction_service.service.TransactionStateService;
+import transaction_service.transaction_service.service.TransferNettingService;
+import transaction_service.transaction_service.service.journal.SagaJournalService;
 
 import java.math.BigDecimal;
 
@@ -21,6 +22,8 @@ public class TransferStrategy implements FinancialOperationStrategy {
 
     private final AccountOperationService accountOperationService;
     private final TransactionStateService transactionStateService;
+    private final SagaJournalService sagaJournal;
+    private final TransferNettingService nettingService;
 
     @Override
     public TransactionType getType() {
@@ -40,9 +43,17 @@ public class TransferStrategy implements FinancialOperationStrategy {
             if (tx.getStep() == TransactionStep.NONE) {
                 log.info("TX {} SAGA: Debit {}", tx.getId(), amount);
 
-                accountOperationService.debit(tx.getId(), sourceAccountId, amount);
-                transactionStateService.updateStep(tx.getId(), TransactionStep.DEBIT_DONE);
+                if (tx.getNettingDebitId() != null) {
+                    // bulk item: its share was part of one aggregate debit of the source
+                    nettingService.redebit(tx, sourceAccountId);
+                } else {
+                    accountOperationService.debit(tx.getId(), sourceAccountId, amount);
+                }
+                // no DB write between the legs: debit/credit are idempotent per txId in
+                // account-service, the local journal only spares recovery a repeated debit;
+                // the final step is persisted with the status change
                 tx.setStep(TransactionStep.DEBIT_DONE);
+                sagaJournal.record(tx);
                 debitSucceeded = true;
             }
 
@@ -50,7 +61,8 @@ public class TransferStrategy implements FinancialOperationStrategy {
                 log.info("TX {} SAGA: Credit {}", tx.getId(), tx.getTargetAmount());
 
                 accountOperationService.credit(tx.getId(), targetAccountId, tx.getTargetAmount());
-                transactionStateService.updateStep(tx.getId(), TransactionStep.CREDIT_DONE);
+                tx.setStep(TransactionStep.CREDIT_DONE);
+                sagaJournal.record(tx);
             }
 
         } catch (ConflictException e) {
@@ -59,13 +71,16 @@ public class TransferStrategy implements FinancialOperationStrategy {
 
             if (debitSucceeded) {
                 try {
-                    accountOperationService.compensate(tx.getId(), sourceAccountId, amount);
+                    // the refund needs an operation id of its own, or account-service drops it as
+                    // a repeat of the debit: a netted item gives back its share of the aggregate
+                    // debit under its own id, a plain transfer under its negated id, which no
+                    // netting debit uses since those negate the id of a netted item
+                    boolean netted = tx.getNettingDebitId() != null;
+                    BigDecimal refund = netted ? tx.getAmount() : amount;
+                    Long refundId = netted ? tx.getId() : -tx.getId();
+                    accountOperationService.compensate(refundId, sourceAccountId, refund);
                 } catch (RuntimeException re) {
-                    transactionStateService.updateStatus(
-                            tx.getId(),
-                            Status.FAILED,
-                            "Compensation failed: " + re.getMessage()
-                    );
+                    transactionStateService.fail(tx, "Compensation failed: " + re.getMessage());
                     throw new BadRequestException("Transfer failed. Compensation failed.");
                 }
             }
@@ -13,8 +13,10 @@ public class AccountAccessService {
     private final AccountClient accountClient;
     public AccountResponseDto validateAccountOwnership(Long accountId, Long userId) {
 
-        AccountResponseDto account = accountClient.getAccountById(accountId);
-        if (!account.getUserId().equals(userId)) {
+        return requireOwnedBy(accountClient.getAccountById(accountId), userId);
+    }
+    public static AccountResponseDto requireOwnedBy(AccountResponseDto account, Long userId) {
+        if (account == null || !account.getUserId().equals(userId)) {
             throw new NotFoundException("Account not found or access denied.");
         }
         return account;
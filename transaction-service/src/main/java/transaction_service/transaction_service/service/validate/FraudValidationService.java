@@ -4,9 +4,9 @@ import core.core.exception.FraudDetectedException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import transaction_service.transaction_service.repository.TransactionRepository;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 
@@ -14,9 +14,10 @@ import java.time.temporal.ChronoUnit;
 @Service
 @RequiredArgsConstructor
 public class FraudValidationService {
-    private final TransactionRepository transactionRepository;
+    private final VelocityTracker velocityTracker;
     private static final BigDecimal SUSPICIOUS_AMOUNT = new BigDecimal("10000");
     private static final int MAX_TRANSACTIONS_PER_5_MIN = 5;
+    private static final Duration VELOCITY_WINDOW = Duration.ofMinutes(5);
     public void validate(Long userId, BigDecimal amount, Instant accountCreatedAt) {
 
         checkSuspiciousAmount(userId, amount);
@@ -33,10 +34,7 @@ public class FraudValidationService {
     }
 
     private void checkVelocity(Long userId) {
-        Instant fiveMinutesAgo = Instant.now().minus(5, ChronoUnit.MINUTES);
-
-        long recentCount = transactionRepository
-                .countByUserIdAndCreatedAtAfter(userId, fiveMinutesAgo);
+        long recentCount = velocityTracker.count(userId, VELOCITY_WINDOW, MAX_TRANSACTIONS_PER_5_MIN);
 
         if (recentCount >= MAX_TRANSACTIONS_PER_5_MIN) {
             log.warn("Fraud: velocity check failed for user {}. Count: {}", userId, recentCount);
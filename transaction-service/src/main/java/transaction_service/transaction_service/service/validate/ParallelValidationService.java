@@ -1,6 +1,5 @@
 package transaction_service.transaction_service.service.validate;
 
-import core.core.dto.AccountResponseDto;
 import core.core.enums.Currency;
 import core.core.exception.FraudDetectedException;
 import core.core.exception.InternalServerErrorException;
@@ -11,7 +10,6 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import transaction_service.transaction_service.dto.ValidationResult;
 import transaction_service.transaction_service.model.TransactionType;
-import transaction_service.transaction_service.service.AccountOperationService;
 import transaction_service.transaction_service.service.ExchangeRateService;
 import transaction_service.transaction_service.service.LimitService;
 
@@ -29,40 +27,38 @@ public class ParallelValidationService {
     private final LimitService limitService;
     private final ExchangeRateService exchangeRateService;
     private final FraudValidationService fraudValidationService;
-    private final AccountOperationService accountOperationService;
     private final Executor transactionValidationExecutor;
 
     public ParallelValidationService(
             LimitService limitService,
             ExchangeRateService exchangeRateService,
             FraudValidationService fraudValidationService,
-            AccountOperationService accountOperationService,
             @Qualifier("transactionValidationExecutor") Executor transactionValidationExecutor
     ) {
         this.limitService = limitService;
         this.exchangeRateService = exchangeRateService;
         this.fraudValidationService = fraudValidationService;
-        this.accountOperationService = accountOperationService;
         this.transactionValidationExecutor = transactionValidationExecutor;
     }
 
+    /**
+     * Runs the limit and fraud checks in parallel on the validation executor. Callers already
+     * running on that executor (bulk transfers) pass {@code inline}, so the checks run on the
+     * calling thread and a worker never waits for tasks queued behind it.
+     */
     public ValidationResult validate(Long userId, BigDecimal amount, Currency currency,
-                                     Long targetAccountId, TransactionType type,
-                                     Instant accountCreatedAt) {
+                                     Currency targetCurrency, TransactionType type,
+                                     Instant accountCreatedAt, boolean inline) {
 
-        BigDecimal rate = resolveRate(currency, targetAccountId, type);
+        BigDecimal rate = resolveRate(currency, targetCurrency, type);
         BigDecimal targetAmount = amount.multiply(rate).setScale(2, RoundingMode.HALF_UP);
         BigDecimal amountForLimit = type == TransactionType.TRANSFER ? targetAmount : amount;
 
-        CompletableFuture<Void> limitFuture = CompletableFuture.runAsync(
-                () -> limitService.checkTransactionLimit(userId, amountForLimit),
-                transactionValidationExecutor
-        );
+        CompletableFuture<Void> limitFuture = fork(inline,
+                () -> limitService.checkTransactionLimit(userId, amountForLimit));
 
-        CompletableFuture<Void> fraudFuture = CompletableFuture.runAsync(
-                () -> fraudValidationService.validate(userId, amount, accountCreatedAt),
-                transactionValidationExecutor
-        );
+        CompletableFuture<Void> fraudFuture = fork(inline,
+                () -> fraudValidationService.validate(userId, amount, accountCreatedAt));
 
         log.info("Running parallel validation for user {}: limit + fraud", userId);
 
@@ -83,13 +79,22 @@ public class ParallelValidationService {
                 .build();
     }
 
-    private BigDecimal resolveRate(Currency currency, Long targetAccountId, TransactionType type) {
-        if (type == TransactionType.TRANSFER && targetAccountId != null) {
-            AccountResponseDto targetAcc = accountOperationService.getAccountById(targetAccountId);
-            if (!currency.equals(targetAcc.getCurrency())) {
-                return exchangeRateService.getRate(currency, targetAcc.getCurrency());
+    private CompletableFuture<Void> fork(boolean inline, Runnable check) {
+        if (inline) {
+            try {
+                check.run();
+                return CompletableFuture.completedFuture(null);
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
             }
         }
+        return CompletableFuture.runAsync(check, transactionValidationExecutor);
+    }
+
+    private BigDecimal resolveRate(Currency currency, Currency targetCurrency, TransactionType type) {
+        if (type == TransactionType.TRANSFER && targetCurrency != null && !currency.equals(targetCurrency)) {
+            return exchangeRateService.getRate(currency, targetCurrency);
+        }
         return BigDecimal.ONE;
     }
 }
\ No newline at end of file
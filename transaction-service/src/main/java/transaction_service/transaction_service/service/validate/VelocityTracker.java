@@ -0,0 +1,289 @@
+package transaction_service.transaction_service.service.validate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Record of when each user created transactions during the last {@link #RETENTION}, shared by
+ * all instances through one Redis sorted set per user (transaction id scored by its creation
+ * time). Each instance also keeps the transactions it created in memory: users are spread over
+ * {@link #STRIPES} independently locked stripes; each stripe is an open-addressing table from a
+ * primitive user id to a ring buffer of epoch-millis timestamps. The local count is a lower
+ * bound of the shared one, so a check it already fails never goes to Redis, and it is what the
+ * check falls back to while Redis is unreachable. With {@code transaction.velocity.shared=false}
+ * only the local record is kept, which is exact for a single instance.
+ */
+@Slf4j
+@Component
+public class VelocityTracker {
+    public static final Duration RETENTION = Duration.ofMinutes(5);
+    static final String KEY_PREFIX = "transaction:velocity:";
+    static final int STRIPES = 64;
+    static final int RING_CAPACITY = 16;
+
+    private static final long RETENTION_MILLIS = RETENTION.toMillis();
+    // DATETIME columns drop the millis, so a timestamp read back from the DB may be up to a second off
+    private static final long MATCH_TOLERANCE_MILLIS = 1000;
+    private static final long RING_BYTES = 16 + 8 + 16 + 8L * RING_CAPACITY;
+    private static final long SLOT_BYTES = 8 + 4;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final StringRedisTemplate redisTemplate;
+    private final boolean shared;
+    private final MeterRegistry meterRegistry;
+    private final Counter sharedFailures;
+
+    public VelocityTracker(StringRedisTemplate redisTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${transaction.velocity.shared:true}") boolean shared) {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.redisTemplate = redisTemplate;
+        this.shared = shared;
+        this.meterRegistry = meterRegistry;
+        this.sharedFailures = Counter.builder("velocity.tracker.shared.failures")
+                .description("Velocity updates and checks that could not reach Redis")
+                .register(meterRegistry);
+        Gauge.builder("velocity.tracker.users", this, VelocityTracker::trackedUsers)
+                .description("Users with a velocity ring on this instance")
+                .register(meterRegistry);
+        Gauge.builder("velocity.tracker.memory", this, VelocityTracker::estimatedFootprintBytes)
+                .description("Estimated heap held by the velocity tracker")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public void record(Long userId, Long transactionId, Instant createdAt) {
+        restore(userId, createdAt);
+        if (!shared) {
+            return;
+        }
+        String key = KEY_PREFIX + userId;
+        long createdAtMillis = createdAt.toEpochMilli();
+        long expiredBefore = System.currentTimeMillis() - RETENTION_MILLIS;
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                redis.zAdd(key, createdAtMillis, transactionId.toString());
+                redis.zRemRangeByScore(key, Double.NEGATIVE_INFINITY, expiredBefore - 1);
+                redis.pExpire(key, RETENTION_MILLIS);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            sharedFailures.increment();
+            log.warn("Velocity of user {} not shared, counted on this instance only: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Adds a transaction to this instance's record only; used to rebuild it on startup, when the
+     * shared record already holds the transaction.
+     */
+    public void restore(Long userId, Instant createdAt) {
+        long now = System.currentTimeMillis();
+        Stripe stripe = stripeFor(userId);
+        synchronized (stripe) {
+            stripe.getOrCreate(userId, now).add(createdAt.toEpochMilli(), now - RETENTION_MILLIS);
+        }
+    }
+
+    public void remove(Long userId, Long transactionId, Instant createdAt) {
+        Stripe stripe = stripeFor(userId);
+        synchronized (stripe) {
+            TimestampRing ring = stripe.get(userId);
+            if (ring != null) {
+                ring.removeClosest(createdAt.toEpochMilli());
+            }
+        }
+        if (!shared) {
+            return;
+        }
+        try {
+            redisTemplate.opsForZSet().remove(KEY_PREFIX + userId, transactionId.toString());
+        } catch (RuntimeException e) {
+            sharedFailures.increment();
+            log.warn("Failed transaction {} left in the shared velocity of user {}: {}",
+                    transactionId, userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Transactions the user created within {@code window}. Once this instance alone has seen
+     * {@code limit} of them that count is returned without asking Redis.
+     */
+    public long count(Long userId, Duration window, long limit) {
+        long since = System.currentTimeMillis() - window.toMillis();
+        Stripe stripe = stripeFor(userId);
+        long count;
+        synchronized (stripe) {
+            TimestampRing ring = stripe.get(userId);
+            count = ring != null ? ring.countSince(since) : 0;
+        }
+        if (shared && count < limit) {
+            count = Math.max(count, sharedCount(userId, since));
+        }
+        meterRegistry.summary("velocity.window.count", "window", window.toString()).record(count);
+        return count;
+    }
+
+    private long sharedCount(Long userId, long since) {
+        try {
+            Long count = redisTemplate.opsForZSet().count(KEY_PREFIX + userId, since, Double.POSITIVE_INFINITY);
+            return count == null ? 0 : count;
+        } catch (RuntimeException e) {
+            sharedFailures.increment();
+            log.warn("Shared velocity of user {} unavailable, checking this instance only: {}", userId, e.getMessage());
+            return 0;
+        }
+    }
+
+    public long trackedUsers() {
+        long users = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                users += stripe.size;
+            }
+        }
+        return users;
+    }
+
+    public long estimatedFootprintBytes() {
+        long bytes = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                bytes += 16 + 2 * 16 + SLOT_BYTES * stripe.keys.length + RING_BYTES * stripe.size;
+            }
+        }
+        return bytes;
+    }
+
+    private Stripe stripeFor(long userId) {
+        return stripes[(int) (spread(userId) >>> 58)];
+    }
+
+    private static long spread(long key) {
+        return key * 0x9E3779B97F4A7C15L;
+    }
+
+    private static final class Stripe {
+        private long[] keys = new long[16];
+        private TimestampRing[] rings = new TimestampRing[16];
+        private int size;
+
+        TimestampRing get(long key) {
+            int mask = keys.length - 1;
+            for (int i = slot(key, mask); rings[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) return rings[i];
+            }
+            return null;
+        }
+
+        TimestampRing getOrCreate(long key, long now) {
+            TimestampRing ring = get(key);
+            if (ring != null) return ring;
+            if ((size + 1) * 2 > keys.length) {
+                rehash(now - RETENTION_MILLIS);
+            }
+            ring = new TimestampRing();
+            put(key, ring);
+            return ring;
+        }
+
+        private void put(long key, TimestampRing ring) {
+            int mask = keys.length - 1;
+            int i = slot(key, mask);
+            while (rings[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            rings[i] = ring;
+            size++;
+        }
+
+        // drops users without recent activity, then sizes the table for the rest
+        private void rehash(long expiredBefore) {
+            long[] oldKeys = keys;
+            TimestampRing[] oldRings = rings;
+            int live = 0;
+            for (TimestampRing ring : oldRings) {
+                if (ring != null && ring.hasActivitySince(expiredBefore)) live++;
+            }
+            int capacity = 16;
+            while (capacity < (live + 1) * 4) {
+                capacity <<= 1;
+            }
+            keys = new long[capacity];
+            rings = new TimestampRing[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldRings[i] != null && oldRings[i].hasActivitySince(expiredBefore)) {
+                    put(oldKeys[i], oldRings[i]);
+                }
+            }
+        }
+
+        private static int slot(long key, int mask) {
+            long h = spread(key);
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+
+    private static final class TimestampRing {
+        private final long[] slots = new long[RING_CAPACITY];
+        private int head;
+        private int size;
+
+        void add(long timestamp, long expiredBefore) {
+            while (size > 0 && slots[head] < expiredBefore) {
+                head = (head + 1) % RING_CAPACITY;
+                size--;
+            }
+            if (size == RING_CAPACITY) {
+                head = (head + 1) % RING_CAPACITY;
+                size--;
+            }
+            slots[(head + size) % RING_CAPACITY] = timestamp;
+            size++;
+        }
+
+        void removeClosest(long timestamp) {
+            int match = -1;
+            long bestDistance = MATCH_TOLERANCE_MILLIS;
+            for (int i = 0; i < size; i++) {
+                long distance = Math.abs(slots[(head + i) % RING_CAPACITY] - timestamp);
+                if (distance <= bestDistance) {
+                    bestDistance = distance;
+                    match = i;
+                }
+            }
+            if (match < 0) return;
+            for (int i = match; i < size - 1; i++) {
+                slots[(head + i) % RING_CAPACITY] = slots[(head + i + 1) % RING_CAPACITY];
+            }
+            size--;
+        }
+
+        long countSince(long since) {
+            long count = 0;
+            for (int i = 0; i < size; i++) {
+                if (slots[(head + i) % RING_CAPACITY] >= since) count++;
+            }
+            return count;
+        }
+
+        boolean hasActivitySince(long since) {
+            return countSince(since) > 0;
+        }
+    }
+}
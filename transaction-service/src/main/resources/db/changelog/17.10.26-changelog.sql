@@ -0,0 +1,151 @@
+--liquibase formatted sql
+
+--changeset hordiienko:20261017-limit-ledger-bucket
+CREATE TABLE limit_ledger_bucket (
+                                     id BIGINT NOT NULL AUTO_INCREMENT,
+                                     user_id BIGINT NOT NULL,
+                                     bucket_start DATETIME NOT NULL,
+                                     reserved DECIMAL(19,4) NOT NULL DEFAULT 0,
+                                     committed DECIMAL(19,4) NOT NULL DEFAULT 0,
+                                     PRIMARY KEY (id),
+                                     UNIQUE INDEX user_bucket_UNIQUE (user_id ASC, bucket_start ASC)
+) ENGINE=InnoDB;
+
+--changeset hordiienko:20261017-limit-ledger-bucket-backfill dbms:mysql
+INSERT INTO limit_ledger_bucket (user_id, bucket_start, reserved, committed)
+SELECT user_id,
+       DATE_FORMAT(create_at, '%Y-%m-%d %H:00:00'),
+       SUM(CASE WHEN status IN ('CREATED', 'PENDING', 'PROCESSING') THEN amount ELSE 0 END),
+       SUM(CASE WHEN status = 'COMPLETED' THEN amount ELSE 0 END)
+FROM transaction
+WHERE create_at >= NOW() - INTERVAL 25 HOUR
+  AND transaction_type IN ('TRANSFER', 'WITHDRAW')
+  AND status <> 'FAILED'
+GROUP BY user_id, DATE_FORMAT(create_at, '%Y-%m-%d %H:00:00');
+
+--changeset hordiienko:20261017-daily-spend-rollup
+CREATE TABLE daily_spend_rollup (
+                                    id BIGINT NOT NULL AUTO_INCREMENT,
+                                    user_id BIGINT NOT NULL,
+                                    spend_date DATE NOT NULL,
+                                    category_id BIGINT NOT NULL DEFAULT 0,
+                                    currency VARCHAR(3) NOT NULL,
+                                    amount DECIMAL(19,4) NOT NULL DEFAULT 0,
+                                    tx_count BIGINT NOT NULL DEFAULT 0,
+                                    PRIMARY KEY (id),
+                                    UNIQUE INDEX user_date_category_currency_UNIQUE (user_id ASC, spend_date ASC, category_id ASC, currency ASC)
+) ENGINE=InnoDB;
+
+--changeset hordiienko:20261017-daily-spend-rollup-backfill dbms:mysql
+INSERT INTO daily_spend_rollup (user_id, spend_date, category_id, currency, amount, tx_count)
+SELECT user_id,
+       DATE(create_at),
+       COALESCE(transaction_category_id, 0),
+       currency,
+       SUM(COALESCE(target_amount, amount)),
+       COUNT(*)
+FROM transaction
+WHERE status = 'COMPLETED'
+  AND transaction_type IN ('TRANSFER', 'WITHDRAW')
+GROUP BY user_id, DATE(create_at), COALESCE(transaction_category_id, 0), currency;
+
+--changeset hordiienko:20261017-account-ledger-entry
+CREATE TABLE account_ledger_entry (
+                                      id BIGINT NOT NULL AUTO_INCREMENT,
+                                      account_id BIGINT NOT NULL,
+                                      transaction_id BIGINT NOT NULL,
+                                      direction VARCHAR(10) NOT NULL,
+                                      amount DECIMAL(19,4) NOT NULL,
+                                      created_at DATETIME NOT NULL,
+                                      PRIMARY KEY (id),
+                                      UNIQUE INDEX transaction_direction_UNIQUE (transaction_id ASC, direction ASC),
+                                      INDEX idx_ledger_account_created (account_id ASC, created_at ASC, transaction_id ASC),
+                                      CONSTRAINT fk_ledger_transaction FOREIGN KEY (transaction_id)
+                                          REFERENCES transaction (id)
+) ENGINE=InnoDB;
+
+--changeset hordiienko:20261017-account-ledger-entry-backfill dbms:mysql
+INSERT INTO account_ledger_entry (account_id, transaction_id, direction, amount, created_at)
+SELECT source_account_id, id, 'DEBIT', amount, create_at
+FROM transaction
+WHERE source_account_id IS NOT NULL;
+INSERT INTO account_ledger_entry (account_id, transaction_id, direction, amount, created_at)
+SELECT target_account_id, id, 'CREDIT', COALESCE(target_amount, amount), create_at
+FROM transaction
+WHERE target_account_id IS NOT NULL;
+
+--changeset hordiienko:20261017-transaction-outbox
+CREATE TABLE transaction_outbox (
+                                    id BIGINT NOT NULL AUTO_INCREMENT,
+                                    transaction_id BIGINT NOT NULL,
+                                    topic VARCHAR(100) NOT NULL,
+                                    event_key VARCHAR(64) NOT NULL,
+                                    payload VARCHAR(2000) NOT NULL,
+                                    created_at DATETIME(6) NOT NULL,
+                                    sent_at DATETIME(6) NULL,
+                                    attempts INT NOT NULL DEFAULT 0,
+                                    PRIMARY KEY (id),
+                                    INDEX idx_outbox_pending (sent_at ASC, id ASC)
+) ENGINE=InnoDB;
+
+--changeset hordiienko:20261017-transaction-recovery-lease
+ALTER TABLE transaction ADD COLUMN recovery_lease_until DATETIME(6) NULL;
+CREATE INDEX idx_tx_status_updated ON transaction (status, update_at, id);
+
+--changeset hordiienko:20261017-transaction-netting-debit
+ALTER TABLE transaction ADD COLUMN netting_debit_id BIGINT NULL;
+CREATE INDEX idx_tx_netting_debit ON transaction (netting_debit_id);
+
+--changeset hordiienko:20261017-bulk-job
+CREATE TABLE bulk_job (
+                          id BIGINT NOT NULL AUTO_INCREMENT,
+                          user_id BIGINT NOT NULL,
+                          source_account_id BIGINT NOT NULL,
+                          idempotency_key VARCHAR(255) NOT NULL,
+                          total_items INT NOT NULL,
+                          processed_items INT NOT NULL DEFAULT 0,
+                          succeeded_items INT NOT NULL DEFAULT 0,
+                          failed_items INT NOT NULL DEFAULT 0,
+                          created_at DATETIME(6) NOT NULL,
+                          updated_at DATETIME(6) NOT NULL,
+                          completed_at DATETIME(6) NULL,
+                          PRIMARY KEY (id),
+                          CONSTRAINT uk_bulk_job_idempotency_key UNIQUE (idempotency_key)
+) ENGINE=InnoDB;
+CREATE TABLE bulk_job_chunk (
+                                id BIGINT NOT NULL AUTO_INCREMENT,
+                                job_id BIGINT NOT NULL,
+                                seq INT NOT NULL,
+                                item_count INT NOT NULL,
+                                items MEDIUMTEXT NOT NULL,
+                                lease_until DATETIME(6) NULL,
+                                attempts INT NOT NULL DEFAULT 0,
+                                succeeded_items INT NULL,
+                                failed_items INT NULL,
+                                failures MEDIUMTEXT NULL,
+                                completed_at DATETIME(6) NULL,
+                                PRIMARY KEY (id),
+                                CONSTRAINT uk_bulk_chunk_job_seq UNIQUE (job_id, seq),
+                                INDEX idx_bulk_chunk_pending (completed_at ASC, id ASC),
+                                CONSTRAINT fk_bulk_chunk_job FOREIGN KEY (job_id)
+                                    REFERENCES bulk_job (id)
+) ENGINE=InnoDB;
+
+--changeset hordiienko:20261017-bulk-job-uploaded-at
+ALTER TABLE bulk_job ADD COLUMN uploaded_at DATETIME(6) NULL;
+UPDATE bulk_job SET uploaded_at = created_at;
+
+--changeset hordiienko:20261017-daily-spend-rollup-rebuild dbms:mysql
+-- the backfill summed credited amounts under the debited currency; rebuild from debited amounts
+DELETE FROM daily_spend_rollup;
+INSERT INTO daily_spend_rollup (user_id, spend_date, category_id, currency, amount, tx_count)
+SELECT user_id,
+       DATE(create_at),
+       COALESCE(transaction_category_id, 0),
+       currency,
+       SUM(amount),
+       COUNT(*)
+FROM transaction
+WHERE status = 'COMPLETED'
+  AND transaction_type IN ('TRANSFER', 'WITHDRAW')
+GROUP BY user_id, DATE(create_at), COALESCE(transaction_category_id, 0), currency;
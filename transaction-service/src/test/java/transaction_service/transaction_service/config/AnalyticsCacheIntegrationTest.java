@@ -15,7 +15,9 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import transaction_service.transaction_service.dto.TotalSpentResponse;
 import transaction_service.transaction_service.model.*;
+import transaction_service.transaction_service.repository.AccountLedgerEntryRepository;
 import transaction_service.transaction_service.repository.TransactionRepository;
+import transaction_service.transaction_service.service.AnalyticsCacheEvictService;
 import transaction_service.transaction_service.service.AnalyticsService;
 import transaction_service.transaction_service.service.TransactionStateService;
 
@@ -47,10 +49,15 @@ class AnalyticsCacheIntegrationTest {
     RedisTemplate<String, Object> redisTemplate;
     @Autowired
     AnalyticsService analyticsService;
+    @Autowired
+    AnalyticsCacheEvictService cacheEvictService;
 
     @Autowired
     TransactionRepository transactionRepository;
 
+    @Autowired
+    AccountLedgerEntryRepository ledgerRepository;
+
     @Autowired
     TransactionStateService transactionStateService;
 
@@ -58,12 +65,13 @@ class AnalyticsCacheIntegrationTest {
 
     @BeforeEach
     void setup() {
+        ledgerRepository.deleteAll();
         transactionRepository.deleteAll();
         redisTemplate.getConnectionFactory().getConnection().flushAll();
     }
 
     @Test
-    void testCacheableAndEvict() {
+    void testCacheableAndEvict() throws InterruptedException {
         BigDecimal amount = new BigDecimal("45.0000");
 
         Transaction tx = transactionRepository.save(
@@ -73,7 +81,7 @@ class AnalyticsCacheIntegrationTest {
                         .targetAccountId(2L)
                         .amount(amount)
                         .currency(Currency.EUR)
-                        .status(Status.COMPLETED)
+                        .status(Status.PROCESSING)
                         .step(TransactionStep.CREDIT_DONE)
                         .createdAt(Instant.now().minus(1, ChronoUnit.MINUTES))
                         .updatedAt(Instant.now())
@@ -83,21 +91,34 @@ class AnalyticsCacheIntegrationTest {
                         .build()
         );
 
+        // completing through the state service feeds the spend rollup the analytics read
+        transactionStateService.complete(tx);
+        awaitGeneration(1);
+
         TotalSpentResponse resp1 = analyticsService.getTotalSpent(userId, Instant.now().minus(1,ChronoUnit.DAYS), Instant.now());
         assertThat(resp1.getTotalSpent()).isEqualTo(amount);
 
         Set<String> keys = redisTemplate.keys("*totalSpent*");
         assertThat(keys).isNotEmpty();
 
-        transactionStateService.updateStatus(tx.getId(), Status.FAILED, "Test fail");
+        long generation = cacheEvictService.generation(userId);
+        transactionStateService.transition(tx, Status.COMPLETED, Status.FAILED, "Test fail");
 
-        keys = redisTemplate.keys("total:" + userId + ":*");
-        assertThat(keys).isEmpty();
+        awaitGeneration(generation + 1);
 
         TotalSpentResponse resp2 = analyticsService.getTotalSpent(userId, Instant.now().minus(1,ChronoUnit.DAYS), Instant.now());
-        assertThat(resp2.getTotalSpent()).isEqualTo(BigDecimal.ZERO);
+        assertThat(resp2.getTotalSpent()).isEqualByComparingTo(BigDecimal.ZERO);
 
         keys = redisTemplate.keys("*totalSpent*");
         assertThat(keys).isNotEmpty();
     }
+
+    private void awaitGeneration(long expected) throws InterruptedException {
+        // invalidations are flushed asynchronously after commit
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (cacheEvictService.generation(userId) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(cacheEvictService.generation(userId)).isEqualTo(expected);
+    }
 }
@@ -0,0 +1,28 @@
+package transaction_service.transaction_service.config;
+
+import core.core.security.JwtService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceTokenProviderTest {
+
+    @Test
+    @DisplayName("Service token names the service and carries the job's user")
+    void tokenFor_signedServiceToken() {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey",
+                "1234mSlongtdmVyeS1zdHJvbmctc2VjcmV0LWtleS1mb3Itand0LXNpZ25pbmc=");
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60_000L);
+
+        String header = new ServiceTokenProvider(jwtService).tokenFor(7L);
+
+        assertTrue(header.startsWith("Bearer "));
+        String token = header.substring(7);
+        assertTrue(jwtService.isTokenValid(token));
+        assertEquals(ServiceTokenProvider.SERVICE_NAME, jwtService.extractUsername(token));
+        assertEquals(7L, jwtService.extractUserId(token));
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -23,14 +24,18 @@ import transaction_service.transaction_service.controller.TransactionController;
 import transaction_service.transaction_service.dto.TransactionResponseDto;
 import transaction_service.transaction_service.service.ExchangeRateService;
 import transaction_service.transaction_service.service.TransactionService;
+import transaction_service.transaction_service.service.TransactionStatusService;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TransactionController.class)
@@ -48,6 +53,8 @@ class TransactionSecurityTest {
     private JwtAuthenticationFilter jwtAuthenticationFilter;
     @MockBean
     private ExchangeRateService exchangeRateService;
+    @MockBean
+    private TransactionStatusService transactionStatusService;
 
     @BeforeEach
     void setUp() throws ServletException, IOException {
@@ -85,15 +92,18 @@ class TransactionSecurityTest {
                         principal.authorities()
                 );
 
-        when(transactionService.transfer(any(), anyLong(), anyString()))
-                .thenReturn(new TransactionResponseDto());
+        when(transactionService.transferAsync(any(), anyLong(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(new TransactionResponseDto()));
 
-        mockMvc.perform(post("/api/v1/transactions/transfers")
+        MvcResult result = mockMvc.perform(post("/api/v1/transactions/transfers")
                         .with(authentication(auth))
                         .with(csrf())
                         .header("Idempotency-Key", "some-key")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{\"sourceAccountId\":1,\"targetAccountId\":2,\"amount\":100}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk());
     }
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package transaction_service.transaction_service.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TwoLevelCacheManagerTest {
+    private static final String RATES = "exchangeRates";
+
+    private final List<TwoLevelCacheManager> nodes = new ArrayList<>();
+    private ConcurrentMapCacheManager redis;
+    private SimpleMeterRegistry meterRegistry;
+    private TwoLevelCacheManager nodeA;
+    private TwoLevelCacheManager nodeB;
+
+    @BeforeEach
+    void setUp() {
+        redis = new ConcurrentMapCacheManager();
+        meterRegistry = new SimpleMeterRegistry();
+        nodeA = node();
+        nodeB = node();
+    }
+
+    @Test
+    @DisplayName("L2 hit fills L1, the next read stays in process")
+    void get_fillsLocal() {
+        redis.getCache(RATES).put("USD-EUR", new BigDecimal("0.9"));
+        Cache cache = nodeA.getCache(RATES);
+
+        assertEquals(new BigDecimal("0.9"), cache.get("USD-EUR").get());
+        assertEquals(new BigDecimal("0.9"), cache.get("USD-EUR").get());
+
+        assertEquals(1.0, count("l1", "hit"));
+        assertEquals(1.0, count("l1", "miss"));
+        assertEquals(1.0, count("l2", "hit"));
+    }
+
+    @Test
+    @DisplayName("Write on one node drops the other node's L1 copy")
+    void put_invalidatesOtherNodes() {
+        nodeA.getCache(RATES).put("USD-EUR", new BigDecimal("0.9"));
+        nodeB.getCache(RATES).get("USD-EUR");
+
+        nodeA.getCache(RATES).put("USD-EUR", new BigDecimal("0.95"));
+
+        assertEquals(new BigDecimal("0.95"), nodeB.getCache(RATES).get("USD-EUR").get());
+        assertEquals(new BigDecimal("0.95"), nodeA.getCache(RATES).get("USD-EUR").get());
+    }
+
+    @Test
+    @DisplayName("Clear on one node empties the other node's L1")
+    void clear_clearsOtherNodes() {
+        Cache shared = redis.getCache("totalSpent");
+        shared.put("total:1:a", "one");
+        nodeB.getCache("totalSpent").get("total:1:a");
+
+        nodeA.getCache("totalSpent").clear();
+
+        assertNull(nodeB.getCache("totalSpent").get("total:1:a"));
+    }
+
+    @Test
+    @DisplayName("Loader runs once; later reads on the same node skip L2")
+    void getWithLoader_loadsOnce() {
+        AtomicInteger loads = new AtomicInteger();
+        Cache cache = nodeA.getCache(RATES);
+
+        cache.get("USD-PLN", () -> new BigDecimal(4 + loads.incrementAndGet()));
+        BigDecimal second = cache.get("USD-PLN", () -> new BigDecimal(4 + loads.incrementAndGet()));
+
+        assertEquals(1, loads.get());
+        assertEquals(new BigDecimal(5), second);
+        assertEquals(1.0, count("l2", "miss"));
+    }
+
+    @Test
+    @DisplayName("Malformed invalidation message ignored")
+    void onMessage_malformed_ignored() {
+        assertDoesNotThrow(() -> nodeA.onMessage("other-node\tBOGUS"));
+    }
+
+    private TwoLevelCacheManager node() {
+        LocalCacheProperties properties = new LocalCacheProperties();
+        TwoLevelCacheManager[] self = new TwoLevelCacheManager[1];
+        self[0] = new TwoLevelCacheManager(redis, properties, meterRegistry, message -> nodes.stream()
+                .filter(node -> node != self[0])
+                .forEach(node -> node.onMessage(message)));
+        nodes.add(self[0]);
+        return self[0];
+    }
+
+    private double count(String level, String result) {
+        return meterRegistry.find("transaction.cache.gets")
+                .tags("level", level, "result", result)
+                .counters().stream()
+                .mapToDouble(c -> c.count())
+                .sum();
+    }
+}
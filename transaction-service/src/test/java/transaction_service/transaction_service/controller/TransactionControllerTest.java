@@ -23,31 +23,38 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import transaction_service.transaction_service.config.JwtAuthenticationFilter;
 import transaction_service.transaction_service.dto.DepositRequestDto;
 import transaction_service.transaction_service.dto.TransactionRequestDto;
 import transaction_service.transaction_service.dto.TransactionResponseDto;
+import transaction_service.transaction_service.dto.TransactionStatusDto;
 import transaction_service.transaction_service.dto.WithdrawRequestDto;
 import transaction_service.transaction_service.model.Status;
 import transaction_service.transaction_service.model.TransactionType;
 import transaction_service.transaction_service.service.BulkTransferService;
 import transaction_service.transaction_service.service.ExchangeRateService;
 import transaction_service.transaction_service.service.TransactionService;
+import transaction_service.transaction_service.service.TransactionStatusService;
 
 
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TransactionController.class)
@@ -65,6 +72,8 @@ public class TransactionControllerTest {
     private  ExchangeRateService exchangeRateService;
     @MockBean
     private BulkTransferService bulkTransferService;
+    @MockBean
+    private TransactionStatusService transactionStatusService;
 
     private static final String API_PATH = "/api/v1/transactions";
     private static final String IDEMPOTENCY_KEY = "test-key-123";
@@ -135,8 +144,8 @@ public class TransactionControllerTest {
     @DisplayName("POST /transfers: Success -> 200 OK")
     @WithMockUser(username = "100")
     void testTransferSuccess() throws Exception {
-        when(transactionService.transfer(any(TransactionRequestDto.class), eq(100L), eq(IDEMPOTENCY_KEY)))
-                .thenReturn(successTransferResponse);
+        when(transactionService.transferAsync(any(TransactionRequestDto.class), eq(100L), eq(IDEMPOTENCY_KEY)))
+                .thenReturn(CompletableFuture.completedFuture(successTransferResponse));
         AuthenticatedUser principal = new AuthenticatedUser(
                 100L,
                 "test@mail.com",
@@ -149,16 +158,123 @@ public class TransactionControllerTest {
                         null,
                         principal.authorities()
                 );
-        mockMvc.perform(post(API_PATH + "/transfers")
+        MvcResult result = mockMvc.perform(post(API_PATH + "/transfers")
                         .with(csrf())
                         .with(authentication(auth))
                         .header("Idempotency-Key", IDEMPOTENCY_KEY)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(transferJson))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk());
 
     }
 
+    @Test
+    @DisplayName("POST /transfers: Retries exhausted after dispatch -> 409 Conflict")
+    void testTransferRetryConflict() throws Exception {
+        when(transactionService.transferAsync(any(TransactionRequestDto.class), eq(100L), eq(IDEMPOTENCY_KEY)))
+                .thenReturn(CompletableFuture.failedFuture(new ConflictException("Account is busy")));
+        AuthenticatedUser principal = new AuthenticatedUser(
+                100L,
+                "test@mail.com",
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))
+        );
+
+        UsernamePasswordAuthenticationToken auth =
+                new UsernamePasswordAuthenticationToken(
+                        principal,
+                        null,
+                        principal.authorities()
+                );
+        MvcResult result = mockMvc.perform(post(API_PATH + "/transfers")
+                        .with(csrf())
+                        .with(authentication(auth))
+                        .header("Idempotency-Key", IDEMPOTENCY_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(transferJson))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Account is busy"));
+    }
+
+    @Test
+    @DisplayName("POST /transfers/async: Accepted -> 202 with status location")
+    void testSubmitTransferAccepted() throws Exception {
+        when(transactionService.submitTransfer(any(TransactionRequestDto.class), eq(100L), eq(IDEMPOTENCY_KEY)))
+                .thenReturn(TransactionStatusDto.builder().transactionId(7L).status(Status.PROCESSING).build());
+        AuthenticatedUser principal = new AuthenticatedUser(
+                100L,
+                "test@mail.com",
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))
+        );
+
+        UsernamePasswordAuthenticationToken auth =
+                new UsernamePasswordAuthenticationToken(
+                        principal,
+                        null,
+                        principal.authorities()
+                );
+        mockMvc.perform(post(API_PATH + "/transfers/async")
+                        .with(csrf())
+                        .with(authentication(auth))
+                        .header("Idempotency-Key", IDEMPOTENCY_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(transferJson))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", API_PATH + "/7/status"))
+                .andExpect(jsonPath("$.transactionId").value(7))
+                .andExpect(jsonPath("$.status").value("PROCESSING"));
+    }
+
+    @Test
+    @DisplayName("GET /{id}/status: Owner -> 200 with current status")
+    void testGetStatus() throws Exception {
+        when(transactionStatusService.getStatus(7L, 100L))
+                .thenReturn(TransactionStatusDto.builder().transactionId(7L).status(Status.COMPLETED).build());
+        AuthenticatedUser principal = new AuthenticatedUser(
+                100L,
+                "test@mail.com",
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))
+        );
+
+        UsernamePasswordAuthenticationToken auth =
+                new UsernamePasswordAuthenticationToken(
+                        principal,
+                        null,
+                        principal.authorities()
+                );
+        mockMvc.perform(get(API_PATH + "/7/status")
+                        .with(authentication(auth)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+    }
+
+    @Test
+    @DisplayName("GET /{id}/status: Unknown or foreign -> 404 Not Found")
+    void testGetStatusNotFound() throws Exception {
+        when(transactionStatusService.getStatus(7L, 100L))
+                .thenThrow(new NotFoundException("Transaction not found"));
+        AuthenticatedUser principal = new AuthenticatedUser(
+                100L,
+                "test@mail.com",
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))
+        );
+
+        UsernamePasswordAuthenticationToken auth =
+                new UsernamePasswordAuthenticationToken(
+                        principal,
+                        null,
+                        principal.authorities()
+                );
+        mockMvc.perform(get(API_PATH + "/7/status")
+                        .with(authentication(auth)))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @DisplayName("POST /transfers: Missing Principal -> 401 Unauthorized")
     void testTransferUnauthorized() throws Exception {
@@ -199,7 +315,7 @@ public class TransactionControllerTest {
     @DisplayName("POST /transfers: Service throws BadRequest -> 400 Bad Request")
     @WithMockUser(username = "100")
     void testTransferServiceBadRequest() throws Exception {
-        when(transactionService.transfer(any(), anyLong(), anyString()))
+        when(transactionService.transferAsync(any(), anyLong(), anyString()))
                 .thenThrow(new BadRequestException("Insufficient funds"));
         AuthenticatedUser principal = new AuthenticatedUser(
                 100L,
@@ -240,8 +356,8 @@ public class TransactionControllerTest {
     @Test
     @DisplayName("POST /deposits: Success -> 200 OK")
     void testDepositSuccess() throws Exception {
-        when(transactionService.deposit(any(DepositRequestDto.class), eq(IDEMPOTENCY_KEY), eq(100L)))
-                .thenReturn(successDepositResponse);
+        when(transactionService.depositAsync(any(DepositRequestDto.class), eq(IDEMPOTENCY_KEY), eq(100L)))
+                .thenReturn(CompletableFuture.completedFuture(successDepositResponse));
         AuthenticatedUser principal = new AuthenticatedUser(
                 100L,
                 "test@mail.com",
@@ -255,12 +371,15 @@ public class TransactionControllerTest {
                         principal.authorities()
                 );
 
-        mockMvc.perform(post(API_PATH + "/deposits")
+        MvcResult result = mockMvc.perform(post(API_PATH + "/deposits")
                         .with(csrf())
                         .with(authentication(auth))
                         .header("Idempotency-Key", IDEMPOTENCY_KEY)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(depositJson))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk());
     }
 
@@ -291,7 +410,7 @@ public class TransactionControllerTest {
                         null,
                         principal.authorities()
                 );
-        when(transactionService.deposit(any(DepositRequestDto.class), eq(IDEMPOTENCY_KEY), eq(100L)))
+        when(transactionService.depositAsync(any(DepositRequestDto.class), eq(IDEMPOTENCY_KEY), eq(100L)))
                 .thenThrow(new BadRequestException("Target account is closed."));
 
         mockMvc.perform(post(API_PATH + "/deposits")
@@ -320,14 +439,17 @@ public class TransactionControllerTest {
                         null,
                         principal.authorities()
                 );
-        when(transactionService.withdraw(any(WithdrawRequestDto.class), eq(100L), eq(IDEMPOTENCY_KEY)))
-                .thenReturn(successWithdrawResponse);
-        mockMvc.perform(post(API_PATH + "/withdrawals")
+        when(transactionService.withdrawAsync(any(WithdrawRequestDto.class), eq(100L), eq(IDEMPOTENCY_KEY)))
+                .thenReturn(CompletableFuture.completedFuture(successWithdrawResponse));
+        MvcResult result = mockMvc.perform(post(API_PATH + "/withdrawals")
                         .with(csrf())
                         .with(authentication(auth))
                         .header("Idempotency-Key", IDEMPOTENCY_KEY)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(withdrawJson))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.transactionType").value("WITHDRAW"));
@@ -360,7 +482,7 @@ public class TransactionControllerTest {
                         null,
                         principal.authorities()
                 );
-        when(transactionService.withdraw(any(WithdrawRequestDto.class), eq(100L), eq(IDEMPOTENCY_KEY)))
+        when(transactionService.withdrawAsync(any(WithdrawRequestDto.class), eq(100L), eq(IDEMPOTENCY_KEY)))
                 .thenThrow(new BadRequestException("Not enough money for withdrawal."));
 
         mockMvc.perform(post(API_PATH + "/withdrawals")
@@ -1,5 +1,7 @@
 package transaction_service.transaction_service.event.kafka;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import core.core.dto.TransactionKafkaEvent;
 import core.core.enums.Currency;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,17 +10,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.kafka.core.KafkaTemplate;
-import core.core.exception.*;
 import org.springframework.kafka.support.SendResult;
 import transaction_service.transaction_service.model.*;
 
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 
@@ -32,12 +35,13 @@ class TransactionEventPublisherTest {
     @Mock
     private KafkaTemplate<String, TransactionKafkaEvent> kafkaTemplate;
 
-    @InjectMocks
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
     private TransactionEventPublisher transactionEventPublisher;
 
-    private Transaction buildTx(TransactionCategory category) {
+    private Transaction buildTx(long id, TransactionCategory category) {
         return Transaction.builder()
-                .id(1L)
+                .id(id)
                 .userId(10L)
                 .sourceAccountId(1L)
                 .targetAccountId(2L)
@@ -47,43 +51,45 @@ class TransactionEventPublisherTest {
                 .currency(Currency.USD)
                 .transactionType(TransactionType.TRANSFER)
                 .category(category)
-                .createdAt(Instant.now())
+                .createdAt(Instant.parse("2026-10-17T10:00:00Z"))
                 .build();
     }
 
+    private TransactionOutbox row(long id, Transaction tx) {
+        TransactionOutbox row = transactionEventPublisher.outboxOf(tx);
+        row.setId(id);
+        return row;
+    }
+
     @BeforeEach
     void setUp() {
-        CompletableFuture<SendResult<String, TransactionKafkaEvent>> future =
-                CompletableFuture.completedFuture(mock(SendResult.class));
-        when(kafkaTemplate.send(any(), any(), any())).thenReturn(future);
+        transactionEventPublisher = new TransactionEventPublisher(kafkaTemplate, objectMapper, Duration.ofMillis(200));
     }
 
     @Test
-    @DisplayName("publish() - sends to correct topic")
-    void publish_sendsToCorrectTopic() {
-        Transaction tx = buildTx(null);
-
-        transactionEventPublisher.publish(tx);
-
-        verify(kafkaTemplate).send(
-                eq("transaction.completed"),
-                eq("1"),
-                any(TransactionKafkaEvent.class)
-        );
+    @DisplayName("outboxOf() - row addressed to the topic, keyed by transaction id")
+    void outboxOf_topicAndKey() {
+        TransactionOutbox row = transactionEventPublisher.outboxOf(buildTx(1L, null));
+
+        assertEquals("transaction.completed", row.getTopic());
+        assertEquals("1", row.getEventKey());
+        assertEquals(1L, row.getTransactionId());
+        assertNull(row.getSentAt());
+        assertEquals(0, row.getAttempts());
+        verifyNoInteractions(kafkaTemplate);
     }
 
     @Test
     @DisplayName("publish() - event contains correct transaction data")
     void publish_eventContainsCorrectData() {
-        Transaction tx = buildTx(null);
-
+        when(kafkaTemplate.send(any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
         ArgumentCaptor<TransactionKafkaEvent> captor =
                 ArgumentCaptor.forClass(TransactionKafkaEvent.class);
 
-        transactionEventPublisher.publish(tx);
-
-        verify(kafkaTemplate).send(any(), any(), captor.capture());
+        transactionEventPublisher.publish(List.of(row(100L, buildTx(1L, null))));
 
+        verify(kafkaTemplate).send(eq("transaction.completed"), eq("1"), captor.capture());
         TransactionKafkaEvent event = captor.getValue();
         assertEquals(1L, event.getTransactionId());
         assertEquals(10L, event.getUserId());
@@ -93,38 +99,54 @@ class TransactionEventPublisherTest {
         assertEquals(new BigDecimal("90.00"), event.getTargetAmount());
         assertEquals("USD", event.getCurrency());
         assertEquals("TRANSFER", event.getTransactionType());
+        assertEquals(Instant.parse("2026-10-17T10:00:00Z"), event.getCreatedAt());
+        assertNull(event.getCategoryName());
     }
 
     @Test
-    @DisplayName("publish() - category null → categoryName is null in event")
-    void publish_categoryNull_categoryNameIsNull() {
-        Transaction tx = buildTx(null);
-
+    @DisplayName("publish() - category present → categoryName set correctly")
+    void publish_categoryPresent_categoryNameSet() {
+        when(kafkaTemplate.send(any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        TransactionCategory category = new TransactionCategory();
+        category.setName("ENTERTAINMENT");
         ArgumentCaptor<TransactionKafkaEvent> captor =
                 ArgumentCaptor.forClass(TransactionKafkaEvent.class);
 
-        transactionEventPublisher.publish(tx);
+        transactionEventPublisher.publish(List.of(row(100L, buildTx(1L, category))));
 
         verify(kafkaTemplate).send(any(), any(), captor.capture());
-
-        assertNull(captor.getValue().getCategoryName());
+        assertEquals("ENTERTAINMENT", captor.getValue().getCategoryName());
     }
 
     @Test
-    @DisplayName("publish() - category present → categoryName set correctly")
-    void publish_categoryPresent_categoryNameSet() {
-        TransactionCategory category = new TransactionCategory();
-        category.setName("ENTERTAINMENT");
-
-        Transaction tx = buildTx(category);
-
-        ArgumentCaptor<TransactionKafkaEvent> captor =
-                ArgumentCaptor.forClass(TransactionKafkaEvent.class);
+    @DisplayName("publish() - whole batch handed to the producer, only acknowledged rows returned")
+    void publish_returnsAcknowledgedOnly() {
+        CompletableFuture<SendResult<String, TransactionKafkaEvent>> pending = new CompletableFuture<>();
+        when(kafkaTemplate.send(any(), eq("1"), any()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        when(kafkaTemplate.send(any(), eq("2"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        when(kafkaTemplate.send(any(), eq("3"), any())).thenReturn(pending);
+
+        List<Long> sent = transactionEventPublisher.publish(List.of(
+                row(100L, buildTx(1L, null)), row(101L, buildTx(2L, null)), row(102L, buildTx(3L, null))));
+
+        assertEquals(List.of(100L), sent);
+        InOrder inOrder = inOrder(kafkaTemplate);
+        inOrder.verify(kafkaTemplate).send(any(), eq("1"), any());
+        inOrder.verify(kafkaTemplate).send(any(), eq("2"), any());
+        inOrder.verify(kafkaTemplate).send(any(), eq("3"), any());
+    }
 
-        transactionEventPublisher.publish(tx);
+    @Test
+    @DisplayName("publish() - unreadable payload is reported unsent without reaching Kafka")
+    void publish_unreadablePayload_notSent() {
+        TransactionOutbox broken = row(100L, buildTx(1L, null));
+        broken.setPayload("{not json");
 
-        verify(kafkaTemplate).send(any(), any(), captor.capture());
+        assertTrue(transactionEventPublisher.publish(List.of(broken)).isEmpty());
 
-        assertEquals("ENTERTAINMENT", captor.getValue().getCategoryName());
+        verifyNoInteractions(kafkaTemplate);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,114 @@
+package transaction_service.transaction_service.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import transaction_service.transaction_service.model.AccountLedgerEntry;
+import transaction_service.transaction_service.model.LedgerDirection;
+import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.model.TransactionType;
+import transaction_service.transaction_service.repository.AccountLedgerEntryRepository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountLedgerServiceTest {
+
+    @Mock
+    private AccountLedgerEntryRepository ledgerRepository;
+
+    @InjectMocks
+    private AccountLedgerService accountLedgerService;
+
+    private final Instant createdAt = Instant.parse("2026-10-17T10:00:00Z");
+
+    @Test
+    @DisplayName("Transfer - source debited the amount, target credited the converted amount")
+    void entriesOf_transfer_twoLegs() {
+        Transaction tx = Transaction.builder()
+                .id(1L)
+                .sourceAccountId(10L)
+                .targetAccountId(20L)
+                .transactionType(TransactionType.TRANSFER)
+                .amount(new BigDecimal("100"))
+                .targetAmount(new BigDecimal("92.50"))
+                .createdAt(createdAt)
+                .build();
+
+        List<AccountLedgerEntry> entries = AccountLedgerService.entriesOf(tx);
+
+        assertEquals(2, entries.size());
+        AccountLedgerEntry debit = entries.get(0);
+        assertEquals(10L, debit.getAccountId());
+        assertEquals(LedgerDirection.DEBIT, debit.getDirection());
+        assertEquals(new BigDecimal("100"), debit.getAmount());
+        AccountLedgerEntry credit = entries.get(1);
+        assertEquals(20L, credit.getAccountId());
+        assertEquals(LedgerDirection.CREDIT, credit.getDirection());
+        assertEquals(new BigDecimal("92.50"), credit.getAmount());
+        entries.forEach(entry -> {
+            assertSame(tx, entry.getTransaction());
+            assertEquals(createdAt, entry.getCreatedAt());
+        });
+    }
+
+    @Test
+    @DisplayName("Deposit - only the target is credited, with the amount when nothing was converted")
+    void entriesOf_deposit_creditOnly() {
+        Transaction tx = Transaction.builder()
+                .id(2L)
+                .targetAccountId(20L)
+                .transactionType(TransactionType.DEPOSIT)
+                .amount(new BigDecimal("50"))
+                .createdAt(createdAt)
+                .build();
+
+        List<AccountLedgerEntry> entries = AccountLedgerService.entriesOf(tx);
+
+        assertEquals(1, entries.size());
+        assertEquals(LedgerDirection.CREDIT, entries.get(0).getDirection());
+        assertEquals(new BigDecimal("50"), entries.get(0).getAmount());
+    }
+
+    @Test
+    @DisplayName("Withdraw - only the source is debited")
+    void entriesOf_withdraw_debitOnly() {
+        Transaction tx = Transaction.builder()
+                .id(3L)
+                .sourceAccountId(10L)
+                .transactionType(TransactionType.WITHDRAW)
+                .amount(new BigDecimal("30"))
+                .createdAt(createdAt)
+                .build();
+
+        List<AccountLedgerEntry> entries = AccountLedgerService.entriesOf(tx);
+
+        assertEquals(1, entries.size());
+        assertEquals(10L, entries.get(0).getAccountId());
+        assertEquals(LedgerDirection.DEBIT, entries.get(0).getDirection());
+    }
+
+    @Test
+    @DisplayName("Append saves the legs of the transaction")
+    void append_savesEntries() {
+        Transaction tx = Transaction.builder()
+                .id(4L)
+                .sourceAccountId(10L)
+                .targetAccountId(20L)
+                .amount(BigDecimal.TEN)
+                .createdAt(createdAt)
+                .build();
+
+        accountLedgerService.append(tx);
+
+        verify(ledgerRepository).saveAll(AccountLedgerService.entriesOf(tx));
+    }
+}
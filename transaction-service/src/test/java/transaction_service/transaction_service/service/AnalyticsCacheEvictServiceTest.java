@@ -0,0 +1,55 @@
+package transaction_service.transaction_service.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticsCacheEvictServiceTest {
+    private static final String KEY = AnalyticsCacheEvictService.GENERATION_KEY_PREFIX + 1;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private AnalyticsCacheEvictService evictService;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        evictService = new AnalyticsCacheEvictService(redisTemplate, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Missing counter - generation 0, read once and kept in process")
+    void generation_missing_zeroAndMemoized() {
+        assertEquals(0L, evictService.generation(1L));
+        assertEquals(0L, evictService.generation(1L));
+
+        verify(valueOperations, times(1)).get(KEY);
+    }
+
+    @Test
+    @DisplayName("Eviction is a single INCR, no key scan")
+    void evict_singleIncrement() {
+        when(valueOperations.increment(KEY)).thenReturn(4L);
+
+        evictService.evictUserAnalytics(1L);
+
+        assertEquals(4L, evictService.generation(1L));
+        verify(valueOperations, never()).get(anyString());
+        verify(redisTemplate, never()).keys(anyString());
+    }
+}
@@ -0,0 +1,155 @@
+package transaction_service.transaction_service.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Redis latency seen by cache reads while transactions evict analytics caches, with 1M cached
+ * analytics keys in the keyspace. Compares the previous KEYS + DEL eviction (three scans per
+ * transaction) with one INCR of the user's cache generation. Needs Docker; run with
+ * {@code ./gradlew :transaction-service:benchmark}.
+ */
+@Tag("benchmark")
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AnalyticsCacheEvictionBenchmarkTest {
+
+    private static final int CACHED_KEYS = 1_000_000;
+    private static final int USERS = 10_000;
+    private static final int TRANSACTIONS = 200;
+    private static final int SEED_BATCH = 10_000;
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine")
+            .withExposedPorts(6379);
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeAll
+    void seed() {
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+
+        byte[] value = "{\"totalSpent\":100.00}".getBytes(StandardCharsets.UTF_8);
+        for (int start = 0; start < CACHED_KEYS; start += SEED_BATCH) {
+            int from = start;
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (int i = from; i < from + SEED_BATCH; i++) {
+                    String key = prefix(i % 3) + (i % USERS) + ":g0:" + i;
+                    connection.stringCommands().set(key.getBytes(StandardCharsets.UTF_8), value);
+                }
+                return null;
+            });
+        }
+        Long size = redisTemplate.execute((RedisCallback<Long>) connection -> connection.serverCommands().dbSize());
+        System.out.printf("seeded %,d keys%n", size);
+    }
+
+    @AfterAll
+    void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void compareReadLatencyDuringEviction() throws Exception {
+        Result keysScan = run(this::evictByKeys);
+        Result generation = run(this::evictByGeneration);
+
+        System.out.printf("KEYS+DEL   : evictions=%.0f/s  read p50=%.2fms p99=%.2fms max=%.2fms%n",
+                keysScan.evictionsPerSecond, keysScan.p50, keysScan.p99, keysScan.max);
+        System.out.printf("INCR gen   : evictions=%.0f/s  read p50=%.2fms p99=%.2fms max=%.2fms%n",
+                generation.evictionsPerSecond, generation.p50, generation.p99, generation.max);
+    }
+
+    private void evictByKeys(long userId) {
+        for (int cache = 0; cache < 3; cache++) {
+            Set<String> keys = redisTemplate.keys(prefix(cache) + userId + ":*");
+            if (keys != null && !keys.isEmpty()) {
+                redisTemplate.delete(keys);
+            }
+        }
+    }
+
+    private void evictByGeneration(long userId) {
+        redisTemplate.opsForValue().increment(AnalyticsCacheEvictService.GENERATION_KEY_PREFIX + userId);
+    }
+
+    private Result run(Eviction eviction) throws Exception {
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Future<List<Long>> reads = reader.submit(() -> {
+            List<Long> latencies = new ArrayList<>();
+            while (running.get()) {
+                String key = "total:" + ThreadLocalRandom.current().nextInt(USERS) + ":g0:0";
+                long start = System.nanoTime();
+                redisTemplate.opsForValue().get(key);
+                latencies.add(System.nanoTime() - start);
+            }
+            return latencies;
+        });
+
+        long start = System.nanoTime();
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            eviction.evict(ThreadLocalRandom.current().nextInt(USERS));
+        }
+        long elapsed = System.nanoTime() - start;
+        running.set(false);
+        List<Long> latencies = reads.get(1, TimeUnit.MINUTES);
+        reader.shutdown();
+
+        Collections.sort(latencies);
+        return new Result(
+                TRANSACTIONS * 1_000_000_000.0 / elapsed,
+                millis(latencies, 0.50),
+                millis(latencies, 0.99),
+                latencies.isEmpty() ? 0 : latencies.get(latencies.size() - 1) / 1_000_000.0);
+    }
+
+    private static double millis(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.size() - 1, Math.round(percentile * (sorted.size() - 1)));
+        return sorted.get(index) / 1_000_000.0;
+    }
+
+    private static String prefix(int cache) {
+        return switch (cache) {
+            case 0 -> "total:";
+            case 1 -> "top:";
+            default -> "timeline:";
+        };
+    }
+
+    @FunctionalInterface
+    private interface Eviction {
+        void evict(long userId);
+    }
+
+    private record Result(double evictionsPerSecond, double p50, double p99, double max) {
+    }
+}
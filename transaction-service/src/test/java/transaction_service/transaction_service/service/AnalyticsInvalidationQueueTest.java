@@ -0,0 +1,75 @@
+package transaction_service.transaction_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticsInvalidationQueueTest {
+    @Mock
+    private AnalyticsCacheEvictService cacheEvictService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AnalyticsInvalidationQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        queue = new AnalyticsInvalidationQueue(cacheEvictService, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("500 completions of one user within a window - one invalidation")
+    void flush_coalescesPerUser() {
+        IntStream.range(0, 500).forEach(i -> queue.enqueue(1L));
+        queue.enqueue(2L);
+
+        assertEquals(2.0, meterRegistry.get("transaction.cache.invalidation.queue.depth").gauge().value());
+        queue.flush();
+
+        verify(cacheEvictService, times(1)).evictUserAnalytics(1L);
+        verify(cacheEvictService, times(1)).evictUserAnalytics(2L);
+        assertEquals(0.0, meterRegistry.get("transaction.cache.invalidation.queue.depth").gauge().value());
+        assertEquals(250.5, meterRegistry.get("transaction.cache.invalidation.coalescing.ratio").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Failed invalidation stays queued for the next window")
+    void flush_failure_requeued() {
+        doThrow(new IllegalStateException("redis down")).doNothing().when(cacheEvictService).evictUserAnalytics(1L);
+        queue.enqueue(1L);
+
+        queue.flush();
+        queue.flush();
+
+        verify(cacheEvictService, times(2)).evictUserAnalytics(1L);
+        assertEquals(1.0, meterRegistry.counter("transaction.cache.invalidation.flushed").count());
+    }
+
+    @Test
+    @DisplayName("Empty queue - nothing invalidated")
+    void flush_empty_noop() {
+        queue.flush();
+
+        verifyNoInteractions(cacheEvictService);
+    }
+
+    @Test
+    @DisplayName("Pending users flushed on shutdown")
+    void stop_drainsPending() {
+        queue.enqueue(3L);
+
+        queue.stop();
+
+        verify(cacheEvictService).evictUserAnalytics(3L);
+    }
+}
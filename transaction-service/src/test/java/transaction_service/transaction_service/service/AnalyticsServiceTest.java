@@ -10,15 +10,17 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
 import transaction_service.transaction_service.dto.CategoryStatDto;
+import transaction_service.transaction_service.dto.TimelineResponse;
 import transaction_service.transaction_service.dto.TopCategoryResponse;
 import transaction_service.transaction_service.dto.TotalSpentResponse;
-import transaction_service.transaction_service.repository.TransactionRepository;
+import transaction_service.transaction_service.repository.DailySpendRollupRepository;
 
 import core.core.exception.*;
 import transaction_service.transaction_service.model.*;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.List;
@@ -33,7 +35,7 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 public class AnalyticsServiceTest {
     @Mock
-    private  TransactionRepository transactionRepository;
+    private DailySpendRollupRepository rollupRepository;
     @InjectMocks
     private AnalyticsService analyticsService;
     private Long userId;
@@ -52,21 +54,21 @@ public class AnalyticsServiceTest {
     @DisplayName("Should return total spent when transactions exist")
     void getTotalSpent_ReturnsValue() {
         BigDecimal expectedTotal = new BigDecimal("150.00");
-        when(transactionRepository.getTotalSpent(eq(userId), eq(Status.COMPLETED), any(), any()))
+        when(rollupRepository.getTotalSpent(eq(userId), any(), any()))
                 .thenReturn(expectedTotal);
 
         TotalSpentResponse result = analyticsService.getTotalSpent(userId, from, to);
 
         assertEquals(expectedTotal, result.getTotalSpent());
         assertEquals("MIXED_CURRENCY", result.getCurrency());
-        verify(transactionRepository)
-                .getTotalSpent(eq(userId), eq(Status.COMPLETED), any(), any());
+        verify(rollupRepository)
+                .getTotalSpent(userId, SpendRollupService.dayOf(from), SpendRollupService.dayOf(to));
     }
 
     @Test
     @DisplayName("Should return zero when repository returns null")
     void getTotalSpent_ReturnsZero_WhenRepoReturnsNull() {
-        when(transactionRepository.getTotalSpent(anyLong(), any(), any(), any()))
+        when(rollupRepository.getTotalSpent(anyLong(), any(), any()))
                 .thenReturn(null);
 
         TotalSpentResponse result = analyticsService.getTotalSpent(userId, from, to);
@@ -79,7 +81,7 @@ public class AnalyticsServiceTest {
     void getTotalSpent_UsesDefaultDates() {
         analyticsService.getTotalSpent(userId, null, null);
 
-        verify(transactionRepository).getTotalSpent(eq(userId), eq(Status.COMPLETED), any(Instant.class), any(Instant.class));
+        verify(rollupRepository).getTotalSpent(eq(userId), any(LocalDate.class), any(LocalDate.class));
     }
 
     @Test
@@ -91,7 +93,7 @@ public class AnalyticsServiceTest {
         assertThrows(BadRequestException.class, () ->
                 analyticsService.getTotalSpent(userId, invalidFrom, invalidTo));
 
-        verifyNoInteractions(transactionRepository);
+        verifyNoInteractions(rollupRepository);
     }
 
     @Test
@@ -111,7 +113,7 @@ public class AnalyticsServiceTest {
                 new Object[]{1L, "FOOD", new BigDecimal("100.00")},
                 new Object[]{2L, "RENT", new BigDecimal("500.00")}
         );
-        when(transactionRepository.getTopCategories(eq(userId), eq(Status.COMPLETED), any(), any(), any(Pageable.class)))
+        when(rollupRepository.getTopCategories(eq(userId), any(), any(), any(Pageable.class)))
                 .thenReturn(mockData);
 
         List<TopCategoryResponse> result = analyticsService.getTopCategories(userId, from, to, 2);
@@ -129,7 +131,7 @@ public class AnalyticsServiceTest {
 
         analyticsService.getTopCategories(userId, from, to, limit);
 
-        verify(transactionRepository).getTopCategories(any(), any(), any(), any(), pageableCaptor.capture());
+        verify(rollupRepository).getTopCategories(any(), any(), any(), pageableCaptor.capture());
         assertEquals(limit, pageableCaptor.getValue().getPageSize());
     }
 
@@ -144,7 +146,7 @@ public class AnalyticsServiceTest {
                 new Object[]{100L, "FOOD", new BigDecimal("150.00")}
         );
 
-        when(transactionRepository.getStatsByCategory(userId, Status.COMPLETED, from, to))
+        when(rollupRepository.getStatsByCategory(userId, SpendRollupService.dayOf(from), SpendRollupService.dayOf(to)))
                 .thenReturn(mockResults);
 
         List<CategoryStatDto> stats = analyticsService.getCategoryStats(userId, from, to);
@@ -154,4 +156,78 @@ public class AnalyticsServiceTest {
         assertEquals(new BigDecimal("150.00"), stats.get(0).getTotalAmount());
     }
 
+    @Test
+    @DisplayName("Should pass null days through when stats range is open")
+    void getCategoryStats_OpenRange() {
+        analyticsService.getCategoryStats(userId, null, null);
+
+        verify(rollupRepository).getStatsByCategory(userId, null, null);
+    }
+
+    //getTimeline
+    @Test
+    @DisplayName("Daily timeline has one bucket per day, gaps filled with zero")
+    void getTimeline_daily_gapFilled() {
+        Instant from = Instant.parse("2026-10-10T08:00:00Z");
+        Instant to = Instant.parse("2026-10-13T20:00:00Z");
+        when(rollupRepository.getDailyTotals(userId, LocalDate.parse("2026-10-10"), LocalDate.parse("2026-10-13")))
+                .thenReturn(List.of(
+                        new Object[]{LocalDate.parse("2026-10-10"), new BigDecimal("5.00")},
+                        new Object[]{LocalDate.parse("2026-10-12"), new BigDecimal("7.00")}));
+
+        List<TimelineResponse> timeline = analyticsService.getTimeline(userId, TimelineGranularity.DAY, from, to);
+
+        assertEquals(4, timeline.size());
+        assertEquals(Instant.parse("2026-10-10T00:00:00Z"), timeline.get(0).getPeriod());
+        assertEquals(new BigDecimal("5.00"), timeline.get(0).getTotal());
+        assertEquals(BigDecimal.ZERO, timeline.get(1).getTotal());
+        assertEquals(new BigDecimal("7.00"), timeline.get(2).getTotal());
+        assertEquals(Instant.parse("2026-10-13T00:00:00Z"), timeline.get(3).getPeriod());
+    }
+
+    @Test
+    @DisplayName("Weekly timeline sums days into Monday-based buckets")
+    void getTimeline_weekly_sumsDays() {
+        // Wednesday to the Tuesday two weeks later
+        Instant from = Instant.parse("2026-10-07T00:00:00Z");
+        Instant to = Instant.parse("2026-10-20T00:00:00Z");
+        when(rollupRepository.getDailyTotals(eq(userId), any(), any())).thenReturn(List.of(
+                new Object[]{LocalDate.parse("2026-10-07"), new BigDecimal("1")},
+                new Object[]{LocalDate.parse("2026-10-11"), new BigDecimal("2")},
+                new Object[]{LocalDate.parse("2026-10-20"), new BigDecimal("4")}));
+
+        List<TimelineResponse> timeline = analyticsService.getTimeline(userId, TimelineGranularity.WEEK, from, to);
+
+        assertEquals(3, timeline.size());
+        assertEquals(Instant.parse("2026-10-05T00:00:00Z"), timeline.get(0).getPeriod());
+        assertEquals(new BigDecimal("3"), timeline.get(0).getTotal());
+        assertEquals(BigDecimal.ZERO, timeline.get(1).getTotal());
+        assertEquals(Instant.parse("2026-10-19T00:00:00Z"), timeline.get(2).getPeriod());
+        assertEquals(new BigDecimal("4"), timeline.get(2).getTotal());
+    }
+
+    @Test
+    @DisplayName("Monthly timeline starts at the first of the month")
+    void getTimeline_monthly() {
+        Instant from = Instant.parse("2026-08-15T00:00:00Z");
+        Instant to = Instant.parse("2026-10-17T00:00:00Z");
+        when(rollupRepository.getDailyTotals(eq(userId), any(), any())).thenReturn(List.<Object[]>of(
+                new Object[]{LocalDate.parse("2026-09-30"), new BigDecimal("9")}));
+
+        List<TimelineResponse> timeline = analyticsService.getTimeline(userId, TimelineGranularity.MONTH, from, to);
+
+        assertEquals(List.of(Instant.parse("2026-08-01T00:00:00Z"), Instant.parse("2026-09-01T00:00:00Z"),
+                        Instant.parse("2026-10-01T00:00:00Z")),
+                timeline.stream().map(TimelineResponse::getPeriod).toList());
+        assertEquals(new BigDecimal("9"), timeline.get(1).getTotal());
+    }
+
+    @Test
+    @DisplayName("Timeline rejects ranges over a year")
+    void getTimeline_rangeTooLarge() {
+        assertThrows(BadRequestException.class, () -> analyticsService.getTimeline(userId, TimelineGranularity.DAY,
+                Instant.now().minus(400, ChronoUnit.DAYS), Instant.now()));
+
+        verifyNoInteractions(rollupRepository);
+    }
 }
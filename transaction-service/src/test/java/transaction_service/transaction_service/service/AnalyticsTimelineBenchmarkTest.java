@@ -0,0 +1,114 @@
+package transaction_service.transaction_service.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import transaction_service.transaction_service.dto.TimelineResponse;
+import transaction_service.transaction_service.model.TimelineGranularity;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of a one-year daily timeline served from the rollup: on a cache miss (generation bumped
+ * before every call) and with a warm cache. Needs Docker; run with
+ * {@code ./gradlew :transaction-service:benchmark}.
+ */
+@SpringBootTest
+@Testcontainers
+@ActiveProfiles("test")
+@Tag("benchmark")
+class AnalyticsTimelineBenchmarkTest {
+
+    private static final Long USER_ID = 77L;
+    private static final int CATEGORIES = 8;
+    private static final int WARMUP = 100;
+    private static final int ITERATIONS = 2_000;
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine")
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.redis.host", redis::getHost);
+        registry.add("spring.redis.port", () -> redis.getMappedPort(6379));
+    }
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    AnalyticsService analyticsService;
+    @Autowired
+    AnalyticsCacheEvictService cacheEvictService;
+
+    @Test
+    void yearlyDailyTimeline() {
+        Instant to = Instant.now();
+        Instant from = to.minus(364, ChronoUnit.DAYS);
+        seed(SpendRollupService.dayOf(from), SpendRollupService.dayOf(to));
+
+        List<TimelineResponse> timeline = analyticsService.getTimeline(USER_ID, TimelineGranularity.DAY, from, to);
+        assertThat(timeline).hasSize(365);
+
+        long[] missNanos = measure(() -> {
+            cacheEvictService.evictUserAnalytics(USER_ID);
+            analyticsService.getTimeline(USER_ID, TimelineGranularity.DAY, from, to);
+        });
+        long[] hitNanos = measure(() -> analyticsService.getTimeline(USER_ID, TimelineGranularity.DAY, from, to));
+
+        System.out.printf("rollup rows=%d  miss p50=%.3fms p99=%.3fms | warm cache p50=%.3fms p99=%.3fms%n",
+                365 * CATEGORIES,
+                percentile(missNanos, 50), percentile(missNanos, 99),
+                percentile(hitNanos, 50), percentile(hitNanos, 99));
+    }
+
+    private void seed(LocalDate first, LocalDate last) {
+        jdbcTemplate.update("DELETE FROM daily_spend_rollup WHERE user_id = ?", USER_ID);
+        List<Object[]> batch = new ArrayList<>();
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+            for (long category = 1; category <= CATEGORIES; category++) {
+                batch.add(new Object[]{USER_ID, Date.valueOf(day), category, "USD", new BigDecimal("12.5000"), 3});
+            }
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO daily_spend_rollup (user_id, spend_date, category_id, currency, amount, tx_count)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """, batch);
+    }
+
+    private long[] measure(Runnable call) {
+        for (int i = 0; i < WARMUP; i++) {
+            call.run();
+        }
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            call.run();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private double percentile(long[] sorted, int p) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(p / 100.0 * sorted.length) - 1);
+        return sorted[index] / 1_000_000.0;
+    }
+}
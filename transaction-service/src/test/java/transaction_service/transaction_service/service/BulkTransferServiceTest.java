@@ -4,6 +4,7 @@ import core.core.enums.Currency;
 import core.core.enums.StatusAccount;
 import core.core.exception.BadRequestException;
 import core.core.exception.FraudDetectedException;
+import core.core.exception.NotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,11 +15,16 @@ import transaction_service.transaction_service.dto.TransactionResponseDto;
 import transaction_service.transaction_service.dto.bulk.BulkTransferItemDto;
 import transaction_service.transaction_service.dto.bulk.BulkTransferRequestDto;
 import transaction_service.transaction_service.dto.bulk.BulkTransferResponseDto;
-import transaction_service.transaction_service.service.validate.AccountAccessService;
+import transaction_service.transaction_service.model.Status;
+import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.model.TransactionStep;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
@@ -32,7 +38,11 @@ public class BulkTransferServiceTest {
     @Mock
     private TransactionService transactionService;
     @Mock
-    private AccountAccessService accountAccessService;
+    private AccountOperationService accountOperationService;
+    @Mock
+    private TransactionStateService transactionStateService;
+    @Mock
+    private TransferNettingService nettingService;
 
     private BulkTransferService bulkTransferService;
 
@@ -41,16 +51,23 @@ public class BulkTransferServiceTest {
     private static final Long TARGET_ACCOUNT_ID_1 = 2L;
     private static final Long TARGET_ACCOUNT_ID_2 = 3L;
     private static final String IDEMPOTENCY_KEY = "bulk-key-123";
+    private static final Long DEBIT_ID = -10L;
 
     private BulkTransferRequestDto request;
     private AccountResponseDto sourceAccount;
+    private Transaction tx1;
+    private Transaction tx2;
     @BeforeEach
     void setUp() {
 
         bulkTransferService = new BulkTransferService(
                 transactionService,
-                accountAccessService,
-                Executors.newSingleThreadExecutor()
+                accountOperationService,
+                transactionStateService,
+                nettingService,
+                Executors.newSingleThreadExecutor(),
+                10,
+                20
         );
 
         sourceAccount = AccountResponseDto.builder()
@@ -73,17 +90,52 @@ public class BulkTransferServiceTest {
                                 .build()
                 ))
                 .build();
+        tx1 = transaction(10L, TARGET_ACCOUNT_ID_1, "100.00");
+        tx2 = transaction(11L, TARGET_ACCOUNT_ID_2, "200.00");
+
+        lenient().when(accountOperationService.getAccountsByIds(
+                        List.of(SOURCE_ACCOUNT_ID, TARGET_ACCOUNT_ID_1, TARGET_ACCOUNT_ID_2)))
+                .thenReturn(Map.of(
+                        SOURCE_ACCOUNT_ID, sourceAccount,
+                        TARGET_ACCOUNT_ID_1, AccountResponseDto.builder().id(TARGET_ACCOUNT_ID_1).build(),
+                        TARGET_ACCOUNT_ID_2, AccountResponseDto.builder().id(TARGET_ACCOUNT_ID_2).build()));
+    }
+
+    private Transaction transaction(Long id, Long targetAccountId, String amount) {
+        return Transaction.builder()
+                .id(id)
+                .sourceAccountId(SOURCE_ACCOUNT_ID)
+                .targetAccountId(targetAccountId)
+                .amount(new BigDecimal(amount))
+                .status(Status.PROCESSING)
+                .step(TransactionStep.NONE)
+                .build();
+    }
 
-        lenient().when(accountAccessService.validateAccountOwnership(SOURCE_ACCOUNT_ID, USER_ID))
-                .thenReturn(sourceAccount);
+    private void admit(Long targetAccountId, Transaction tx, boolean created) {
+        when(transactionService.admitTransfer(any(), eq(USER_ID), eq(IDEMPOTENCY_KEY + "-" + targetAccountId),
+                any(), eq(true)))
+                .thenReturn(new TransactionService.Admission(tx, created));
     }
 
+    private void debitSucceeds() {
+        when(nettingService.net(anyList())).thenReturn(DEBIT_ID);
+        when(nettingService.debit(eq(DEBIT_ID), eq(SOURCE_ACCOUNT_ID), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    private void settleSucceeds() {
+        when(transactionService.settle(any()))
+                .thenReturn(CompletableFuture.completedFuture(new TransactionResponseDto()));
+    }
 
     @Test
     @DisplayName("All transfers succeed - successCount equals total")
     void bulkTransfer_allSucceed_correctCounts() {
-        when(transactionService.transfer(any(), eq(USER_ID), any()))
-                .thenReturn(new TransactionResponseDto());
+        admit(TARGET_ACCOUNT_ID_1, tx1, true);
+        admit(TARGET_ACCOUNT_ID_2, tx2, true);
+        debitSucceeds();
+        settleSucceeds();
 
         BulkTransferResponseDto result =
                 bulkTransferService.bulkTransfer(request, USER_ID, IDEMPOTENCY_KEY);
@@ -96,40 +148,79 @@ public class BulkTransferServiceTest {
     }
 
     @Test
-    @DisplayName("All transfers succeed - transfer() called for each item")
-    void bulkTransfer_allSucceed_transferCalledForEachItem() {
-        when(transactionService.transfer(any(), eq(USER_ID), any()))
-                .thenReturn(new TransactionResponseDto());
+    @DisplayName("Source debited once for the admitted total, credits settled per item from DEBIT_DONE")
+    void bulkTransfer_singleAggregateDebit() {
+        admit(TARGET_ACCOUNT_ID_1, tx1, true);
+        admit(TARGET_ACCOUNT_ID_2, tx2, true);
+        debitSucceeds();
+        settleSucceeds();
 
         bulkTransferService.bulkTransfer(request, USER_ID, IDEMPOTENCY_KEY);
 
-        verify(transactionService, times(2)).transfer(any(), eq(USER_ID), any());
+        verify(nettingService).net(List.of(tx1, tx2));
+        verify(nettingService, times(1)).debit(DEBIT_ID, SOURCE_ACCOUNT_ID, new BigDecimal("300.00"));
+        verify(accountOperationService, never()).debit(any(), any(), any());
+        verify(nettingService).debited(List.of(tx1, tx2));
+        verify(transactionService, times(2)).settle(any());
     }
 
     @Test
     @DisplayName("Idempotency key is unique per target account")
     void bulkTransfer_idempotencyKey_uniquePerItem() {
-        when(transactionService.transfer(any(), eq(USER_ID), any()))
-                .thenReturn(new TransactionResponseDto());
+        admit(TARGET_ACCOUNT_ID_1, tx1, true);
+        admit(TARGET_ACCOUNT_ID_2, tx2, true);
+        debitSucceeds();
+        settleSucceeds();
 
         bulkTransferService.bulkTransfer(request, USER_ID, IDEMPOTENCY_KEY);
 
-        verify(transactionService).transfer(any(), eq(USER_ID),
-                eq(IDEMPOTENCY_KEY + "-" + TARGET_ACCOUNT_ID_1));
-        verify(transactionService).transfer(any(), eq(USER_ID),
-                eq(IDEMPOTENCY_KEY + "-" + TARGET_ACCOUNT_ID_2));
+        verify(transactionService).admitTransfer(any(), eq(USER_ID),
+                eq(IDEMPOTENCY_KEY + "-" + TARGET_ACCOUNT_ID_1), any(), eq(true));
+        verify(transactionService).admitTransfer(any(), eq(USER_ID),
+                eq(IDEMPOTENCY_KEY + "-" + TARGET_ACCOUNT_ID_2), any(), eq(true));
     }
 
     @Test
-    @DisplayName("One transfer fails - goes to failed list with reason")
-    void bulkTransfer_oneFails_inFailedList() {
-        when(transactionService.transfer(any(), eq(USER_ID),
-                eq(IDEMPOTENCY_KEY + "-" + TARGET_ACCOUNT_ID_1)))
-                .thenReturn(new TransactionResponseDto());
+    @DisplayName("Items to the same target keep their own rows, categories and keys; only the debit is netted")
+    void bulkTransfer_sameTarget_rowPerItem() {
+        request.setTransfers(List.of(
+                BulkTransferItemDto.builder().targetAccountId(TARGET_ACCOUNT_ID_1).amount(new BigDecimal("100.00"))
+                        .categoryId(7L).build(),
+                BulkTransferItemDto.builder().targetAccountId(TARGET_ACCOUNT_ID_1).amount(new BigDecimal("50.00"))
+                        .categoryId(8L).build()));
+        when(accountOperationService.getAccountsByIds(List.of(SOURCE_ACCOUNT_ID, TARGET_ACCOUNT_ID_1, TARGET_ACCOUNT_ID_1)))
+                .thenReturn(Map.of(SOURCE_ACCOUNT_ID, sourceAccount,
+                        TARGET_ACCOUNT_ID_1, AccountResponseDto.builder().id(TARGET_ACCOUNT_ID_1).build()));
+        Transaction second = transaction(12L, TARGET_ACCOUNT_ID_1, "50.00");
+        admit(TARGET_ACCOUNT_ID_1, tx1, true);
+        when(transactionService.admitTransfer(any(), eq(USER_ID), eq(IDEMPOTENCY_KEY + "-" + TARGET_ACCOUNT_ID_1 + "-2"),
+                any(), eq(true)))
+                .thenReturn(new TransactionService.Admission(second, true));
+        debitSucceeds();
+        settleSucceeds();
+
+        BulkTransferResponseDto result = bulkTransferService.bulkTransfer(request, USER_ID, IDEMPOTENCY_KEY);
+
+        verify(transactionService).admitTransfer(
+                argThat(dto -> dto.getAmount().compareTo(new BigDecimal("100.00")) == 0 && dto.getCategoryId() == 7L),
+                eq(USER_ID), eq(IDEMPOTENCY_KEY + "-" + TARGET_ACCOUNT_ID_1), any(), eq(true));
+        verify(transactionService).admitTransfer(
+                argThat(dto -> dto.getAmount().compareTo(new BigDecimal("50.00")) == 0 && dto.getCategoryId() == 8L),
+                eq(USER_ID), eq(IDEMPOTENCY_KEY + "-" + TARGET_ACCOUNT_ID_1 + "-2"), any(), eq(true));
+        verify(nettingService, times(1)).debit(DEBIT_ID, SOURCE_ACCOUNT_ID, new BigDecimal("150.00"));
+        assertEquals(2, result.getSuccessCount());
+        assertEquals(2, result.getSuccessful().size());
+    }
 
-        when(transactionService.transfer(any(), eq(USER_ID),
-                eq(IDEMPOTENCY_KEY + "-" + TARGET_ACCOUNT_ID_2)))
-                .thenThrow(new BadRequestException("Insufficient funds"));
+    @Test
+    @DisplayName("One admission rejected - goes to failed list with reason, left out of the debit")
+    void bulkTransfer_oneFails_inFailedList() {
+        admit(TARGET_ACCOUNT_ID_1, tx1, true);
+        when(transactionService.admitTransfer(any(), eq(USER_ID),
+                eq(IDEMPOTENCY_KEY + "-" + TARGET_ACCOUNT_ID_2), any(), eq(true)))
+                .thenThrow(new BadRequestException("Daily limit exceeded"));
+        debitSucceeds();
+        settleSucceeds();
 
         BulkTransferResponseDto result =
                 bulkTransferService.bulkTransfer(request, USER_ID, IDEMPOTENCY_KEY);
@@ -137,67 +228,145 @@ public class BulkTransferServiceTest {
         assertEquals(2, result.getTotalProcessed());
         assertEquals(1, result.getSuccessCount());
         assertEquals(1, result.getFailedCount());
-        assertEquals("Insufficient funds", result.getFailed().get(0).getReason());
+        assertEquals("Daily limit exceeded", result.getFailed().get(0).getReason());
         assertEquals(TARGET_ACCOUNT_ID_2, result.getFailed().get(0).getTargetAccountId());
+        verify(nettingService).debit(DEBIT_ID, SOURCE_ACCOUNT_ID, new BigDecimal("100.00"));
     }
 
     @Test
-    @DisplayName("All transfers fail - all in failed list")
-    void bulkTransfer_allFail_allInFailedList() {
-        when(transactionService.transfer(any(), eq(USER_ID), any()))
-                .thenThrow(new BadRequestException("Insufficient funds"));
+    @DisplayName("Fraud detected on one item - goes to failed, others proceed")
+    void bulkTransfer_fraudOnOneItem_othersSucceed() {
+        admit(TARGET_ACCOUNT_ID_1, tx1, true);
+        when(transactionService.admitTransfer(any(), eq(USER_ID),
+                eq(IDEMPOTENCY_KEY + "-" + TARGET_ACCOUNT_ID_2), any(), eq(true)))
+                .thenThrow(new FraudDetectedException("Transaction amount is suspiciously large"));
+        debitSucceeds();
+        settleSucceeds();
+
+        BulkTransferResponseDto result =
+                bulkTransferService.bulkTransfer(request, USER_ID, IDEMPOTENCY_KEY);
+
+        assertEquals(1, result.getSuccessCount());
+        assertEquals(1, result.getFailedCount());
+        assertThat(result.getFailed().get(0).getReason()).contains("suspiciously large");
+    }
+
+    @Test
+    @DisplayName("Rejected aggregate debit fails every admitted transfer, no credits")
+    void bulkTransfer_debitRejected_allFail() {
+        admit(TARGET_ACCOUNT_ID_1, tx1, true);
+        admit(TARGET_ACCOUNT_ID_2, tx2, true);
+        when(nettingService.net(anyList())).thenReturn(DEBIT_ID);
+        when(nettingService.debit(eq(DEBIT_ID), eq(SOURCE_ACCOUNT_ID), any()))
+                .thenReturn(CompletableFuture.failedFuture(new BadRequestException("Insufficient funds")));
 
         BulkTransferResponseDto result =
                 bulkTransferService.bulkTransfer(request, USER_ID, IDEMPOTENCY_KEY);
 
-        assertEquals(2, result.getTotalProcessed());
         assertEquals(0, result.getSuccessCount());
         assertEquals(2, result.getFailedCount());
         assertTrue(result.getSuccessful().isEmpty());
+        assertEquals("Insufficient funds", result.getFailed().get(0).getReason());
+        verify(transactionStateService).fail(tx1, "Bulk debit failed: Insufficient funds");
+        verify(transactionStateService).fail(tx2, "Bulk debit failed: Insufficient funds");
+        verify(transactionService, never()).settle(any());
     }
 
     @Test
-    @DisplayName("Fraud detected on one item - goes to failed, others proceed")
-    void bulkTransfer_fraudOnOneItem_othersSucceed() {
-        when(transactionService.transfer(any(), eq(USER_ID),
-                eq(IDEMPOTENCY_KEY + "-" + TARGET_ACCOUNT_ID_1)))
-                .thenReturn(new TransactionResponseDto());
+    @DisplayName("Aggregate debit with unknown outcome leaves transfers PROCESSING for recovery")
+    void bulkTransfer_debitUnknown_leftForRecovery() {
+        admit(TARGET_ACCOUNT_ID_1, tx1, true);
+        admit(TARGET_ACCOUNT_ID_2, tx2, true);
+        when(nettingService.net(anyList())).thenReturn(DEBIT_ID);
+        when(nettingService.debit(eq(DEBIT_ID), eq(SOURCE_ACCOUNT_ID), any()))
+                .thenThrow(new IllegalStateException("Read timed out"));
 
-        when(transactionService.transfer(any(), eq(USER_ID),
-                eq(IDEMPOTENCY_KEY + "-" + TARGET_ACCOUNT_ID_2)))
-                .thenThrow(new FraudDetectedException("Transaction amount is suspiciously large"));
+        BulkTransferResponseDto result =
+                bulkTransferService.bulkTransfer(request, USER_ID, IDEMPOTENCY_KEY);
+
+        assertEquals(2, result.getFailedCount());
+        assertThat(result.getFailed().get(0).getReason()).contains("will be recovered");
+        verify(transactionStateService, never()).fail(any(), any());
+        verify(transactionService, never()).settle(any());
+        verify(nettingService, never()).debited(any());
+    }
+
+    @Test
+    @DisplayName("Replayed items are answered from their stored state and not debited again")
+    void bulkTransfer_replayedItem_notDebited() {
+        admit(TARGET_ACCOUNT_ID_1, tx1, false);
+        admit(TARGET_ACCOUNT_ID_2, tx2, true);
+        debitSucceeds();
+        settleSucceeds();
 
         BulkTransferResponseDto result =
                 bulkTransferService.bulkTransfer(request, USER_ID, IDEMPOTENCY_KEY);
 
-        assertEquals(1, result.getSuccessCount());
-        assertEquals(1, result.getFailedCount());
-        assertThat(result.getFailed().get(0).getReason()).contains("suspiciously large");
+        assertEquals(2, result.getSuccessCount());
+        verify(nettingService).net(List.of(tx2));
+        verify(nettingService).debit(DEBIT_ID, SOURCE_ACCOUNT_ID, new BigDecimal("200.00"));
+        verify(transactionService, times(2)).settle(any());
     }
 
     @Test
-    @DisplayName("Source account validation called once")
-    void bulkTransfer_sourceAccountValidated() {
-        when(transactionService.transfer(any(), eq(USER_ID), any()))
-                .thenReturn(new TransactionResponseDto());
+    @DisplayName("All accounts resolved in one batch call and shared with every item")
+    void bulkTransfer_accountsResolvedOnce() {
+        admit(TARGET_ACCOUNT_ID_1, tx1, true);
+        admit(TARGET_ACCOUNT_ID_2, tx2, true);
+        debitSucceeds();
+        settleSucceeds();
 
         bulkTransferService.bulkTransfer(request, USER_ID, IDEMPOTENCY_KEY);
 
-        verify(accountAccessService, times(1))
-                .validateAccountOwnership(SOURCE_ACCOUNT_ID, USER_ID);
+        verify(accountOperationService, times(1)).getAccountsByIds(any());
+        verify(accountOperationService, never()).getAccountById(any());
+        verify(transactionService, times(2)).admitTransfer(any(), eq(USER_ID), any(),
+                argThat(accounts -> accounts.containsKey(TARGET_ACCOUNT_ID_1)
+                        && accounts.containsKey(TARGET_ACCOUNT_ID_2)), eq(true));
+    }
+
+    @Test
+    @DisplayName("In-flight items capped even when the executor has spare threads")
+    void bulkTransfer_inFlightItemsCapped() {
+        assertEquals(1, peakInFlight(new BulkTransferService(transactionService, accountOperationService,
+                transactionStateService, nettingService, Executors.newFixedThreadPool(4), 1, 10)));
+    }
+
+    @Test
+    @DisplayName("Unset in-flight cap defaults to half the JDBC pool")
+    void bulkTransfer_inFlightDefaultsToHalfPool() {
+        assertEquals(1, peakInFlight(new BulkTransferService(transactionService, accountOperationService,
+                transactionStateService, nettingService, Executors.newFixedThreadPool(4), 0, 3)));
+    }
+
+    private int peakInFlight(BulkTransferService capped) {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        admit(TARGET_ACCOUNT_ID_1, tx1, true);
+        admit(TARGET_ACCOUNT_ID_2, tx2, true);
+        debitSucceeds();
+        when(transactionService.settle(any())).thenAnswer(i -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            return CompletableFuture.completedFuture(new TransactionResponseDto());
+        });
+
+        BulkTransferResponseDto result = capped.bulkTransfer(request, USER_ID, IDEMPOTENCY_KEY);
+
+        assertEquals(2, result.getSuccessCount());
+        return peak.get();
     }
 
     @Test
     @DisplayName("Source account access denied - throws, no transfers executed")
     void bulkTransfer_accessDenied_noTransfersExecuted() {
-        doThrow(new BadRequestException("Access denied"))
-                .when(accountAccessService)
-                .validateAccountOwnership(SOURCE_ACCOUNT_ID, USER_ID);
+        sourceAccount.setUserId(99L);
 
-        assertThrows(BadRequestException.class,
+        assertThrows(NotFoundException.class,
                 () -> bulkTransferService.bulkTransfer(request, USER_ID, IDEMPOTENCY_KEY));
 
-        verify(transactionService, never()).transfer(any(), any(), any());
+        verify(transactionService, never()).admitTransfer(any(), any(), any(), any(), anyBoolean());
+        verifyNoInteractions(nettingService);
     }
 }
-
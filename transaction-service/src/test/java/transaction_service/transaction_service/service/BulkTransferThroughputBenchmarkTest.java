@@ -0,0 +1,97 @@
+package transaction_service.transaction_service.service;
+
+import core.core.dto.AccountResponseDto;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.mock.env.MockEnvironment;
+import transaction_service.transaction_service.config.AsyncConfig;
+import transaction_service.transaction_service.dto.TransactionResponseDto;
+import transaction_service.transaction_service.dto.bulk.BulkTransferItemDto;
+import transaction_service.transaction_service.dto.bulk.BulkTransferRequestDto;
+import transaction_service.transaction_service.model.Transaction;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Bulk transfer throughput with the bounded platform pool against virtual threads, both built
+ * by {@link AsyncConfig}. Each item simulates the blocking Feign and JDBC round trips of a transfer.
+ * In-flight items are capped at the default JDBC pool size in both modes.
+ * Run with {@code ./gradlew :transaction-service:benchmark} on a Java 21 toolchain.
+ */
+@Tag("benchmark")
+class BulkTransferThroughputBenchmarkTest {
+
+    private static final long ITEM_IO_MS = 25;
+    private static final int JDBC_POOL_SIZE = 20;
+    private static final Long USER_ID = 1L;
+    private static final Long SOURCE_ACCOUNT_ID = 1L;
+
+    @ParameterizedTest
+    @ValueSource(ints = {100, 1_000})
+    void compareThroughput(int items) {
+        BulkTransferRequestDto request = request(items);
+        double platform = run(executor(false), request);
+        double virtual = run(executor(true), request);
+
+        System.out.printf("%,d items  platform pool=%.0f items/s | virtual threads=%.0f items/s%n",
+                items, platform, virtual);
+    }
+
+    private double run(Executor executor, BulkTransferRequestDto request) {
+        TransactionService transactionService = mock(TransactionService.class);
+        AccountOperationService accountOperationService = mock(AccountOperationService.class);
+        Map<Long, AccountResponseDto> accounts = new HashMap<>();
+        accounts.put(SOURCE_ACCOUNT_ID, AccountResponseDto.builder().id(SOURCE_ACCOUNT_ID).userId(USER_ID).build());
+        when(accountOperationService.getAccountsByIds(any())).thenReturn(accounts);
+        TransferNettingService nettingService = mock(TransferNettingService.class);
+        AtomicLong ids = new AtomicLong();
+        when(transactionService.admitTransfer(any(), any(), any(), any(), anyBoolean())).thenAnswer(i -> new TransactionService.Admission(
+                Transaction.builder().id(ids.incrementAndGet()).amount(BigDecimal.ONE).build(), true));
+        when(nettingService.net(any())).thenReturn(-1L);
+        when(nettingService.debit(any(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(transactionService.settle(any())).thenAnswer(i -> {
+            Thread.sleep(ITEM_IO_MS);
+            return CompletableFuture.completedFuture(new TransactionResponseDto());
+        });
+        BulkTransferService service = new BulkTransferService(transactionService, accountOperationService,
+                mock(TransactionStateService.class), nettingService, executor, JDBC_POOL_SIZE, JDBC_POOL_SIZE);
+
+        service.bulkTransfer(request(10), USER_ID, "warmup");
+        long start = System.nanoTime();
+        service.bulkTransfer(request, USER_ID, "bench");
+        long elapsed = System.nanoTime() - start;
+        return request.getTransfers().size() * 1_000_000_000.0 / elapsed;
+    }
+
+    private static Executor executor(boolean virtual) {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.threads.virtual.enabled", String.valueOf(virtual));
+        return new AsyncConfig().transactionValidationExecutor(environment);
+    }
+
+    private static BulkTransferRequestDto request(int items) {
+        List<BulkTransferItemDto> transfers = LongStream.rangeClosed(1, items)
+                .mapToObj(i -> BulkTransferItemDto.builder()
+                        .targetAccountId(SOURCE_ACCOUNT_ID + i)
+                        .amount(BigDecimal.ONE)
+                        .build())
+                .toList();
+        return BulkTransferRequestDto.builder()
+                .sourceAccountId(SOURCE_ACCOUNT_ID)
+                .transfers(transfers)
+                .build();
+    }
+}
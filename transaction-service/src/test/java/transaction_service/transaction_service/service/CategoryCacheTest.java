@@ -0,0 +1,113 @@
+package transaction_service.transaction_service.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import transaction_service.transaction_service.model.TransactionCategory;
+import transaction_service.transaction_service.repository.TransactionCategoryRepository;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryCacheTest {
+    private static final Long USER_ID = 1L;
+
+    @Mock
+    private TransactionCategoryRepository categoryRepository;
+
+    private CategoryCache categoryCache;
+    private TransactionCategory food;
+    private TransactionCategory hobby;
+
+    @BeforeEach
+    void setUp() {
+        categoryCache = new CategoryCache(categoryRepository, Duration.ofMinutes(10), 2);
+        food = TransactionCategory.builder().id(100L).name("FOOD").build();
+        hobby = TransactionCategory.builder().id(200L).name("Hobby").userId(USER_ID).build();
+        lenient().when(categoryRepository.findByUserIdIsNull()).thenReturn(List.of(food));
+        lenient().when(categoryRepository.findByUserId(USER_ID)).thenReturn(List.of(hobby));
+    }
+
+    @Test
+    @DisplayName("Loaded once, then served from memory")
+    void find_loadsOnce() {
+        assertSame(food, categoryCache.find(100L, USER_ID).orElseThrow());
+        assertSame(hobby, categoryCache.find(200L, USER_ID).orElseThrow());
+        assertEquals(List.of(food, hobby), categoryCache.forUser(USER_ID));
+
+        verify(categoryRepository, times(1)).findByUserIdIsNull();
+        verify(categoryRepository, times(1)).findByUserId(USER_ID);
+    }
+
+    @Test
+    @DisplayName("Another user's category not served")
+    void find_foreignCategory_empty() {
+        when(categoryRepository.findByUserId(2L)).thenReturn(List.of());
+
+        assertTrue(categoryCache.find(200L, 2L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Invalidation reloads only the affected user")
+    void invalidate_reloadsUser() {
+        categoryCache.forUser(USER_ID);
+        TransactionCategory coffee = TransactionCategory.builder().id(201L).name("Coffee").userId(USER_ID).build();
+        when(categoryRepository.findByUserId(USER_ID)).thenReturn(List.of(hobby, coffee));
+
+        categoryCache.invalidate(USER_ID);
+
+        assertSame(coffee, categoryCache.find(201L, USER_ID).orElseThrow());
+        verify(categoryRepository, times(1)).findByUserIdIsNull();
+        verify(categoryRepository, times(2)).findByUserId(USER_ID);
+    }
+
+    @Test
+    @DisplayName("Null user invalidates the global categories")
+    void invalidate_global() {
+        categoryCache.forUser(USER_ID);
+
+        categoryCache.invalidate(null);
+        categoryCache.forUser(USER_ID);
+
+        verify(categoryRepository, times(2)).findByUserIdIsNull();
+        verify(categoryRepository, times(1)).findByUserId(USER_ID);
+    }
+
+    @Test
+    @DisplayName("Invalidation during a load - loaded set returned but not kept")
+    void invalidate_duringLoad_notCached() {
+        when(categoryRepository.findByUserId(USER_ID)).thenAnswer(i -> {
+            categoryCache.invalidate(USER_ID);
+            return List.of(hobby);
+        });
+
+        assertTrue(categoryCache.find(200L, USER_ID).isPresent());
+        categoryCache.find(200L, USER_ID);
+
+        verify(categoryRepository, times(2)).findByUserId(USER_ID);
+    }
+
+    @Test
+    @DisplayName("User sets beyond the limit evicted least recently used first")
+    void forUser_evictsLeastRecentlyUsed() {
+        when(categoryRepository.findByUserId(2L)).thenReturn(List.of());
+        when(categoryRepository.findByUserId(3L)).thenReturn(List.of());
+
+        categoryCache.forUser(USER_ID);
+        categoryCache.forUser(2L);
+        categoryCache.forUser(USER_ID);
+        categoryCache.forUser(3L);
+        categoryCache.forUser(USER_ID);
+        categoryCache.forUser(2L);
+
+        verify(categoryRepository, times(1)).findByUserId(USER_ID);
+        verify(categoryRepository, times(2)).findByUserId(2L);
+    }
+}
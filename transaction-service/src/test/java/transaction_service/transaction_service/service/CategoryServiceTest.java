@@ -8,6 +8,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import transaction_service.transaction_service.event.CategoryChangedEvent;
 import transaction_service.transaction_service.model.TransactionCategory;
 import transaction_service.transaction_service.model.TransactionType;
 import transaction_service.transaction_service.repository.TransactionCategoryRepository;
@@ -25,6 +27,10 @@ public class CategoryServiceTest {
     private TransactionCategoryRepository categoryRepository;
     @Mock
     private TransactionRepository transactionRepository;
+    @Mock
+    private CategoryCache categoryCache;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private CategoryService categoryService;
@@ -55,12 +61,12 @@ public class CategoryServiceTest {
     @Test
     @DisplayName("Should return both global and user categories")
     void getAllCategoriesForUser_ReturnsCombined() {
-        when(categoryRepository.findByUserIdOrUserIdIsNull(userId))
+        when(categoryCache.forUser(userId))
                 .thenReturn(List.of(globalCategory, userCategory));
 
         List<TransactionCategory> result = categoryService.getAllCategoriesForUser(userId);
         assertEquals(2, result.size());
-        verify(categoryRepository).findByUserIdOrUserIdIsNull(userId);
+        verifyNoInteractions(categoryRepository);
     }
     //createCustomCategory
     @Test
@@ -73,6 +79,8 @@ public class CategoryServiceTest {
 
         assertNotNull(result);
         verify(categoryRepository).save(any(TransactionCategory.class));
+        verify(categoryCache).invalidate(userId);
+        verify(eventPublisher).publishEvent(any(CategoryChangedEvent.class));
     }
 
     @Test
@@ -84,6 +92,7 @@ public class CategoryServiceTest {
                 categoryService.createCustomCategory(categoryName, userId));
 
         verify(categoryRepository, never()).save(any());
+        verifyNoInteractions(categoryCache, eventPublisher);
     }
 
 
@@ -129,18 +138,30 @@ public class CategoryServiceTest {
     @Test
     @DisplayName("Should allow global category (userId is null)")
     void validate_AllowsGlobalCategory() {
-        when(categoryRepository.findById(100L)).thenReturn(Optional.of(globalCategory));
+        when(categoryCache.find(100L, userId)).thenReturn(Optional.of(globalCategory));
 
         TransactionCategory result = categoryService.validateAndGetCategory(100L, userId, TransactionType.TRANSFER);
 
         assertNotNull(result);
         assertNull(result.getUserId());
+        verifyNoInteractions(categoryRepository);
+    }
+
+    @Test
+    @DisplayName("Own category missing from the cache - loaded from DB, stale entry dropped")
+    void validate_CacheMiss_InvalidatesStaleEntry() {
+        when(categoryRepository.findById(200L)).thenReturn(Optional.of(userCategory));
+
+        TransactionCategory result = categoryService.validateAndGetCategory(200L, userId, TransactionType.TRANSFER);
+
+        assertSame(userCategory, result);
+        verify(categoryCache).invalidate(userId);
     }
 
     @Test
     @DisplayName("Should allow own private category")
     void validate_AllowsOwnCategory() {
-        when(categoryRepository.findById(200L)).thenReturn(Optional.of(userCategory));
+        when(categoryCache.find(200L, userId)).thenReturn(Optional.of(userCategory));
 
         TransactionCategory result = categoryService.validateAndGetCategory(200L, userId, TransactionType.TRANSFER);
 
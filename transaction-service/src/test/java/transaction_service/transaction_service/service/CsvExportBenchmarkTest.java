@@ -0,0 +1,179 @@
+package transaction_service.transaction_service.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.repository.TransactionRepository;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Heap growth and time of exporting an account with 1M transactions: the previous export
+ * (entities in a list, one StringBuilder, one byte[]) against the streamed one. Peak heap is
+ * sampled every few ms above the level measured after seeding. Run with
+ * {@code ./gradlew :transaction-service:benchmark}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+class CsvExportBenchmarkTest {
+
+    private static final Long ACCOUNT_ID = 4242L;
+    private static final int ROWS = 1_000_000;
+    private static final int BATCH_SIZE = 10_000;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    TransactionRepository transactionRepository;
+    @Autowired
+    TransactionCsvWriter csvWriter;
+
+    @Test
+    void exportMillionRows() throws Exception {
+        seed();
+
+        Result legacy = measure(() -> {
+            List<Transaction> transactions = transactionRepository
+                    .findBySourceAccountIdOrTargetAccountId(ACCOUNT_ID, ACCOUNT_ID, Pageable.unpaged())
+                    .getContent();
+            StringBuilder sb = new StringBuilder(TransactionCsvWriter.HEADER);
+            for (Transaction tx : transactions) {
+                sb.append(tx.getId()).append(',').append(tx.getSourceAccountId()).append(',')
+                        .append(tx.getTargetAccountId()).append(',').append(tx.getAmount()).append(',')
+                        .append(tx.getTargetAmount()).append(',').append(tx.getExchangeRate()).append(',')
+                        .append(tx.getCurrency()).append(',').append(tx.getStatus()).append(',')
+                        .append(tx.getTransactionType()).append(',')
+                        .append(tx.getCategory() != null ? tx.getCategory().getName() : "").append(',')
+                        .append(tx.getCreatedAt()).append(',').append(tx.getUpdatedAt()).append(",\n");
+            }
+            return (long) sb.toString().getBytes(StandardCharsets.UTF_8).length;
+        });
+        Result streamed = measure(() -> {
+            CountingOutputStream out = new CountingOutputStream();
+            csvWriter.write(ACCOUNT_ID, out, false);
+            return out.count;
+        });
+        Result gzipped = measure(() -> {
+            CountingOutputStream out = new CountingOutputStream();
+            csvWriter.write(ACCOUNT_ID, out, true);
+            return out.count;
+        });
+
+        assertThat(streamed.bytes).isGreaterThan(0);
+        System.out.printf("rows=%,d  list+StringBuilder: %,d ms, peak heap +%,d MB, %,d MB body%n",
+                ROWS, legacy.millis, legacy.peakHeapMb(), legacy.bytes >> 20);
+        System.out.printf("rows=%,d  streamed         : %,d ms, peak heap +%,d MB, %,d MB body%n",
+                ROWS, streamed.millis, streamed.peakHeapMb(), streamed.bytes >> 20);
+        System.out.printf("rows=%,d  streamed gzip    : %,d ms, peak heap +%,d MB, %,d MB body%n",
+                ROWS, gzipped.millis, gzipped.peakHeapMb(), gzipped.bytes >> 20);
+    }
+
+    private void seed() {
+        jdbcTemplate.update("""
+                DELETE FROM account_ledger_entry WHERE transaction_id IN
+                (SELECT id FROM transaction WHERE source_account_id = ? OR target_account_id = ?)
+                """, ACCOUNT_ID, ACCOUNT_ID);
+        jdbcTemplate.update("DELETE FROM transaction WHERE source_account_id = ? OR target_account_id = ?",
+                ACCOUNT_ID, ACCOUNT_ID);
+        Long categoryId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM transaction_category", Long.class);
+        Instant start = Instant.now().minusSeconds(ROWS);
+        BigDecimal amount = new BigDecimal("12.3400");
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < ROWS; i++) {
+            batch.add(new Object[]{1L, ACCOUNT_ID, 99L, amount, "USD", "COMPLETED",
+                    Timestamp.from(start.plusSeconds(i)), "export-bench-" + i, "TRANSFER", "CREDIT_DONE",
+                    BigDecimal.ONE, amount, i % 2 == 0 ? categoryId : null});
+            if (batch.size() == BATCH_SIZE) {
+                insert(batch);
+                batch.clear();
+            }
+        }
+        insert(batch);
+        appendLedgerLegs();
+    }
+
+    private void appendLedgerLegs() {
+        jdbcTemplate.update("""
+                INSERT INTO account_ledger_entry (account_id, transaction_id, direction, amount, created_at)
+                SELECT source_account_id, id, 'DEBIT', amount, create_at FROM transaction WHERE source_account_id = ?
+                """, ACCOUNT_ID);
+        jdbcTemplate.update("""
+                INSERT INTO account_ledger_entry (account_id, transaction_id, direction, amount, created_at)
+                SELECT target_account_id, id, 'CREDIT', COALESCE(target_amount, amount), create_at
+                FROM transaction WHERE target_account_id = ?
+                """, ACCOUNT_ID);
+    }
+
+    private void insert(List<Object[]> batch) {
+        if (batch.isEmpty()) return;
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO transaction (user_id, source_account_id, target_account_id, amount, currency, status,
+                create_at, idempotency_key, transaction_type, transaction_step, exchange_rate, target_amount,
+                transaction_category_id)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, batch);
+    }
+
+    private Result measure(Callable<Long> export) throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+        AtomicLong peak = new AtomicLong(baseline);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (running.get()) {
+                peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        long started = System.nanoTime();
+        long bytes = export.call();
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        running.set(false);
+        sampler.join();
+        return new Result(millis, peak.get() - baseline, bytes);
+    }
+
+    private record Result(long millis, long peakHeapBytes, long bytes) {
+        long peakHeapMb() {
+            return Math.max(0, peakHeapBytes) >> 20;
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -1,20 +1,26 @@
 package transaction_service.transaction_service.service;
 import core.core.enums.Currency;
 import core.core.exception.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import transaction_service.transaction_service.model.*;
-import transaction_service.transaction_service.repository.TransactionRepository;
+import transaction_service.transaction_service.repository.TransactionExportRow;
+import transaction_service.transaction_service.repository.AccountLedgerEntryRepository;
 import transaction_service.transaction_service.service.validate.AccountAccessService;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,44 +30,49 @@ import static org.mockito.Mockito.*;
 class CsvExportServiceTest {
 
     @Mock
-    private TransactionRepository transactionRepository;
+    private AccountLedgerEntryRepository ledgerRepository;
     @Mock
     private AccountAccessService accountAccessService;
 
-    @InjectMocks
     private CsvExportService csvExportService;
 
     private static final Long USER_ID = 1L;
     private static final Long ACCOUNT_ID = 1L;
 
-    private Transaction buildTx(Long id, Long sourceId, Long targetId,
-                                TransactionType type, Status status,
-                                TransactionCategory category, String errorMessage) {
-        return Transaction.builder()
-                .id(id)
-                .sourceAccountId(sourceId)
-                .targetAccountId(targetId)
-                .amount(new BigDecimal("100.00"))
-                .targetAmount(new BigDecimal("90.00"))
-                .exchangeRate(new BigDecimal("0.9"))
-                .currency(Currency.USD)
-                .status(status)
-                .transactionType(type)
-                .category(category)
-                .createdAt(Instant.parse("2026-03-13T19:00:00Z"))
-                .updatedAt(Instant.parse("2026-03-13T19:00:01Z"))
-                .errorMessage(errorMessage)
-                .build();
+    @BeforeEach
+    void setUp() {
+        csvExportService = new CsvExportService(accountAccessService, new TransactionCsvWriter(ledgerRepository));
+    }
+
+    private TransactionExportRow buildTx(Long id, Long sourceId, Long targetId,
+                                         TransactionType type, Status status,
+                                         TransactionCategory category, String errorMessage) {
+        return new TransactionExportRow(id, sourceId, targetId,
+                new BigDecimal("100.00"), new BigDecimal("90.00"), new BigDecimal("0.9"),
+                Currency.USD, status, type, category != null ? category.getName() : null,
+                Instant.parse("2026-03-13T19:00:00Z"), Instant.parse("2026-03-13T19:00:01Z"),
+                errorMessage);
+    }
+
+    private String export(boolean gzip) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        csvExportService.exportTransactionHistory(ACCOUNT_ID, USER_ID, gzip).writeTo(out);
+        byte[] bytes = out.toByteArray();
+        if (gzip) {
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+                bytes = in.readAllBytes();
+            }
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
     }
 
     @Test
     @DisplayName("CSV contains header row")
-    void export_containsHeader() {
-        when(transactionRepository.findBySourceAccountIdOrTargetAccountId(ACCOUNT_ID, ACCOUNT_ID))
-                .thenReturn(List.of());
+    void export_containsHeader() throws IOException {
+        when(ledgerRepository.streamExportRows(ACCOUNT_ID))
+                .thenReturn(Stream.empty());
 
-        byte[] csv = csvExportService.exportTransactionHistory(ACCOUNT_ID, USER_ID);
-        String content = new String(csv, StandardCharsets.UTF_8);
+        String content = export(false);
 
         assertTrue(content.startsWith("id,sourceAccountId,targetAccountId,amount,targetAmount,"));
         assertTrue(content.contains("exchangeRate,currency,status,transactionType,category,createdAt,updatedAt,error"));
@@ -69,12 +80,11 @@ class CsvExportServiceTest {
 
     @Test
     @DisplayName("Empty transactions - only header row")
-    void export_emptyTransactions_onlyHeader() {
-        when(transactionRepository.findBySourceAccountIdOrTargetAccountId(ACCOUNT_ID, ACCOUNT_ID))
-                .thenReturn(List.of());
+    void export_emptyTransactions_onlyHeader() throws IOException {
+        when(ledgerRepository.streamExportRows(ACCOUNT_ID))
+                .thenReturn(Stream.empty());
 
-        byte[] csv = csvExportService.exportTransactionHistory(ACCOUNT_ID, USER_ID);
-        String content = new String(csv, StandardCharsets.UTF_8);
+        String content = export(false);
 
         String[] lines = content.split("\n");
         assertEquals(1, lines.length);
@@ -82,18 +92,17 @@ class CsvExportServiceTest {
 
     @Test
     @DisplayName("TRANSFER tx - all fields present in CSV row")
-    void export_transferTx_allFieldsPresent() {
+    void export_transferTx_allFieldsPresent() throws IOException {
         TransactionCategory category = new TransactionCategory();
         category.setName("ENTERTAINMENT");
 
-        Transaction tx = buildTx(1L, 1L, 2L, TransactionType.TRANSFER,
+        TransactionExportRow tx = buildTx(1L, 1L, 2L, TransactionType.TRANSFER,
                 Status.COMPLETED, category, null);
 
-        when(transactionRepository.findBySourceAccountIdOrTargetAccountId(ACCOUNT_ID, ACCOUNT_ID))
-                .thenReturn(List.of(tx));
+        when(ledgerRepository.streamExportRows(ACCOUNT_ID))
+                .thenReturn(Stream.of(tx));
 
-        byte[] csv = csvExportService.exportTransactionHistory(ACCOUNT_ID, USER_ID);
-        String content = new String(csv, StandardCharsets.UTF_8);
+        String content = export(false);
 
         assertTrue(content.contains("1,1,2,"));
         assertTrue(content.contains("USD"));
@@ -104,63 +113,59 @@ class CsvExportServiceTest {
 
     @Test
     @DisplayName("DEPOSIT tx - sourceAccountId is empty in CSV")
-    void export_depositTx_sourceAccountIdEmpty() {
-        Transaction tx = buildTx(2L, null, 1L, TransactionType.DEPOSIT,
+    void export_depositTx_sourceAccountIdEmpty() throws IOException {
+        TransactionExportRow tx = buildTx(2L, null, 1L, TransactionType.DEPOSIT,
                 Status.COMPLETED, null, null);
 
-        when(transactionRepository.findBySourceAccountIdOrTargetAccountId(ACCOUNT_ID, ACCOUNT_ID))
-                .thenReturn(List.of(tx));
+        when(ledgerRepository.streamExportRows(ACCOUNT_ID))
+                .thenReturn(Stream.of(tx));
 
-        byte[] csv = csvExportService.exportTransactionHistory(ACCOUNT_ID, USER_ID);
-        String content = new String(csv, StandardCharsets.UTF_8);
+        String content = export(false);
 
         assertTrue(content.contains("2,,1,"));
     }
 
     @Test
     @DisplayName("WITHDRAW tx - targetAccountId is empty in CSV")
-    void export_withdrawTx_targetAccountIdEmpty() {
-        Transaction tx = buildTx(3L, 1L, null, TransactionType.WITHDRAW,
+    void export_withdrawTx_targetAccountIdEmpty() throws IOException {
+        TransactionExportRow tx = buildTx(3L, 1L, null, TransactionType.WITHDRAW,
                 Status.COMPLETED, null, null);
 
-        when(transactionRepository.findBySourceAccountIdOrTargetAccountId(ACCOUNT_ID, ACCOUNT_ID))
-                .thenReturn(List.of(tx));
+        when(ledgerRepository.streamExportRows(ACCOUNT_ID))
+                .thenReturn(Stream.of(tx));
 
-        byte[] csv = csvExportService.exportTransactionHistory(ACCOUNT_ID, USER_ID);
-        String content = new String(csv, StandardCharsets.UTF_8);
+        String content = export(false);
 
         assertTrue(content.contains("3,1,,"));
     }
 
     @Test
     @DisplayName("Tx without category - category field is empty")
-    void export_noCategory_emptyCategoryField() {
-        Transaction tx = buildTx(4L, 1L, 2L, TransactionType.TRANSFER,
+    void export_noCategory_emptyCategoryField() throws IOException {
+        TransactionExportRow tx = buildTx(4L, 1L, 2L, TransactionType.TRANSFER,
                 Status.COMPLETED, null, null);
 
-        when(transactionRepository.findBySourceAccountIdOrTargetAccountId(ACCOUNT_ID, ACCOUNT_ID))
-                .thenReturn(List.of(tx));
+        when(ledgerRepository.streamExportRows(ACCOUNT_ID))
+                .thenReturn(Stream.of(tx));
 
-        byte[] csv = csvExportService.exportTransactionHistory(ACCOUNT_ID, USER_ID);
-        String content = new String(csv, StandardCharsets.UTF_8);
+        String content = export(false);
 
         assertTrue(content.contains("TRANSFER,,"));
     }
 
     @Test
     @DisplayName("Multiple transactions - correct row count")
-    void export_multipleTransactions_correctRowCount() {
-        List<Transaction> txs = List.of(
+    void export_multipleTransactions_correctRowCount() throws IOException {
+        List<TransactionExportRow> txs = List.of(
                 buildTx(1L, 1L, 2L, TransactionType.TRANSFER, Status.COMPLETED, null, null),
                 buildTx(2L, null, 1L, TransactionType.DEPOSIT, Status.COMPLETED, null, null),
                 buildTx(3L, 1L, null, TransactionType.WITHDRAW, Status.COMPLETED, null, null)
         );
 
-        when(transactionRepository.findBySourceAccountIdOrTargetAccountId(ACCOUNT_ID, ACCOUNT_ID))
-                .thenReturn(txs);
+        when(ledgerRepository.streamExportRows(ACCOUNT_ID))
+                .thenReturn(txs.stream());
 
-        byte[] csv = csvExportService.exportTransactionHistory(ACCOUNT_ID, USER_ID);
-        String content = new String(csv, StandardCharsets.UTF_8);
+        String content = export(false);
 
         String[] lines = content.split("\n");
         assertEquals(4, lines.length);
@@ -168,30 +173,28 @@ class CsvExportServiceTest {
 
     @Test
     @DisplayName("Error message with comma - wrapped in quotes")
-    void export_errorWithComma_escapedInCsv() {
-        Transaction tx = buildTx(1L, 1L, 2L, TransactionType.TRANSFER,
+    void export_errorWithComma_escapedInCsv() throws IOException {
+        TransactionExportRow tx = buildTx(1L, 1L, 2L, TransactionType.TRANSFER,
                 Status.FAILED, null, "Transfer failed, compensation done");
 
-        when(transactionRepository.findBySourceAccountIdOrTargetAccountId(ACCOUNT_ID, ACCOUNT_ID))
-                .thenReturn(List.of(tx));
+        when(ledgerRepository.streamExportRows(ACCOUNT_ID))
+                .thenReturn(Stream.of(tx));
 
-        byte[] csv = csvExportService.exportTransactionHistory(ACCOUNT_ID, USER_ID);
-        String content = new String(csv, StandardCharsets.UTF_8);
+        String content = export(false);
 
         assertTrue(content.contains("\"Transfer failed, compensation done\""));
     }
 
     @Test
     @DisplayName("Error message without comma - not wrapped in quotes")
-    void export_errorWithoutComma_notEscaped() {
-        Transaction tx = buildTx(1L, 1L, 2L, TransactionType.TRANSFER,
+    void export_errorWithoutComma_notEscaped() throws IOException {
+        TransactionExportRow tx = buildTx(1L, 1L, 2L, TransactionType.TRANSFER,
                 Status.FAILED, null, "Insufficient funds");
 
-        when(transactionRepository.findBySourceAccountIdOrTargetAccountId(ACCOUNT_ID, ACCOUNT_ID))
-                .thenReturn(List.of(tx));
+        when(ledgerRepository.streamExportRows(ACCOUNT_ID))
+                .thenReturn(Stream.of(tx));
 
-        byte[] csv = csvExportService.exportTransactionHistory(ACCOUNT_ID, USER_ID);
-        String content = new String(csv, StandardCharsets.UTF_8);
+        String content = export(false);
 
         assertTrue(content.contains("Insufficient funds"));
         assertFalse(content.contains("\"Insufficient funds\""));
@@ -199,25 +202,62 @@ class CsvExportServiceTest {
 
     @Test
     @DisplayName("Access denied - throws, repository not called")
-    void export_accessDenied_repositoryNotCalled() {
+    void export_accessDenied_repositoryNotCalled() throws IOException {
         doThrow(new BadRequestException("Access denied"))
                 .when(accountAccessService)
                 .validateAccountOwnership(ACCOUNT_ID, USER_ID);
 
         assertThrows(BadRequestException.class,
-                () -> csvExportService.exportTransactionHistory(ACCOUNT_ID, USER_ID));
+                () -> csvExportService.exportTransactionHistory(ACCOUNT_ID, USER_ID, false));
 
-        verify(transactionRepository, never())
-                .findBySourceAccountIdOrTargetAccountId(any(), any());
+        verifyNoInteractions(ledgerRepository);
     }
     @Test
     @DisplayName("Account ownership validated before export")
-    void export_ownershipValidated() {
-        when(transactionRepository.findBySourceAccountIdOrTargetAccountId(ACCOUNT_ID, ACCOUNT_ID))
-                .thenReturn(List.of());
+    void export_ownershipValidated() throws IOException {
+        when(ledgerRepository.streamExportRows(ACCOUNT_ID))
+                .thenReturn(Stream.empty());
 
-        csvExportService.exportTransactionHistory(ACCOUNT_ID, USER_ID);
+        export(false);
 
         verify(accountAccessService).validateAccountOwnership(ACCOUNT_ID, USER_ID);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Error message with quotes and line breaks - quoted, quotes doubled")
+    void export_errorWithQuotes_escapedInCsv() throws IOException {
+        TransactionExportRow tx = buildTx(1L, 1L, 2L, TransactionType.TRANSFER,
+                Status.FAILED, null, "Account said \"no\"\nretry later");
+
+        when(ledgerRepository.streamExportRows(ACCOUNT_ID))
+                .thenReturn(Stream.of(tx));
+
+        String content = export(false);
+
+        assertTrue(content.contains("\"Account said \"\"no\"\"\nretry later\""));
+    }
+
+    @Test
+    @DisplayName("Gzip requested - body is the same CSV compressed")
+    void export_gzip_decompressesToCsv() throws IOException {
+        when(ledgerRepository.streamExportRows(ACCOUNT_ID))
+                .thenReturn(Stream.of(buildTx(1L, 1L, 2L, TransactionType.TRANSFER, Status.COMPLETED, null, null)));
+
+        String content = export(true);
+
+        assertTrue(content.startsWith(TransactionCsvWriter.HEADER));
+        assertTrue(content.contains("1,1,2,"));
+    }
+
+    @Test
+    @DisplayName("Row stream is closed after the export")
+    void export_closesStream() throws IOException {
+        boolean[] closed = {false};
+        when(ledgerRepository.streamExportRows(ACCOUNT_ID))
+                .thenReturn(Stream.<TransactionExportRow>empty().onClose(() -> closed[0] = true));
+
+        export(false);
+
+        assertTrue(closed[0]);
+    }
+}
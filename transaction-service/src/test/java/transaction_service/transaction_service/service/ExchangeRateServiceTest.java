@@ -3,16 +3,18 @@ package transaction_service.transaction_service.service;
 
 import core.core.enums.Currency;
 import core.core.exception.ExternalServiceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import transaction_service.transaction_service.config.ExchangeRateClient;
 import transaction_service.transaction_service.dto.ExchangeRateResponseDto;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Map;
 
 
@@ -25,9 +27,23 @@ public class ExchangeRateServiceTest {
     @Mock
     private ExchangeRateClient exchangeRateClient;
 
-    @InjectMocks
     private ExchangeRateService exchangeRateService;
 
+    @BeforeEach
+    void setUp() {
+        exchangeRateService = service(Duration.ofHours(24));
+    }
+
+    private ExchangeRateService service(Duration maxAge) {
+        return new ExchangeRateService(exchangeRateClient, new SimpleMeterRegistry(),
+                Currency.USD, Duration.ofMinutes(10), maxAge, true);
+    }
+
+    private void quote(Map<String, BigDecimal> rates) {
+        when(exchangeRateClient.getLatestRate("USD", "EUR,UAH"))
+                .thenReturn(ExchangeRateResponseDto.builder().base("USD").rates(rates).build());
+    }
+
     //getRate
     @Test
     @DisplayName("Should return 1.0 when from and to currencies are the same")
@@ -41,44 +57,142 @@ public class ExchangeRateServiceTest {
     }
 
     @Test
-    @DisplayName("Should return correct rate from API")
+    @DisplayName("Should return the quoted rate without calling the API")
     void getRate_Success() {
-        Currency from = Currency.USD;
-        Currency to = Currency.EUR;
         BigDecimal expectedRate = new BigDecimal("0.92");
+        quote(Map.of("EUR", expectedRate, "UAH", new BigDecimal("41.40")));
+        assertTrue(exchangeRateService.refresh());
+
+        BigDecimal actualRate = exchangeRateService.getRate(Currency.USD, Currency.EUR);
 
-        ExchangeRateResponseDto mockResponse = new ExchangeRateResponseDto();
-        mockResponse.setRates(Map.of("EUR", expectedRate));
+        assertEquals(expectedRate, actualRate);
+        verify(exchangeRateClient, times(1)).getLatestRate(anyString(), anyString());
+    }
 
-        when(exchangeRateClient.getLatestRate("USD", "EUR")).thenReturn(mockResponse);
+    @Test
+    @DisplayName("Should derive inverse and cross rates from the base quote")
+    void getRate_InverseAndCross() {
+        quote(Map.of("EUR", new BigDecimal("0.92"), "UAH", new BigDecimal("41.40")));
+        exchangeRateService.refresh();
+
+        assertEquals(new BigDecimal("1.0869565217"), exchangeRateService.getRate(Currency.EUR, Currency.USD));
+        assertEquals(new BigDecimal("45.0000000000"), exchangeRateService.getRate(Currency.EUR, Currency.UAH));
+        assertEquals(new BigDecimal("0.0222222222"), exchangeRateService.getRate(Currency.UAH, Currency.EUR));
+    }
 
-        BigDecimal actualRate = exchangeRateService.getRate(from, to);
+    @Test
+    @DisplayName("Should keep serving the last good rates when a refresh fails")
+    void refresh_ClientError_KeepsLastKnownGood() {
+        quote(Map.of("EUR", new BigDecimal("0.92"), "UAH", new BigDecimal("41.40")));
+        exchangeRateService.refresh();
+        doThrow(new RuntimeException("API Down")).when(exchangeRateClient).getLatestRate(anyString(), anyString());
 
-        assertEquals(expectedRate, actualRate);
-        verify(exchangeRateClient).getLatestRate("USD", "EUR");
+        assertFalse(exchangeRateService.refresh());
+
+        assertEquals(new BigDecimal("0.92"), exchangeRateService.getRate(Currency.USD, Currency.EUR));
     }
 
     @Test
-    @DisplayName("Should throw ExternalServiceException when rate is missing in response")
-    void getRate_RateNotFound_ThrowsExternalServiceException() {
-        ExchangeRateResponseDto emptyResponse = new ExchangeRateResponseDto();
-        emptyResponse.setRates(Map.of());
+    @DisplayName("Should carry over the previous rate of a currency missing from a quote")
+    void refresh_MissingCurrency_CarriesPreviousRate() {
+        quote(Map.of("EUR", new BigDecimal("0.92"), "UAH", new BigDecimal("41.40")));
+        exchangeRateService.refresh();
+        quote(Map.of("EUR", new BigDecimal("0.90")));
+
+        assertTrue(exchangeRateService.refresh());
 
-        when(exchangeRateClient.getLatestRate(anyString(), anyString())).thenReturn(emptyResponse);
+        assertEquals(new BigDecimal("0.90"), exchangeRateService.getRate(Currency.USD, Currency.EUR));
+        assertEquals(new BigDecimal("41.40"), exchangeRateService.getRate(Currency.USD, Currency.UAH));
+    }
+
+    @Test
+    @DisplayName("Should throw ExternalServiceException when a currency was never quoted")
+    void getRate_RateNotFound_ThrowsExternalServiceException() {
+        quote(Map.of("EUR", new BigDecimal("0.92")));
+        exchangeRateService.refresh();
 
         assertThrows(ExternalServiceException.class, () ->
-                exchangeRateService.getRate(Currency.USD, Currency.EUR));
+                exchangeRateService.getRate(Currency.USD, Currency.UAH));
     }
 
     @Test
-    @DisplayName("Should throw ExternalServiceException when Feign client fails")
-    void getRate_ClientError_ThrowsExternalServiceException() {
+    @DisplayName("Should throw ExternalServiceException before the first successful refresh")
+    void getRate_NoRates_ThrowsExternalServiceException() {
         when(exchangeRateClient.getLatestRate(anyString(), anyString()))
                 .thenThrow(new RuntimeException("API Down"));
+        exchangeRateService.refresh();
 
         assertThrows(ExternalServiceException.class, () ->
                 exchangeRateService.getRate(Currency.USD, Currency.EUR));
     }
+
+    @Test
+    @DisplayName("Should throw ExternalServiceException when an empty quote is all there is")
+    void refresh_EmptyQuote_Rejected() {
+        quote(Map.of());
+
+        assertFalse(exchangeRateService.refresh());
+        assertThrows(ExternalServiceException.class, () ->
+                exchangeRateService.getRate(Currency.USD, Currency.EUR));
+    }
+
+    @Test
+    @DisplayName("Should stop serving rates older than max age")
+    void getRate_Expired_ThrowsExternalServiceException() {
+        exchangeRateService = service(Duration.ofMillis(-1));
+        quote(Map.of("EUR", new BigDecimal("0.92"), "UAH", new BigDecimal("41.40")));
+        exchangeRateService.refresh();
+
+        assertThrows(ExternalServiceException.class, () ->
+                exchangeRateService.getRate(Currency.USD, Currency.EUR));
+    }
+
+    @Test
+    @DisplayName("Should load the rates on start")
+    void start_LoadsRates() {
+        quote(Map.of("EUR", new BigDecimal("0.92"), "UAH", new BigDecimal("41.40")));
+
+        exchangeRateService.start();
+
+        assertEquals(new BigDecimal("0.92"), exchangeRateService.getRate(Currency.USD, Currency.EUR));
+    }
+
+    @Test
+    @DisplayName("Should retry at the next check after a failed first load")
+    void refreshIfStale_NoRates_Refreshes() {
+        when(exchangeRateClient.getLatestRate(anyString(), anyString()))
+                .thenThrow(new RuntimeException("API Down"))
+                .thenReturn(ExchangeRateResponseDto.builder().base("USD")
+                        .rates(Map.of("EUR", new BigDecimal("0.92"))).build());
+        exchangeRateService.start();
+
+        exchangeRateService.refreshIfStale();
+
+        assertEquals(new BigDecimal("0.92"), exchangeRateService.getRate(Currency.USD, Currency.EUR));
+    }
+
+    @Test
+    @DisplayName("Should not refresh rates younger than the refresh interval")
+    void refreshIfStale_Fresh_Skipped() {
+        quote(Map.of("EUR", new BigDecimal("0.92"), "UAH", new BigDecimal("41.40")));
+        exchangeRateService.refresh();
+
+        exchangeRateService.refreshIfStale();
+
+        verify(exchangeRateClient, times(1)).getLatestRate(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should not load or check rates when refresh is disabled")
+    void refreshDisabled_NoCalls() {
+        exchangeRateService = new ExchangeRateService(exchangeRateClient, new SimpleMeterRegistry(),
+                Currency.USD, Duration.ofMinutes(10), Duration.ofHours(24), false);
+
+        exchangeRateService.start();
+        exchangeRateService.refreshIfStale();
+
+        verifyNoInteractions(exchangeRateClient);
+    }
     //convert
     @Test
     @DisplayName("Should correctly multiply amount by rate")
@@ -0,0 +1,147 @@
+package transaction_service.transaction_service.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.repository.AccountLedgerEntryRepository;
+import transaction_service.transaction_service.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * History page latency at depth 1 and 1,000 (20 rows per page): offset pages over the transaction
+ * table with their COUNT against keyset slices of the account ledger. Run with {@code ./gradlew :transaction-service:benchmark}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+class HistoryPaginationBenchmarkTest {
+
+    private static final Long ACCOUNT_ID = 5151L;
+    private static final int ROWS = 100_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int DEEP_PAGE = 1_000;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 200;
+    private static final int BATCH_SIZE = 10_000;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    TransactionRepository transactionRepository;
+    @Autowired
+    AccountLedgerEntryRepository ledgerRepository;
+
+    @Test
+    void offsetVersusKeyset() {
+        seed();
+        PageRequest limit = PageRequest.of(0, PAGE_SIZE + 1);
+        Sort newestFirst = Sort.by("createdAt").descending();
+
+        HistoryCursor deepCursor = HistoryCursor.FIRST;
+        for (int page = 0; page < DEEP_PAGE; page++) {
+            List<Transaction> slice = ledgerRepository.findHistoryBefore(
+                    ACCOUNT_ID, deepCursor.createdAt(), deepCursor.id(), PageRequest.of(0, PAGE_SIZE));
+            deepCursor = HistoryCursor.of(slice.get(slice.size() - 1));
+        }
+        HistoryCursor cursor = deepCursor;
+        assertThat(ledgerRepository.findHistoryBefore(ACCOUNT_ID, cursor.createdAt(), cursor.id(), limit))
+                .hasSize(PAGE_SIZE + 1);
+
+        long[] offsetFirst = measure(() -> transactionRepository.findBySourceAccountIdOrTargetAccountId(
+                ACCOUNT_ID, ACCOUNT_ID, PageRequest.of(0, PAGE_SIZE, newestFirst)));
+        long[] offsetDeep = measure(() -> transactionRepository.findBySourceAccountIdOrTargetAccountId(
+                ACCOUNT_ID, ACCOUNT_ID, PageRequest.of(DEEP_PAGE, PAGE_SIZE, newestFirst)));
+        long[] keysetFirst = measure(() -> keyset(HistoryCursor.FIRST, limit));
+        long[] keysetDeep = measure(() -> keyset(cursor, limit));
+
+        System.out.printf("rows=%,d  offset page 1 p50=%.3fms p99=%.3fms | page %,d p50=%.3fms p99=%.3fms%n",
+                ROWS, percentile(offsetFirst, 50), percentile(offsetFirst, 99),
+                DEEP_PAGE, percentile(offsetDeep, 50), percentile(offsetDeep, 99));
+        System.out.printf("rows=%,d  keyset slice 1 p50=%.3fms p99=%.3fms | slice %,d p50=%.3fms p99=%.3fms%n",
+                ROWS, percentile(keysetFirst, 50), percentile(keysetFirst, 99),
+                DEEP_PAGE, percentile(keysetDeep, 50), percentile(keysetDeep, 99));
+    }
+
+    private Object keyset(HistoryCursor cursor, PageRequest limit) {
+        return ledgerRepository.findHistoryBefore(ACCOUNT_ID, cursor.createdAt(), cursor.id(), limit);
+    }
+
+    private void seed() {
+        jdbcTemplate.update("""
+                DELETE FROM account_ledger_entry WHERE transaction_id IN
+                (SELECT id FROM transaction WHERE source_account_id = ? OR target_account_id = ?)
+                """, ACCOUNT_ID, ACCOUNT_ID);
+        jdbcTemplate.update("DELETE FROM transaction WHERE source_account_id = ? OR target_account_id = ?",
+                ACCOUNT_ID, ACCOUNT_ID);
+        Instant start = Instant.now().minusSeconds(ROWS);
+        BigDecimal amount = new BigDecimal("3.0000");
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < ROWS; i++) {
+            boolean outgoing = i % 4 != 0;
+            batch.add(new Object[]{1L, outgoing ? ACCOUNT_ID : 77L, outgoing ? 77L : ACCOUNT_ID, amount, "USD",
+                    "COMPLETED", Timestamp.from(start.plusSeconds(i)), "history-bench-" + i, "TRANSFER",
+                    "CREDIT_DONE", BigDecimal.ONE, amount});
+            if (batch.size() == BATCH_SIZE) {
+                insert(batch);
+                batch.clear();
+            }
+        }
+        insert(batch);
+        appendLedgerLegs();
+    }
+
+    private void appendLedgerLegs() {
+        jdbcTemplate.update("""
+                INSERT INTO account_ledger_entry (account_id, transaction_id, direction, amount, created_at)
+                SELECT source_account_id, id, 'DEBIT', amount, create_at FROM transaction WHERE source_account_id = ?
+                """, ACCOUNT_ID);
+        jdbcTemplate.update("""
+                INSERT INTO account_ledger_entry (account_id, transaction_id, direction, amount, created_at)
+                SELECT target_account_id, id, 'CREDIT', COALESCE(target_amount, amount), create_at
+                FROM transaction WHERE target_account_id = ?
+                """, ACCOUNT_ID);
+    }
+
+    private void insert(List<Object[]> batch) {
+        if (batch.isEmpty()) return;
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO transaction (user_id, source_account_id, target_account_id, amount, currency, status,
+                create_at, idempotency_key, transaction_type, transaction_step, exchange_rate, target_amount)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, batch);
+    }
+
+    private long[] measure(Supplier<Object> query) {
+        for (int i = 0; i < WARMUP; i++) {
+            query.get();
+        }
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            query.get();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private double percentile(long[] sorted, int p) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(p / 100.0 * sorted.length) - 1);
+        return sorted[index] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,61 @@
+package transaction_service.transaction_service.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyKeyFilterTest {
+
+    @Test
+    @DisplayName("No false negatives for registered keys")
+    void put_keyAlwaysFound() {
+        IdempotencyKeyFilter filter = new IdempotencyKeyFilter(10_000, 0.01);
+        String[] keys = IntStream.range(0, 5_000).mapToObj(i -> UUID.randomUUID().toString()).toArray(String[]::new);
+
+        for (String key : keys) {
+            filter.put(key);
+        }
+
+        for (String key : keys) {
+            assertTrue(filter.mightContain(key));
+        }
+    }
+
+    @Test
+    @DisplayName("False positive rate stays near the configured rate at capacity")
+    void mightContain_falsePositiveRateBounded() {
+        int capacity = 50_000;
+        IdempotencyKeyFilter filter = new IdempotencyKeyFilter(capacity + 1, 0.01);
+        for (int i = 0; i < capacity; i++) {
+            filter.put("registered-" + i);
+        }
+
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain("unknown-" + i))
+                .count();
+
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("Rotation keeps the previous generation, drops the one before")
+    void put_rotation_keepsPreviousGeneration() {
+        IdempotencyKeyFilter filter = new IdempotencyKeyFilter(100, 0.001);
+        IntStream.range(0, 100).forEach(i -> filter.put("first-" + i));
+        IntStream.range(0, 50).forEach(i -> filter.put("second-" + i));
+
+        assertTrue(filter.mightContain("first-0"));
+        assertTrue(filter.mightContain("second-0"));
+
+        IntStream.range(50, 100).forEach(i -> filter.put("second-" + i));
+        IntStream.range(0, 10).forEach(i -> filter.put("third-" + i));
+
+        long remembered = IntStream.range(0, 100).filter(i -> filter.mightContain("first-" + i)).count();
+        assertTrue(remembered < 5, "keys of the dropped generation still reported: " + remembered);
+        assertTrue(filter.mightContain("second-99"));
+    }
+}
@@ -0,0 +1,76 @@
+package transaction_service.transaction_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import transaction_service.transaction_service.dto.TransactionResponseDto;
+import transaction_service.transaction_service.model.Status;
+import transaction_service.transaction_service.model.Transaction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyServiceTest {
+    private static final Long USER_ID = 1L;
+
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        idempotencyService = new IdempotencyService(meterRegistry, 1_000, 2);
+    }
+
+    @Test
+    @DisplayName("Unregistered key reported as new and counted as a skipped lookup")
+    void mightExist_newKey() {
+        assertFalse(idempotencyService.mightExist("key-1"));
+
+        idempotencyService.register("key-1");
+
+        assertTrue(idempotencyService.mightExist("key-1"));
+        assertEquals(1.0, meterRegistry.counter("transaction.idempotency.lookup_skipped").count());
+    }
+
+    @Test
+    @DisplayName("Final response replayed to its owner only")
+    void replay_ownerOnly() {
+        TransactionResponseDto response = new TransactionResponseDto();
+        idempotencyService.remember(tx("key-1", Status.COMPLETED), response);
+
+        assertSame(response, idempotencyService.replay("key-1", USER_ID).orElseThrow());
+        assertTrue(idempotencyService.replay("key-1", 2L).isEmpty());
+        assertEquals(1.0, meterRegistry.counter("transaction.idempotency.replay_hits").count());
+    }
+
+    @Test
+    @DisplayName("In-flight transaction not cached")
+    void remember_processing_notCached() {
+        idempotencyService.remember(tx("key-1", Status.PROCESSING), new TransactionResponseDto());
+
+        assertTrue(idempotencyService.replay("key-1", USER_ID).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Cache bounded - least recently used response evicted")
+    void remember_evictsLeastRecentlyUsed() {
+        idempotencyService.remember(tx("key-1", Status.COMPLETED), new TransactionResponseDto());
+        idempotencyService.remember(tx("key-2", Status.FAILED), new TransactionResponseDto());
+        idempotencyService.replay("key-1", USER_ID);
+
+        idempotencyService.remember(tx("key-3", Status.COMPLETED), new TransactionResponseDto());
+
+        assertEquals(2, idempotencyService.cachedResponses());
+        assertTrue(idempotencyService.replay("key-1", USER_ID).isPresent());
+        assertTrue(idempotencyService.replay("key-2", USER_ID).isEmpty());
+    }
+
+    private static Transaction tx(String key, Status status) {
+        return Transaction.builder()
+                .userId(USER_ID)
+                .idempotencyKey(key)
+                .status(status)
+                .build();
+    }
+}
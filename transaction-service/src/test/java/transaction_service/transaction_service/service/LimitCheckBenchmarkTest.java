@@ -0,0 +1,126 @@
+package transaction_service.transaction_service.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import transaction_service.transaction_service.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the daily limit check before (SUM over the transaction table) and after (ledger buckets).
+ * Run with {@code ./gradlew :transaction-service:benchmark}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+class LimitCheckBenchmarkTest {
+
+    private static final Long USER_ID = 42L;
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 500;
+    private static final int BATCH_SIZE = 10_000;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    TransactionRepository transactionRepository;
+    @Autowired
+    LimitLedgerService limitLedgerService;
+
+    @ParameterizedTest
+    @ValueSource(ints = {10_000, 1_000_000})
+    void compareCheckLatency(int historicalRows) {
+        Instant now = Instant.now();
+        seed(historicalRows, now);
+
+        BigDecimal legacy = transactionRepository.calculateTotalSpentForUserInLast24Hours(
+                USER_ID, now.minus(24, ChronoUnit.HOURS));
+        BigDecimal ledger = limitLedgerService.getSpentInWindow(USER_ID, now);
+        assertThat(ledger).isEqualByComparingTo(legacy);
+
+        long[] legacyNanos = measure(() -> transactionRepository.calculateTotalSpentForUserInLast24Hours(
+                USER_ID, now.minus(24, ChronoUnit.HOURS)));
+        long[] ledgerNanos = measure(() -> limitLedgerService.getSpentInWindow(USER_ID, now));
+
+        System.out.printf("rows=%d  SUM query p50=%.3fms p99=%.3fms | ledger p50=%.3fms p99=%.3fms%n",
+                historicalRows,
+                percentile(legacyNanos, 50), percentile(legacyNanos, 99),
+                percentile(ledgerNanos, 50), percentile(ledgerNanos, 99));
+    }
+
+    private void seed(int rows, Instant now) {
+        jdbcTemplate.update("DELETE FROM account_ledger_entry");
+        jdbcTemplate.update("DELETE FROM transaction");
+        jdbcTemplate.update("DELETE FROM limit_ledger_bucket");
+
+        // 1% of the rows fall into the last 23 hours, the rest is spread over the past year
+        int recent = Math.max(rows / 100, 1);
+        Map<Instant, BigDecimal> buckets = new HashMap<>();
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        BigDecimal amount = new BigDecimal("1.0000");
+
+        for (int i = 0; i < rows; i++) {
+            Instant createdAt = i < recent
+                    ? now.minusSeconds((long) i * 23 * 3600 / recent)
+                    : now.minus(25, ChronoUnit.HOURS).minusSeconds((long) i * 340 * 24 * 3600 / rows);
+            if (i < recent) {
+                buckets.merge(LimitLedgerService.bucketOf(createdAt), amount, BigDecimal::add);
+            }
+            batch.add(new Object[]{USER_ID, 1L, 2L, amount, "USD", "COMPLETED", Timestamp.from(createdAt),
+                    "bench-" + rows + "-" + i, "TRANSFER", "CREDIT_DONE", BigDecimal.ONE, amount});
+            if (batch.size() == BATCH_SIZE) {
+                insert(batch);
+                batch.clear();
+            }
+        }
+        insert(batch);
+
+        buckets.forEach((bucketStart, total) -> jdbcTemplate.update(
+                "INSERT INTO limit_ledger_bucket (user_id, bucket_start, reserved, committed) VALUES (?, ?, 0, ?)",
+                USER_ID, Timestamp.from(bucketStart), total));
+    }
+
+    private void insert(List<Object[]> batch) {
+        if (batch.isEmpty()) return;
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO transaction (user_id, source_account_id, target_account_id, amount, currency, status,
+                create_at, idempotency_key, transaction_type, transaction_step, exchange_rate, target_amount)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, batch);
+    }
+
+    private long[] measure(Supplier<BigDecimal> check) {
+        for (int i = 0; i < WARMUP; i++) {
+            check.get();
+        }
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            check.get();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private double percentile(long[] sorted, int p) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(p / 100.0 * sorted.length) - 1);
+        return sorted[index] / 1_000_000.0;
+    }
+}
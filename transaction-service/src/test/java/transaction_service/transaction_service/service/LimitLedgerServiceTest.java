@@ -0,0 +1,116 @@
+package transaction_service.transaction_service.service;
+
+import core.core.exception.LimitExceededException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.model.TransactionType;
+import transaction_service.transaction_service.repository.LimitLedgerBucketRepository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LimitLedgerServiceTest {
+
+    @Mock
+    private LimitLedgerBucketRepository bucketRepository;
+
+    @InjectMocks
+    private LimitLedgerService limitLedgerService;
+
+    private final Long userId = 7L;
+    private final Instant now = Instant.parse("2026-10-17T10:42:13Z");
+    private final BigDecimal dailyLimit = new BigDecimal("5000");
+
+    @Test
+    @DisplayName("Window covers the current hour and the 23 before it")
+    void getSpentInWindow_sumsLast24Buckets() {
+        when(bucketRepository.sumSince(userId, Instant.parse("2026-10-16T11:00:00Z")))
+                .thenReturn(new BigDecimal("1200"));
+
+        assertEquals(new BigDecimal("1200"), limitLedgerService.getSpentInWindow(userId, now));
+    }
+
+    @Test
+    @DisplayName("No buckets - spent is zero")
+    void getSpentInWindow_noBuckets_returnsZero() {
+        when(bucketRepository.sumSince(eq(userId), any())).thenReturn(null);
+
+        assertEquals(BigDecimal.ZERO, limitLedgerService.getSpentInWindow(userId, now));
+    }
+
+    @Test
+    @DisplayName("Reservation within limit - reserved in the hour bucket")
+    void reserve_withinLimit_reservesBucket() {
+        BigDecimal amount = new BigDecimal("300");
+        when(bucketRepository.sumSince(eq(userId), any())).thenReturn(new BigDecimal("4800"));
+
+        assertDoesNotThrow(() -> limitLedgerService.reserve(userId, amount, now, dailyLimit));
+
+        verify(bucketRepository).reserve(userId, now.truncatedTo(ChronoUnit.HOURS), amount);
+    }
+
+    @Test
+    @DisplayName("Reservation over limit - throws so the surrounding transaction rolls back")
+    void reserve_overLimit_throws() {
+        BigDecimal amount = new BigDecimal("600");
+        when(bucketRepository.sumSince(eq(userId), any())).thenReturn(new BigDecimal("5100"));
+
+        LimitExceededException ex = assertThrows(LimitExceededException.class,
+                () -> limitLedgerService.reserve(userId, amount, now, dailyLimit));
+
+        assertTrue(ex.getMessage().contains("4500"));
+    }
+
+    @Test
+    @DisplayName("Commit moves the amount of a transfer from reserved to committed")
+    void commit_transfer_updatesBucket() {
+        Transaction tx = transaction(TransactionType.TRANSFER);
+        when(bucketRepository.commit(any(), any(), any())).thenReturn(1);
+
+        limitLedgerService.commit(tx);
+
+        verify(bucketRepository).commit(userId, now.truncatedTo(ChronoUnit.HOURS), tx.getAmount());
+    }
+
+    @Test
+    @DisplayName("Release returns the reserved amount of a withdrawal")
+    void release_withdraw_updatesBucket() {
+        Transaction tx = transaction(TransactionType.WITHDRAW);
+        when(bucketRepository.release(any(), any(), any())).thenReturn(1);
+
+        limitLedgerService.release(tx);
+
+        verify(bucketRepository).release(userId, now.truncatedTo(ChronoUnit.HOURS), tx.getAmount());
+    }
+
+    @Test
+    @DisplayName("Deposits are not tracked by the ledger")
+    void commit_deposit_ignored() {
+        limitLedgerService.commit(transaction(TransactionType.DEPOSIT));
+        limitLedgerService.release(transaction(TransactionType.DEPOSIT));
+
+        verifyNoInteractions(bucketRepository);
+    }
+
+    private Transaction transaction(TransactionType type) {
+        return Transaction.builder()
+                .id(1L)
+                .userId(userId)
+                .amount(new BigDecimal("250"))
+                .transactionType(type)
+                .createdAt(now)
+                .build();
+    }
+}
@@ -9,11 +9,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import transaction_service.transaction_service.mapper.LimitMapper;
+import transaction_service.transaction_service.model.Transaction;
 import transaction_service.transaction_service.model.TransactionLimit;
+import transaction_service.transaction_service.model.TransactionType;
 import transaction_service.transaction_service.repository.TransactionLimitRepository;
-import transaction_service.transaction_service.repository.TransactionRepository;
 import transaction_service.transaction_service.dto.*;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,7 +28,7 @@ class LimitServiceTest {
     @Mock
     private TransactionLimitRepository transactionLimitRepository;
     @Mock
-    private TransactionRepository transactionRepository;
+    private LimitLedgerService limitLedgerService;
     @Mock
     private LimitMapper limitMapper;
     @InjectMocks
@@ -56,7 +58,7 @@ class LimitServiceTest {
         BigDecimal amount = new BigDecimal("100");
         when(transactionLimitRepository.findByUserId(userId)).thenReturn(Optional.empty());
         when(transactionLimitRepository.save(any(TransactionLimit.class))).thenReturn(userLimit);
-        when(transactionRepository.calculateTotalSpentForUserInLast24Hours(eq(userId), any())).thenReturn(BigDecimal.ZERO);
+        when(limitLedgerService.getSpentInWindow(eq(userId), any())).thenReturn(BigDecimal.ZERO);
 
         assertDoesNotThrow(() -> limitService.checkTransactionLimit(userId, amount));
 
@@ -71,7 +73,7 @@ class LimitServiceTest {
 
         assertThrows(LimitExceededException.class, () ->
                 limitService.checkTransactionLimit(userId, expensiveAmount));
-        verifyNoInteractions(transactionRepository);
+        verifyNoInteractions(limitLedgerService);
     }
 
     @Test
@@ -81,7 +83,7 @@ class LimitServiceTest {
         BigDecimal alreadySpent = new BigDecimal("4500"); // 4500 + 600 > 5000
 
         when(transactionLimitRepository.findByUserId(userId)).thenReturn(Optional.of(userLimit));
-        when(transactionRepository.calculateTotalSpentForUserInLast24Hours(eq(userId), any()))
+        when(limitLedgerService.getSpentInWindow(eq(userId), any()))
                 .thenReturn(alreadySpent);
 
         assertThrows(LimitExceededException.class, () ->
@@ -89,15 +91,17 @@ class LimitServiceTest {
     }
 
     @Test
-    @DisplayName("Should handle null spentInLast24h as zero")
-    void checkLimit_HandlesNullSpentAsZero() {
+    @DisplayName("Should read the limit row once and serve later checks from the near-cache")
+    void checkLimit_UsesCachedLimit() {
         BigDecimal amount = new BigDecimal("100");
         when(transactionLimitRepository.findByUserId(userId)).thenReturn(Optional.of(userLimit));
+        when(limitLedgerService.getSpentInWindow(eq(userId), any())).thenReturn(BigDecimal.ZERO);
 
-        when(transactionRepository.calculateTotalSpentForUserInLast24Hours(eq(userId), any()))
-                .thenReturn(null);
+        limitService.checkTransactionLimit(userId, amount);
+        limitService.checkTransactionLimit(userId, amount);
 
-        assertDoesNotThrow(() -> limitService.checkTransactionLimit(userId, amount));
+        verify(transactionLimitRepository, times(1)).findByUserId(userId);
+        verify(transactionLimitRepository, never()).save(any());
     }
 
     @Test
@@ -105,12 +109,50 @@ class LimitServiceTest {
     void checkLimit_Success() {
         BigDecimal amount = new BigDecimal("500");
         when(transactionLimitRepository.findByUserId(userId)).thenReturn(Optional.of(userLimit));
-        when(transactionRepository.calculateTotalSpentForUserInLast24Hours(eq(userId), any()))
+        when(limitLedgerService.getSpentInWindow(eq(userId), any()))
                 .thenReturn(new BigDecimal("1000"));
 
         assertDoesNotThrow(() -> limitService.checkTransactionLimit(userId, amount));
     }
 
+    //reserveDailySpend
+
+    @Test
+    @DisplayName("Should reserve transfer amount against the daily limit")
+    void reserveDailySpend_ReservesTransfer() {
+        Transaction tx = Transaction.builder()
+                .id(1L)
+                .userId(userId)
+                .amount(new BigDecimal("300"))
+                .transactionType(TransactionType.TRANSFER)
+                .createdAt(Instant.now())
+                .build();
+        when(limitLedgerService.tracks(TransactionType.TRANSFER)).thenReturn(true);
+        when(transactionLimitRepository.findByUserId(userId)).thenReturn(Optional.of(userLimit));
+
+        limitService.reserveDailySpend(tx);
+
+        verify(limitLedgerService).reserve(userId, tx.getAmount(), tx.getCreatedAt(), defaultDaily);
+    }
+
+    @Test
+    @DisplayName("Should not reserve deposits")
+    void reserveDailySpend_SkipsDeposit() {
+        Transaction tx = Transaction.builder()
+                .id(1L)
+                .userId(userId)
+                .amount(new BigDecimal("300"))
+                .transactionType(TransactionType.DEPOSIT)
+                .createdAt(Instant.now())
+                .build();
+        when(limitLedgerService.tracks(TransactionType.DEPOSIT)).thenReturn(false);
+
+        limitService.reserveDailySpend(tx);
+
+        verify(limitLedgerService, never()).reserve(any(), any(), any(), any());
+        verifyNoInteractions(transactionLimitRepository);
+    }
+
     //getLimits
 
     @Test
@@ -0,0 +1,118 @@
+package transaction_service.transaction_service.service;
+
+import core.core.dto.TransactionKafkaEvent;
+import core.core.enums.Currency;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+import transaction_service.transaction_service.event.kafka.TransactionEventPublisher;
+import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Events per second to an embedded broker: one acknowledged send per event, as the inline
+ * publish did, against the outbox relay at several batch sizes. Producer batching and
+ * compression come from application.yaml ({@code KAFKA_LINGER_MS} tunes the linger). Run with
+ * {@code ./gradlew :transaction-service:benchmark}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EmbeddedKafka(partitions = 3, topics = TransactionEventPublisher.TOPIC,
+        bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@Tag("benchmark")
+class OutboxRelayBenchmarkTest {
+
+    private static final int EVENTS = 20_000;
+    private static final int BATCH_SIZE = 5_000;
+    private static final int[] RELAY_BATCHES = {50, 500, 2_000};
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    KafkaTemplate<String, TransactionKafkaEvent> kafkaTemplate;
+    @Autowired
+    TransactionEventPublisher eventPublisher;
+    @Autowired
+    TransactionOutboxService outboxService;
+
+    @Test
+    void perEventSendVersusRelay() throws Exception {
+        seed();
+
+        List<TransactionKafkaEvent> events = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            events.add(TransactionKafkaEvent.builder().transactionId((long) i).userId(1L)
+                    .amount(BigDecimal.TEN).currency("USD").transactionType("TRANSFER")
+                    .createdAt(Instant.now()).build());
+        }
+        long start = System.nanoTime();
+        for (TransactionKafkaEvent event : events) {
+            kafkaTemplate.send(TransactionEventPublisher.TOPIC, String.valueOf(event.getTransactionId()), event).get();
+        }
+        double perEvent = EVENTS / ((System.nanoTime() - start) / 1e9);
+        System.out.printf("events=%,d  send+ack per event: %,.0f events/s%n", EVENTS, perEvent);
+
+        for (int relayBatch : RELAY_BATCHES) {
+            jdbcTemplate.update("UPDATE transaction_outbox SET sent_at = NULL, attempts = 0");
+            start = System.nanoTime();
+            long sent = 0;
+            int batch;
+            do {
+                batch = outboxService.relayBatch(relayBatch);
+                sent += batch;
+            } while (batch > 0);
+            double relayed = sent / ((System.nanoTime() - start) / 1e9);
+
+            assertThat(sent).isEqualTo(EVENTS);
+            System.out.printf("events=%,d  outbox relay batch=%,d: %,.0f events/s%n", EVENTS, relayBatch, relayed);
+        }
+    }
+
+    private void seed() {
+        jdbcTemplate.update("DELETE FROM transaction_outbox");
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        Timestamp now = Timestamp.from(Instant.now());
+        for (int i = 0; i < EVENTS; i++) {
+            Transaction tx = Transaction.builder()
+                    .id((long) i)
+                    .userId(1L)
+                    .sourceAccountId(1L)
+                    .targetAccountId(2L)
+                    .amount(BigDecimal.TEN)
+                    .targetAmount(BigDecimal.TEN)
+                    .exchangeRate(BigDecimal.ONE)
+                    .currency(Currency.USD)
+                    .transactionType(TransactionType.TRANSFER)
+                    .createdAt(Instant.now())
+                    .build();
+            batch.add(new Object[]{tx.getId(), TransactionEventPublisher.TOPIC, String.valueOf(tx.getId()),
+                    eventPublisher.outboxOf(tx).getPayload(), now});
+            if (batch.size() == BATCH_SIZE) {
+                insert(batch);
+                batch.clear();
+            }
+        }
+        insert(batch);
+    }
+
+    private void insert(List<Object[]> batch) {
+        if (batch.isEmpty()) return;
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO transaction_outbox (transaction_id, topic, event_key, payload, created_at, attempts)
+                VALUES (?, ?, ?, ?, ?, 0)
+                """, batch);
+    }
+}
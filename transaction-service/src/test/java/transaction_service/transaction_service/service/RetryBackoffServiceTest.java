@@ -0,0 +1,117 @@
+package transaction_service.transaction_service.service;
+
+import core.core.exception.ConflictException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import transaction_service.transaction_service.config.FeignClientInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryBackoffServiceTest {
+    private ThreadPoolTaskScheduler scheduler;
+    private ExecutorService workers;
+    private SimpleMeterRegistry meterRegistry;
+    private RetryBackoffService retryBackoffService;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("test-retry-");
+        scheduler.initialize();
+        workers = Executors.newFixedThreadPool(2, runnable -> new Thread(runnable, "test-retry-worker"));
+        meterRegistry = new SimpleMeterRegistry();
+        retryBackoffService = new RetryBackoffService(scheduler, workers, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+        workers.shutdownNow();
+        FeignClientInterceptor.clearToken();
+    }
+
+    @Test
+    @DisplayName("Delay grows exponentially, stays within the jitter band and is capped")
+    void delay_jitteredExponential() {
+        for (int i = 0; i < 100; i++) {
+            assertBetween(50, 100, retryBackoffService.delay(1));
+            assertBetween(100, 200, retryBackoffService.delay(2));
+            assertBetween(200, 400, retryBackoffService.delay(3));
+            assertBetween(1000, 2000, retryBackoffService.delay(30));
+        }
+    }
+
+    @Test
+    @DisplayName("Budget is per account and fails fast once spent")
+    void tryAcquire_budgetPerAccount() {
+        for (int i = 0; i < RetryBackoffService.ACCOUNT_BUDGET; i++) {
+            assertTrue(retryBackoffService.tryAcquire(1L));
+        }
+        assertFalse(retryBackoffService.tryAcquire(1L));
+        assertTrue(retryBackoffService.tryAcquire(2L));
+        assertTrue(retryBackoffService.tryAcquire(null));
+        assertEquals(1.0, meterRegistry.counter("transaction.retry.budget_exhausted").count());
+    }
+
+    @Test
+    @DisplayName("Retry runs on the worker executor with the caller's token, which is cleared afterwards")
+    void schedule_runsOnWorkerWithToken() {
+        AtomicReference<String> thread = new AtomicReference<>();
+        AtomicReference<String> token = new AtomicReference<>();
+        FeignClientInterceptor.setToken("Bearer test");
+
+        CompletableFuture<String> result = retryBackoffService.schedule(1, () -> {
+            thread.set(Thread.currentThread().getName());
+            token.set(FeignClientInterceptor.currentToken());
+            return CompletableFuture.completedFuture("done");
+        });
+
+        assertEquals("done", result.orTimeout(5, TimeUnit.SECONDS).join());
+        assertEquals("test-retry-worker", thread.get());
+        assertEquals("Bearer test", token.get());
+        assertEquals(1.0, meterRegistry.counter("transaction.retry.scheduled").count());
+    }
+
+    @Test
+    @DisplayName("Exception thrown by the retry fails the returned future with the original cause")
+    void schedule_failurePropagated() {
+        CompletableFuture<String> result = retryBackoffService.schedule(1, () -> {
+            throw new ConflictException("Account is busy");
+        });
+
+        CompletionException ex = assertThrows(CompletionException.class,
+                () -> result.orTimeout(5, TimeUnit.SECONDS).join());
+        assertInstanceOf(ConflictException.class, ex.getCause());
+    }
+
+    @Test
+    @DisplayName("Retry rejected by the worker executor fails the returned future")
+    void schedule_rejected_failsFuture() {
+        workers.shutdown();
+
+        CompletableFuture<String> result = retryBackoffService.schedule(1,
+                () -> CompletableFuture.completedFuture("done"));
+
+        CompletionException ex = assertThrows(CompletionException.class,
+                () -> result.orTimeout(5, TimeUnit.SECONDS).join());
+        assertInstanceOf(RejectedExecutionException.class, ex.getCause());
+    }
+
+    private static void assertBetween(long minMillis, long maxMillis, Duration delay) {
+        assertTrue(delay.toMillis() >= minMillis && delay.toMillis() <= maxMillis,
+                () -> "delay " + delay.toMillis() + "ms outside [" + minMillis + ", " + maxMillis + "]");
+    }
+}
@@ -0,0 +1,134 @@
+package transaction_service.transaction_service.service;
+
+import core.core.exception.ConflictException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Lock contention on a hot account: every transfer loses the lock on its first two attempts.
+ * Compares how long request threads stay busy when the backoff sleeps on them (previous
+ * behaviour, {@code Thread.sleep(100L * attempt)}) against handing retries to the retry
+ * scheduler. Run with {@code ./gradlew :transaction-service:benchmark}.
+ */
+@Tag("benchmark")
+class RetryContentionBenchmarkTest {
+
+    private static final int REQUEST_THREADS = 8;
+    private static final int REQUESTS = 400;
+    private static final int FAILED_ATTEMPTS = 2;
+    private static final long ATTEMPT_MS = 5;
+
+    private ThreadPoolTaskScheduler scheduler;
+    private RetryBackoffService retryBackoffService;
+    private ExecutorService retryWorkers;
+    private ExecutorService requestThreads;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("tx-retry-");
+        scheduler.initialize();
+        retryWorkers = Executors.newFixedThreadPool(REQUEST_THREADS);
+        retryBackoffService = new RetryBackoffService(scheduler, retryWorkers, new SimpleMeterRegistry());
+        requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestThreads.shutdownNow();
+        retryWorkers.shutdownNow();
+        scheduler.shutdown();
+    }
+
+    @Test
+    void compareRequestThreadUtilization() throws Exception {
+        Result blocking = run(this::blockingTransfer);
+        Result scheduled = run(this::scheduledTransfer);
+
+        System.out.printf("blocking  : wall=%dms request-thread busy=%dms utilization=%.0f%% throughput=%.0f req/s%n",
+                blocking.wallMs, blocking.busyMs, blocking.utilization(), blocking.throughput());
+        System.out.printf("scheduled : wall=%dms request-thread busy=%dms utilization=%.0f%% throughput=%.0f req/s%n",
+                scheduled.wallMs, scheduled.busyMs, scheduled.utilization(), scheduled.throughput());
+    }
+
+    private CompletableFuture<Void> blockingTransfer() {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                attempt(attempt);
+                return CompletableFuture.completedFuture(null);
+            } catch (ConflictException e) {
+                sleep(100L * attempt);
+            }
+        }
+    }
+
+    private CompletableFuture<Void> scheduledTransfer() {
+        return scheduledAttempt(1);
+    }
+
+    private CompletableFuture<Void> scheduledAttempt(int attempt) {
+        try {
+            attempt(attempt);
+            return CompletableFuture.completedFuture(null);
+        } catch (ConflictException e) {
+            return retryBackoffService.schedule(attempt, () -> scheduledAttempt(attempt + 1));
+        }
+    }
+
+    private void attempt(int attempt) {
+        sleep(ATTEMPT_MS);
+        if (attempt <= FAILED_ATTEMPTS) {
+            throw new ConflictException("Account is busy");
+        }
+    }
+
+    private Result run(Supplier<CompletableFuture<Void>> transfer) throws Exception {
+        AtomicLong busyNanos = new AtomicLong();
+        List<CompletableFuture<Void>> responses = new ArrayList<>(REQUESTS);
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            CompletableFuture<Void> response = new CompletableFuture<>();
+            responses.add(response);
+            requestThreads.execute(() -> {
+                long begin = System.nanoTime();
+                transfer.get().whenComplete((ignored, error) -> response.complete(null));
+                busyNanos.addAndGet(System.nanoTime() - begin);
+            });
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).get(5, TimeUnit.MINUTES);
+        long wallNanos = System.nanoTime() - start;
+        return new Result(TimeUnit.NANOSECONDS.toMillis(wallNanos), TimeUnit.NANOSECONDS.toMillis(busyNanos.get()));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Result(long wallMs, long busyMs) {
+        double utilization() {
+            return 100.0 * busyMs / (wallMs * (double) REQUEST_THREADS);
+        }
+
+        double throughput() {
+            return REQUESTS * 1000.0 / wallMs;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package transaction_service.transaction_service.service;
+
+import core.core.enums.Currency;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import transaction_service.transaction_service.model.DailySpendRollup;
+import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.model.TransactionCategory;
+import transaction_service.transaction_service.model.TransactionType;
+import transaction_service.transaction_service.repository.DailySpendRollupRepository;
+import transaction_service.transaction_service.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SpendRollupServiceTest {
+
+    @Mock
+    private DailySpendRollupRepository rollupRepository;
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @InjectMocks
+    private SpendRollupService spendRollupService;
+
+    private final Long userId = 7L;
+    private final LocalDate day = LocalDate.parse("2026-10-17");
+
+    @Test
+    @DisplayName("Converted transfer is added under its UTC day, category and debited amount")
+    void record_transfer_addsDebitedAmount() {
+        Transaction tx = Transaction.builder()
+                .id(1L)
+                .userId(userId)
+                .transactionType(TransactionType.TRANSFER)
+                .currency(Currency.USD)
+                .amount(new BigDecimal("100"))
+                .targetAmount(new BigDecimal("92.50"))
+                .category(TransactionCategory.builder().id(3L).name("FOOD").build())
+                .createdAt(Instant.parse("2026-10-17T23:59:59Z"))
+                .build();
+
+        spendRollupService.record(tx);
+
+        verify(rollupRepository).add(userId, day, 3L, "USD", new BigDecimal("100"), 1);
+    }
+
+    @Test
+    @DisplayName("Uncategorized withdrawal goes to the no-category row")
+    void record_uncategorized_usesSentinel() {
+        Transaction tx = Transaction.builder()
+                .userId(userId)
+                .transactionType(TransactionType.WITHDRAW)
+                .currency(Currency.EUR)
+                .amount(new BigDecimal("40"))
+                .createdAt(Instant.parse("2026-10-17T00:00:00Z"))
+                .build();
+
+        spendRollupService.record(tx);
+
+        verify(rollupRepository).add(userId, day, DailySpendRollup.NO_CATEGORY, "EUR", new BigDecimal("40"), 1);
+    }
+
+    @Test
+    @DisplayName("Deposits are not spending")
+    void record_deposit_ignored() {
+        spendRollupService.record(Transaction.builder().transactionType(TransactionType.DEPOSIT).build());
+
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    @DisplayName("Compare reads raw transactions over the same whole days")
+    void compare_matching_noMismatches() {
+        when(transactionRepository.getSpendTotals(userId,
+                Instant.parse("2026-10-11T00:00:00Z"), Instant.parse("2026-10-18T00:00:00Z")))
+                .thenReturn(List.<Object[]>of(new Object[]{null, Currency.USD, new BigDecimal("10.0000"), 2L}));
+        when(rollupRepository.getSpendTotals(userId, day.minusDays(6), day))
+                .thenReturn(List.<Object[]>of(new Object[]{0L, Currency.USD, new BigDecimal("10"), 2L}));
+
+        assertTrue(spendRollupService.compare(userId, day.minusDays(6), day).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Compare reports missing and diverging rows")
+    void compare_diverging_reportsMismatches() {
+        when(transactionRepository.getSpendTotals(eq(userId), any(), any())).thenReturn(List.of(
+                new Object[]{3L, Currency.USD, new BigDecimal("50"), 2L},
+                new Object[]{4L, Currency.EUR, new BigDecimal("5"), 1L}));
+        when(rollupRepository.getSpendTotals(userId, day, day)).thenReturn(List.<Object[]>of(
+                new Object[]{3L, Currency.USD, new BigDecimal("25"), 1L}));
+
+        List<SpendRollupService.Mismatch> mismatches = spendRollupService.compare(userId, day, day);
+
+        assertEquals(2, mismatches.size());
+        assertTrue(mismatches.contains(new SpendRollupService.Mismatch(3L, Currency.USD,
+                new BigDecimal("50"), 2, new BigDecimal("25"), 1)));
+        assertTrue(mismatches.contains(new SpendRollupService.Mismatch(4L, Currency.EUR,
+                new BigDecimal("5"), 1, BigDecimal.ZERO, 0)));
+    }
+}
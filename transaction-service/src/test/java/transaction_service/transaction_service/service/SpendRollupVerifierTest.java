@@ -0,0 +1,89 @@
+package transaction_service.transaction_service.service;
+
+import core.core.enums.Currency;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import transaction_service.transaction_service.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SpendRollupVerifierTest {
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private SpendRollupService spendRollupService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SpendRollupVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        verifier = new SpendRollupVerifier(transactionRepository, spendRollupService, meterRegistry, 2, 7, true);
+    }
+
+    @Test
+    @DisplayName("Sampled users are compared over the last 7 days, mismatches counted")
+    void verifySample_countsMismatches() {
+        when(transactionRepository.countSpendingUsersSince(any())).thenReturn(2L);
+        when(transactionRepository.findSpendingUsersSince(any(), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(spendRollupService.compare(eq(1L), any(), any())).thenReturn(List.of());
+        when(spendRollupService.compare(eq(2L), any(), any())).thenReturn(List.of(new SpendRollupService.Mismatch(
+                3L, Currency.USD, BigDecimal.TEN, 1, BigDecimal.ZERO, 0)));
+
+        assertEquals(1, verifier.verifySample());
+
+        LocalDate to = SpendRollupService.dayOf(Instant.now());
+        verify(spendRollupService).compare(1L, to.minusDays(6), to);
+        assertEquals(2.0, meterRegistry.counter("transaction.rollup.verification.checked").count());
+        assertEquals(1.0, meterRegistry.counter("transaction.rollup.verification.mismatches").count());
+    }
+
+    @Test
+    @DisplayName("No recent spenders - nothing sampled")
+    void verifySample_noUsers() {
+        when(transactionRepository.countSpendingUsersSince(any())).thenReturn(0L);
+
+        assertEquals(0, verifier.verifySample());
+
+        verify(transactionRepository, never()).findSpendingUsersSince(any(), any());
+        verifyNoInteractions(spendRollupService);
+    }
+
+    @Test
+    @DisplayName("A failing user does not stop the sample")
+    void verifySample_failureSkipsUser() {
+        when(transactionRepository.countSpendingUsersSince(any())).thenReturn(2L);
+        when(transactionRepository.findSpendingUsersSince(any(), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(spendRollupService.compare(eq(1L), any(), any())).thenThrow(new IllegalStateException("db down"));
+        when(spendRollupService.compare(eq(2L), any(), any())).thenReturn(List.of());
+
+        assertEquals(0, verifier.verifySample());
+
+        assertEquals(1.0, meterRegistry.counter("transaction.rollup.verification.checked").count());
+    }
+
+    @Test
+    @DisplayName("Disabled verifier checks nothing when scheduled")
+    void scheduledVerification_disabled() {
+        new SpendRollupVerifier(transactionRepository, spendRollupService, meterRegistry, 2, 7, false)
+                .scheduledVerification();
+
+        verifyNoInteractions(transactionRepository, spendRollupService);
+    }
+}
@@ -7,8 +7,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import transaction_service.transaction_service.model.*;
 import transaction_service.transaction_service.repository.TransactionRepository;
+import transaction_service.transaction_service.service.validate.VelocityTracker;
 
 import java.math.BigDecimal;
 
@@ -16,6 +19,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +27,12 @@ public class TransactionCreationServiceTest {
 
     @Mock
     private TransactionRepository transactionRepository;
+    @Mock
+    private LimitService limitService;
+    @Mock
+    private VelocityTracker velocityTracker;
+    @Mock
+    private AccountLedgerService accountLedgerService;
 
     @InjectMocks
     private TransactionCreationService creationService;
@@ -48,14 +58,19 @@ public class TransactionCreationServiceTest {
                 BigDecimal.valueOf(100)
         );
 
-        assertEquals(Status.CREATED, tx.getStatus());
+        assertEquals(Status.PROCESSING, tx.getStatus());
         assertEquals(TransactionStep.NONE, tx.getStep());
+        assertEquals(tx.getCreatedAt(), tx.getUpdatedAt());
+        assertEquals(0, tx.getCreatedAt().getNano());
         assertEquals(BigDecimal.valueOf(100), tx.getAmount());
         assertEquals(BigDecimal.valueOf(100), tx.getTargetAmount());
         assertEquals(BigDecimal.ONE, tx.getExchangeRate());
         assertEquals(Currency.USD, tx.getCurrency());
         assertEquals(userId, tx.getUserId());
         verify(transactionRepository).save(any());
+        verify(accountLedgerService).append(tx);
+        verify(limitService).reserveDailySpend(tx);
+        verify(velocityTracker).record(userId, tx.getId(), tx.getCreatedAt());
     }
     @Test
     @DisplayName("Create transaction with exchange rate - targetAmount calculated correctly")
@@ -100,4 +115,22 @@ public class TransactionCreationServiceTest {
         assertEquals(TransactionType.DEPOSIT, tx.getTransactionType());
         verify(transactionRepository).save(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Inside a DB transaction the velocity entry is recorded only after the commit")
+    void createTransaction_velocityRecordedAfterCommit() {
+        when(transactionRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            Transaction tx = creationService.createTransaction(
+                    sourceId, targetId, BigDecimal.TEN, Currency.USD, TransactionType.TRANSFER,
+                    "idempotency-4", userId, null, BigDecimal.ONE, BigDecimal.TEN);
+
+            verifyNoInteractions(velocityTracker);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(velocityTracker).record(userId, tx.getId(), tx.getCreatedAt());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
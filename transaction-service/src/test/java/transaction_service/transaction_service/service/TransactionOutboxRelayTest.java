@@ -0,0 +1,66 @@
+package transaction_service.transaction_service.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionOutboxRelayTest {
+    @Mock
+    private TransactionOutboxService outboxService;
+
+    private TransactionOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new TransactionOutboxRelay(outboxService, 100, Duration.ofHours(24), true);
+    }
+
+    @Test
+    @DisplayName("Full batches are relayed back to back until one comes back short")
+    void drain_untilShortBatch() {
+        when(outboxService.relayBatch(100)).thenReturn(100, 100, 7);
+
+        assertEquals(207, relay.drain());
+
+        verify(outboxService, times(3)).relayBatch(100);
+    }
+
+    @Test
+    @DisplayName("A failing batch ends the run without escaping the scheduler")
+    void drain_failureStopsRun() {
+        when(outboxService.relayBatch(100)).thenReturn(100).thenThrow(new IllegalStateException("db down"));
+
+        assertEquals(100, relay.drain());
+    }
+
+    @Test
+    @DisplayName("Purge removes rows sent before the retention window")
+    void purge_usesRetention() {
+        Instant before = Instant.now().minus(Duration.ofHours(24));
+
+        relay.purge();
+
+        verify(outboxService).purgeSent(argThat(cutoff -> !cutoff.isBefore(before)));
+    }
+
+    @Test
+    @DisplayName("Disabled relay neither relays nor purges when scheduled")
+    void scheduled_disabled() {
+        relay = new TransactionOutboxRelay(outboxService, 100, Duration.ofHours(24), false);
+
+        relay.scheduledDrain();
+        relay.purge();
+
+        verifyNoInteractions(outboxService);
+    }
+}
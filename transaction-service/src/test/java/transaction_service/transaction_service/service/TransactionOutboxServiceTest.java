@@ -0,0 +1,107 @@
+package transaction_service.transaction_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import transaction_service.transaction_service.event.kafka.TransactionEventPublisher;
+import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.model.TransactionOutbox;
+import transaction_service.transaction_service.repository.TransactionOutboxRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionOutboxServiceTest {
+    @Mock
+    private TransactionOutboxRepository outboxRepository;
+    @Mock
+    private TransactionEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TransactionOutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        outboxService = new TransactionOutboxService(outboxRepository, eventPublisher, meterRegistry);
+    }
+
+    private TransactionOutbox row(long id) {
+        return TransactionOutbox.builder().id(id).transactionId(id * 10).build();
+    }
+
+    @Test
+    @DisplayName("Enqueue saves the row built by the publisher")
+    void enqueue_savesRow() {
+        Transaction tx = Transaction.builder().id(5L).build();
+        TransactionOutbox row = row(1L);
+        when(eventPublisher.outboxOf(tx)).thenReturn(row);
+
+        outboxService.enqueue(tx);
+
+        verify(outboxRepository).save(row);
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Empty outbox - nothing published")
+    void relayBatch_empty() {
+        when(outboxRepository.claimPending(PageRequest.of(0, 100))).thenReturn(List.of());
+
+        assertEquals(0, outboxService.relayBatch(100));
+
+        verifyNoInteractions(eventPublisher);
+        verify(outboxRepository, never()).markSent(any(), any());
+    }
+
+    @Test
+    @DisplayName("Acknowledged rows marked sent, the rest count an attempt")
+    void relayBatch_partialFailure() {
+        List<TransactionOutbox> batch = List.of(row(1L), row(2L), row(3L));
+        when(outboxRepository.claimPending(PageRequest.of(0, 3))).thenReturn(batch);
+        when(eventPublisher.publish(batch)).thenReturn(List.of(1L, 3L));
+
+        assertEquals(2, outboxService.relayBatch(3));
+
+        verify(outboxRepository).markSent(eq(List.of(1L, 3L)), any(Instant.class));
+        verify(outboxRepository).recordFailure(List.of(2L));
+        assertEquals(2.0, meterRegistry.counter("transaction.outbox.published").count());
+        assertEquals(1.0, meterRegistry.counter("transaction.outbox.failed").count());
+    }
+
+    @Test
+    @DisplayName("Broker down - nothing marked sent, every row counts an attempt")
+    void relayBatch_allFailed() {
+        List<TransactionOutbox> batch = List.of(row(1L), row(2L));
+        when(outboxRepository.claimPending(any())).thenReturn(batch);
+        when(eventPublisher.publish(batch)).thenReturn(List.of());
+
+        assertEquals(0, outboxService.relayBatch(10));
+
+        verify(outboxRepository, never()).markSent(any(), any());
+        verify(outboxRepository).recordFailure(List.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Whole batch acknowledged - no failure update")
+    void relayBatch_allSent() {
+        List<TransactionOutbox> batch = List.of(row(1L), row(2L));
+        when(outboxRepository.claimPending(any())).thenReturn(batch);
+        when(eventPublisher.publish(batch)).thenReturn(List.of(1L, 2L));
+
+        assertEquals(2, outboxService.relayBatch(2));
+
+        verify(outboxRepository, never()).recordFailure(any());
+    }
+}
@@ -0,0 +1,53 @@
+package transaction_service.transaction_service.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import transaction_service.transaction_service.model.Status;
+import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.repository.TransactionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionRecoveryClaimServiceTest {
+    @Mock
+    private TransactionRepository transactionRepository;
+    @InjectMocks
+    private TransactionRecoveryClaimService claimService;
+
+    @Test
+    @DisplayName("Claimed rows are leased until now plus the lease")
+    void claim_leasesBatch() {
+        Instant threshold = Instant.now().minus(Duration.ofMinutes(5));
+        Instant before = Instant.now();
+        List<Transaction> batch = List.of(Transaction.builder().id(4L).build(), Transaction.builder().id(6L).build());
+        when(transactionRepository.claimStuck(eq(Status.PROCESSING), eq(threshold), any(Instant.class),
+                eq(PageRequest.of(0, 50)))).thenReturn(batch);
+
+        assertEquals(batch, claimService.claim(threshold, Duration.ofMinutes(10), 50));
+
+        verify(transactionRepository).leaseForRecovery(eq(List.of(4L, 6L)),
+                argThat(until -> !until.isBefore(before.plus(Duration.ofMinutes(10)))));
+    }
+
+    @Test
+    @DisplayName("Nothing is leased when nothing is stuck")
+    void claim_empty() {
+        when(transactionRepository.claimStuck(any(), any(), any(), any())).thenReturn(List.of());
+
+        assertTrue(claimService.claim(Instant.now(), Duration.ofMinutes(10), 50).isEmpty());
+
+        verify(transactionRepository, never()).leaseForRecovery(any(), any());
+    }
+}
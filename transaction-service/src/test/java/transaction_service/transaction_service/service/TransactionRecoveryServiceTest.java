@@ -1,45 +1,59 @@
 package transaction_service.transaction_service.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
 import transaction_service.transaction_service.model.*;
-import transaction_service.transaction_service.repository.TransactionRepository;
 import transaction_service.transaction_service.service.strategy.FinancialOperationStrategy;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class TransactionRecoveryServiceTest {
 
+    private static final Duration TIMEOUT = Duration.ofMinutes(5);
+    private static final Duration LEASE = Duration.ofMinutes(10);
+
     @Mock
-    private TransactionRepository transactionRepository;
+    private TransactionRecoveryClaimService claimService;
     @Mock
     private TransactionStateService transactionStateService;
     @Mock
     private FinancialOperationStrategy transferStrategy;
-    @InjectMocks
+    private SimpleMeterRegistry meterRegistry;
     private TransactionRecoveryService recoveryService;
-    private Map<TransactionType, FinancialOperationStrategy> strategies;
 
     private Transaction stuckTx;
 
     @BeforeEach
     void setUp() {
-        stuckTx = Transaction.builder()
-                .id(999L)
+        stuckTx = stuckTx(999L);
+        meterRegistry = new SimpleMeterRegistry();
+        recoveryService = recoveryService(2);
+    }
+
+    private TransactionRecoveryService recoveryService(int batchSize) {
+        return new TransactionRecoveryService(claimService, transactionStateService,
+                Map.of(TransactionType.TRANSFER, transferStrategy), Runnable::run, meterRegistry,
+                TIMEOUT, LEASE, batchSize, true);
+    }
+
+    private Transaction stuckTx(Long id) {
+        return Transaction.builder()
+                .id(id)
                 .status(Status.PROCESSING)
                 .transactionType(TransactionType.TRANSFER)
                 .sourceAccountId(1L)
@@ -48,54 +62,90 @@ class TransactionRecoveryServiceTest {
                 .step(TransactionStep.DEBIT_DONE)
                 .updatedAt(Instant.now().minus(10, ChronoUnit.MINUTES))
                 .build();
-        strategies = Map.of(TransactionType.TRANSFER, transferStrategy);
-        ReflectionTestUtils.setField(recoveryService, "strategies", strategies);
     }
 
     @Test
     @DisplayName("Should do nothing when no stuck transactions found")
     void recover_NoStuckTransactions() {
-        when(transactionRepository.findByStatusAndUpdatedAtBefore(eq(Status.PROCESSING), any(Instant.class)))
-                .thenReturn(List.of());
+        when(claimService.claim(any(Instant.class), eq(LEASE), eq(2))).thenReturn(List.of());
 
-        recoveryService.recoverStuckTransactions();
+        assertEquals(0, recoveryService.recoverStuckTransactions());
 
         verifyNoInteractions(transferStrategy);
-        verify(transactionStateService, never()).updateStatus(anyLong(), any(), any());
+        verify(transactionStateService, never()).complete(any());
+        verify(transactionStateService, never()).fail(any(), any());
     }
 
     @Test
     @DisplayName("Should successfully recover and complete a stuck transaction")
     void recover_SuccessfulRecovery() {
-        when(transactionRepository.findByStatusAndUpdatedAtBefore(eq(Status.PROCESSING), any(Instant.class)))
-                .thenReturn(List.of(stuckTx));
+        when(claimService.claim(any(Instant.class), eq(LEASE), eq(2))).thenReturn(List.of(stuckTx));
+        when(transactionStateService.complete(stuckTx)).thenReturn(true);
+
+        assertEquals(1, recoveryService.recoverStuckTransactions());
 
-        recoveryService.recoverStuckTransactions();
         verify(transferStrategy).execute(
                 eq(stuckTx),
                 eq(1L),
                 eq(2L),
                 eq(new BigDecimal("100.00"))
         );
-
-        verify(transactionStateService).updateStatus(eq(999L), eq(Status.COMPLETED), isNull());
+        verify(transactionStateService).complete(stuckTx);
+        assertEquals(1.0, meterRegistry.counter("transaction.recovery.completed").count());
     }
 
     @Test
     @DisplayName("Should mark transaction as FAILED if recovery throws exception")
     void recover_FailedRecovery() {
-        when(transactionRepository.findByStatusAndUpdatedAtBefore(eq(Status.PROCESSING), any(Instant.class)))
-                .thenReturn(List.of(stuckTx));
-
+        when(claimService.claim(any(Instant.class), eq(LEASE), eq(2))).thenReturn(List.of(stuckTx));
         doThrow(new RuntimeException("Network error"))
                 .when(transferStrategy).execute(any(), any(), any(), any());
+        when(transactionStateService.fail(any(), any())).thenReturn(true);
 
         recoveryService.recoverStuckTransactions();
 
-        verify(transactionStateService).updateStatus(
-                eq(999L),
-                eq(Status.FAILED),
+        verify(transactionStateService).fail(
+                eq(stuckTx),
                 contains("Recovery failed: Network error")
         );
+        assertEquals(1.0, meterRegistry.counter("transaction.recovery.failed").count());
+    }
+
+    @Test
+    @DisplayName("Batches are claimed until one comes back short")
+    void recover_drainsFullBatches() {
+        Instant before = Instant.now();
+        when(claimService.claim(any(Instant.class), eq(LEASE), eq(2)))
+                .thenReturn(List.of(stuckTx(1L), stuckTx(2L)), List.of(stuckTx(3L)));
+        when(transactionStateService.complete(any())).thenReturn(true);
+
+        assertEquals(3, recoveryService.recoverStuckTransactions());
+
+        verify(claimService, times(2)).claim(
+                argThat(threshold -> !threshold.isAfter(Instant.now().minus(TIMEOUT))
+                        && threshold.isAfter(before.minus(TIMEOUT).minusSeconds(1))),
+                eq(LEASE), eq(2));
+        verify(transferStrategy, times(3)).execute(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("A failing claim ends the run without escaping the scheduler")
+    void recover_claimFailure() {
+        when(claimService.claim(any(Instant.class), eq(LEASE), eq(2)))
+                .thenThrow(new IllegalStateException("db down"));
+
+        assertEquals(0, recoveryService.recoverStuckTransactions());
+
+        verifyNoInteractions(transferStrategy);
+    }
+
+    @Test
+    @DisplayName("Scheduled run does nothing when recovery is disabled")
+    void scheduledRecovery_disabled() {
+        new TransactionRecoveryService(claimService, transactionStateService,
+                Map.of(TransactionType.TRANSFER, transferStrategy), Runnable::run, meterRegistry,
+                TIMEOUT, LEASE, 2, false).scheduledRecovery();
+
+        verifyNoInteractions(claimService);
     }
 }
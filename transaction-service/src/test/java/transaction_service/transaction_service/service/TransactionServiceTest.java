@@ -11,14 +11,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 import transaction_service.transaction_service.dto.DepositRequestDto;
+import transaction_service.transaction_service.dto.HistorySliceResponse;
 import transaction_service.transaction_service.dto.TransactionRequestDto;
 import core.core.exception.*;
 import transaction_service.transaction_service.dto.TransactionResponseDto;
+import transaction_service.transaction_service.dto.TransactionStatusDto;
 import transaction_service.transaction_service.dto.ValidationResult;
-import transaction_service.transaction_service.event.kafka.TransactionEventPublisher;
 import transaction_service.transaction_service.mapper.TransactionMapper;
 import transaction_service.transaction_service.model.*;
+import transaction_service.transaction_service.repository.AccountLedgerEntryRepository;
 import transaction_service.transaction_service.repository.TransactionRepository;
 import transaction_service.transaction_service.service.strategy.FinancialOperationStrategy;
 import org.springframework.dao.PessimisticLockingFailureException;
@@ -30,8 +33,11 @@ import transaction_service.transaction_service.service.validate.TransactionValid
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -67,7 +73,11 @@ public class TransactionServiceTest {
     @Mock
     private ParallelValidationService parallelValidationService;
     @Mock
-    private TransactionEventPublisher transactionEventPublisher;
+    private TransferWorkQueue transferWorkQueue;
+    @Mock
+    private IdempotencyService idempotencyService;
+    @Mock
+    private AccountLedgerEntryRepository accountLedgerEntryRepository;
 
 
     private TransactionService transactionService;
@@ -99,11 +109,19 @@ public class TransactionServiceTest {
                 strategyList,
                 transactionValidationService,
                 accountAccessService,
-                accountOperationService,
                 transactionCreationService,
                 retryBackoffService,
                 parallelValidationService,
-                transactionEventPublisher
+                new TransferPrefetchService(
+                        accountOperationService,
+                        categoryService,
+                        transactionRepository,
+                        idempotencyService,
+                        Runnable::run
+                ),
+                transferWorkQueue,
+                idempotencyService,
+                accountLedgerEntryRepository
         );
 
         transferDto = TransactionRequestDto.builder()
@@ -137,7 +155,7 @@ public class TransactionServiceTest {
                 .amount(BigDecimal.valueOf(100))
                 .targetAmount(BigDecimal.valueOf(100))
                 .currency(Currency.USD)
-                .status(Status.CREATED)
+                .status(Status.PROCESSING)
                 .transactionType(TransactionType.TRANSFER)
                 .step(TransactionStep.NONE)
                 .createdAt(Instant.now())
@@ -156,6 +174,11 @@ public class TransactionServiceTest {
                 .idempotencyKey(idempotencyKey)
                 .build();
         lenient().when(categoryService.validateAndGetCategory(any(), any(), any())).thenReturn(null);
+        lenient().when(transactionStateService.complete(any())).thenReturn(true);
+        lenient().when(retryBackoffService.tryAcquire(any())).thenReturn(true);
+        lenient().when(idempotencyService.mightExist(any())).thenReturn(true);
+        lenient().when(retryBackoffService.schedule(anyInt(), any()))
+                .thenAnswer(i -> i.<Supplier<CompletableFuture<?>>>getArgument(1).get());
 //        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any()))
 //                .thenReturn(ValidationResult.builder()
 //                        .rate(BigDecimal.ONE)
@@ -166,7 +189,7 @@ public class TransactionServiceTest {
     @Test
     @DisplayName("Succeed transfer (same currency)")
     void transfer_succeed_sameCurrency() {
-        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any()))
+        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any(), anyBoolean()))
                 .thenReturn(ValidationResult.builder()
                         .rate(BigDecimal.ONE)
                         .targetAmount(BigDecimal.valueOf(100))
@@ -178,14 +201,9 @@ public class TransactionServiceTest {
                 any(), any(), any(), any(), any(), any(), any(), any(),any(),any()))
                 .thenReturn(txCreated);
 
-        when(transactionRepository.findById(TX_ID))
-                .thenReturn(Optional.of(txCreated));
-
-        when(accountAccessService.validateAccountOwnership(1L, userId))
-                .thenReturn(fromAccount);
 
-        when(accountOperationService.getAccountById(2L))
-                .thenReturn(toAccount);
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, fromAccount, 2L, toAccount));
 
         when(transactionMapper.toDto(any()))
                 .thenReturn(new TransactionResponseDto());
@@ -202,23 +220,41 @@ public class TransactionServiceTest {
                 eq(BigDecimal.valueOf(100))
         );
 
-        verify(transactionStateService)
-                .updateStatus(TX_ID, Status.COMPLETED, null);
+        verify(transactionStateService).complete(txCreated);
+        verify(transactionRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Admit transfer inline - limit and fraud checks run on the calling thread")
+    void admitTransfer_inline_validatesInline() {
+        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any(), eq(true)))
+                .thenReturn(ValidationResult.builder()
+                        .rate(BigDecimal.ONE)
+                        .targetAmount(BigDecimal.valueOf(100))
+                        .build());
+        when(transactionRepository.findByIdempotencyKey(idempotencyKey))
+                .thenReturn(Optional.empty());
+        when(transactionCreationService.createTransaction(
+                any(), any(), any(), any(), any(), any(), any(), any(),any(),any()))
+                .thenReturn(txCreated);
+
+        TransactionService.Admission admission = transactionService.admitTransfer(transferDto, userId,
+                idempotencyKey, Map.of(1L, fromAccount, 2L, toAccount), true);
+
+        assertTrue(admission.created());
+        verify(transferStrategy, never()).execute(any(), any(), any(), any());
     }
 
     @Test
     @DisplayName("SAGA: Debit failed -> FAILED status strategy")
     void testDebitFails_Strategy() {
-        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any()))
+        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any(), anyBoolean()))
                 .thenReturn(ValidationResult.builder()
                         .rate(BigDecimal.ONE)
                         .targetAmount(BigDecimal.valueOf(100))
                         .build());
-        when(accountAccessService.validateAccountOwnership(1L, userId))
-                .thenReturn(fromAccount);
-
-        when(accountOperationService.getAccountById(2L))
-                .thenReturn(toAccount);
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, fromAccount, 2L, toAccount));
 
         AtomicReference<Transaction> savedTx = new AtomicReference<>(txCreated);
 
@@ -234,8 +270,6 @@ public class TransactionServiceTest {
                     return tx;
                 });
 
-        when(transactionRepository.findById(anyLong()))
-                .thenAnswer(invocation -> Optional.of(savedTx.get()));
 
         doThrow(new BadRequestException("Debit failed"))
                 .when(transferStrategy)
@@ -247,7 +281,7 @@ public class TransactionServiceTest {
         verify(transferStrategy)
                 .execute(any(Transaction.class), eq(1L), eq(2L), any());
         verify(transactionStateService)
-                .updateStatus(TX_ID, Status.FAILED, "Debit failed");
+                .fail(any(Transaction.class), eq("Debit failed"));
     }
 
     @Test
@@ -263,12 +297,12 @@ public class TransactionServiceTest {
                 .amount(new BigDecimal("500"))
                 .targetAmount(new BigDecimal("500"))
                 .currency(Currency.USD)
-                .status(Status.CREATED)
+                .status(Status.PROCESSING)
                 .transactionType(TransactionType.DEPOSIT)
                 .step(TransactionStep.NONE)
                 .idempotencyKey(idempotencyKey)
                 .build();
-        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any()))
+        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any(), anyBoolean()))
                 .thenReturn(ValidationResult.builder()
                         .rate(BigDecimal.ONE)
                         .targetAmount(BigDecimal.valueOf(100))
@@ -280,8 +314,6 @@ public class TransactionServiceTest {
                 any(), any(), any(), any(), any(), any(), any(), any(),any(),any()))
                 .thenReturn(depositTx);
 
-        when(transactionRepository.findById(TX_ID))
-                .thenReturn(Optional.of(depositTx));
 
         when(accountAccessService.validateAccountOwnership(1L, userId))
                 .thenReturn(fromAccount);
@@ -301,14 +333,13 @@ public class TransactionServiceTest {
                 eq(new BigDecimal("500"))
         );
 
-        verify(transactionStateService)
-                .updateStatus(TX_ID, Status.COMPLETED, null);
+        verify(transactionStateService).complete(depositTx);
     }
 
     @Test
     @DisplayName("Strategy throws -> status FAILED")
     void transfer_strategyFails_statusFailed() {
-        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any()))
+        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any(), anyBoolean()))
                 .thenReturn(ValidationResult.builder()
                         .rate(BigDecimal.ONE)
                         .targetAmount(BigDecimal.valueOf(100))
@@ -320,14 +351,9 @@ public class TransactionServiceTest {
                 any(), any(), any(), any(), any(), any(), any(), any(),any(),any()))
                 .thenReturn(txCreated);
 
-        when(transactionRepository.findById(TX_ID))
-                .thenReturn(Optional.of(txCreated));
-
-        when(accountAccessService.validateAccountOwnership(1L, userId))
-                .thenReturn(fromAccount);
 
-        when(accountOperationService.getAccountById(2L))
-                .thenReturn(toAccount);
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, fromAccount, 2L, toAccount));
 
         doThrow(new RuntimeException("Credit failed"))
                 .when(transferStrategy)
@@ -336,9 +362,8 @@ public class TransactionServiceTest {
         assertThrows(InternalServerErrorException.class,
                 () -> transactionService.transfer(transferDto, userId, idempotencyKey));
 
-        verify(transactionStateService).updateStatus(
-                eq(TX_ID),
-                eq(Status.FAILED),
+        verify(transactionStateService).fail(
+                any(Transaction.class),
                 eq("Unexpected error: Credit failed")
         );
     }
@@ -347,7 +372,7 @@ public class TransactionServiceTest {
     @Test
     @DisplayName("Unexpected exception during SAGA -> FAILED + InternalServerErrorException")
     void testUnexpectedExceptionDuringSaga() {
-        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any()))
+        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any(), anyBoolean()))
                 .thenReturn(ValidationResult.builder()
                         .rate(BigDecimal.ONE)
                         .targetAmount(BigDecimal.valueOf(100))
@@ -359,14 +384,9 @@ public class TransactionServiceTest {
                 any(), any(), any(), any(), any(), any(), any(), any(),any(),any()))
                 .thenReturn(txCreated);
 
-        when(transactionRepository.findById(TX_ID))
-                .thenReturn(Optional.of(txCreated));
-
-        when(accountAccessService.validateAccountOwnership(1L, userId))
-                .thenReturn(fromAccount);
 
-        when(accountOperationService.getAccountById(2L))
-                .thenReturn(toAccount);
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, fromAccount, 2L, toAccount));
 
         doThrow(new RuntimeException("DB lost"))
                 .when(transferStrategy)
@@ -376,22 +396,19 @@ public class TransactionServiceTest {
                 () -> transactionService.transfer(transferDto, userId, idempotencyKey));
 
         verify(transactionStateService, atLeastOnce())
-                .updateStatus(eq(TX_ID), eq(Status.FAILED), contains("DB lost"));
+                .fail(any(Transaction.class), contains("DB lost"));
     }
 
     @Test
     @DisplayName("Should throw LimitExceededException and stop process")
     void testLimitExceeded() {
-        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any()))
+        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any(), anyBoolean()))
                 .thenReturn(ValidationResult.builder()
                         .rate(BigDecimal.ONE)
                         .targetAmount(BigDecimal.valueOf(100))
                         .build());
-        when(accountAccessService.validateAccountOwnership(1L, userId))
-                .thenReturn(fromAccount);
-
-        when(accountOperationService.getAccountById(2L))
-                .thenReturn(toAccount);
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, fromAccount, 2L, toAccount));
         when(transactionRepository.findByIdempotencyKey(idempotencyKey))
                 .thenReturn(Optional.empty());
         when(transactionCreationService.createTransaction(
@@ -408,7 +425,7 @@ public class TransactionServiceTest {
     @Test
     @DisplayName("Retries with backoff on pessimistic lock conflict")
     void retriesWithBackoffOnPessimisticLock() throws Exception {
-        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any()))
+        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any(), anyBoolean()))
                 .thenReturn(ValidationResult.builder()
                         .rate(BigDecimal.ONE)
                         .targetAmount(BigDecimal.valueOf(100))
@@ -420,14 +437,9 @@ public class TransactionServiceTest {
                 any(), any(), any(), any(), any(), any(), any(), any(),any(),any()))
                 .thenReturn(txCreated);
 
-        when(transactionRepository.findById(TX_ID))
-                .thenReturn(Optional.of(txCreated));
-
-        when(accountAccessService.validateAccountOwnership(1L, userId))
-                .thenReturn(fromAccount);
 
-        when(accountOperationService.getAccountById(2L))
-                .thenReturn(toAccount);
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, fromAccount, 2L, toAccount));
 
         when(transactionMapper.toDto(any()))
                 .thenReturn(new TransactionResponseDto());
@@ -443,17 +455,52 @@ public class TransactionServiceTest {
                 .when(transferStrategy)
                 .execute(any(Transaction.class), eq(1L), eq(2L), any());
 
-        doNothing().when(retryBackoffService).backoff(anyInt());
-
         TransactionResponseDto result =
                 transactionService.transfer(transferDto, userId, idempotencyKey);
 
         assertNotNull(result);
-        verify(retryBackoffService).backoff(1);
-        verify(retryBackoffService).backoff(2);
-        verify(transactionStateService, atLeastOnce())
-                .updateStatus(eq(TX_ID), eq(Status.PROCESSING), anyString());
+        verify(retryBackoffService).schedule(eq(1), any());
+        verify(retryBackoffService).schedule(eq(2), any());
+        verify(retryBackoffService, times(2)).tryAcquire(1L);
+        verify(transferStrategy, times(3))
+                .execute(any(Transaction.class), eq(1L), eq(2L), any());
+        verify(transactionStateService).complete(txCreated);
+    }
+    @Test
+    @DisplayName("Lock conflict on the credit leg is charged to the target account's retry budget")
+    void creditLegConflict_chargesTargetBudget() {
+        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any(), anyBoolean()))
+                .thenReturn(ValidationResult.builder()
+                        .rate(BigDecimal.ONE)
+                        .targetAmount(BigDecimal.valueOf(100))
+                        .build());
+        when(transactionRepository.findByIdempotencyKey(idempotencyKey))
+                .thenReturn(Optional.empty());
+        when(transactionCreationService.createTransaction(
+                any(), any(), any(), any(), any(), any(), any(), any(),any(),any()))
+                .thenReturn(txCreated);
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, fromAccount, 2L, toAccount));
+        when(transactionMapper.toDto(any()))
+                .thenReturn(new TransactionResponseDto());
+
+        ConflictException lockConflict = new ConflictException(
+                "Account is busy",
+                new PessimisticLockingFailureException("lock")
+        );
+        doAnswer(i -> {
+            i.<Transaction>getArgument(0).setStep(TransactionStep.DEBIT_DONE);
+            throw lockConflict;
+        }).doNothing()
+                .when(transferStrategy)
+                .execute(any(Transaction.class), eq(1L), eq(2L), any());
+
+        assertNotNull(transactionService.transfer(transferDto, userId, idempotencyKey));
+
+        verify(retryBackoffService).tryAcquire(2L);
+        verify(retryBackoffService, never()).tryAcquire(1L);
     }
+
     @Test
     @DisplayName("Idempotency: Existing COMPLETED transaction")
     void testIdempotency_Completed() {
@@ -461,11 +508,8 @@ public class TransactionServiceTest {
         txInProgress.setStatus(Status.COMPLETED);
         txInProgress.setStep(TransactionStep.CREDIT_DONE);
 
-        when(accountAccessService.validateAccountOwnership(1L, userId))
-                .thenReturn(fromAccount);
-
-        when(accountOperationService.getAccountById(2L))
-                .thenReturn(toAccount);
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, fromAccount, 2L, toAccount));
 
         when(transactionRepository.findByIdempotencyKey(idempotencyKey))
                 .thenReturn(Optional.of(txInProgress));
@@ -492,11 +536,8 @@ public class TransactionServiceTest {
 
         txInProgress.setStatus(Status.PROCESSING);
 
-        when(accountAccessService.validateAccountOwnership(1L, userId))
-                .thenReturn(fromAccount);
-
-        when(accountOperationService.getAccountById(2L))
-                .thenReturn(toAccount);
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, fromAccount, 2L, toAccount));
 
         when(transactionRepository.findByIdempotencyKey(idempotencyKey))
                 .thenReturn(Optional.of(txInProgress));
@@ -522,11 +563,8 @@ public class TransactionServiceTest {
     @DisplayName("Idempotency: Concurrent creation -> DataIntegrityViolation")
     void testIdempotency_ConcurrentCreation() {
 
-        when(accountAccessService.validateAccountOwnership(1L, userId))
-                .thenReturn(fromAccount);
-
-        when(accountOperationService.getAccountById(2L))
-                .thenReturn(toAccount);
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, fromAccount, 2L, toAccount));
         when(transactionMapper.toDto(any(Transaction.class)))
                 .thenAnswer(invocation -> {
                     Transaction tx = invocation.getArgument(0);
@@ -536,7 +574,7 @@ public class TransactionServiceTest {
                             .amount(tx.getAmount())
                             .build();
                 });
-        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any()))
+        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any(), anyBoolean()))
                 .thenReturn(ValidationResult.builder()
                         .rate(BigDecimal.ONE)
                         .targetAmount(BigDecimal.valueOf(100))
@@ -559,12 +597,9 @@ public class TransactionServiceTest {
     @DisplayName("Retry: Success on second attempt")
     void testRetry_SucceedsOnSecondAttempt() {
 
-        when(accountAccessService.validateAccountOwnership(1L, userId))
-                .thenReturn(fromAccount);
-
-        when(accountOperationService.getAccountById(2L))
-                .thenReturn(toAccount);
-        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any()))
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, fromAccount, 2L, toAccount));
+        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any(), anyBoolean()))
                 .thenReturn(ValidationResult.builder()
                         .rate(BigDecimal.ONE)
                         .targetAmount(BigDecimal.valueOf(100))
@@ -576,8 +611,6 @@ public class TransactionServiceTest {
                 any(), any(), any(), any(), any(), any(), any(), any(),any(),any()))
                 .thenReturn(txCreated);
 
-        when(transactionRepository.findById(TX_ID))
-                .thenReturn(Optional.of(txCreated));
 
         var lockEx = new PessimisticLockingFailureException("Locked");
         var conflictEx = new ConflictException("Busy", lockEx);
@@ -607,12 +640,9 @@ public class TransactionServiceTest {
     @DisplayName("Retry: Exhausted attempts should throw Conflict")
     void testRetry_ExhaustedAttempts() {
 
-        when(accountAccessService.validateAccountOwnership(1L, userId))
-                .thenReturn(fromAccount);
-
-        when(accountOperationService.getAccountById(2L))
-                .thenReturn(toAccount);
-        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any()))
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, fromAccount, 2L, toAccount));
+        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any(), anyBoolean()))
                 .thenReturn(ValidationResult.builder()
                         .rate(BigDecimal.ONE)
                         .targetAmount(BigDecimal.valueOf(100))
@@ -624,8 +654,6 @@ public class TransactionServiceTest {
                 any(), any(), any(), any(), any(), any(), any(), any(),any(),any()))
                 .thenReturn(txCreated);
 
-        when(transactionRepository.findById(TX_ID))
-                .thenReturn(Optional.of(txCreated));
 
         var lockEx = new PessimisticLockingFailureException("Locked");
         var conflictEx = new ConflictException("Busy", lockEx);
@@ -639,18 +667,88 @@ public class TransactionServiceTest {
 
         verify(transferStrategy, times(3))
                 .execute(any(), any(), any(), any());
+        verify(transactionStateService).fail(eq(txCreated), startsWith("Max retry attempts reached"));
+    }
+
+    @Test
+    @DisplayName("Retry: Spent account budget fails fast without scheduling")
+    void testRetry_BudgetExhausted() {
+
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, fromAccount, 2L, toAccount));
+        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any(), anyBoolean()))
+                .thenReturn(ValidationResult.builder()
+                        .rate(BigDecimal.ONE)
+                        .targetAmount(BigDecimal.valueOf(100))
+                        .build());
+        when(transactionRepository.findByIdempotencyKey(idempotencyKey))
+                .thenReturn(Optional.empty());
+        when(transactionCreationService.createTransaction(
+                any(), any(), any(), any(), any(), any(), any(), any(),any(),any()))
+                .thenReturn(txCreated);
+        when(retryBackoffService.tryAcquire(1L)).thenReturn(false);
+
+        doThrow(new ConflictException("Busy", new PessimisticLockingFailureException("Locked")))
+                .when(transferStrategy)
+                .execute(any(), any(), any(), any());
+
+        assertThrows(ConflictException.class,
+                () -> transactionService.transfer(transferDto, userId, idempotencyKey));
+
+        verify(transferStrategy, times(1))
+                .execute(any(), any(), any(), any());
+        verify(retryBackoffService, never()).schedule(anyInt(), any());
+        verify(transactionStateService).fail(eq(txCreated), startsWith("Retry budget exhausted"));
+    }
+
+    @Test
+    @DisplayName("Async transfer: Lock conflict completes the future from the retry")
+    void transferAsync_conflictCompletesFromScheduledRetry() {
+
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, fromAccount, 2L, toAccount));
+        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any(), anyBoolean()))
+                .thenReturn(ValidationResult.builder()
+                        .rate(BigDecimal.ONE)
+                        .targetAmount(BigDecimal.valueOf(100))
+                        .build());
+        when(transactionRepository.findByIdempotencyKey(idempotencyKey))
+                .thenReturn(Optional.empty());
+        when(transactionCreationService.createTransaction(
+                any(), any(), any(), any(), any(), any(), any(), any(),any(),any()))
+                .thenReturn(txCreated);
+        TransactionResponseDto completed = TransactionResponseDto.builder().id(TX_ID).status(Status.COMPLETED).build();
+        when(transactionMapper.toDto(any())).thenReturn(completed);
+
+        doThrow(new ConflictException("Busy", new PessimisticLockingFailureException("Locked")))
+                .doNothing()
+                .when(transferStrategy)
+                .execute(any(), any(), any(), any());
+        CompletableFuture<Object> pending = new CompletableFuture<>();
+        when(retryBackoffService.schedule(eq(1), any())).thenAnswer(i -> {
+            Supplier<CompletableFuture<Object>> retry = i.getArgument(1);
+            return pending.thenCompose(ignored -> retry.get());
+        });
+
+        CompletableFuture<TransactionResponseDto> future =
+                transactionService.transferAsync(transferDto, userId, idempotencyKey);
+
+        assertFalse(future.isDone());
+        verify(transactionStateService, never()).complete(any());
+
+        pending.complete(null);
+
+        assertSame(completed, future.join());
+        verify(transactionStateService).complete(txCreated);
     }
 
     @Test
     @DisplayName("Retry: No retry on BadRequest")
     void testRetry_NoRetryOnBadRequest() {
 
-        when(accountAccessService.validateAccountOwnership(1L, userId))
-                .thenReturn(fromAccount);
-
-        when(accountOperationService.getAccountById(2L))
-                .thenReturn(toAccount);
-        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any()))
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, fromAccount, 2L, toAccount));
+        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any(), anyBoolean()))
                 .thenReturn(ValidationResult.builder()
                         .rate(BigDecimal.ONE)
                         .targetAmount(BigDecimal.valueOf(100))
@@ -662,8 +760,6 @@ public class TransactionServiceTest {
                 any(), any(), any(), any(), any(), any(), any(), any(),any(),any()))
                 .thenReturn(txCreated);
 
-        when(transactionRepository.findById(TX_ID))
-                .thenReturn(Optional.of(txCreated));
 
         doThrow(new BadRequestException("Insufficient funds"))
                 .when(transferStrategy)
@@ -678,16 +774,14 @@ public class TransactionServiceTest {
     @Test
     @DisplayName("Fraud check triggered during transfer - blocks transaction creation")
     void transfer_fraudCheckCalled() {
-        when(accountAccessService.validateAccountOwnership(1L, userId))
-                .thenReturn(fromAccount);
-        when(accountOperationService.getAccountById(2L))
-                .thenReturn(toAccount);
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, fromAccount, 2L, toAccount));
         when(transactionRepository.findByIdempotencyKey(idempotencyKey))
                 .thenReturn(Optional.empty());
 
         doThrow(new FraudDetectedException("Transaction amount is suspiciously large"))
                 .when(parallelValidationService)
-                .validate(any(), any(), any(), any(), any(), any());
+                .validate(any(), any(), any(), any(), any(), any(), anyBoolean());
 
         assertThrows(FraudDetectedException.class,
                 () -> transactionService.transfer(transferDto, userId, idempotencyKey));
@@ -699,16 +793,14 @@ public class TransactionServiceTest {
     @Test
     @DisplayName("Limit exceeded during transfer - blocks transaction creation")
     void transfer_limitExceeded_blocksCreation() {
-        when(accountAccessService.validateAccountOwnership(1L, userId))
-                .thenReturn(fromAccount);
-        when(accountOperationService.getAccountById(2L))
-                .thenReturn(toAccount);
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, fromAccount, 2L, toAccount));
         when(transactionRepository.findByIdempotencyKey(idempotencyKey))
                 .thenReturn(Optional.empty());
 
         doThrow(new LimitExceededException("Daily limit exceeded"))
                 .when(parallelValidationService)
-                .validate(any(), any(), any(), any(), any(), any());
+                .validate(any(), any(), any(), any(), any(), any(), anyBoolean());
 
         assertThrows(LimitExceededException.class,
                 () -> transactionService.transfer(transferDto, userId, idempotencyKey));
@@ -717,9 +809,9 @@ public class TransactionServiceTest {
                 .createTransaction(any(), any(), any(), any(), any(), any(), any(), any(), any(), any());
     }
     @Test
-    @DisplayName("After COMPLETED - publish() is called")
-    void transfer_completed_publishCalled() {
-        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any()))
+    @DisplayName("Successful saga - completed through the state service, which queues the event")
+    void transfer_completed_eventQueuedByCompletion() {
+        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any(), anyBoolean()))
                 .thenReturn(ValidationResult.builder()
                         .rate(BigDecimal.ONE)
                         .targetAmount(BigDecimal.valueOf(100))
@@ -730,40 +822,58 @@ public class TransactionServiceTest {
         when(transactionCreationService.createTransaction(
                 any(), any(), any(), any(), any(), any(), any(), any(), any(), any()))
                 .thenReturn(txCreated);
-        when(transactionRepository.findById(TX_ID))
-                .thenReturn(Optional.of(txCreated));
-        when(accountAccessService.validateAccountOwnership(1L, userId))
-                .thenReturn(fromAccount);
-        when(accountOperationService.getAccountById(2L))
-                .thenReturn(toAccount);
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, fromAccount, 2L, toAccount));
         when(transactionMapper.toDto(any()))
                 .thenReturn(new TransactionResponseDto());
 
         transactionService.transfer(transferDto, userId, idempotencyKey);
 
-        verify(transactionEventPublisher).publish(any(Transaction.class));
+        verify(transactionStateService).complete(txCreated);
     }
 
     @Test
-    @DisplayName("If transaction FAILED - publish() is NOT called")
-    void transfer_failed_publishNotCalled() {
-        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any()))
+    @DisplayName("Completion lost to a concurrent worker - stored state returned")
+    void transfer_completionLost_returnsStoredState() {
+        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any(), anyBoolean()))
                 .thenReturn(ValidationResult.builder()
                         .rate(BigDecimal.ONE)
                         .targetAmount(BigDecimal.valueOf(100))
                         .build());
-
         when(transactionRepository.findByIdempotencyKey(idempotencyKey))
                 .thenReturn(Optional.empty());
         when(transactionCreationService.createTransaction(
                 any(), any(), any(), any(), any(), any(), any(), any(), any(), any()))
                 .thenReturn(txCreated);
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, fromAccount, 2L, toAccount));
+        when(transactionStateService.complete(txCreated)).thenReturn(false);
         when(transactionRepository.findById(TX_ID))
-                .thenReturn(Optional.of(txCreated));
-        when(accountAccessService.validateAccountOwnership(1L, userId))
-                .thenReturn(fromAccount);
-        when(accountOperationService.getAccountById(2L))
-                .thenReturn(toAccount);
+                .thenReturn(Optional.of(txInProgress));
+        when(transactionMapper.toDto(txInProgress))
+                .thenReturn(new TransactionResponseDto());
+
+        assertNotNull(transactionService.transfer(transferDto, userId, idempotencyKey));
+
+        verify(transactionMapper).toDto(txInProgress);
+    }
+
+    @Test
+    @DisplayName("If transaction FAILED - it is never completed, so no event is queued")
+    void transfer_failed_notCompleted() {
+        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any(), anyBoolean()))
+                .thenReturn(ValidationResult.builder()
+                        .rate(BigDecimal.ONE)
+                        .targetAmount(BigDecimal.valueOf(100))
+                        .build());
+
+        when(transactionRepository.findByIdempotencyKey(idempotencyKey))
+                .thenReturn(Optional.empty());
+        when(transactionCreationService.createTransaction(
+                any(), any(), any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(txCreated);
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, fromAccount, 2L, toAccount));
 
         doThrow(new BadRequestException("Insufficient funds"))
                 .when(transferStrategy)
@@ -772,6 +882,210 @@ public class TransactionServiceTest {
         assertThrows(BadRequestException.class,
                 () -> transactionService.transfer(transferDto, userId, idempotencyKey));
 
-        verify(transactionEventPublisher, never()).publish(any());
+        verify(transactionStateService, never()).complete(any());
+        verify(transactionStateService).fail(txCreated, "Insufficient funds");
+    }
+
+    @Test
+    @DisplayName("Async submit: transaction persisted and saga queued, not run inline")
+    void submitTransfer_queuesSaga() {
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, fromAccount, 2L, toAccount));
+        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any(), anyBoolean()))
+                .thenReturn(ValidationResult.builder()
+                        .rate(BigDecimal.ONE)
+                        .targetAmount(BigDecimal.valueOf(100))
+                        .build());
+        when(transactionRepository.findByIdempotencyKey(idempotencyKey))
+                .thenReturn(Optional.empty());
+        when(transactionCreationService.createTransaction(
+                any(), any(), any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(txCreated);
+        AtomicReference<Supplier<CompletableFuture<?>>> queued = new AtomicReference<>();
+        when(transferWorkQueue.submit(eq(TX_ID), any())).thenAnswer(i -> {
+            queued.set(i.getArgument(1));
+            return true;
+        });
+
+        TransactionStatusDto accepted = transactionService.submitTransfer(transferDto, userId, idempotencyKey);
+
+        assertEquals(TX_ID, accepted.getTransactionId());
+        assertEquals(Status.PROCESSING, accepted.getStatus());
+        verify(transferStrategy, never()).execute(any(), any(), any(), any());
+
+        when(transactionMapper.toDto(txCreated)).thenReturn(new TransactionResponseDto());
+        queued.get().get().join();
+
+        verify(transferStrategy).execute(eq(txCreated), eq(1L), eq(2L), any());
+        verify(transactionStateService).complete(txCreated);
+    }
+
+    @Test
+    @DisplayName("Async submit: repeated key returns stored status without queueing")
+    void submitTransfer_existingKey_notQueued() {
+        Transaction completed = Transaction.builder()
+                .id(TX_ID)
+                .status(Status.COMPLETED)
+                .step(TransactionStep.CREDIT_DONE)
+                .build();
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, fromAccount, 2L, toAccount));
+        when(transactionRepository.findByIdempotencyKey(idempotencyKey))
+                .thenReturn(Optional.of(completed));
+
+        TransactionStatusDto accepted = transactionService.submitTransfer(transferDto, userId, idempotencyKey);
+
+        assertEquals(Status.COMPLETED, accepted.getStatus());
+        verifyNoInteractions(transferWorkQueue, transactionCreationService);
+    }
+
+    @Test
+    @DisplayName("Async submit: full queue fails the transaction with 503")
+    void submitTransfer_queueFull_failsTransaction() {
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, fromAccount, 2L, toAccount));
+        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any(), anyBoolean()))
+                .thenReturn(ValidationResult.builder()
+                        .rate(BigDecimal.ONE)
+                        .targetAmount(BigDecimal.valueOf(100))
+                        .build());
+        when(transactionRepository.findByIdempotencyKey(idempotencyKey))
+                .thenReturn(Optional.empty());
+        when(transactionCreationService.createTransaction(
+                any(), any(), any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(txCreated);
+        when(transferWorkQueue.submit(eq(TX_ID), any())).thenReturn(false);
+
+        assertThrows(ExternalServiceException.class,
+                () -> transactionService.submitTransfer(transferDto, userId, idempotencyKey));
+
+        verify(transactionStateService).fail(txCreated, "Transfer queue is full");
+    }
+
+    @Test
+    @DisplayName("Idempotency: cached final response replayed without lookups or account calls")
+    void transfer_cachedResponse_replayedWithoutWork() {
+        TransactionResponseDto cached = new TransactionResponseDto();
+        when(idempotencyService.replay(idempotencyKey, userId)).thenReturn(Optional.of(cached));
+
+        TransactionResponseDto result = transactionService.transfer(transferDto, userId, idempotencyKey);
+
+        assertSame(cached, result);
+        verifyNoInteractions(transactionRepository, accountOperationService, parallelValidationService,
+                transactionCreationService);
+        verify(transferStrategy, never()).execute(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Idempotency: new key skips the lookup, completed response cached for replay")
+    void transfer_newKey_skipsLookupAndRemembersResponse() {
+        when(idempotencyService.mightExist(idempotencyKey)).thenReturn(false);
+        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any(), anyBoolean()))
+                .thenReturn(ValidationResult.builder()
+                        .rate(BigDecimal.ONE)
+                        .targetAmount(BigDecimal.valueOf(100))
+                        .build());
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, fromAccount, 2L, toAccount));
+        when(transactionCreationService.createTransaction(
+                any(), any(), any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(txCreated);
+        TransactionResponseDto response = new TransactionResponseDto();
+        when(transactionMapper.toDto(txCreated)).thenReturn(response);
+
+        transactionService.transfer(transferDto, userId, idempotencyKey);
+
+        verify(transactionRepository, never()).findByIdempotencyKey(any());
+        verify(idempotencyService).register(idempotencyKey);
+        verify(idempotencyService).remember(txCreated, response);
+    }
+
+    @Test
+    @DisplayName("Idempotency: key unknown here but stored elsewhere - rejected check replays the stored TX")
+    void transfer_unknownKeyRejected_replaysStored() {
+        Transaction completed = Transaction.builder()
+                .id(TX_ID)
+                .status(Status.COMPLETED)
+                .idempotencyKey(idempotencyKey)
+                .build();
+        when(idempotencyService.mightExist(idempotencyKey)).thenReturn(false);
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, fromAccount, 2L, toAccount));
+        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any(), anyBoolean()))
+                .thenThrow(new LimitExceededException("Daily limit exceeded"));
+        when(transactionRepository.findByIdempotencyKey(idempotencyKey)).thenReturn(Optional.of(completed));
+        TransactionResponseDto response = new TransactionResponseDto();
+        when(transactionMapper.toDto(completed)).thenReturn(response);
+
+        TransactionResponseDto result = transactionService.transfer(transferDto, userId, idempotencyKey);
+
+        assertSame(response, result);
+        verifyNoInteractions(transactionCreationService);
+        verify(transferStrategy, never()).execute(any(), any(), any(), any());
+        verify(idempotencyService).remember(completed, response);
+    }
+
+    @Test
+    @DisplayName("Idempotency: key unknown and not stored - original rejection surfaces")
+    void transfer_unknownKeyRejected_notStored_rethrows() {
+        when(idempotencyService.mightExist(idempotencyKey)).thenReturn(false);
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, fromAccount, 2L, toAccount));
+        when(parallelValidationService.validate(any(), any(), any(), any(), any(), any(), anyBoolean()))
+                .thenThrow(new LimitExceededException("Daily limit exceeded"));
+        when(transactionRepository.findByIdempotencyKey(idempotencyKey)).thenReturn(Optional.empty());
+
+        assertThrows(LimitExceededException.class,
+                () -> transactionService.transfer(transferDto, userId, idempotencyKey));
+        verify(idempotencyService, never()).register(any());
+    }
+
+    private Transaction historyTx(long id, String createdAt) {
+        return Transaction.builder().id(id).createdAt(Instant.parse(createdAt)).build();
+    }
+
+    @Test
+    @DisplayName("History slice: one extra row fetched to detect the next slice, cursor at last row")
+    void getHistorySlice_firstSlice() {
+        Transaction newest = historyTx(5L, "2026-10-17T10:00:00Z");
+        Transaction second = historyTx(4L, "2026-10-17T09:00:00Z");
+        Transaction third = historyTx(3L, "2026-10-17T09:00:00Z");
+        Transaction extra = historyTx(2L, "2026-10-16T09:00:00Z");
+        when(accountLedgerEntryRepository.findHistoryBefore(eq(1L), eq(HistoryCursor.FIRST.createdAt()),
+                eq(HistoryCursor.FIRST.id()), any(Pageable.class)))
+                .thenReturn(List.of(newest, second, third, extra));
+        when(transactionMapper.toDto(any())).thenAnswer(inv ->
+                TransactionResponseDto.builder().id(((Transaction) inv.getArgument(0)).getId()).build());
+
+        HistorySliceResponse slice = transactionService.getHistorySlice(1L, null, 3, userId);
+
+        verify(accountAccessService).validateAccountOwnership(1L, userId);
+        assertEquals(List.of(5L, 4L, 3L), slice.getContent().stream().map(TransactionResponseDto::getId).toList());
+        assertTrue(slice.isHasNext());
+        assertEquals(HistoryCursor.of(third), HistoryCursor.decode(slice.getNextCursor()));
+    }
+
+    @Test
+    @DisplayName("History slice: cursor passed to the ledger query, last slice has no cursor")
+    void getHistorySlice_lastSlice() {
+        HistoryCursor cursor = new HistoryCursor(Instant.parse("2026-10-17T09:00:00Z"), 3L);
+        when(accountLedgerEntryRepository.findHistoryBefore(eq(1L), eq(cursor.createdAt()), eq(3L), any(Pageable.class)))
+                .thenReturn(List.of(historyTx(2L, "2026-10-16T09:00:00Z")));
+
+        HistorySliceResponse slice = transactionService.getHistorySlice(1L, cursor.encode(), 3, userId);
+
+        assertEquals(1, slice.getContent().size());
+        assertFalse(slice.isHasNext());
+        assertNull(slice.getNextCursor());
+        verify(accountLedgerEntryRepository, never()).count();
+    }
+
+    @Test
+    @DisplayName("History slice: garbled cursor - BadRequest, no query")
+    void getHistorySlice_invalidCursor() {
+        assertThrows(BadRequestException.class,
+                () -> transactionService.getHistorySlice(1L, "not-a-cursor", 10, userId));
+
+        verify(accountLedgerEntryRepository, never()).findHistoryBefore(any(), any(), any(), any());
     }
 }
@@ -0,0 +1,132 @@
+package transaction_service.transaction_service.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import transaction_service.transaction_service.event.TransactionCompletedEvent;
+import transaction_service.transaction_service.model.*;
+import transaction_service.transaction_service.repository.TransactionRepository;
+import transaction_service.transaction_service.service.validate.VelocityTracker;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionStateServiceTest {
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private LimitLedgerService limitLedgerService;
+    @Mock
+    private VelocityTracker velocityTracker;
+    @Mock
+    private SpendRollupService spendRollupService;
+    @Mock
+    private TransactionOutboxService outboxService;
+    @InjectMocks
+    private TransactionStateService stateService;
+
+    private Transaction tx;
+
+    @BeforeEach
+    void setUp() {
+        tx = Transaction.builder()
+                .id(5L)
+                .userId(1L)
+                .amount(BigDecimal.TEN)
+                .status(Status.PROCESSING)
+                .step(TransactionStep.CREDIT_DONE)
+                .transactionType(TransactionType.TRANSFER)
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Complete applied - one conditional UPDATE, in-memory state and side effects")
+    void complete_applied() {
+        when(transactionRepository.transitionStatus(eq(5L), eq(Status.PROCESSING), eq(Status.COMPLETED),
+                eq(TransactionStep.CREDIT_DONE), isNull(), any())).thenReturn(1);
+
+        assertTrue(stateService.complete(tx));
+
+        assertEquals(Status.COMPLETED, tx.getStatus());
+        assertNotNull(tx.getUpdatedAt());
+        assertEquals(1L, tx.getVersion());
+        verify(limitLedgerService).commit(tx);
+        verify(spendRollupService).record(tx);
+        verify(outboxService).enqueue(tx);
+        verify(eventPublisher).publishEvent(any(TransactionCompletedEvent.class));
+        verify(transactionRepository, never()).findById(any());
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Fail applied - ledger released and velocity entry removed")
+    void fail_applied() {
+        when(transactionRepository.transitionStatus(eq(5L), eq(Status.PROCESSING), eq(Status.FAILED),
+                any(), eq("boom"), any())).thenReturn(1);
+
+        assertTrue(stateService.fail(tx, "boom"));
+
+        assertEquals(Status.FAILED, tx.getStatus());
+        assertEquals("boom", tx.getErrorMessage());
+        verify(limitLedgerService).release(tx);
+        verify(velocityTracker).remove(1L, tx.getId(), tx.getCreatedAt());
+        verifyNoInteractions(spendRollupService, outboxService);
+        verify(eventPublisher).publishEvent(any(TransactionCompletedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Status already changed - returns false, no side effects")
+    void transition_lost_noSideEffects() {
+        when(transactionRepository.transitionStatus(any(), any(), any(), any(), any(), any())).thenReturn(0);
+
+        assertFalse(stateService.fail(tx, "late"));
+
+        assertEquals(Status.PROCESSING, tx.getStatus());
+        verifyNoInteractions(limitLedgerService, velocityTracker, spendRollupService, outboxService, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Transition out of a terminal status - ledger untouched, event still published")
+    void transition_fromTerminal_ledgerUntouched() {
+        tx.setStatus(Status.COMPLETED);
+        when(transactionRepository.transitionStatus(any(), eq(Status.COMPLETED), eq(Status.FAILED),
+                any(), any(), any())).thenReturn(1);
+
+        assertTrue(stateService.transition(tx, Status.COMPLETED, Status.FAILED, "manual"));
+
+        verifyNoInteractions(limitLedgerService, velocityTracker, spendRollupService);
+        verify(outboxService, never()).enqueue(any());
+        verify(eventPublisher).publishEvent(any(TransactionCompletedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Checkpointed steps are written per step, only to PROCESSING rows")
+    void checkpointSteps_groupedByStep() {
+        Map<Long, TransactionStep> steps = new LinkedHashMap<>();
+        steps.put(1L, TransactionStep.DEBIT_DONE);
+        steps.put(2L, TransactionStep.CREDIT_DONE);
+        steps.put(3L, TransactionStep.DEBIT_DONE);
+
+        stateService.checkpointSteps(steps);
+
+        verify(transactionRepository).updateStep(List.of(1L, 3L), TransactionStep.DEBIT_DONE, Status.PROCESSING);
+        verify(transactionRepository).updateStep(List.of(2L), TransactionStep.CREDIT_DONE, Status.PROCESSING);
+        verify(transactionRepository, never()).transitionStatus(any(), any(), any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,44 @@
+package transaction_service.transaction_service.service;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Counts SQL statements that touch the {@code transaction} table. Registered through
+ * {@code hibernate.session_factory.statement_inspector}; counters are static because Hibernate
+ * instantiates the inspector itself.
+ */
+public class TransactionStatementCounter implements StatementInspector {
+    private static final Pattern TRANSACTION_TABLE = Pattern.compile("\\btransaction\\b", Pattern.CASE_INSENSITIVE);
+    private static final AtomicInteger READS = new AtomicInteger();
+    private static final AtomicInteger WRITES = new AtomicInteger();
+
+    @Override
+    public String inspect(String sql) {
+        if (TRANSACTION_TABLE.matcher(sql).find()) {
+            String statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+            if (statement.startsWith("select")) {
+                READS.incrementAndGet();
+            } else if (statement.startsWith("insert") || statement.startsWith("update")) {
+                WRITES.incrementAndGet();
+            }
+        }
+        return sql;
+    }
+
+    public static void reset() {
+        READS.set(0);
+        WRITES.set(0);
+    }
+
+    public static int reads() {
+        return READS.get();
+    }
+
+    public static int writes() {
+        return WRITES.get();
+    }
+}
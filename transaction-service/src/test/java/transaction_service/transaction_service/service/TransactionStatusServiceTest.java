@@ -0,0 +1,96 @@
+package transaction_service.transaction_service.service;
+
+import core.core.exception.NotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import transaction_service.transaction_service.dto.TransactionStatusDto;
+import transaction_service.transaction_service.event.TransactionCompletedEvent;
+import transaction_service.transaction_service.model.Status;
+import transaction_service.transaction_service.model.TransactionStep;
+import transaction_service.transaction_service.repository.TransactionRepository;
+import transaction_service.transaction_service.repository.TransactionStatusView;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionStatusServiceTest {
+    private static final Long TX_ID = 5L;
+    private static final Long USER_ID = 1L;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+    @InjectMocks
+    private TransactionStatusService statusService;
+
+    @Test
+    @DisplayName("Status read from the projection for the owner")
+    void getStatus_owner() {
+        when(transactionRepository.findStatusById(TX_ID)).thenReturn(Optional.of(view(USER_ID, Status.PROCESSING)));
+
+        TransactionStatusDto status = statusService.getStatus(TX_ID, USER_ID);
+
+        assertEquals(TX_ID, status.getTransactionId());
+        assertEquals(Status.PROCESSING, status.getStatus());
+        verify(transactionRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Transaction of another user - not found")
+    void getStatus_foreign_notFound() {
+        when(transactionRepository.findStatusById(TX_ID)).thenReturn(Optional.of(view(99L, Status.PROCESSING)));
+
+        assertThrows(NotFoundException.class, () -> statusService.getStatus(TX_ID, USER_ID));
+    }
+
+    @Test
+    @DisplayName("Stream on a pending transaction stays open until the terminal event")
+    void subscribe_pending_completedByEvent() {
+        when(transactionRepository.findStatusById(TX_ID))
+                .thenReturn(Optional.of(view(USER_ID, Status.PROCESSING)))
+                .thenReturn(Optional.of(view(USER_ID, Status.COMPLETED)));
+
+        assertNotNull(statusService.subscribe(TX_ID, USER_ID));
+        assertEquals(1, statusService.subscriberCount(TX_ID));
+
+        statusService.onTransactionCompleted(new TransactionCompletedEvent(USER_ID, TX_ID, Status.COMPLETED));
+
+        assertEquals(0, statusService.subscriberCount(TX_ID));
+        verify(transactionRepository, times(2)).findStatusById(TX_ID);
+    }
+
+    @Test
+    @DisplayName("Foreign subscription rejected and not left registered")
+    void subscribe_foreign_notRegistered() {
+        when(transactionRepository.findStatusById(TX_ID)).thenReturn(Optional.of(view(99L, Status.PROCESSING)));
+
+        assertThrows(NotFoundException.class, () -> statusService.subscribe(TX_ID, USER_ID));
+        assertEquals(0, statusService.subscriberCount(TX_ID));
+    }
+
+    @Test
+    @DisplayName("Event without subscribers - no extra read")
+    void onTransactionCompleted_noSubscribers() {
+        statusService.onTransactionCompleted(new TransactionCompletedEvent(USER_ID, TX_ID, Status.FAILED));
+
+        verifyNoInteractions(transactionRepository);
+    }
+
+    private static TransactionStatusView view(Long userId, Status status) {
+        return new TransactionStatusView() {
+            public Long getId() { return TX_ID; }
+            public Long getUserId() { return userId; }
+            public Status getStatus() { return status; }
+            public TransactionStep getStep() { return TransactionStep.NONE; }
+            public String getErrorMessage() { return null; }
+            public Instant getUpdatedAt() { return Instant.now(); }
+        };
+    }
+}
@@ -0,0 +1,158 @@
+package transaction_service.transaction_service.service;
+
+import core.core.dto.AccountResponseDto;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import transaction_service.transaction_service.dto.TransactionRequestDto;
+import transaction_service.transaction_service.dto.TransactionResponseDto;
+import transaction_service.transaction_service.dto.bulk.BulkTransferItemDto;
+import transaction_service.transaction_service.dto.bulk.BulkTransferRequestDto;
+import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A 1,000-employee payroll from one account: a debit and a credit per item against an
+ * account-service that holds the account lock for a round trip, compared with
+ * {@link BulkTransferService} netting the source debits into one. Reports the wall time
+ * and how often the source account was locked.
+ * Run with {@code ./gradlew :transaction-service:benchmark}.
+ */
+@Tag("benchmark")
+class TransferNettingBenchmarkTest {
+
+    private static final int ITEMS = 1_000;
+    private static final long LOCK_HOLD_MS = 2;
+    private static final int IN_FLIGHT = 20;
+    private static final Long USER_ID = 1L;
+    private static final Long SOURCE_ACCOUNT_ID = 1L;
+
+    @Test
+    void payroll() {
+        FakeAccounts perItem = new FakeAccounts();
+        long perItemNanos = perItemDebits(perItem);
+        FakeAccounts netted = new FakeAccounts();
+        long start = System.nanoTime();
+        int settled = bulkTransfer(netted);
+        long nettedNanos = System.nanoTime() - start;
+
+        System.out.printf("%,d items  per-item debits=%d ms (%,d source locks) | netted=%d ms (%,d source locks, %,d settled)%n",
+                ITEMS, perItemNanos / 1_000_000, perItem.locks(SOURCE_ACCOUNT_ID),
+                nettedNanos / 1_000_000, netted.locks(SOURCE_ACCOUNT_ID), settled);
+    }
+
+    private long perItemDebits(FakeAccounts accounts) {
+        ExecutorService executor = Executors.newFixedThreadPool(IN_FLIGHT);
+        try {
+            long start = System.nanoTime();
+            CompletableFuture.allOf(LongStream.rangeClosed(1, ITEMS)
+                    .mapToObj(i -> CompletableFuture.runAsync(() -> {
+                        accounts.apply(SOURCE_ACCOUNT_ID);
+                        accounts.apply(SOURCE_ACCOUNT_ID + i);
+                    }, executor))
+                    .toArray(CompletableFuture[]::new)).join();
+            return System.nanoTime() - start;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private int bulkTransfer(FakeAccounts accounts) {
+        TransactionService transactionService = mock(TransactionService.class);
+        AccountOperationService accountOperationService = mock(AccountOperationService.class);
+        Map<Long, AccountResponseDto> resolved = new HashMap<>();
+        resolved.put(SOURCE_ACCOUNT_ID, AccountResponseDto.builder().id(SOURCE_ACCOUNT_ID).userId(USER_ID).build());
+        when(accountOperationService.getAccountsByIds(any())).thenReturn(resolved);
+        doAnswer(i -> accounts.apply(i.getArgument(1))).when(accountOperationService).debit(any(), any(), any());
+
+        AtomicLong ids = new AtomicLong();
+        when(transactionService.admitTransfer(any(), any(), any(), any(), anyBoolean())).thenAnswer(i -> {
+            TransactionRequestDto dto = i.getArgument(0);
+            return new TransactionService.Admission(Transaction.builder()
+                    .id(ids.incrementAndGet())
+                    .sourceAccountId(dto.getSourceAccountId())
+                    .targetAccountId(dto.getTargetAccountId())
+                    .amount(dto.getAmount())
+                    .build(), true);
+        });
+        AtomicInteger settled = new AtomicInteger();
+        when(transactionService.settle(any())).thenAnswer(i -> {
+            accounts.apply(i.<TransactionService.Admission>getArgument(0).transaction().getTargetAccountId());
+            settled.incrementAndGet();
+            return CompletableFuture.completedFuture(new TransactionResponseDto());
+        });
+
+        TransferNettingService nettingService = new TransferNettingService(
+                mock(TransactionRepository.class), accountOperationService, mock(RetryBackoffService.class),
+                mock(TransactionStateService.class));
+        ExecutorService executor = Executors.newFixedThreadPool(IN_FLIGHT);
+        try {
+            new BulkTransferService(transactionService, accountOperationService, mock(TransactionStateService.class),
+                    nettingService, executor, IN_FLIGHT, IN_FLIGHT).bulkTransfer(request(), USER_ID, "payroll");
+        } finally {
+            executor.shutdown();
+        }
+        return settled.get();
+    }
+
+    private static BulkTransferRequestDto request() {
+        List<BulkTransferItemDto> transfers = LongStream.rangeClosed(1, ITEMS)
+                .mapToObj(i -> BulkTransferItemDto.builder()
+                        .targetAccountId(SOURCE_ACCOUNT_ID + i)
+                        .amount(BigDecimal.ONE)
+                        .build())
+                .toList();
+        return BulkTransferRequestDto.builder()
+                .sourceAccountId(SOURCE_ACCOUNT_ID)
+                .transfers(transfers)
+                .build();
+    }
+
+    /**
+     * Account-service stand-in: each operation locks its account for {@link #LOCK_HOLD_MS}.
+     */
+    private static final class FakeAccounts {
+        private final Map<Long, ReentrantLock> locks = new ConcurrentHashMap<>();
+        private final Map<Long, AtomicInteger> acquisitions = new ConcurrentHashMap<>();
+        private final Semaphore connections = new Semaphore(IN_FLIGHT);
+
+        Void apply(Long accountId) {
+            ReentrantLock lock = locks.computeIfAbsent(accountId, id -> new ReentrantLock());
+            connections.acquireUninterruptibly();
+            lock.lock();
+            try {
+                acquisitions.computeIfAbsent(accountId, id -> new AtomicInteger()).incrementAndGet();
+                Thread.sleep(LOCK_HOLD_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+                connections.release();
+            }
+            return null;
+        }
+
+        int locks(Long accountId) {
+            return acquisitions.getOrDefault(accountId, new AtomicInteger()).get();
+        }
+    }
+}
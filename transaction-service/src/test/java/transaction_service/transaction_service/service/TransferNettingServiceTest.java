@@ -0,0 +1,130 @@
+package transaction_service.transaction_service.service;
+
+import core.core.exception.BadRequestException;
+import core.core.exception.ConflictException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.PessimisticLockingFailureException;
+import transaction_service.transaction_service.model.Status;
+import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.model.TransactionStep;
+import transaction_service.transaction_service.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransferNettingServiceTest {
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private AccountOperationService accountOperationService;
+    @Mock
+    private RetryBackoffService retryBackoffService;
+    @Mock
+    private TransactionStateService transactionStateService;
+    @InjectMocks
+    private TransferNettingService nettingService;
+
+    private ConflictException lockConflict() {
+        return new ConflictException("Account is busy", new PessimisticLockingFailureException("locked"));
+    }
+
+    @Test
+    @DisplayName("Debit id is the negated smallest transaction id, stored on every netted row")
+    void net_assignsDebitId() {
+        Transaction a = Transaction.builder().id(42L).build();
+        Transaction b = Transaction.builder().id(17L).build();
+
+        Long debitId = nettingService.net(List.of(a, b));
+
+        assertEquals(-17L, debitId);
+        assertEquals(-17L, a.getNettingDebitId());
+        assertEquals(-17L, b.getNettingDebitId());
+        verify(transactionRepository).assignNettingDebit(List.of(42L, 17L), -17L);
+    }
+
+    @Test
+    @DisplayName("Lock conflict on the aggregate debit is retried on the retry scheduler")
+    @SuppressWarnings("unchecked")
+    void debit_lockConflict_retried() {
+        doThrow(lockConflict()).doNothing()
+                .when(accountOperationService).debit(-17L, 1L, BigDecimal.TEN);
+        when(retryBackoffService.tryAcquire(1L)).thenReturn(true);
+        when(retryBackoffService.schedule(eq(1), any()))
+                .thenAnswer(i -> ((Supplier<CompletableFuture<Void>>) i.getArgument(1)).get());
+
+        nettingService.debit(-17L, 1L, BigDecimal.TEN).join();
+
+        verify(accountOperationService, times(2)).debit(-17L, 1L, BigDecimal.TEN);
+    }
+
+    @Test
+    @DisplayName("Rejected aggregate debit is not retried")
+    void debit_rejected_notRetried() {
+        doThrow(new BadRequestException("Insufficient funds"))
+                .when(accountOperationService).debit(-17L, 1L, BigDecimal.TEN);
+
+        assertThrows(BadRequestException.class, () -> nettingService.debit(-17L, 1L, BigDecimal.TEN));
+
+        verifyNoInteractions(retryBackoffService);
+    }
+
+    @Test
+    @DisplayName("Applied aggregate debit moves the transactions to DEBIT_DONE")
+    void debited_recordsStep() {
+        Transaction a = Transaction.builder().id(42L).build();
+
+        nettingService.debited(List.of(a));
+
+        verify(transactionRepository).updateStep(List.of(42L), TransactionStep.DEBIT_DONE, Status.PROCESSING);
+        assertEquals(TransactionStep.DEBIT_DONE, a.getStep());
+    }
+
+    @Test
+    @DisplayName("Recovery re-sends the aggregate debit for the rows not FAILED and records it")
+    void redebit_sendsTotalOfPendingRows() {
+        Transaction tx = Transaction.builder().id(42L).nettingDebitId(-17L).build();
+        when(transactionRepository.findNettingGroup(-17L)).thenReturn(List.of(
+                row(17L, "100.00", Status.PROCESSING),
+                row(42L, "200.00", Status.PROCESSING),
+                row(43L, "50.00", Status.FAILED)));
+
+        nettingService.redebit(tx, 1L);
+
+        InOrder inOrder = inOrder(accountOperationService, transactionStateService);
+        inOrder.verify(accountOperationService).debit(-17L, 1L, new BigDecimal("300.00"));
+        inOrder.verify(transactionStateService).checkpointSteps(
+                Map.of(17L, TransactionStep.DEBIT_DONE, 42L, TransactionStep.DEBIT_DONE));
+    }
+
+    @Test
+    @DisplayName("Debit already recorded by another replay is not sent again")
+    void redebit_alreadyApplied_skipped() {
+        Transaction tx = Transaction.builder().id(42L).nettingDebitId(-17L).build();
+        Transaction debited = row(17L, "100.00", Status.PROCESSING);
+        debited.setStep(TransactionStep.DEBIT_DONE);
+        when(transactionRepository.findNettingGroup(-17L)).thenReturn(List.of(debited, row(42L, "200.00", Status.PROCESSING)));
+
+        nettingService.redebit(tx, 1L);
+
+        verifyNoInteractions(accountOperationService, transactionStateService);
+    }
+
+    private static Transaction row(Long id, String amount, Status status) {
+        return Transaction.builder().id(id).nettingDebitId(-17L).amount(new BigDecimal(amount))
+                .status(status).step(TransactionStep.NONE).build();
+    }
+}
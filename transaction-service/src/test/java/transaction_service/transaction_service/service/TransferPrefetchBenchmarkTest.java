@@ -0,0 +1,137 @@
+package transaction_service.transaction_service.service;
+
+import core.core.dto.AccountResponseDto;
+import core.core.enums.Currency;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import transaction_service.transaction_service.dto.TransactionRequestDto;
+import transaction_service.transaction_service.model.TransactionType;
+import transaction_service.transaction_service.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares the transfer entry stage with sequential lookups (previous behaviour: one call per
+ * account plus a second target fetch for the exchange rate) against the parallel prefetch. Remote calls are
+ * simulated with fixed latencies. Run with {@code ./gradlew :transaction-service:benchmark}.
+ */
+@Tag("benchmark")
+class TransferPrefetchBenchmarkTest {
+
+    private static final long ACCOUNT_CALL_MS = 15;
+    private static final long DB_CALL_MS = 3;
+    private static final long RATE_CALL_MS = 10;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 200;
+    private static final Long USER_ID = 1L;
+
+    enum Scenario { SAME_CURRENCY, CROSS_CURRENCY }
+
+    private final AccountOperationService accountOperationService = mock(AccountOperationService.class);
+    private final CategoryService categoryService = mock(CategoryService.class);
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final ExchangeRateService exchangeRateService = mock(ExchangeRateService.class);
+    private final IdempotencyService idempotencyService = mock(IdempotencyService.class);
+
+    private ExecutorService executor;
+    private TransferPrefetchService prefetchService;
+    private final TransactionRequestDto dto = TransactionRequestDto.builder()
+            .sourceAccountId(1L)
+            .targetAccountId(2L)
+            .amount(BigDecimal.TEN)
+            .categoryId(10L)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        prefetchService = new TransferPrefetchService(
+                accountOperationService, categoryService, transactionRepository, idempotencyService, executor);
+        when(idempotencyService.mightExist(any())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @ParameterizedTest
+    @EnumSource(Scenario.class)
+    void compareEntryLatency(Scenario scenario) {
+        Currency targetCurrency = scenario == Scenario.SAME_CURRENCY ? Currency.USD : Currency.EUR;
+        AccountResponseDto source = AccountResponseDto.builder().id(1L).userId(USER_ID).currency(Currency.USD).build();
+        AccountResponseDto target = AccountResponseDto.builder().id(2L).userId(2L).currency(targetCurrency).build();
+
+        when(accountOperationService.getAccountById(1L)).thenAnswer(i -> delayed(ACCOUNT_CALL_MS, source));
+        when(accountOperationService.getAccountById(2L)).thenAnswer(i -> delayed(ACCOUNT_CALL_MS, target));
+        when(accountOperationService.getAccountsByIds(any()))
+                .thenAnswer(i -> delayed(ACCOUNT_CALL_MS, Map.of(1L, source, 2L, target)));
+        when(categoryService.validateAndGetCategory(any(), any(), any())).thenAnswer(i -> delayed(DB_CALL_MS, null));
+        when(transactionRepository.findByIdempotencyKey(any())).thenAnswer(i -> delayed(DB_CALL_MS, Optional.empty()));
+        when(exchangeRateService.getRate(any(), any())).thenAnswer(i -> delayed(RATE_CALL_MS, new BigDecimal("0.9")));
+
+        long[] sequential = measure(() -> {
+            AccountResponseDto from = accountOperationService.getAccountById(1L);
+            accountOperationService.getAccountById(2L);
+            categoryService.validateAndGetCategory(10L, USER_ID, TransactionType.TRANSFER);
+            transactionRepository.findByIdempotencyKey("key");
+            AccountResponseDto to = accountOperationService.getAccountById(2L);
+            resolveRate(from, to);
+        });
+        long[] prefetched = measure(() -> {
+            TransferSnapshot snapshot = prefetchService.prefetch(dto, USER_ID, "key");
+            AccountResponseDto from = snapshot.getSourceAccount();
+            AccountResponseDto to = snapshot.getTargetAccount();
+            snapshot.getCategory();
+            snapshot.getExistingTransaction();
+            resolveRate(from, to);
+        });
+
+        System.out.printf("%s  sequential p50=%.1fms p99=%.1fms | prefetch p50=%.1fms p99=%.1fms%n",
+                scenario,
+                percentile(sequential, 50), percentile(sequential, 99),
+                percentile(prefetched, 50), percentile(prefetched, 99));
+    }
+
+    private void resolveRate(AccountResponseDto from, AccountResponseDto to) {
+        if (from.getCurrency() != to.getCurrency()) {
+            exchangeRateService.getRate(from.getCurrency(), to.getCurrency());
+        }
+    }
+
+    private static <T> T delayed(long millis, T value) throws InterruptedException {
+        Thread.sleep(millis);
+        return value;
+    }
+
+    private long[] measure(Runnable entry) {
+        for (int i = 0; i < WARMUP; i++) {
+            entry.run();
+        }
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            entry.run();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private double percentile(long[] sorted, int p) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(p / 100.0 * sorted.length) - 1);
+        return sorted[index] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,193 @@
+package transaction_service.transaction_service.service;
+
+import core.core.dto.AccountResponseDto;
+import core.core.exception.NotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import transaction_service.transaction_service.config.FeignClientInterceptor;
+import transaction_service.transaction_service.dto.TransactionRequestDto;
+import transaction_service.transaction_service.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransferPrefetchServiceTest {
+    @Mock
+    private AccountOperationService accountOperationService;
+    @Mock
+    private CategoryService categoryService;
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    private ExecutorService executor;
+    private TransferPrefetchService prefetchService;
+    private TransactionRequestDto dto;
+
+    private static final Long USER_ID = 1L;
+    private static final String KEY = "key-1";
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        lenient().when(idempotencyService.mightExist(any())).thenReturn(true);
+        prefetchService = new TransferPrefetchService(
+                accountOperationService, categoryService, transactionRepository, idempotencyService, executor);
+        dto = TransactionRequestDto.builder()
+                .sourceAccountId(1L)
+                .targetAccountId(2L)
+                .amount(BigDecimal.TEN)
+                .categoryId(10L)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        FeignClientInterceptor.clearToken();
+    }
+
+    @Test
+    @DisplayName("All lookups resolved from the snapshot")
+    void prefetch_resolvesAllLookups() {
+        AccountResponseDto source = AccountResponseDto.builder().id(1L).userId(USER_ID).build();
+        AccountResponseDto target = AccountResponseDto.builder().id(2L).userId(2L).build();
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L))).thenReturn(Map.of(1L, source, 2L, target));
+        when(transactionRepository.findByIdempotencyKey(KEY)).thenReturn(Optional.empty());
+
+        TransferSnapshot snapshot = prefetchService.prefetch(dto, USER_ID, KEY);
+
+        assertSame(source, snapshot.getSourceAccount());
+        assertSame(target, snapshot.getTargetAccount());
+        assertNull(snapshot.getCategory());
+        assertTrue(snapshot.getExistingTransaction().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Key unknown to the filter - no idempotency lookup")
+    void prefetch_newKey_skipsLookup() {
+        when(idempotencyService.mightExist(KEY)).thenReturn(false);
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L))).thenReturn(Map.of());
+
+        TransferSnapshot snapshot = prefetchService.prefetch(dto, USER_ID, KEY);
+
+        assertTrue(snapshot.getExistingTransaction().isEmpty());
+        verify(transactionRepository, never()).findByIdempotencyKey(any());
+    }
+
+    @Test
+    @DisplayName("Original exception rethrown from accessor")
+    void prefetch_failedLookup_rethrowsOriginal() {
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L)))
+                .thenThrow(new NotFoundException("Account service unavailable"));
+
+        TransferSnapshot snapshot = prefetchService.prefetch(dto, USER_ID, KEY);
+
+        NotFoundException ex = assertThrows(NotFoundException.class, snapshot::getSourceAccount);
+        assertEquals("Account service unavailable", ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("Source of another user - access denied, target missing - not found")
+    void prefetch_foreignSourceAndMissingTarget() {
+        AccountResponseDto foreign = AccountResponseDto.builder().id(1L).userId(99L).build();
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L))).thenReturn(Map.of(1L, foreign));
+
+        TransferSnapshot snapshot = prefetchService.prefetch(dto, USER_ID, KEY);
+
+        assertThrows(NotFoundException.class, snapshot::getSourceAccount);
+        assertThrows(NotFoundException.class, snapshot::getTargetAccount);
+    }
+
+    @Test
+    @DisplayName("Accounts resolved by the caller - no account-service call")
+    void prefetch_resolvedAccounts_noRemoteCall() {
+        AccountResponseDto source = AccountResponseDto.builder().id(1L).userId(USER_ID).build();
+        AccountResponseDto target = AccountResponseDto.builder().id(2L).userId(2L).build();
+
+        TransferSnapshot snapshot = prefetchService.prefetch(dto, USER_ID, KEY, Map.of(1L, source, 2L, target), false);
+
+        assertSame(source, snapshot.getSourceAccount());
+        assertSame(target, snapshot.getTargetAccount());
+        verifyNoInteractions(accountOperationService);
+    }
+
+    @Test
+    @DisplayName("Auth token propagated to worker threads and cleared afterwards")
+    void prefetch_propagatesToken() {
+        AtomicReference<String> seen = new AtomicReference<>();
+        AtomicReference<String> thread = new AtomicReference<>();
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L))).thenAnswer(i -> {
+            seen.set(FeignClientInterceptor.currentToken());
+            thread.set(Thread.currentThread().getName());
+            return Map.of(2L, AccountResponseDto.builder().id(2L).build());
+        });
+        when(transactionRepository.findByIdempotencyKey(any())).thenReturn(Optional.empty());
+        FeignClientInterceptor.setToken("Bearer test");
+
+        prefetchService.prefetch(dto, USER_ID, KEY).getTargetAccount();
+
+        assertEquals("Bearer test", seen.get());
+        assertNotEquals(Thread.currentThread().getName(), thread.get());
+    }
+
+    @Test
+    @DisplayName("Inline prefetch runs the lookups on the calling thread")
+    void prefetch_inline_callingThread() {
+        AtomicReference<String> thread = new AtomicReference<>();
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L))).thenAnswer(i -> {
+            thread.set(Thread.currentThread().getName());
+            return Map.of(2L, AccountResponseDto.builder().id(2L).build());
+        });
+        when(transactionRepository.findByIdempotencyKey(any())).thenReturn(Optional.empty());
+
+        prefetchService.prefetch(dto, USER_ID, KEY, null, true).getTargetAccount();
+
+        assertEquals(Thread.currentThread().getName(), thread.get());
+    }
+
+    @Test
+    @DisplayName("Virtual-thread executor - token propagated per task, nothing left behind")
+    void prefetch_virtualThreads_propagatesToken() {
+        SimpleAsyncTaskExecutor virtualExecutor = new SimpleAsyncTaskExecutor("tx-validation-");
+        virtualExecutor.setVirtualThreads(true);
+        TransferPrefetchService virtualPrefetch = new TransferPrefetchService(
+                accountOperationService, categoryService, transactionRepository, idempotencyService, virtualExecutor);
+        AtomicReference<String> seen = new AtomicReference<>();
+        AtomicReference<Thread> worker = new AtomicReference<>();
+        when(accountOperationService.getAccountsByIds(List.of(1L, 2L))).thenAnswer(i -> {
+            seen.set(FeignClientInterceptor.currentToken());
+            worker.set(Thread.currentThread());
+            return Map.of(2L, AccountResponseDto.builder().id(2L).build());
+        });
+        when(transactionRepository.findByIdempotencyKey(any())).thenReturn(Optional.empty());
+        FeignClientInterceptor.setToken("Bearer virtual");
+
+        virtualPrefetch.prefetch(dto, USER_ID, KEY).getTargetAccount();
+
+        assertEquals("Bearer virtual", seen.get());
+        assertTrue(worker.get().isVirtual());
+        assertEquals("Bearer virtual", FeignClientInterceptor.currentToken());
+    }
+}
@@ -0,0 +1,93 @@
+package transaction_service.transaction_service.service;
+
+import core.core.dto.AccountResponseDto;
+import core.core.enums.Currency;
+import core.core.enums.StatusAccount;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import transaction_service.transaction_service.config.AccountClient;
+import transaction_service.transaction_service.dto.TransactionRequestDto;
+import transaction_service.transaction_service.dto.TransactionResponseDto;
+import transaction_service.transaction_service.model.Status;
+import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.model.TransactionCategory;
+import transaction_service.transaction_service.model.TransactionStep;
+import transaction_service.transaction_service.repository.TransactionCategoryRepository;
+import transaction_service.transaction_service.repository.TransactionOutboxRepository;
+import transaction_service.transaction_service.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "transaction_service.transaction_service.service.TransactionStatementCounter")
+@ActiveProfiles("test")
+class TransferStatementCountTest {
+    private static final Long USER_ID = 7L;
+
+    @MockBean
+    AccountClient accountClient;
+    @MockBean
+    AnalyticsCacheEvictService analyticsCacheEvictService;
+
+    @Autowired
+    TransactionService transactionService;
+    @Autowired
+    TransactionRepository transactionRepository;
+    @Autowired
+    TransactionOutboxRepository outboxRepository;
+    @Autowired
+    TransactionCategoryRepository categoryRepository;
+
+    @Test
+    void successfulTransfer_atMostTwoWritesNoReadsAndFreeReplay() {
+        TransactionCategory category = categoryRepository.save(TransactionCategory.builder()
+                .name("Statement count")
+                .build());
+        Instant opened = Instant.now().minus(30, ChronoUnit.DAYS);
+        when(accountClient.getAccountsByIds(any())).thenReturn(List.of(
+                new AccountResponseDto(1L, USER_ID, Currency.USD, BigDecimal.valueOf(500), StatusAccount.ACTIVE, opened),
+                new AccountResponseDto(2L, 8L, Currency.USD, BigDecimal.ZERO, StatusAccount.ACTIVE, opened)));
+        TransactionRequestDto dto = TransactionRequestDto.builder()
+                .sourceAccountId(1L)
+                .targetAccountId(2L)
+                .amount(BigDecimal.valueOf(25))
+                .categoryId(category.getId())
+                .build();
+
+        TransactionStatementCounter.reset();
+        TransactionResponseDto result = transactionService.transfer(dto, USER_ID, "statement-count-1");
+
+        assertThat(result.getStatus()).isEqualTo(Status.COMPLETED);
+        // INSERT (created as PROCESSING) + conditional UPDATE to COMPLETED
+        assertThat(TransactionStatementCounter.writes()).isLessThanOrEqualTo(2);
+        // the key filter reports a new key, so no idempotency lookup and no re-read after the insert
+        assertThat(TransactionStatementCounter.reads()).isZero();
+
+        TransactionStatementCounter.reset();
+        TransactionResponseDto replay = transactionService.transfer(dto, USER_ID, "statement-count-1");
+
+        // a client retry is answered from the replay cache
+        assertThat(replay.getId()).isEqualTo(result.getId());
+        assertThat(TransactionStatementCounter.reads()).isZero();
+        assertThat(TransactionStatementCounter.writes()).isZero();
+
+        Transaction stored = transactionRepository.findByIdempotencyKey("statement-count-1").orElseThrow();
+        assertThat(stored.getStatus()).isEqualTo(Status.COMPLETED);
+        assertThat(stored.getStep()).isEqualTo(TransactionStep.CREDIT_DONE);
+        // the completion queued its event in the same DB transaction, nothing was sent inline
+        assertThat(outboxRepository.findAll())
+                .filteredOn(row -> row.getTransactionId().equals(stored.getId()))
+                .singleElement()
+                .satisfies(row -> assertThat(row.getSentAt()).isNull());
+    }
+}
@@ -0,0 +1,90 @@
+package transaction_service.transaction_service.service.bulk;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import transaction_service.transaction_service.dto.bulk.BulkTransferFailedItemDto;
+import transaction_service.transaction_service.model.BulkJob;
+import transaction_service.transaction_service.model.BulkJobChunk;
+import transaction_service.transaction_service.repository.BulkJobChunkRepository;
+import transaction_service.transaction_service.repository.BulkJobRepository;
+import transaction_service.transaction_service.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkJobClaimServiceTest {
+    @Mock
+    private BulkJobChunkRepository chunkRepository;
+    @Mock
+    private BulkJobRepository bulkJobRepository;
+    @Mock
+    private TransactionRepository transactionRepository;
+    @InjectMocks
+    private BulkJobClaimService claimService;
+
+    @Test
+    @DisplayName("Claimed chunks are leased and returned with their jobs")
+    void claim_leasesChunksWithJobs() {
+        Instant before = Instant.now();
+        BulkJobChunk first = BulkJobChunk.builder().id(1L).jobId(5L).seq(0).build();
+        BulkJobChunk second = BulkJobChunk.builder().id(2L).jobId(5L).seq(1).build();
+        BulkJob job = BulkJob.builder().id(5L).build();
+        when(chunkRepository.claimPending(any(Instant.class), eq(PageRequest.of(0, 2)))).thenReturn(List.of(first, second));
+        when(bulkJobRepository.findAllById(List.of(5L))).thenReturn(List.of(job));
+
+        List<BulkJobClaimService.ClaimedChunk> claimed = claimService.claim(Duration.ofMinutes(5), 2);
+
+        assertEquals(List.of(new BulkJobClaimService.ClaimedChunk(first, job),
+                new BulkJobClaimService.ClaimedChunk(second, job)), claimed);
+        verify(chunkRepository).lease(eq(List.of(1L, 2L)),
+                argThat(until -> !until.isBefore(before.plus(Duration.ofMinutes(5)))));
+    }
+
+    @Test
+    @DisplayName("Nothing is leased when no chunk is pending")
+    void claim_empty() {
+        when(chunkRepository.claimPending(any(), any())).thenReturn(List.of());
+
+        assertTrue(claimService.claim(Duration.ofMinutes(5), 2).isEmpty());
+
+        verify(chunkRepository, never()).lease(any(), any());
+        verifyNoInteractions(bulkJobRepository);
+    }
+
+    @Test
+    @DisplayName("Checkpoint settles the chunk, advances the job and completes it")
+    void checkpoint_advancesJob() {
+        BulkJobChunk chunk = BulkJobChunk.builder().id(1L).jobId(5L).build();
+        List<BulkTransferFailedItemDto> failed = List.of(BulkTransferFailedItemDto.builder()
+                .targetAccountId(7L).amount(BigDecimal.ONE).reason("Account frozen").build());
+        when(chunkRepository.complete(eq(1L), eq(3), eq(1), eq("7,1,Account frozen\n"), any())).thenReturn(1);
+
+        assertTrue(claimService.checkpoint(chunk, 3, failed));
+
+        verify(bulkJobRepository).recordChunk(eq(5L), eq(3), eq(1), any());
+        verify(bulkJobRepository).completeIfDone(eq(5L), any());
+    }
+
+    @Test
+    @DisplayName("A chunk settled twice is counted once")
+    void checkpoint_alreadySettled_notCountedAgain() {
+        BulkJobChunk chunk = BulkJobChunk.builder().id(1L).jobId(5L).build();
+        when(chunkRepository.complete(eq(1L), eq(4), eq(0), isNull(), any())).thenReturn(0);
+
+        assertFalse(claimService.checkpoint(chunk, 4, List.of()));
+
+        verifyNoInteractions(bulkJobRepository);
+    }
+}
@@ -0,0 +1,85 @@
+package transaction_service.transaction_service.service.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import core.core.exception.BadRequestException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import transaction_service.transaction_service.dto.bulk.BulkTransferItemDto;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkJobFileReaderTest {
+    private final BulkJobFileReader reader = new BulkJobFileReader(
+            new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator());
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("CSV with header, optional category and blank lines")
+    void read_csv() {
+        List<BulkTransferItemDto> items = new ArrayList<>();
+
+        int count = reader.read(body("targetAccountId,amount,categoryId\n2,100.50,7\n\n3, 20 \n"),
+                BulkJobFormat.CSV, 10, items::add);
+
+        assertEquals(2, count);
+        assertEquals(new BulkTransferItemDto(2L, new BigDecimal("100.50"), 7L), items.get(0));
+        assertEquals(new BulkTransferItemDto(3L, new BigDecimal("20"), null), items.get(1));
+    }
+
+    @Test
+    @DisplayName("NDJSON, one item per line")
+    void read_ndjson() {
+        List<BulkTransferItemDto> items = new ArrayList<>();
+
+        reader.read(body("{\"targetAccountId\":2,\"amount\":100.50}\n{\"targetAccountId\":3,\"amount\":1,\"categoryId\":4}"),
+                BulkJobFormat.NDJSON, 10, items::add);
+
+        assertEquals(List.of(
+                new BulkTransferItemDto(2L, new BigDecimal("100.50"), null),
+                new BulkTransferItemDto(3L, BigDecimal.ONE, 4L)), items);
+    }
+
+    @Test
+    @DisplayName("Invalid amount rejected with its line number")
+    void read_invalidItem_rejectedWithLine() {
+        BadRequestException e = assertThrows(BadRequestException.class,
+                () -> reader.read(body("2,10\n3,0.00\n"), BulkJobFormat.CSV, 10, item -> { }));
+
+        assertThat(e.getMessage()).startsWith("Line 2: amount");
+    }
+
+    @Test
+    @DisplayName("Malformed line rejected with its line number")
+    void read_malformed_rejected() {
+        BadRequestException e = assertThrows(BadRequestException.class,
+                () -> reader.read(body("2,10\nabc,10\n"), BulkJobFormat.CSV, 10, item -> { }));
+
+        assertEquals("Line 2: malformed transfer", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("More items than allowed rejected")
+    void read_tooManyItems_rejected() {
+        assertThrows(BadRequestException.class,
+                () -> reader.read(body("2,1\n3,1\n4,1\n"), BulkJobFormat.CSV, 2, item -> { }));
+    }
+
+    @Test
+    @DisplayName("Empty upload rejected")
+    void read_empty_rejected() {
+        assertThrows(BadRequestException.class,
+                () -> reader.read(body("targetAccountId,amount\n"), BulkJobFormat.CSV, 10, item -> { }));
+    }
+}
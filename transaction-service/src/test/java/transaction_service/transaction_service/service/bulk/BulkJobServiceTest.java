@@ -0,0 +1,197 @@
+package transaction_service.transaction_service.service.bulk;
+
+import core.core.exception.BadRequestException;
+import core.core.exception.ConflictException;
+import core.core.exception.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import transaction_service.transaction_service.dto.bulk.BulkJobStatusDto;
+import transaction_service.transaction_service.dto.bulk.BulkTransferItemDto;
+import transaction_service.transaction_service.model.BulkJob;
+import transaction_service.transaction_service.model.BulkJobChunk;
+import transaction_service.transaction_service.model.BulkJobStatus;
+import transaction_service.transaction_service.repository.BulkJobChunkRepository;
+import transaction_service.transaction_service.repository.BulkJobRepository;
+import transaction_service.transaction_service.service.validate.AccountAccessService;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkJobServiceTest {
+    @Mock
+    private BulkJobRepository bulkJobRepository;
+    @Mock
+    private BulkJobChunkRepository chunkRepository;
+    @Mock
+    private BulkJobFileReader fileReader;
+    @Mock
+    private AccountAccessService accountAccessService;
+    @Mock
+    private BulkJobUploadService uploadService;
+    @Mock
+    private InputStream body;
+
+    private BulkJobService bulkJobService;
+
+    private static final Long USER_ID = 1L;
+    private static final Long SOURCE_ACCOUNT_ID = 10L;
+    private static final String KEY = "payroll-2026-10";
+
+    @BeforeEach
+    void setUp() {
+        bulkJobService = new BulkJobService(bulkJobRepository, chunkRepository, uploadService, fileReader,
+                accountAccessService, 2, 100);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void upload(int items) {
+        when(fileReader.read(eq(body), eq(BulkJobFormat.CSV), eq(100), any())).thenAnswer(i -> {
+            Consumer<BulkTransferItemDto> sink = i.getArgument(3);
+            for (long n = 1; n <= items; n++) {
+                sink.accept(new BulkTransferItemDto(100 + n, BigDecimal.TEN, null));
+            }
+            return items;
+        });
+    }
+
+    @Test
+    @DisplayName("Upload stored as chunks of chunk-size items, then handed to the workers with its total")
+    void submit_storesChunks() {
+        when(bulkJobRepository.findByIdempotencyKey(KEY)).thenReturn(Optional.empty());
+        openJob();
+        when(uploadService.finish(eq(5L), eq(5), any(Instant.class))).thenReturn(true);
+        upload(5);
+
+        BulkJobStatusDto accepted = bulkJobService.submit(body, BulkJobFormat.CSV, SOURCE_ACCOUNT_ID, USER_ID, KEY);
+
+        ArgumentCaptor<BulkJobChunk> chunks = ArgumentCaptor.forClass(BulkJobChunk.class);
+        verify(uploadService, times(3)).store(chunks.capture());
+        assertEquals(List.of(0, 1, 2), chunks.getAllValues().stream().map(BulkJobChunk::getSeq).toList());
+        assertEquals(List.of(2, 2, 1), chunks.getAllValues().stream().map(BulkJobChunk::getItemCount).toList());
+        assertEquals("101,10,\n102,10,\n", chunks.getAllValues().get(0).getItems());
+        verify(accountAccessService).validateAccountOwnership(SOURCE_ACCOUNT_ID, USER_ID);
+        assertEquals(5L, accepted.getId());
+        assertEquals(5, accepted.getTotalItems());
+        assertEquals(BulkJobStatus.QUEUED, accepted.getStatus());
+    }
+
+    @Test
+    @DisplayName("Rejected line discards the job and its stored chunks")
+    void submit_rejectedLine_discardsJob() {
+        when(bulkJobRepository.findByIdempotencyKey(KEY)).thenReturn(Optional.empty());
+        openJob();
+        when(fileReader.read(eq(body), eq(BulkJobFormat.CSV), eq(100), any()))
+                .thenThrow(new BadRequestException("Line 3: amount is not a number"));
+
+        assertThrows(BadRequestException.class,
+                () -> bulkJobService.submit(body, BulkJobFormat.CSV, SOURCE_ACCOUNT_ID, USER_ID, KEY));
+
+        verify(uploadService).discard(5L);
+        verify(uploadService, never()).finish(any(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Upload discarded as abandoned before it finished is a conflict")
+    void submit_discardedMeanwhile_conflict() {
+        when(bulkJobRepository.findByIdempotencyKey(KEY)).thenReturn(Optional.empty());
+        openJob();
+        when(uploadService.finish(eq(5L), eq(1), any(Instant.class))).thenReturn(false);
+        upload(1);
+
+        assertThrows(ConflictException.class,
+                () -> bulkJobService.submit(body, BulkJobFormat.CSV, SOURCE_ACCOUNT_ID, USER_ID, KEY));
+    }
+
+    @Test
+    @DisplayName("Same key while the first upload is still running is a conflict")
+    void submit_keyBeingUploaded_conflict() {
+        when(bulkJobRepository.findByIdempotencyKey(KEY)).thenReturn(Optional.of(
+                BulkJob.builder().id(5L).userId(USER_ID).build()));
+
+        assertThrows(ConflictException.class,
+                () -> bulkJobService.submit(body, BulkJobFormat.CSV, SOURCE_ACCOUNT_ID, USER_ID, KEY));
+
+        verifyNoInteractions(fileReader, uploadService);
+    }
+
+    private void openJob() {
+        when(uploadService.open(USER_ID, SOURCE_ACCOUNT_ID, KEY)).thenReturn(BulkJob.builder()
+                .id(5L).userId(USER_ID).sourceAccountId(SOURCE_ACCOUNT_ID).idempotencyKey(KEY)
+                .createdAt(Instant.now()).updatedAt(Instant.now()).build());
+    }
+
+    @Test
+    @DisplayName("Same key replays the stored job without reading the upload")
+    void submit_replay_returnsStoredJob() {
+        when(bulkJobRepository.findByIdempotencyKey(KEY)).thenReturn(Optional.of(
+                BulkJob.builder().id(5L).userId(USER_ID).totalItems(5).processedItems(2).succeededItems(2)
+                        .uploadedAt(Instant.now()).build()));
+
+        BulkJobStatusDto replay = bulkJobService.submit(body, BulkJobFormat.CSV, SOURCE_ACCOUNT_ID, USER_ID, KEY);
+
+        assertEquals(BulkJobStatus.RUNNING, replay.getStatus());
+        verifyNoInteractions(fileReader, chunkRepository, accountAccessService, uploadService);
+    }
+
+    @Test
+    @DisplayName("Key used by another user is a conflict")
+    void submit_keyOfOtherUser_conflict() {
+        when(bulkJobRepository.findByIdempotencyKey(KEY)).thenReturn(Optional.of(
+                BulkJob.builder().id(5L).userId(99L).build()));
+
+        assertThrows(ConflictException.class,
+                () -> bulkJobService.submit(body, BulkJobFormat.CSV, SOURCE_ACCOUNT_ID, USER_ID, KEY));
+    }
+
+    @Test
+    @DisplayName("Source account of another user rejected before anything is stored")
+    void submit_foreignSource_rejected() {
+        when(bulkJobRepository.findByIdempotencyKey(KEY)).thenReturn(Optional.empty());
+        when(accountAccessService.validateAccountOwnership(SOURCE_ACCOUNT_ID, USER_ID))
+                .thenThrow(new NotFoundException("Account not found or access denied."));
+
+        assertThrows(NotFoundException.class,
+                () -> bulkJobService.submit(body, BulkJobFormat.CSV, SOURCE_ACCOUNT_ID, USER_ID, KEY));
+
+        verifyNoInteractions(fileReader, uploadService);
+    }
+
+    @Test
+    @DisplayName("Status lists the failed items of settled chunks")
+    void getStatus_completedWithFailures() {
+        when(bulkJobRepository.findById(5L)).thenReturn(Optional.of(BulkJob.builder()
+                .id(5L).userId(USER_ID).totalItems(3).processedItems(3).succeededItems(1).failedItems(2)
+                .uploadedAt(Instant.now()).completedAt(Instant.now()).build()));
+        when(chunkRepository.findFailures(eq(5L), any())).thenReturn(List.of(
+                "101,10,Daily limit exceeded\n", "103,10.50,Account frozen, try later\n"));
+
+        BulkJobStatusDto status = bulkJobService.getStatus(5L, USER_ID);
+
+        assertEquals(BulkJobStatus.COMPLETED, status.getStatus());
+        assertEquals(2, status.getFailed().size());
+        assertEquals("Account frozen, try later", status.getFailed().get(1).getReason());
+        assertEquals(new BigDecimal("10.50"), status.getFailed().get(1).getAmount());
+    }
+
+    @Test
+    @DisplayName("Job of another user is not found")
+    void getStatus_otherUser_notFound() {
+        when(bulkJobRepository.findById(5L)).thenReturn(Optional.of(BulkJob.builder().id(5L).userId(99L).build()));
+
+        assertThrows(NotFoundException.class, () -> bulkJobService.getStatus(5L, USER_ID));
+    }
+}
@@ -0,0 +1,123 @@
+package transaction_service.transaction_service.service.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import transaction_service.transaction_service.dto.bulk.BulkJobStatusDto;
+import transaction_service.transaction_service.dto.bulk.BulkTransferRequestDto;
+import transaction_service.transaction_service.service.validate.AccountAccessService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Time and heap growth of accepting a 100k-item payroll: one JSON body bound to a
+ * {@link BulkTransferRequestDto}, as the synchronous endpoint reads it, against a CSV upload
+ * streamed into bulk job chunks. The CSV is generated while it is read, so the file itself
+ * is never in memory. Run with {@code ./gradlew :transaction-service:benchmark}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+class BulkJobUploadBenchmarkTest {
+
+    private static final int ITEMS = 100_000;
+    private static final Long USER_ID = 1L;
+    private static final Long SOURCE_ACCOUNT_ID = 1L;
+
+    @Autowired
+    BulkJobService bulkJobService;
+    @Autowired
+    ObjectMapper objectMapper;
+    @MockBean
+    AccountAccessService accountAccessService;
+
+    @Test
+    void acceptHundredThousandItems() throws Exception {
+        byte[] json = json();
+        Result bound = measure(() -> (long) objectMapper.readValue(json, BulkTransferRequestDto.class)
+                .getTransfers().size());
+        Result streamed = measure(() -> (long) bulkJobService.submit(new CsvPayroll(), BulkJobFormat.CSV,
+                SOURCE_ACCOUNT_ID, USER_ID, "upload-bench-" + System.nanoTime()).getTotalItems());
+
+        assertThat(streamed.items).isEqualTo(ITEMS);
+        System.out.printf("items=%,d  JSON body bound  : %,d ms, peak heap +%,d MB (%,d MB body held)%n",
+                ITEMS, bound.millis, bound.peakHeapMb(), json.length >> 20);
+        System.out.printf("items=%,d  streamed bulk job: %,d ms, peak heap +%,d MB%n",
+                ITEMS, streamed.millis, streamed.peakHeapMb());
+    }
+
+    private static byte[] json() {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes(("{\"sourceAccountId\":" + SOURCE_ACCOUNT_ID + ",\"transfers\":[").getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < ITEMS; i++) {
+            String item = (i == 0 ? "" : ",") + "{\"targetAccountId\":" + (1_000 + i) + ",\"amount\":12.34}";
+            body.writeBytes(item.getBytes(StandardCharsets.UTF_8));
+        }
+        body.writeBytes("]}".getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+
+    private Result measure(Callable<Long> accept) throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+        AtomicLong peak = new AtomicLong(baseline);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (running.get()) {
+                peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        long started = System.nanoTime();
+        long items = accept.call();
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        running.set(false);
+        sampler.join();
+        return new Result(millis, peak.get() - baseline, items);
+    }
+
+    private record Result(long millis, long peakHeapBytes, long items) {
+        long peakHeapMb() {
+            return Math.max(0, peakHeapBytes) >> 20;
+        }
+    }
+
+    /**
+     * {@code targetAccountId,amount} lines produced as they are read.
+     */
+    private static final class CsvPayroll extends InputStream {
+        private byte[] line = "targetAccountId,amount\n".getBytes(StandardCharsets.UTF_8);
+        private int position;
+        private int written;
+
+        @Override
+        public int read() {
+            if (position == line.length) {
+                if (written == ITEMS) {
+                    return -1;
+                }
+                line = ((1_000 + written++) + ",12.34\n").getBytes(StandardCharsets.UTF_8);
+                position = 0;
+            }
+            return line[position++];
+        }
+    }
+}
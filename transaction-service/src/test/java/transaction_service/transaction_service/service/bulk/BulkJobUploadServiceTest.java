@@ -0,0 +1,64 @@
+package transaction_service.transaction_service.service.bulk;
+
+import core.core.exception.ConflictException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import transaction_service.transaction_service.model.BulkJob;
+import transaction_service.transaction_service.repository.BulkJobChunkRepository;
+import transaction_service.transaction_service.repository.BulkJobRepository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkJobUploadServiceTest {
+    @Mock
+    private BulkJobRepository bulkJobRepository;
+    @Mock
+    private BulkJobChunkRepository chunkRepository;
+    @InjectMocks
+    private BulkJobUploadService uploadService;
+
+    @Test
+    @DisplayName("Job opened with the same key concurrently is a conflict")
+    void open_duplicateKey_conflict() {
+        when(bulkJobRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertThrows(ConflictException.class, () -> uploadService.open(1L, 10L, "payroll"));
+    }
+
+    @Test
+    @DisplayName("Abandoned uploads are deleted with their chunks")
+    void discardAbandoned_deletesJobsAndChunks() {
+        Instant before = Instant.now();
+        List<BulkJob> abandoned = List.of(BulkJob.builder().id(5L).build(), BulkJob.builder().id(7L).build());
+        when(bulkJobRepository.lockUploadingSince(before, PageRequest.of(0, 100))).thenReturn(abandoned);
+
+        assertEquals(2, uploadService.discardAbandoned(before, 100));
+
+        verify(chunkRepository).deleteByJobIds(List.of(5L, 7L));
+        verify(bulkJobRepository).deleteAllInBatch(abandoned);
+    }
+
+    @Test
+    @DisplayName("Job whose upload already finished is not discarded")
+    void discard_finishedJob_kept() {
+        when(bulkJobRepository.lockUploading(5L)).thenReturn(Optional.empty());
+
+        uploadService.discard(5L);
+
+        verifyNoInteractions(chunkRepository);
+        verify(bulkJobRepository, never()).deleteAllInBatch(any());
+    }
+}
@@ -0,0 +1,188 @@
+package transaction_service.transaction_service.service.bulk;
+
+import core.core.exception.NotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import transaction_service.transaction_service.config.FeignClientInterceptor;
+import transaction_service.transaction_service.config.ServiceTokenProvider;
+import transaction_service.transaction_service.dto.bulk.BulkTransferFailedItemDto;
+import transaction_service.transaction_service.dto.bulk.BulkTransferRequestDto;
+import transaction_service.transaction_service.dto.bulk.BulkTransferResponseDto;
+import transaction_service.transaction_service.model.BulkJob;
+import transaction_service.transaction_service.model.BulkJobChunk;
+import transaction_service.transaction_service.model.Status;
+import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.service.BulkTransferService;
+import transaction_service.transaction_service.service.bulk.BulkJobClaimService.ClaimedChunk;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkJobWorkerTest {
+    @Mock
+    private BulkJobClaimService claimService;
+    @Mock
+    private BulkJobUploadService uploadService;
+    @Mock
+    private BulkTransferService bulkTransferService;
+    @Mock
+    private ServiceTokenProvider serviceTokens;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BulkJobWorker worker;
+
+    private static final Duration LEASE = Duration.ofMinutes(5);
+    private static final Duration UPLOAD_TIMEOUT = Duration.ofHours(1);
+
+    private final BulkJob job = BulkJob.builder()
+            .id(5L).userId(1L).sourceAccountId(10L).idempotencyKey("payroll").build();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(serviceTokens.tokenFor(1L)).thenReturn("Bearer service");
+        worker = new BulkJobWorker(claimService, uploadService, bulkTransferService, serviceTokens, Runnable::run,
+                meterRegistry, LEASE, UPLOAD_TIMEOUT, 2, 3, true);
+    }
+
+    private BulkJobChunk chunk(int seq, int attempts) {
+        return BulkJobChunk.builder().id(seq + 1L).jobId(5L).seq(seq).itemCount(2)
+                .items("101,10,\n102,20,3\n").attempts(attempts).build();
+    }
+
+    @Test
+    @DisplayName("Chunk settled as one bulk transfer under the job key and its seq, with a service token")
+    void settle_bulkTransferPerChunk() {
+        BulkJobChunk chunk = chunk(3, 0);
+        AtomicReference<String> token = new AtomicReference<>();
+        List<BulkTransferFailedItemDto> failed = List.of(BulkTransferFailedItemDto.builder()
+                .targetAccountId(102L).amount(BigDecimal.valueOf(20)).reason("Daily limit exceeded").build());
+        when(bulkTransferService.bulkTransfer(any(), eq(1L), eq("payroll-3"))).thenAnswer(i -> {
+            token.set(FeignClientInterceptor.currentToken());
+            return BulkTransferResponseDto.builder().successCount(1).failed(failed).build();
+        });
+        when(claimService.checkpoint(chunk, 1, failed)).thenReturn(true);
+
+        worker.settle(new ClaimedChunk(chunk, job));
+
+        ArgumentCaptor<BulkTransferRequestDto> request = ArgumentCaptor.forClass(BulkTransferRequestDto.class);
+        verify(bulkTransferService).bulkTransfer(request.capture(), eq(1L), eq("payroll-3"));
+        assertEquals(10L, request.getValue().getSourceAccountId());
+        assertEquals(2, request.getValue().getTransfers().size());
+        assertEquals(3L, request.getValue().getTransfers().get(1).getCategoryId());
+        assertEquals("Bearer service", token.get());
+        assertNull(FeignClientInterceptor.currentToken());
+        assertEquals(1.0, meterRegistry.counter("transaction.bulk_job.chunks.settled").count());
+    }
+
+    @Test
+    @DisplayName("Rejected chunk checkpointed with every item failed")
+    void settle_rejected_allItemsFailed() {
+        BulkJobChunk chunk = chunk(0, 0);
+        when(bulkTransferService.bulkTransfer(any(), any(), any()))
+                .thenThrow(new NotFoundException("Account not found or access denied."));
+
+        worker.settle(new ClaimedChunk(chunk, job));
+
+        verify(claimService).checkpoint(eq(chunk), eq(0), argThat(failed -> failed.size() == 2
+                && failed.stream().allMatch(item -> item.getReason().equals("Account not found or access denied."))));
+    }
+
+    @Test
+    @DisplayName("Unexpected failure leaves the chunk to be claimed again after its lease")
+    void settle_transientFailure_notCheckpointed() {
+        when(bulkTransferService.bulkTransfer(any(), any(), any())).thenThrow(new IllegalStateException("Read timed out"));
+
+        worker.settle(new ClaimedChunk(chunk(0, 0), job));
+
+        verify(claimService, never()).checkpoint(any(), anyInt(), any());
+        assertEquals(1.0, meterRegistry.counter("transaction.bulk_job.chunks.retried").count());
+    }
+
+    @Test
+    @DisplayName("Chunk out of attempts reports the outcome its transactions reached without settling again")
+    void settle_outOfAttempts_resolvedFromTransactions() {
+        BulkJobChunk chunk = BulkJobChunk.builder().id(1L).jobId(5L).seq(0).itemCount(3)
+                .items("101,10,\n102,20,3\n101,30,\n").attempts(3).build();
+        when(claimService.admitted(List.of("payroll-0-101", "payroll-0-102", "payroll-0-101-2"))).thenReturn(Map.of(
+                "payroll-0-101", Transaction.builder().id(1L).status(Status.COMPLETED).build(),
+                "payroll-0-102", Transaction.builder().id(2L).status(Status.FAILED).errorMessage("Insufficient funds").build()));
+
+        worker.settle(new ClaimedChunk(chunk, job));
+
+        verifyNoInteractions(bulkTransferService);
+        verify(claimService).checkpoint(eq(chunk), eq(1), argThat(failed -> failed.size() == 2
+                && failed.get(0).getReason().equals("Insufficient funds")
+                && failed.get(1).getAmount().compareTo(new BigDecimal("30")) == 0
+                && failed.get(1).getReason().equals("Not admitted after 3 attempts")));
+    }
+
+    @Test
+    @DisplayName("Chunk out of attempts with a transaction still in flight is checked again after its lease")
+    void settle_outOfAttempts_inFlight_notCheckpointed() {
+        when(claimService.admitted(any())).thenReturn(Map.of(
+                "payroll-0-101", Transaction.builder().id(1L).status(Status.COMPLETED).build(),
+                "payroll-0-102", Transaction.builder().id(2L).status(Status.PROCESSING).build()));
+
+        worker.settle(new ClaimedChunk(chunk(0, 3), job));
+
+        verifyNoInteractions(bulkTransferService);
+        verify(claimService, never()).checkpoint(any(), anyInt(), any());
+        assertEquals(1.0, meterRegistry.counter("transaction.bulk_job.chunks.retried").count());
+    }
+
+    @Test
+    @DisplayName("Claims until a claim comes back short")
+    void drain_claimsUntilShort() {
+        BulkTransferResponseDto settled = BulkTransferResponseDto.builder().successCount(2).failed(List.of()).build();
+        when(claimService.claim(LEASE, 2))
+                .thenReturn(List.of(new ClaimedChunk(chunk(0, 0), job), new ClaimedChunk(chunk(1, 0), job)))
+                .thenReturn(List.of(new ClaimedChunk(chunk(2, 0), job)));
+        when(bulkTransferService.bulkTransfer(any(), any(), any())).thenReturn(settled);
+
+        assertEquals(3, worker.drain());
+
+        verify(claimService, times(2)).claim(LEASE, 2);
+        verify(claimService, times(3)).checkpoint(any(), eq(2), eq(List.of()));
+    }
+
+    @Test
+    @DisplayName("Disabled worker claims nothing on its scheduled run")
+    void scheduledDrain_disabled() {
+        BulkJobWorker disabled = new BulkJobWorker(claimService, uploadService, bulkTransferService, serviceTokens,
+                Runnable::run, meterRegistry, LEASE, UPLOAD_TIMEOUT, 2, 3, false);
+
+        disabled.scheduledDrain();
+        disabled.scheduledCleanup();
+
+        verifyNoInteractions(claimService, uploadService);
+    }
+
+    @Test
+    @DisplayName("Uploads older than the upload timeout are discarded in batches")
+    void scheduledCleanup_discardsAbandonedUploads() {
+        Instant before = Instant.now().minus(UPLOAD_TIMEOUT);
+        when(uploadService.discardAbandoned(any(Instant.class), eq(100))).thenReturn(100, 3);
+
+        worker.scheduledCleanup();
+
+        verify(uploadService, times(2)).discardAbandoned(
+                argThat(threshold -> !threshold.isBefore(before)
+                        && !threshold.isAfter(Instant.now().minus(UPLOAD_TIMEOUT))), eq(100));
+    }
+}
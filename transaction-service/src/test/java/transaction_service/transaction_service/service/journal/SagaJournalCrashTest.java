@@ -0,0 +1,152 @@
+package transaction_service.transaction_service.service.journal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import transaction_service.transaction_service.model.TransactionStep;
+import transaction_service.transaction_service.service.TransactionStateService;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Kills a separate JVM ({@link Runtime#halt}, no shutdown hooks, no unmapping) after it has
+ * journaled saga steps and before the journal checkpoint, then checks that the next startup
+ * hands every such step to the database checkpoint.
+ */
+class SagaJournalCrashTest {
+    private static final int CAPACITY = 1024 * 1024;
+    private static final int CRASH_EXIT = 137;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Crash right after the appends: every step is checkpointed on startup")
+    void crashAfterAppend() throws Exception {
+        Path path = dir.resolve("steps.journal");
+
+        assertEquals(CRASH_EXIT, crash(path, 200, 0, false));
+
+        assertEquals(expectedSteps(1, 200), startAndCapture(path));
+    }
+
+    @Test
+    @DisplayName("Crash after the DB checkpoint, before the journal checkpoint: steps are checkpointed again")
+    void crashBetweenDbAndJournalCheckpoint() throws Exception {
+        Path path = dir.resolve("steps.journal");
+
+        assertEquals(CRASH_EXIT, crash(path, 200, 0, true));
+
+        assertEquals("200", Files.readString(Path.of(path + ".db")));
+        assertEquals(expectedSteps(1, 200), startAndCapture(path));
+    }
+
+    @Test
+    @DisplayName("Crash after a checkpoint: only the later steps are checkpointed on startup")
+    void crashAfterPartialCheckpoint() throws Exception {
+        Path path = dir.resolve("steps.journal");
+
+        assertEquals(CRASH_EXIT, crash(path, 200, 120, false));
+
+        assertEquals(expectedSteps(121, 200), startAndCapture(path));
+    }
+
+    @Test
+    @DisplayName("After the startup checkpoint a second restart has nothing to replay")
+    void restartAfterRecovery() throws Exception {
+        Path path = dir.resolve("steps.journal");
+        crash(path, 50, 0, false);
+        startAndCapture(path);
+
+        assertTrue(startAndCapture(path).isEmpty());
+    }
+
+    private Map<Long, TransactionStep> expectedSteps(long from, long to) {
+        Map<Long, TransactionStep> steps = new HashMap<>();
+        for (long id = from; id <= to; id++) {
+            steps.put(id, id % 2 == 0 ? TransactionStep.CREDIT_DONE : TransactionStep.DEBIT_DONE);
+        }
+        return steps;
+    }
+
+    /**
+     * Starts a {@link SagaJournalService} on the journal as the application would and returns
+     * the steps its startup checkpoint wrote.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Long, TransactionStep> startAndCapture(Path path) throws Exception {
+        TransactionStateService stateService = mock(TransactionStateService.class);
+        Map<Long, TransactionStep> checkpointed = new HashMap<>();
+        doAnswer(invocation -> {
+            checkpointed.putAll(invocation.getArgument(0, Map.class));
+            return null;
+        }).when(stateService).checkpointSteps(anyMap());
+        SagaJournalService service = new SagaJournalService(stateService,
+                new SimpleMeterRegistry(), path, DataSize.ofBytes(CAPACITY), true, true);
+
+        service.start();
+        service.stop();
+        return checkpointed;
+    }
+
+    private int crash(Path path, int transactions, int checkpointAfter, boolean haltBeforeJournalCheckpoint)
+            throws Exception {
+        String classpath = String.join(File.pathSeparator,
+                location(SagaJournal.class), location(TransactionStep.class), location(CrashingSaga.class));
+        Process process = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", classpath,
+                CrashingSaga.class.getName(),
+                path.toString(), String.valueOf(CAPACITY), String.valueOf(transactions),
+                String.valueOf(checkpointAfter), String.valueOf(haltBeforeJournalCheckpoint))
+                .inheritIO()
+                .start();
+        assertTrue(process.waitFor(60, TimeUnit.SECONDS), "crashing saga did not exit");
+        return process.exitValue();
+    }
+
+    private static String location(Class<?> type) throws Exception {
+        return Path.of(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+    }
+
+    /**
+     * Child process: journals a debit for every transaction and a credit for the even ones,
+     * optionally checkpoints after the first {@code checkpointAfter} transactions, then halts.
+     * Re-writing a step on the next startup is harmless, the checkpoint UPDATE is idempotent.
+     */
+    public static final class CrashingSaga {
+        public static void main(String[] args) throws Exception {
+            Path path = Path.of(args[0]);
+            int capacity = Integer.parseInt(args[1]);
+            int transactions = Integer.parseInt(args[2]);
+            int checkpointAfter = Integer.parseInt(args[3]);
+            boolean haltBeforeJournalCheckpoint = Boolean.parseBoolean(args[4]);
+
+            SagaJournal journal = SagaJournal.open(path, capacity, true);
+            for (long id = 1; id <= transactions; id++) {
+                journal.append(id, TransactionStep.DEBIT_DONE);
+                if (id % 2 == 0) {
+                    journal.append(id, TransactionStep.CREDIT_DONE);
+                }
+                if (id == checkpointAfter) {
+                    journal.checkpoint(journal.pending().position());
+                }
+            }
+            if (haltBeforeJournalCheckpoint) {
+                // stands in for the DB checkpoint; the journal checkpoint that follows it never runs
+                Files.writeString(Path.of(args[0] + ".db"), String.valueOf(journal.pending().steps().size()));
+            }
+            Runtime.getRuntime().halt(CRASH_EXIT);
+        }
+    }
+}
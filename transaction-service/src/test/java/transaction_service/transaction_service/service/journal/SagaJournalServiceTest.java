@@ -0,0 +1,96 @@
+package transaction_service.transaction_service.service.journal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+import transaction_service.transaction_service.model.Transaction;
+import transaction_service.transaction_service.model.TransactionStep;
+import transaction_service.transaction_service.service.TransactionStateService;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SagaJournalServiceTest {
+    @Mock
+    private TransactionStateService stateService;
+    @TempDir
+    Path dir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private SagaJournalService service(DataSize capacity, boolean enabled) {
+        return new SagaJournalService(stateService, meterRegistry, dir.resolve("steps.journal"),
+                capacity, false, enabled);
+    }
+
+    private Transaction tx(Long id, TransactionStep step) {
+        return Transaction.builder().id(id).step(step).build();
+    }
+
+    @Test
+    @DisplayName("Recorded steps reach the database on the next checkpoint, once")
+    void checkpoint_writesRecordedSteps() throws Exception {
+        SagaJournalService service = service(DataSize.ofKilobytes(64), true);
+        service.start();
+        service.record(tx(1L, TransactionStep.DEBIT_DONE));
+        service.record(tx(1L, TransactionStep.CREDIT_DONE));
+        service.record(tx(2L, TransactionStep.DEBIT_DONE));
+
+        assertEquals(2, service.checkpoint());
+        assertEquals(0, service.checkpoint());
+
+        verify(stateService).checkpointSteps(Map.of(1L, TransactionStep.CREDIT_DONE, 2L, TransactionStep.DEBIT_DONE));
+        service.stop();
+    }
+
+    @Test
+    @DisplayName("A failed DB checkpoint keeps the steps for the next one")
+    void checkpoint_failureRetried() throws Exception {
+        SagaJournalService service = service(DataSize.ofKilobytes(64), true);
+        service.start();
+        service.record(tx(1L, TransactionStep.DEBIT_DONE));
+        doThrow(new IllegalStateException("db down")).doNothing().when(stateService).checkpointSteps(anyMap());
+
+        assertEquals(0, service.checkpoint());
+        assertEquals(1, service.checkpoint());
+
+        verify(stateService, times(2)).checkpointSteps(Map.of(1L, TransactionStep.DEBIT_DONE));
+        service.stop();
+    }
+
+    @Test
+    @DisplayName("A full journal drops the step without failing the saga")
+    void record_full() throws Exception {
+        SagaJournalService service = service(DataSize.ofBytes(SagaJournal.HEADER_SIZE + SagaJournal.RECORD_SIZE), true);
+        service.start();
+        service.record(tx(1L, TransactionStep.DEBIT_DONE));
+
+        assertDoesNotThrow(() -> service.record(tx(1L, TransactionStep.CREDIT_DONE)));
+
+        assertEquals(1.0, meterRegistry.counter("transaction.saga_journal.dropped").count());
+        service.stop();
+    }
+
+    @Test
+    @DisplayName("Disabled journal creates no file and records nothing")
+    void disabled_noop() throws Exception {
+        SagaJournalService service = service(DataSize.ofKilobytes(64), false);
+        service.start();
+
+        service.record(tx(1L, TransactionStep.DEBIT_DONE));
+        service.stop();
+
+        assertFalse(Files.exists(dir.resolve("steps.journal")));
+        verifyNoInteractions(stateService);
+    }
+}
@@ -0,0 +1,143 @@
+package transaction_service.transaction_service.service.journal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import transaction_service.transaction_service.model.TransactionStep;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SagaJournalTest {
+    private static final int CAPACITY = 64 * 1024;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Pending keeps the latest step per transaction, in first-append order")
+    void pending_latestStep() throws IOException {
+        try (SagaJournal journal = SagaJournal.open(dir.resolve("j"), CAPACITY, true)) {
+            journal.append(1L, TransactionStep.DEBIT_DONE);
+            journal.append(2L, TransactionStep.DEBIT_DONE);
+            journal.append(1L, TransactionStep.CREDIT_DONE);
+
+            SagaJournal.Pending pending = journal.pending();
+
+            assertEquals(List.of(1L, 2L), List.copyOf(pending.steps().keySet()));
+            assertEquals(TransactionStep.CREDIT_DONE, pending.steps().get(1L));
+            assertEquals(SagaJournal.HEADER_SIZE + 3 * SagaJournal.RECORD_SIZE, pending.position());
+        }
+    }
+
+    @Test
+    @DisplayName("Records survive a reopen until they are checkpointed")
+    void reopen_replaysUncheckpointed() throws IOException {
+        Path path = dir.resolve("j");
+        try (SagaJournal journal = SagaJournal.open(path, CAPACITY, true)) {
+            journal.append(1L, TransactionStep.DEBIT_DONE);
+            journal.append(2L, TransactionStep.DEBIT_DONE);
+            SagaJournal.Pending first = journal.pending();
+            journal.append(3L, TransactionStep.DEBIT_DONE);
+            journal.checkpoint(first.position());
+        }
+
+        try (SagaJournal journal = SagaJournal.open(path, CAPACITY, true)) {
+            assertEquals(Map.of(3L, TransactionStep.DEBIT_DONE), journal.pending().steps());
+        }
+    }
+
+    @Test
+    @DisplayName("A drained journal starts over; records of the old generation are not replayed")
+    void checkpoint_drained_startsOver() throws IOException {
+        Path path = dir.resolve("j");
+        try (SagaJournal journal = SagaJournal.open(path, CAPACITY, true)) {
+            journal.append(1L, TransactionStep.DEBIT_DONE);
+            journal.append(2L, TransactionStep.DEBIT_DONE);
+            journal.checkpoint(journal.pending().position());
+            assertEquals(0, journal.backlog());
+
+            journal.append(3L, TransactionStep.CREDIT_DONE);
+        }
+
+        try (SagaJournal journal = SagaJournal.open(path, CAPACITY, true)) {
+            SagaJournal.Pending pending = journal.pending();
+            assertEquals(Map.of(3L, TransactionStep.CREDIT_DONE), pending.steps());
+            assertEquals(SagaJournal.HEADER_SIZE + SagaJournal.RECORD_SIZE, pending.position());
+        }
+    }
+
+    @Test
+    @DisplayName("A torn last record ends the replay and is overwritten by the next append")
+    void reopen_tornRecord() throws IOException {
+        Path path = dir.resolve("j");
+        try (SagaJournal journal = SagaJournal.open(path, CAPACITY, true)) {
+            journal.append(1L, TransactionStep.DEBIT_DONE);
+            journal.append(2L, TransactionStep.DEBIT_DONE);
+        }
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(SagaJournal.HEADER_SIZE + SagaJournal.RECORD_SIZE + 16);
+            file.writeInt(0xDEAD);
+        }
+
+        try (SagaJournal journal = SagaJournal.open(path, CAPACITY, true)) {
+            assertEquals(Map.of(1L, TransactionStep.DEBIT_DONE), journal.pending().steps());
+            journal.append(4L, TransactionStep.CREDIT_DONE);
+            assertEquals(Map.of(1L, TransactionStep.DEBIT_DONE, 4L, TransactionStep.CREDIT_DONE),
+                    journal.pending().steps());
+        }
+    }
+
+    @Test
+    @DisplayName("Append fails once the journal is full, and works again after a checkpoint")
+    void append_full() throws IOException {
+        int capacity = SagaJournal.HEADER_SIZE + 2 * SagaJournal.RECORD_SIZE;
+        try (SagaJournal journal = SagaJournal.open(dir.resolve("j"), capacity, false)) {
+            journal.append(1L, TransactionStep.DEBIT_DONE);
+            journal.append(2L, TransactionStep.DEBIT_DONE);
+
+            assertThrows(IllegalStateException.class, () -> journal.append(3L, TransactionStep.DEBIT_DONE));
+
+            journal.checkpoint(journal.pending().position());
+            journal.append(3L, TransactionStep.DEBIT_DONE);
+            assertEquals(Map.of(3L, TransactionStep.DEBIT_DONE), journal.pending().steps());
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent appenders all land in the journal")
+    void append_concurrent() throws Exception {
+        int threads = 8;
+        int perThread = 500;
+        Path path = dir.resolve("j");
+        try (SagaJournal journal = SagaJournal.open(path, CAPACITY, true)) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long base = t * 1_000_000L;
+                futures.add(executor.submit(() -> {
+                    for (int i = 1; i <= perThread; i++) {
+                        journal.append(base + i, TransactionStep.DEBIT_DONE);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+        }
+
+        try (SagaJournal journal = SagaJournal.open(path, CAPACITY, true)) {
+            assertEquals(threads * perThread, journal.pending().steps().size());
+        }
+    }
+}
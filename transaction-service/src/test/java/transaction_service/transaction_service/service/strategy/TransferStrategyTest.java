@@ -11,6 +11,8 @@ import core.core.exception.*;
 import transaction_service.transaction_service.model.*;
 import transaction_service.transaction_service.service.AccountOperationService;
 import transaction_service.transaction_service.service.TransactionStateService;
+import transaction_service.transaction_service.service.TransferNettingService;
+import transaction_service.transaction_service.service.journal.SagaJournalService;
 
 import java.math.BigDecimal;
 
@@ -25,6 +27,10 @@ class TransferStrategyTest {
     private AccountOperationService accountOperationService;
     @Mock
     private TransactionStateService transactionStateService;
+    @Mock
+    private SagaJournalService sagaJournal;
+    @Mock
+    private TransferNettingService nettingService;
 
     @InjectMocks
     private TransferStrategy strategy;
@@ -42,9 +48,10 @@ class TransferStrategyTest {
         strategy.execute(tx, 1L, 2L, BigDecimal.valueOf(100));
 
         verify(accountOperationService).debit(1L, 1L, BigDecimal.valueOf(100));
-        verify(transactionStateService).updateStep(1L, TransactionStep.DEBIT_DONE);
         verify(accountOperationService).credit(1L, 2L, BigDecimal.valueOf(100));
-        verify(transactionStateService).updateStep(1L, TransactionStep.CREDIT_DONE);
+        assertEquals(TransactionStep.CREDIT_DONE, tx.getStep());
+        verify(sagaJournal, times(2)).record(tx);
+        verifyNoInteractions(transactionStateService);
     }
 
     @Test
@@ -61,7 +68,7 @@ class TransferStrategyTest {
 
         verify(accountOperationService, never()).debit(any(), any(), any());
         verify(accountOperationService).credit(1L, 2L, BigDecimal.valueOf(100));
-        verify(transactionStateService).updateStep(1L, TransactionStep.CREDIT_DONE);
+        assertEquals(TransactionStep.CREDIT_DONE, tx.getStep());
     }
 
     @Test
@@ -101,11 +108,11 @@ class TransferStrategyTest {
         );
 
         verify(accountOperationService)
-                .compensate(1L, 1L, BigDecimal.TEN);
+                .compensate(-1L, 1L, BigDecimal.TEN);
     }
 
     @Test
-    @DisplayName("SAGA FAILURE: Credit fails → compensation fails → updateStatus")
+    @DisplayName("SAGA FAILURE: Credit fails → compensation fails → fail")
     void execute_compensationFails() {
 
         Transaction tx = Transaction.builder()
@@ -127,7 +134,46 @@ class TransferStrategyTest {
         );
 
         verify(transactionStateService)
-                .updateStatus(eq(1L), eq(Status.FAILED), contains("Compensation failed"));
+                .fail(eq(tx), contains("Compensation failed"));
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("SAGA RESUME: Netted transfer from NONE re-sends the aggregate debit")
+    void execute_nettedFromNone_redebits() {
+
+        Transaction tx = Transaction.builder()
+                .id(5L)
+                .nettingDebitId(-4L)
+                .step(TransactionStep.NONE)
+                .build();
+
+        strategy.execute(tx, 1L, 2L, BigDecimal.TEN);
+
+        verify(nettingService).redebit(tx, 1L);
+        verify(accountOperationService, never()).debit(any(), any(), any());
+        verify(accountOperationService).credit(5L, 2L, BigDecimal.TEN);
+        assertEquals(TransactionStep.CREDIT_DONE, tx.getStep());
+    }
+
+    @Test
+    @DisplayName("SAGA FAILURE: Netted transfer refunds its own share of the aggregate debit")
+    void execute_nettedCreditFails_refundsOwnAmount() {
+
+        Transaction tx = Transaction.builder()
+                .id(5L)
+                .nettingDebitId(-4L)
+                .amount(BigDecimal.valueOf(25))
+                .step(TransactionStep.DEBIT_DONE)
+                .build();
+
+        doThrow(new RuntimeException("Credit failed"))
+                .when(accountOperationService)
+                .credit(any(), any(), any());
+
+        assertThrows(BadRequestException.class, () ->
+                strategy.execute(tx, 1L, 2L, BigDecimal.valueOf(20))
+        );
+
+        verify(accountOperationService).compensate(5L, 1L, BigDecimal.valueOf(25));
+    }
+}
@@ -7,7 +7,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import transaction_service.transaction_service.repository.TransactionRepository;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -25,7 +24,7 @@ import static org.mockito.Mockito.*;
 public class FraudValidationServiceTest {
 
     @Mock
-    private TransactionRepository transactionRepository;
+    private VelocityTracker velocityTracker;
 
     @InjectMocks
     private FraudValidationService fraudValidationService;
@@ -36,7 +35,7 @@ public class FraudValidationServiceTest {
     @Test
     @DisplayName("Amount below threshold - passes")
     public void checkSuspiciousAmount_belowThreshold_passes() {
-        when(transactionRepository.countByUserIdAndCreatedAtAfter(eq(USER_ID), any()))
+        when(velocityTracker.count(eq(USER_ID), any(), eq(5L)))
                 .thenReturn(0L);
 
         assertDoesNotThrow(() ->
@@ -47,7 +46,7 @@ public class FraudValidationServiceTest {
     @Test
     @DisplayName("Amount exactly at threshold - passes")
     public void checkSuspiciousAmount_exactThreshold_passes() {
-        when(transactionRepository.countByUserIdAndCreatedAtAfter(eq(USER_ID), any()))
+        when(velocityTracker.count(eq(USER_ID), any(), eq(5L)))
                 .thenReturn(0L);
 
         assertDoesNotThrow(() ->
@@ -63,7 +62,7 @@ public class FraudValidationServiceTest {
         );
 
         assertThat(ex.getMessage()).contains("suspiciously large");
-        verify(transactionRepository, never()).countByUserIdAndCreatedAtAfter(any(), any());
+        verify(velocityTracker, never()).count(any(), any(), anyLong());
     }
 
     //checkVelocity
@@ -71,7 +70,7 @@ public class FraudValidationServiceTest {
     @Test
     @DisplayName("Velocity below limit - passes")
     public void checkVelocity_belowLimit_passes() {
-        when(transactionRepository.countByUserIdAndCreatedAtAfter(eq(USER_ID), any()))
+        when(velocityTracker.count(eq(USER_ID), any(), eq(5L)))
                 .thenReturn(4L);
 
         assertDoesNotThrow(() ->
@@ -82,7 +81,7 @@ public class FraudValidationServiceTest {
     @Test
     @DisplayName("Velocity exactly at limit - throws FraudDetectedException")
     public void checkVelocity_exactLimit_throwsFraud() {
-        when(transactionRepository.countByUserIdAndCreatedAtAfter(eq(USER_ID), any()))
+        when(velocityTracker.count(eq(USER_ID), any(), eq(5L)))
                 .thenReturn(5L);
 
         FraudDetectedException ex = assertThrows(FraudDetectedException.class, () ->
@@ -95,7 +94,7 @@ public class FraudValidationServiceTest {
     @Test
     @DisplayName("Velocity above limit - throws FraudDetectedException")
     public void checkVelocity_aboveLimit_throwsFraud() {
-        when(transactionRepository.countByUserIdAndCreatedAtAfter(eq(USER_ID), any()))
+        when(velocityTracker.count(eq(USER_ID), any(), eq(5L)))
                 .thenReturn(10L);
 
         assertThrows(FraudDetectedException.class, () ->
@@ -108,7 +107,7 @@ public class FraudValidationServiceTest {
     @Test
     @DisplayName("New account with large amount - throws FraudDetectedException")
     public void checkNewAccount_newAccountLargeAmount_throwsFraud() {
-        when(transactionRepository.countByUserIdAndCreatedAtAfter(eq(USER_ID), any()))
+        when(velocityTracker.count(eq(USER_ID), any(), eq(5L)))
                 .thenReturn(0L);
 
         Instant createdYesterday = Instant.now().minus(1, ChronoUnit.DAYS);
@@ -123,7 +122,7 @@ public class FraudValidationServiceTest {
     @Test
     @DisplayName("New account with small amount - passes")
     public void checkNewAccount_newAccountSmallAmount_passes() {
-        when(transactionRepository.countByUserIdAndCreatedAtAfter(eq(USER_ID), any()))
+        when(velocityTracker.count(eq(USER_ID), any(), eq(5L)))
                 .thenReturn(0L);
 
         Instant createdYesterday = Instant.now().minus(1, ChronoUnit.DAYS);
@@ -136,7 +135,7 @@ public class FraudValidationServiceTest {
     @Test
     @DisplayName("Old account with large amount - passes")
     public void checkNewAccount_oldAccountLargeAmount_passes() {
-        when(transactionRepository.countByUserIdAndCreatedAtAfter(eq(USER_ID), any()))
+        when(velocityTracker.count(eq(USER_ID), any(), eq(5L)))
                 .thenReturn(0L);
 
         Instant createdLongAgo = Instant.now().minus(30, ChronoUnit.DAYS);
@@ -149,7 +148,7 @@ public class FraudValidationServiceTest {
     @Test
     @DisplayName("accountCreatedAt is null - skips new account check")
     public void checkNewAccount_nullCreatedAt_skipsCheck() {
-        when(transactionRepository.countByUserIdAndCreatedAtAfter(eq(USER_ID), any()))
+        when(velocityTracker.count(eq(USER_ID), any(), eq(5L)))
                 .thenReturn(0L);
 
         assertDoesNotThrow(() ->
@@ -1,5 +1,4 @@
 package transaction_service.transaction_service.service.validate;
-import core.core.dto.AccountResponseDto;
 import core.core.enums.Currency;
 import core.core.exception.FraudDetectedException;
 import core.core.exception.InternalServerErrorException;
@@ -12,7 +11,6 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import transaction_service.transaction_service.dto.ValidationResult;
 import transaction_service.transaction_service.model.TransactionType;
-import transaction_service.transaction_service.service.AccountOperationService;
 import transaction_service.transaction_service.service.ExchangeRateService;
 import transaction_service.transaction_service.service.LimitService;
 
@@ -35,13 +33,10 @@ public class ParallelValidationServiceTest {
     private ExchangeRateService exchangeRateService;
     @Mock
     private FraudValidationService fraudValidationService;
-    @Mock
-    private AccountOperationService accountOperationService;
 
     private ParallelValidationService parallelValidationService;
 
     private static final Long USER_ID = 1L;
-    private static final Long TARGET_ACCOUNT_ID = 2L;
     private static final Instant OLD_ACCOUNT = Instant.now().minus(30, ChronoUnit.DAYS);
 
     @BeforeEach
@@ -50,7 +45,6 @@ public class ParallelValidationServiceTest {
                 limitService,
                 exchangeRateService,
                 fraudValidationService,
-                accountOperationService,
                 Runnable::run
         );
     }
@@ -60,14 +54,9 @@ public class ParallelValidationServiceTest {
     @Test
     @DisplayName("Same currency TRANSFER - rate is ONE")
     void validate_sameCurrency_rateIsOne() {
-        AccountResponseDto target = AccountResponseDto.builder()
-                .currency(Currency.USD)
-                .build();
-        when(accountOperationService.getAccountById(TARGET_ACCOUNT_ID)).thenReturn(target);
-
         ValidationResult result = parallelValidationService.validate(
                 USER_ID, BigDecimal.valueOf(100), Currency.USD,
-                TARGET_ACCOUNT_ID, TransactionType.TRANSFER, OLD_ACCOUNT
+                Currency.USD, TransactionType.TRANSFER, OLD_ACCOUNT, false
         );
 
         assertEquals(BigDecimal.ONE, result.getRate());
@@ -78,16 +67,12 @@ public class ParallelValidationServiceTest {
     @Test
     @DisplayName("Different currency TRANSFER - rate fetched and applied")
     void validate_differentCurrency_rateApplied() {
-        AccountResponseDto target = AccountResponseDto.builder()
-                .currency(Currency.EUR)
-                .build();
-        when(accountOperationService.getAccountById(TARGET_ACCOUNT_ID)).thenReturn(target);
         when(exchangeRateService.getRate(Currency.USD, Currency.EUR))
                 .thenReturn(new BigDecimal("0.9"));
 
         ValidationResult result = parallelValidationService.validate(
                 USER_ID, BigDecimal.valueOf(100), Currency.USD,
-                TARGET_ACCOUNT_ID, TransactionType.TRANSFER, OLD_ACCOUNT
+                Currency.EUR, TransactionType.TRANSFER, OLD_ACCOUNT, false
         );
 
         assertEquals(new BigDecimal("0.9"), result.getRate());
@@ -95,15 +80,15 @@ public class ParallelValidationServiceTest {
     }
 
     @Test
-    @DisplayName("DEPOSIT - rate is ONE, no account fetch")
+    @DisplayName("DEPOSIT - rate is ONE, no rate lookup")
     void validate_deposit_rateIsOne() {
         ValidationResult result = parallelValidationService.validate(
                 USER_ID, BigDecimal.valueOf(500), Currency.USD,
-                null, TransactionType.DEPOSIT, OLD_ACCOUNT
+                null, TransactionType.DEPOSIT, OLD_ACCOUNT, false
         );
 
         assertEquals(BigDecimal.ONE, result.getRate());
-        verify(accountOperationService, never()).getAccountById(any());
+        verify(exchangeRateService, never()).getRate(any(), any());
     }
 
     //parallel validation
@@ -113,7 +98,7 @@ public class ParallelValidationServiceTest {
     void validate_allPass_returnsResult() {
         ValidationResult result = parallelValidationService.validate(
                 USER_ID, BigDecimal.valueOf(100), Currency.USD,
-                null, TransactionType.WITHDRAW, OLD_ACCOUNT
+                null, TransactionType.WITHDRAW, OLD_ACCOUNT, false
         );
 
         assertNotNull(result);
@@ -130,7 +115,7 @@ public class ParallelValidationServiceTest {
         assertThrows(LimitExceededException.class, () ->
                 parallelValidationService.validate(
                         USER_ID, BigDecimal.valueOf(100), Currency.USD,
-                        null, TransactionType.WITHDRAW, OLD_ACCOUNT
+                        null, TransactionType.WITHDRAW, OLD_ACCOUNT, false
                 )
         );
         verify(fraudValidationService).validate(any(), any(), any());
@@ -145,7 +130,7 @@ public class ParallelValidationServiceTest {
         assertThrows(FraudDetectedException.class, () ->
                 parallelValidationService.validate(
                         USER_ID, BigDecimal.valueOf(100), Currency.USD,
-                        null, TransactionType.WITHDRAW, OLD_ACCOUNT
+                        null, TransactionType.WITHDRAW, OLD_ACCOUNT, false
                 )
         );
     }
@@ -159,8 +144,29 @@ public class ParallelValidationServiceTest {
         assertThrows(InternalServerErrorException.class, () ->
                 parallelValidationService.validate(
                         USER_ID, BigDecimal.valueOf(100), Currency.USD,
-                        null, TransactionType.WITHDRAW, OLD_ACCOUNT
+                        null, TransactionType.WITHDRAW, OLD_ACCOUNT, false
+                )
+        );
+    }
+
+    @Test
+    @DisplayName("Inline - checks run on the calling thread, not on the executor")
+    void validate_inline_callingThread() {
+        parallelValidationService = new ParallelValidationService(
+                limitService,
+                exchangeRateService,
+                fraudValidationService,
+                task -> fail("Inline validation must not use the executor")
+        );
+        doThrow(new LimitExceededException("Daily limit exceeded"))
+                .when(limitService).checkTransactionLimit(any(), any());
+
+        assertThrows(LimitExceededException.class, () ->
+                parallelValidationService.validate(
+                        USER_ID, BigDecimal.valueOf(100), Currency.USD,
+                        null, TransactionType.WITHDRAW, OLD_ACCOUNT, true
                 )
         );
+        verify(fraudValidationService).validate(any(), any(), any());
     }
 }
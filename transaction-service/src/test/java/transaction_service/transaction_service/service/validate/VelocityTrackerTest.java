@@ -0,0 +1,152 @@
+package transaction_service.transaction_service.service.validate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class VelocityTrackerTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(5);
+    private static final long LIMIT = 5;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StringRedisTemplate redisTemplate;
+    private VelocityTracker velocityTracker;
+    private long nextTransactionId = 1;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        redisTemplate = mock(StringRedisTemplate.class);
+        velocityTracker = new VelocityTracker(redisTemplate, meterRegistry, false);
+    }
+
+    private void record(Long userId, Instant createdAt) {
+        velocityTracker.record(userId, nextTransactionId++, createdAt);
+    }
+
+    @Test
+    @DisplayName("Counts only timestamps inside the window")
+    void count_onlyInsideWindow() {
+        Instant now = Instant.now();
+        record(1L, now.minus(10, ChronoUnit.MINUTES));
+        record(1L, now.minus(2, ChronoUnit.MINUTES));
+        record(1L, now);
+
+        assertThat(velocityTracker.count(1L, WINDOW, LIMIT)).isEqualTo(2);
+        assertThat(velocityTracker.count(1L, Duration.ofMinutes(1), LIMIT)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Users are tracked independently")
+    void count_perUser() {
+        Instant now = Instant.now();
+        record(1L, now);
+        record(2L, now);
+        record(2L, now);
+
+        assertThat(velocityTracker.count(1L, WINDOW, LIMIT)).isEqualTo(1);
+        assertThat(velocityTracker.count(2L, WINDOW, LIMIT)).isEqualTo(2);
+        assertThat(velocityTracker.count(3L, WINDOW, LIMIT)).isZero();
+    }
+
+    @Test
+    @DisplayName("Remove drops the entry even when the DB copy lost the millis")
+    void remove_toleratesTruncatedTimestamp() {
+        Instant createdAt = Instant.now();
+        record(1L, createdAt);
+
+        velocityTracker.remove(1L, 1L, createdAt.truncatedTo(ChronoUnit.SECONDS));
+
+        assertThat(velocityTracker.count(1L, WINDOW, LIMIT)).isZero();
+    }
+
+    @Test
+    @DisplayName("A full ring keeps the newest timestamps")
+    void record_fullRing_overwritesOldest() {
+        Instant now = Instant.now();
+        for (int i = 0; i < VelocityTracker.RING_CAPACITY + 4; i++) {
+            record(1L, now);
+        }
+
+        assertThat(velocityTracker.count(1L, WINDOW, LIMIT)).isEqualTo(VelocityTracker.RING_CAPACITY);
+    }
+
+    @Test
+    @DisplayName("Growing a stripe keeps active users")
+    void record_manyUsers_allRetained() {
+        Instant now = Instant.now();
+        for (long userId = 1; userId <= 5_000; userId++) {
+            record(userId, now);
+        }
+
+        assertThat(velocityTracker.trackedUsers()).isEqualTo(5_000);
+        for (long userId = 1; userId <= 5_000; userId++) {
+            assertThat(velocityTracker.count(userId, WINDOW, LIMIT)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Footprint and window counts are published as metrics")
+    void metrics_registered() {
+        record(1L, Instant.now());
+        velocityTracker.count(1L, WINDOW, LIMIT);
+
+        assertThat(meterRegistry.get("velocity.tracker.users").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("velocity.tracker.memory").gauge().value()).isPositive();
+        assertThat(meterRegistry.get("velocity.window.count").tag("window", WINDOW.toString())
+                .summary().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Shared count covers transactions created on other instances")
+    @SuppressWarnings("unchecked")
+    void count_shared_readsRedis() {
+        ZSetOperations<String, String> zset = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zset);
+        when(zset.count(eq("transaction:velocity:1"), anyDouble(), eq(Double.POSITIVE_INFINITY))).thenReturn(4L);
+        velocityTracker = new VelocityTracker(redisTemplate, meterRegistry, true);
+        record(1L, Instant.now());
+
+        assertThat(velocityTracker.count(1L, WINDOW, LIMIT)).isEqualTo(4);
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    @DisplayName("Shared count is skipped once this instance alone reaches the limit")
+    void count_localAtLimit_skipsRedis() {
+        velocityTracker = new VelocityTracker(redisTemplate, meterRegistry, true);
+        for (int i = 0; i < LIMIT; i++) {
+            record(1L, Instant.now());
+        }
+
+        assertThat(velocityTracker.count(1L, WINDOW, LIMIT)).isEqualTo(LIMIT);
+        verify(redisTemplate, never()).opsForZSet();
+    }
+
+    @Test
+    @DisplayName("Unreachable Redis falls back to this instance's count")
+    void count_redisDown_countsLocally() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("Connection refused"));
+        when(redisTemplate.opsForZSet()).thenThrow(new RedisConnectionFailureException("Connection refused"));
+        velocityTracker = new VelocityTracker(redisTemplate, meterRegistry, true);
+        record(1L, Instant.now());
+
+        assertThat(velocityTracker.count(1L, WINDOW, LIMIT)).isEqualTo(1);
+        assertThat(meterRegistry.counter("velocity.tracker.shared.failures").count()).isEqualTo(2.0);
+    }
+}